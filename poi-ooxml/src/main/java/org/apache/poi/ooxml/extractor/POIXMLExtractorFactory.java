@@ -21,6 +21,7 @@ import static org.apache.poi.extractor.ExtractorFactory.OOXML_PACKAGE;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 
 import org.apache.poi.extractor.ExtractorFactory;
 import org.apache.poi.extractor.ExtractorProvider;
@@ -39,6 +40,7 @@ import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.xdgf.extractor.XDGFVisioExtractor;
+import org.apache.poi.xslf.extractor.XSLFEventBasedExtractor;
 import org.apache.poi.xslf.extractor.XSLFExtractor;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFRelation;
@@ -46,6 +48,7 @@ import org.apache.poi.xssf.extractor.XSSFBEventBasedExcelExtractor;
 import org.apache.poi.xssf.extractor.XSSFEventBasedExcelExtractor;
 import org.apache.poi.xssf.extractor.XSSFExcelExtractor;
 import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xwpf.extractor.XWPFEventBasedWordExtractor;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.apache.xmlbeans.XmlException;
@@ -142,6 +145,26 @@ public final class POIXMLExtractorFactory implements ExtractorProvider {
         }
     }
 
+    @Override
+    public POITextExtractor create(FileChannel channel, String password) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(channel);
+            POIXMLTextExtractor ex = create(pkg);
+            if (ex == null) {
+                pkg.revert();
+            }
+            return ex;
+        } catch (InvalidFormatException ife) {
+            throw new IOException(ife);
+        } catch (IOException e) {
+            if (pkg != null) {
+                pkg.revert();
+            }
+            throw e;
+        }
+    }
+
     public POITextExtractor create(InputStream inp, String password) throws IOException {
         InputStream is = FileMagic.prepareToCheckMagic(inp);
 
@@ -216,6 +239,9 @@ public final class POIXMLExtractorFactory implements ExtractorProvider {
             // Is it XWPF?
             for (XWPFRelation rel : XWPFWordExtractor.SUPPORTED_TYPES) {
                 if (rel.getContentType().equals(contentType)) {
+                    if (getPreferEventExtractor()) {
+                        return new XWPFEventBasedWordExtractor(pkg);
+                    }
                     return new XWPFWordExtractor(pkg);
                 }
             }
@@ -223,6 +249,9 @@ public final class POIXMLExtractorFactory implements ExtractorProvider {
             // Is it XSLF?
             for (XSLFRelation rel : SUPPORTED_XSLF_TYPES) {
                 if (rel.getContentType().equals(contentType)) {
+                    if (getPreferEventExtractor()) {
+                        return new XSLFEventBasedExtractor(pkg);
+                    }
                     return new XSLFExtractor(new XMLSlideShow(pkg));
                 }
             }
@@ -98,7 +98,20 @@ public interface POIXMLTextExtractor extends POITextExtractor {
             return;
         }
 
-        int size = text.length() + string.length();
+        checkMaxTextSize(text.length(), string.length());
+    }
+
+    /**
+     * Checks the max text size for text, which isn't kept in a buffer, e.g. because it has already been
+     * written to the output
+     *
+     * @param textSize the number of characters, which have been extracted so far
+     * @param addedSize the number of characters to be added
+     *
+     * @since POI 5.0.1
+     */
+    default void checkMaxTextSize(long textSize, long addedSize) {
+        long size = textSize + addedSize;
         if(size > ZipSecureFile.getMaxTextSize()) {
             throw new IllegalStateException("The text would exceed the max allowed overall size of extracted text. "
                     + "By default this is prevented as some documents may exhaust available memory and it may indicate that the file is used to inflate memory usage and thus could pose a security risk. "
@@ -32,6 +32,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -292,6 +296,85 @@ public abstract class OPCPackage implements RelationshipSource, Closeable {
 	   }
    }
 
+   /**
+    * Open a package. The file is opened only once, i.e. the zip header check
+    * and the zip archive share the same {@link FileChannel}.
+    *
+    * @param path
+    *            The file to open.
+    * @param access
+    *            PackageBase access.
+    * @return A PackageBase object
+    * @throws InvalidFormatException
+    *             If the specified file doesn't exist, and a parsing error
+    *             occur.
+    * @throws InvalidOperationException If the zip file cannot be opened.
+    *
+    * @since POI 5.0.1
+    */
+   @SuppressWarnings("java:S2095")
+   public static OPCPackage open(Path path, PackageAccess access)
+         throws InvalidFormatException, InvalidOperationException {
+      if (path == null) {
+          throw new IllegalArgumentException("'path' must be given");
+      }
+      if (access == PackageAccess.WRITE || !Files.isRegularFile(path)) {
+          return open(path.toFile(), access);
+      }
+
+      final FileChannel channel;
+      try {
+          channel = FileChannel.open(path, StandardOpenOption.READ);
+      } catch (IOException e) {
+          throw new InvalidOperationException("Can't open the specified file: '" + path + "'", e);
+      }
+
+      final String name = path.toAbsolutePath().toString();
+      OPCPackage pack = open(channel, name, access);
+      pack.originalPackagePath = name;
+      return pack;
+   }
+
+   /**
+    * Open a package with read-only permission from an open {@link FileChannel}.
+    * The file magic can be checked on the channel before, e.g. via
+    * {@link org.apache.poi.poifs.filesystem.FileMagic#valueOf(FileChannel)}, as the channel
+    * is read from the start. The package takes over the channel and closes it, when the package
+    * is reverted or if the package can't be opened.
+    *
+    * @param channel
+    *            The channel to read the package from.
+    * @return A PackageBase object
+    * @throws InvalidFormatException if a parsing error occur.
+    * @throws InvalidOperationException If the zip file cannot be opened.
+    *
+    * @since POI 5.0.1
+    */
+   public static OPCPackage open(FileChannel channel) throws InvalidFormatException, InvalidOperationException {
+      return open(channel, "unknown archive", PackageAccess.READ);
+   }
+
+   private static OPCPackage open(FileChannel channel, String name, PackageAccess access)
+         throws InvalidFormatException, InvalidOperationException {
+      final OPCPackage pack;
+      try {
+          pack = new ZipPackage(channel, name, access);
+      } catch (RuntimeException e) {
+          IOUtils.closeQuietly(channel);
+          throw e;
+      }
+      try {
+          if (pack.partList == null) {
+              pack.getParts();
+          }
+          return pack;
+      } catch (InvalidFormatException | RuntimeException e) {
+          // revert instead of close, to not save the package
+          pack.revert();
+          throw e;
+      }
+   }
+
 	/**
 	 * Open a package.
 	 *
@@ -26,6 +26,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -152,6 +154,41 @@ public final class ZipPackage extends OPCPackage {
         this.zipArchive = ze;
     }
 
+    /**
+     * Constructor. Opens a Zip based Open XML document from an open FileChannel.
+     * The package takes over the channel.
+     *
+     * @param channel
+     *            The channel of the file to open.
+     * @param name
+     *            The path name of the file.
+     * @param access
+     *            The package access mode.
+     * @throws InvalidOperationException If the zip file cannot be opened.
+     */
+    ZipPackage(FileChannel channel, String name, PackageAccess access) throws InvalidOperationException {
+        super(access);
+
+        ZipEntrySource ze;
+        try {
+            final ZipFile zipFile = ZipHelper.openZipFile(channel, name); // NOSONAR
+            ze = new ZipFileZipEntrySource(zipFile);
+        } catch (IOException e) {
+            if (access == PackageAccess.WRITE) {
+                throw new InvalidOperationException("Can't open the specified file: '" + name + "'", e);
+            }
+
+            LOG.atError().log("Error in zip file {} - falling back to stream processing (i.e. ignoring zip central directory)", name);
+            try {
+                channel.position(0);
+            } catch (IOException ex) {
+                throw new InvalidOperationException("Can't open the specified file: '" + name + "'", ex);
+            }
+            ze = openZipEntrySourceStream(Channels.newInputStream(channel));
+        }
+        this.zipArchive = ze;
+    }
+
     private static ZipEntrySource openZipEntrySourceStream(File file) throws InvalidOperationException {
         final FileInputStream fis;
         // Acquire a resource that is needed to read the next level of openZipEntrySourceStream
@@ -178,7 +215,7 @@ public final class ZipPackage extends OPCPackage {
         }
     }
 
-    private static ZipEntrySource openZipEntrySourceStream(FileInputStream fis) throws InvalidOperationException {
+    private static ZipEntrySource openZipEntrySourceStream(InputStream fis) throws InvalidOperationException {
         final ZipArchiveThresholdInputStream zis;
         // Acquire a resource that is needed to read the next level of openZipEntrySourceStream
         try {
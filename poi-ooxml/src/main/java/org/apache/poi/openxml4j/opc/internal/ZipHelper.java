@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
@@ -140,8 +141,10 @@ public final class ZipHelper {
      */
     private static void verifyZipHeader(InputStream stream) throws NotOfficeXmlFileException, IOException {
         InputStream is = FileMagic.prepareToCheckMagic(stream);
-        FileMagic fm = FileMagic.valueOf(is);
+        verifyZipHeader(FileMagic.valueOf(is));
+    }
 
+    private static void verifyZipHeader(FileMagic fm) throws NotOfficeXmlFileException {
         switch (fm) {
         case OLE2:
             throw new OLE2NotOfficeXmlFileException(
@@ -205,6 +208,25 @@ public final class ZipHelper {
         return new ZipSecureFile(file);
     }
 
+    /**
+     * Opens the specified channel as a secure zip. The header signature is checked
+     *  without changing the channel position. The zip file takes over the channel.
+     *
+     * @param channel
+     *            The channel of the file to open.
+     * @param name
+     *            The path name of the file.
+     * @return The zip archive freshly open.
+     * @throws IOException if the zip file cannot be read
+     * @throws NotOfficeXmlFileException if the channel does not start with zip header signature
+     *
+     * @since POI 5.0.1
+     */
+    public static ZipSecureFile openZipFile(FileChannel channel, String name) throws IOException, NotOfficeXmlFileException {
+        verifyZipHeader(FileMagic.valueOf(channel));
+        return new ZipSecureFile(channel, name);
+    }
+
     /**
      * Retrieve and open as a secure zip file with the specified path.
      *
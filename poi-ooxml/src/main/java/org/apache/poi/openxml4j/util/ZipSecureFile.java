@@ -19,6 +19,7 @@ package org.apache.poi.openxml4j.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
@@ -128,6 +129,19 @@ public class ZipSecureFile extends ZipFile {
         this.fileName = new File(name).getAbsolutePath();
     }
 
+    /**
+     * Opens the zip archive from an open channel. The channel is closed, when this file is closed.
+     *
+     * @param channel the channel of the archive
+     * @param name the path name of the archive, used in error messages
+     *
+     * @since POI 5.0.1
+     */
+    public ZipSecureFile(SeekableByteChannel channel, String name) throws IOException {
+        super(channel, name, "UTF8", true);
+        this.fileName = name;
+    }
+
     /**
      * Returns an input stream for reading the contents of the specified
      * zip file entry.
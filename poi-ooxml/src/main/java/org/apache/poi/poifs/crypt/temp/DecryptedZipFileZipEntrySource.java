@@ -0,0 +1,111 @@
+/*
+ *  ====================================================================
+ *    Licensed to the Apache Software Foundation (ASF) under one or more
+ *    contributor license agreements.  See the NOTICE file distributed with
+ *    this work for additional information regarding copyright ownership.
+ *    The ASF licenses this file to You under the Apache License, Version 2.0
+ *    (the "License"); you may not use this file except in compliance with
+ *    the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ * ====================================================================
+ */
+
+package org.apache.poi.poifs.crypt.temp;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.util.ZipFileZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.crypt.agile.AgileDecryptor;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+
+/**
+ * A <code>ZipEntrySource</code> for an encrypted OOXML package, which is decrypted
+ * into a temp file up front.<p>
+ *
+ * In contrast to opening the {@link Decryptor#getDataStream(DirectoryNode) decrypted stream},
+ * which is read completely into memory, the entries are read on demand from the temp file
+ * via its central directory.  Agile encrypted packages are decrypted by several threads.<p>
+ *
+ * The temp file contains the package in plain text and is removed when this source is closed.
+ * Use {@link AesZipFileZipEntrySource} if the decrypted data must not be stored on disk.
+ *
+ * @since POI 5.0.1
+ */
+public final class DecryptedZipFileZipEntrySource extends ZipFileZipEntrySource {
+    private static final Logger LOG = LogManager.getLogger(DecryptedZipFileZipEntrySource.class);
+
+    private final File tmpFile;
+
+    private DecryptedZipFileZipEntrySource(File tmpFile) throws IOException {
+        super(new ZipSecureFile(tmpFile));
+        this.tmpFile = tmpFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        boolean wasClosed = isClosed();
+        super.close();
+        if (!wasClosed && !tmpFile.delete()) {
+            LOG.atWarn().log("{} can't be removed (or was already removed.", tmpFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Decrypts the package with one thread per available processor
+     *
+     * @param dec the decryptor, whose password has already been verified
+     * @param dir the directory containing the EncryptedPackage stream
+     */
+    public static DecryptedZipFileZipEntrySource createZipEntrySource(Decryptor dec, DirectoryNode dir)
+    throws IOException, GeneralSecurityException {
+        return createZipEntrySource(dec, dir, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param dec the decryptor, whose password has already been verified
+     * @param dir the directory containing the EncryptedPackage stream
+     * @param parallelism the number of threads decrypting agile encrypted packages,
+     *  other encryption modes are decrypted sequentially
+     */
+    public static DecryptedZipFileZipEntrySource createZipEntrySource(Decryptor dec, DirectoryNode dir, int parallelism)
+    throws IOException, GeneralSecurityException {
+        final File tmpFile = TempFile.createTempFile("decryptedOOXML", ".zip");
+        boolean success = false;
+        try {
+            try (OutputStream os = new FileOutputStream(tmpFile)) {
+                if (dec instanceof AgileDecryptor) {
+                    ((AgileDecryptor)dec).decryptPackage(dir, os, parallelism);
+                } else {
+                    try (InputStream is = dec.getDataStream(dir)) {
+                        IOUtils.copy(is, os);
+                    }
+                }
+            }
+            DecryptedZipFileZipEntrySource source = new DecryptedZipFileZipEntrySource(tmpFile);
+            success = true;
+            return source;
+        } finally {
+            if (!success && !tmpFile.delete()) {
+                LOG.atWarn().log("{} can't be removed (or was already removed.", tmpFile.getAbsolutePath());
+            }
+        }
+    }
+}
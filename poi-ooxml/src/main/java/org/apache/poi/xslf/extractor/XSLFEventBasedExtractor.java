@@ -0,0 +1,495 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xslf.extractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CoreProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CustomProperties;
+import org.apache.poi.ooxml.POIXMLProperties.ExtendedProperties;
+import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageNamespaces;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xslf.usermodel.XSLFRelation;
+import org.apache.xmlbeans.XmlException;
+
+/**
+ * Implementation of a text extractor from OOXML PowerPoint
+ * files that uses StAX event based parsing.
+ * <p>
+ * Instead of loading an {@link org.apache.poi.xslf.usermodel.XMLSlideShow}, the slide,
+ * notes and comment parts are streamed one after the other and only the text bodies
+ * are evaluated - the layouts, masters and charts are not read at all.
+ * <p>
+ * The text is laid out like the text of {@link XSLFExtractor}, but as the inherited
+ * properties aren't available, the text capitalization is only applied when it's
+ * set on the text run itself.
+ *
+ * @since POI 5.0.1
+ */
+public class XSLFEventBasedExtractor implements POIXMLTextExtractor {
+
+    private static final Logger LOGGER = LogManager.getLogger(XSLFEventBasedExtractor.class);
+
+    private static final String NS_PRESENTATIONML = "http://schemas.openxmlformats.org/presentationml/2006/main";
+    private static final String NS_DRAWINGML = "http://schemas.openxmlformats.org/drawingml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final XMLInputFactory STAX_FACTORY = XMLHelper.newXMLInputFactory();
+
+    protected final OPCPackage container;
+    protected final POIXMLProperties properties;
+    private final PackagePart presentationPart;
+
+    private boolean slidesByDefault = true;
+    private boolean notesByDefault;
+    private boolean commentsByDefault;
+    private boolean doCloseFilesystem = true;
+
+    public XSLFEventBasedExtractor(String path) throws XmlException, OpenXML4JException, IOException {
+        this(OPCPackage.open(path));
+    }
+
+    public XSLFEventBasedExtractor(OPCPackage container) throws XmlException, OpenXML4JException, IOException {
+        this.container = container;
+        properties = new POIXMLProperties(container);
+
+        PackageRelationshipCollection core = container.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT);
+        if (core.size() != 1) {
+            throw new POIXMLException("OOXML file structure broken/invalid - no core document found!");
+        }
+        presentationPart = container.getPart(core.getRelationship(0));
+    }
+
+    /**
+     * Should a call to getText() return slide text? Default is yes
+     */
+    public void setSlidesByDefault(final boolean slidesByDefault) {
+        this.slidesByDefault = slidesByDefault;
+    }
+
+    /**
+     * Should a call to getText() return notes text? Default is no
+     */
+    public void setNotesByDefault(final boolean notesByDefault) {
+        this.notesByDefault = notesByDefault;
+    }
+
+    /**
+     * Should a call to getText() return comments text? Default is no
+     */
+    public void setCommentsByDefault(final boolean commentsByDefault) {
+        this.commentsByDefault = commentsByDefault;
+    }
+
+    /**
+     * Returns the opened OPCPackage container.
+     */
+    @Override
+    public OPCPackage getPackage() {
+        return container;
+    }
+
+    /**
+     * Returns the core document properties
+     */
+    @Override
+    public CoreProperties getCoreProperties() {
+        return properties.getCoreProperties();
+    }
+
+    /**
+     * Returns the extended document properties
+     */
+    @Override
+    public ExtendedProperties getExtendedProperties() {
+        return properties.getExtendedProperties();
+    }
+
+    /**
+     * Returns the custom document properties
+     */
+    @Override
+    public CustomProperties getCustomProperties() {
+        return properties.getCustomProperties();
+    }
+
+    /**
+     * Fetches all the slide text from the slideshow, but not the notes, unless
+     * you've called setSlidesByDefault() and setNotesByDefault() to change this
+     */
+    @Override
+    public String getText() {
+        StringBuilder text = new StringBuilder();
+        try {
+            writeText(text);
+            return text.toString();
+        } catch (IOException e) {
+            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
+            return null;
+        }
+    }
+
+    /**
+     * Writes the text slide by slide, without buffering the text of the whole slideshow
+     */
+    @Override
+    public void writeText(Appendable text) throws IOException {
+        try {
+            Map<String, String> authors = null;
+            for (PackagePart slidePart : getSlideParts()) {
+                if (slidesByDefault) {
+                    appendShapeText(slidePart, text);
+                }
+                if (commentsByDefault) {
+                    if (authors == null) {
+                        authors = readCommentAuthors();
+                    }
+                    for (PackagePart commentsPart : getRelatedParts(slidePart, XSLFRelation.COMMENTS)) {
+                        appendComments(commentsPart, authors, text);
+                    }
+                }
+                if (notesByDefault) {
+                    for (PackagePart notesPart : getRelatedParts(slidePart, XSLFRelation.NOTES)) {
+                        appendShapeText(notesPart, text);
+                    }
+                }
+            }
+        } catch (XMLStreamException | InvalidFormatException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @return the slide parts in the order of the slide id list of the presentation
+     */
+    private List<PackagePart> getSlideParts() throws IOException, XMLStreamException, InvalidFormatException {
+        List<PackagePart> slides = new ArrayList<>();
+        try (InputStream is = presentationPart.getInputStream()) {
+            XMLStreamReader reader = STAX_FACTORY.createXMLStreamReader(is);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && isElement(reader, NS_PRESENTATIONML, "sldId")) {
+                        PackageRelationship rel = presentationPart.getRelationship(
+                            reader.getAttributeValue(NS_RELATIONSHIPS, "id"));
+                        if (rel != null) {
+                            slides.add(presentationPart.getRelatedPart(rel));
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return slides;
+    }
+
+    private static List<PackagePart> getRelatedParts(PackagePart part, XSLFRelation relation)
+    throws InvalidFormatException {
+        List<PackagePart> parts = new ArrayList<>();
+        for (PackageRelationship rel : part.getRelationshipsByType(relation.getRelation())) {
+            parts.add(part.getRelatedPart(rel));
+        }
+        return parts;
+    }
+
+    private Map<String, String> readCommentAuthors() throws IOException, XMLStreamException, InvalidFormatException {
+        Map<String, String> authors = new HashMap<>();
+        for (PackagePart authorsPart : getRelatedParts(presentationPart, XSLFRelation.COMMENT_AUTHORS)) {
+            try (InputStream is = authorsPart.getInputStream()) {
+                XMLStreamReader reader = STAX_FACTORY.createXMLStreamReader(is);
+                try {
+                    while (reader.hasNext()) {
+                        if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && isElement(reader, NS_PRESENTATIONML, "cmAuthor")) {
+                            authors.put(reader.getAttributeValue(null, "id"), reader.getAttributeValue(null, "name"));
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+        }
+        return authors;
+    }
+
+    private static void appendComments(PackagePart commentsPart, Map<String, String> authors, Appendable text)
+    throws IOException, XMLStreamException {
+        try (InputStream is = commentsPart.getInputStream()) {
+            XMLStreamReader reader = STAX_FACTORY.createXMLStreamReader(is);
+            try {
+                String author = null;
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if (isElement(reader, NS_PRESENTATIONML, "cm")) {
+                        author = authors.get(reader.getAttributeValue(null, "authorId"));
+                    } else if (isElement(reader, NS_PRESENTATIONML, "text")) {
+                        text.append(author).append(" - ").append(reader.getElementText());
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private static void appendShapeText(PackagePart sheetPart, Appendable text)
+    throws IOException, XMLStreamException {
+        try (InputStream is = sheetPart.getInputStream()) {
+            XMLStreamReader reader = STAX_FACTORY.createXMLStreamReader(is);
+            try {
+                new ShapeTextReader(reader, text).read();
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private static boolean isElement(XMLStreamReader reader, String namespace, String localName) {
+        return localName.equals(reader.getLocalName()) && namespace.equals(reader.getNamespaceURI());
+    }
+
+    @Override
+    public POIXMLDocument getDocument() {
+        return null;
+    }
+
+    @Override
+    public void setCloseFilesystem(boolean doCloseFilesystem) {
+        this.doCloseFilesystem = doCloseFilesystem;
+    }
+
+    @Override
+    public boolean isCloseFilesystem() {
+        return doCloseFilesystem;
+    }
+
+    @Override
+    public OPCPackage getFilesystem() {
+        return container;
+    }
+
+    /**
+     * Reads the text of the shapes of a slide or notes part with the layout of
+     * {@link org.apache.poi.sl.extractor.SlideShowExtractor}, i.e. each text paragraph is followed
+     * by a line break and the table cells are separated by tabs
+     */
+    private static final class ShapeTextReader {
+        private final XMLStreamReader reader;
+        private final Appendable text;
+
+        private int depth;
+        private int skipDepth;
+        /** the depths of the alternate content elements, whose first choice was already processed */
+        private final BitSet choiceTaken = new BitSet();
+
+        /** 0xB acts like carriage return in titles and like blank in the others */
+        private char verticalTabReplacement = ' ';
+
+        private int runDepth = -1;
+        private boolean inRunText;
+        private String textCap;
+        private final StringBuilder run = new StringBuilder();
+
+        private int columns;
+        private int column;
+        private String cellTrailer;
+
+        ShapeTextReader(XMLStreamReader reader, Appendable text) {
+            this.reader = reader;
+            this.text = text;
+        }
+
+        void read() throws IOException, XMLStreamException {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (skipDepth > 0) {
+                            skipDepth++;
+                        } else {
+                            startElement(reader.getNamespaceURI(), reader.getLocalName());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (skipDepth > 0) {
+                            skipDepth--;
+                        } else {
+                            endElement(reader.getNamespaceURI(), reader.getLocalName());
+                        }
+                        depth--;
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        if (inRunText && skipDepth == 0) {
+                            run.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        private void startElement(String namespace, String localName) throws IOException {
+            if (PackageNamespaces.MARKUP_COMPATIBILITY.equals(namespace)) {
+                switch (localName) {
+                    case "AlternateContent":
+                        choiceTaken.clear(depth);
+                        break;
+                    case "Choice":
+                        // like XSLFSheet.buildShapes only the first choice is used
+                        if (choiceTaken.get(depth - 1)) {
+                            skipDepth = 1;
+                        } else {
+                            choiceTaken.set(depth - 1);
+                        }
+                        break;
+                    case "Fallback":
+                        skipDepth = 1;
+                        break;
+                    default:
+                        break;
+                }
+            } else if (NS_PRESENTATIONML.equals(namespace)) {
+                switch (localName) {
+                    case "sp":
+                    case "graphicFrame":
+                        verticalTabReplacement = ' ';
+                        break;
+                    case "ph":
+                        String type = reader.getAttributeValue(null, "type");
+                        if ("title".equals(type) || "ctrTitle".equals(type) || "subTitle".equals(type)) {
+                            verticalTabReplacement = '\n';
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } else if (NS_DRAWINGML.equals(namespace)) {
+                switch (localName) {
+                    case "r":
+                    case "fld":
+                        runDepth = depth;
+                        run.setLength(0);
+                        textCap = null;
+                        break;
+                    case "rPr":
+                        if (depth == runDepth + 1) {
+                            textCap = reader.getAttributeValue(null, "cap");
+                        }
+                        break;
+                    case "t":
+                        inRunText = runDepth >= 0;
+                        break;
+                    case "br":
+                        if (runDepth < 0) {
+                            text.append('\n');
+                        }
+                        break;
+                    case "tbl":
+                        columns = 0;
+                        break;
+                    case "gridCol":
+                        columns++;
+                        break;
+                    case "tr":
+                        column = -1;
+                        cellTrailer = "";
+                        break;
+                    case "tc":
+                        if (++column < columns) {
+                            cellTrailer = (column < columns - 1) ? "\t" : "\n";
+                        } else {
+                            skipDepth = 1;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        private void endElement(String namespace, String localName) throws IOException {
+            if (!NS_DRAWINGML.equals(namespace)) {
+                return;
+            }
+            switch (localName) {
+                case "r":
+                case "fld":
+                    if (depth == runDepth) {
+                        runDepth = -1;
+                        appendRun();
+                    }
+                    break;
+                case "t":
+                    inRunText = false;
+                    break;
+                case "p":
+                    text.append(cellTrailer != null ? cellTrailer : "\n");
+                    break;
+                case "tr":
+                    if (!"\n".equals(cellTrailer)) {
+                        text.append('\n');
+                    }
+                    cellTrailer = null;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void appendRun() throws IOException {
+            // PowerPoint seems to store files with \r as the line break
+            String txt = run.toString().replace('\r', '\n').replace((char) 0x0B, verticalTabReplacement);
+            if ("all".equals(textCap)) {
+                txt = txt.toUpperCase(LocaleUtil.getUserLocale());
+            } else if ("small".equals(textCap)) {
+                txt = txt.toLowerCase(LocaleUtil.getUserLocale());
+            }
+            text.append(txt);
+        }
+    }
+}
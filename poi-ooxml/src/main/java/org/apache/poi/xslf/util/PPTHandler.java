@@ -98,6 +98,10 @@ class PPTHandler extends MFProxy {
         return ppt.getPageSize();
     }
 
+    SlideShow<?,?> getSlideShow() {
+        return ppt;
+    }
+
     @Override
     public int getSlideCount() {
         return ppt.getSlides().size();
@@ -23,24 +23,31 @@ import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.Dimension2D;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import javax.imageio.ImageIO;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.sl.draw.Drawable;
 import org.apache.poi.sl.draw.EmbeddedExtractor.EmbeddedPart;
+import org.apache.poi.sl.draw.SlideShowRenderer;
 import org.apache.poi.util.Dimension2DDouble;
 import org.apache.poi.util.GenericRecordJsonWriter;
 import org.apache.poi.util.LocaleUtil;
@@ -84,7 +91,9 @@ public final class PPTX2PNG {
             "    -fontdir <dir>    (PDF only) font directories separated by \";\" - use $HOME for current users home dir\n" +
             "                      defaults to the usual plattform directories\n" +
             "    -fontTtf <regex>  (PDF only) regex to match the .ttf filenames\n" +
-            "    -fontMap <map>    \";\"-separated list of font mappings <typeface from>:<typeface to>";
+            "    -fontMap <map>    \";\"-separated list of font mappings <typeface from>:<typeface to>\n" +
+            "    -threads <int>    (png,gif,jpg only) number of threads for rendering the slides of a slideshow,\n" +
+            "                      defaults to 1";
 
         System.out.println(msg);
         // no System.exit here, as we also run in junit tests!
@@ -117,6 +126,7 @@ public final class PPTX2PNG {
     private String fontDir = null;
     private String fontTtf = null;
     private String fontMap = null;
+    private int threads = 1;
 
     private PPTX2PNG() {
     }
@@ -229,6 +239,12 @@ public final class PPTX2PNG {
                         fontMap = null;
                     }
                     break;
+                case "-threads":
+                    if (opt != null) {
+                        threads = Integer.parseInt(opt);
+                        i++;
+                    }
+                    break;
                 default:
                     file = new File(args[i]);
                     break;
@@ -270,6 +286,11 @@ public final class PPTX2PNG {
             return false;
         }
 
+        if (threads < 1) {
+            usage("Invalid thread count given");
+            return false;
+        }
+
         if (!"long,short,width,height,scale".contains(fixSide)) {
             usage("<fixside> must be one of long / short / width / height");
             return false;
@@ -297,48 +318,49 @@ public final class PPTX2PNG {
             final int width = Math.max((int)Math.rint(dim.getWidth()),1);
             final int height = Math.max((int)Math.rint(dim.getHeight()),1);
 
-            try (OutputFormat outputFormat = getOutput()) {
-                for (int slideNo : slidenum) {
-                    proxy.setSlideNo(slideNo);
-                    if (!quiet) {
-                        String title = proxy.getTitle();
-                        System.out.println("Rendering slide " + slideNo + (title == null ? "" : ": " + title.trim()));
-                    }
-
-                    dumpRecords(proxy);
-
-                    extractEmbedded(proxy, slideNo);
-
-                    Graphics2D graphics = outputFormat.addSlide(width, height);
-
-                    // default rendering options
-                    graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                    graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
-                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                    graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-                    graphics.setRenderingHint(Drawable.DEFAULT_CHARSET, getDefaultCharset());
-                    graphics.setRenderingHint(Drawable.EMF_FORCE_HEADER_BOUNDS, emfHeaderBounds);
-                    if (fontMap != null) {
-                        Map<String,String> fmap = Arrays.stream(fontMap.split(";"))
-                            .map(s -> s.split(":"))
-                            .collect(Collectors.toMap(s -> s[0], s -> s[1]));
-                        graphics.setRenderingHint(Drawable.FONT_MAP, fmap);
+            if (threads > 1 && scale > 0 && proxy instanceof PPTHandler && format.matches("^(png|gif|jpg)$")) {
+                renderParallel((PPTHandler)proxy, slidenum, lenSide);
+            } else {
+                try (OutputFormat outputFormat = getOutput()) {
+                    for (int slideNo : slidenum) {
+                        proxy.setSlideNo(slideNo);
+                        if (!quiet) {
+                            String title = proxy.getTitle();
+                            System.out.println("Rendering slide " + slideNo + (title == null ? "" : ": " + title.trim()));
+                        }
+
+                        dumpRecords(proxy);
+
+                        extractEmbedded(proxy, slideNo);
+
+                        Graphics2D graphics = outputFormat.addSlide(width, height);
+
+                        // default rendering options
+                        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                        graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+                        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+                        graphics.setRenderingHint(Drawable.DEFAULT_CHARSET, getDefaultCharset());
+                        graphics.setRenderingHint(Drawable.EMF_FORCE_HEADER_BOUNDS, emfHeaderBounds);
+                        if (fontMap != null) {
+                            graphics.setRenderingHint(Drawable.FONT_MAP, getFontMap());
+                        }
+
+                        graphics.scale(scale / lenSide, scale / lenSide);
+
+                        graphics.setComposite(AlphaComposite.Clear);
+                        graphics.fillRect(0, 0, width, height);
+                        graphics.setComposite(AlphaComposite.SrcOver);
+
+                        // draw stuff
+                        proxy.draw(graphics);
+
+                        outputFormat.writeSlide(proxy, new File(outdir, calcOutFile(proxy, slideNo)));
                     }
 
-                    graphics.scale(scale / lenSide, scale / lenSide);
-
-                    graphics.setComposite(AlphaComposite.Clear);
-                    graphics.fillRect(0, 0, width, height);
-                    graphics.setComposite(AlphaComposite.SrcOver);
-
-                    // draw stuff
-                    proxy.draw(graphics);
-
-                    outputFormat.writeSlide(proxy, new File(outdir, calcOutFile(proxy, slideNo)));
+                    outputFormat.writeDocument(proxy, new File(outdir, calcOutFile(proxy, 0)));
                 }
-
-                outputFormat.writeDocument(proxy, new File(outdir, calcOutFile(proxy, 0)));
             }
 
         } catch (NoScratchpadException e) {
@@ -351,6 +373,61 @@ public final class PPTX2PNG {
         }
     }
 
+    /**
+     * Renders the slides of a slideshow on a thread pool, the images are written by the calling thread
+     */
+    private void renderParallel(PPTHandler proxy, Set<Integer> slidenum, double lenSide) throws IOException {
+        for (int slideNo : slidenum) {
+            proxy.setSlideNo(slideNo);
+            if (!quiet) {
+                String title = proxy.getTitle();
+                System.out.println("Rendering slide " + slideNo + (title == null ? "" : ": " + title.trim()));
+            }
+
+            dumpRecords(proxy);
+
+            extractEmbedded(proxy, slideNo);
+        }
+
+        final SlideShowRenderer renderer = new SlideShowRenderer(proxy.getSlideShow());
+        renderer.setScale(scale / lenSide);
+        renderer.setRenderingHint(Drawable.DEFAULT_CHARSET, getDefaultCharset());
+        renderer.setRenderingHint(Drawable.EMF_FORCE_HEADER_BOUNDS, emfHeaderBounds);
+        if (fontMap != null) {
+            renderer.setRenderingHint(Drawable.FONT_MAP, getFontMap());
+        }
+
+        final List<Integer> slideIdxs = slidenum.stream().map(slideNo -> slideNo - 1).collect(Collectors.toList());
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, slideIdxs.size()));
+        try {
+            renderer.renderSlides(slideIdxs, executor, (slideIdx, img) ->
+                writeImage(img, new File(outdir, calcOutFile(proxy, slideIdx + 1))));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writeImage(BufferedImage img, File outFile) throws IOException {
+        BufferedImage out = img;
+        if ("jpg".equals(format)) {
+            // jpg has no alpha channel
+            out = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = out.createGraphics();
+            try {
+                graphics.drawImage(img, 0, 0, null);
+            } finally {
+                graphics.dispose();
+            }
+        }
+        ImageIO.write(out, format, outFile);
+    }
+
+    private Map<String,String> getFontMap() {
+        return Arrays.stream(fontMap.split(";"))
+            .map(s -> s.split(":"))
+            .collect(Collectors.toMap(s -> s[0], s -> s[1]));
+    }
+
     private OutputFormat getOutput() {
         switch (format) {
             case "svg": {
@@ -18,6 +18,7 @@ package org.apache.poi.xssf.extractor;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -103,44 +104,59 @@ public class XSSFBEventBasedExcelExtractor extends XSSFEventBasedExcelExtractor
      * Processes the file and returns the text
      */
     public String getText() {
+        StringBuilder text = new StringBuilder(64);
+        try {
+            writeText(text);
+            return text.toString();
+        } catch (IOException e) {
+            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
+            return null;
+        }
+    }
+
+    /**
+     * Processes the file and writes the text sheet by sheet.
+     * Without the headers and footers, the rows are written as soon as they are parsed.
+     */
+    @Override
+    public void writeText(Appendable output) throws IOException {
         try {
             XSSFBSharedStringsTable strings = new XSSFBSharedStringsTable(getPackage());
             XSSFBReader xssfbReader = new XSSFBReader(getPackage());
             XSSFBStylesTable styles = xssfbReader.getXSSFBStylesTable();
             XSSFBReader.SheetIterator iter = (XSSFBReader.SheetIterator) xssfbReader.getSheetsData();
 
-            StringBuilder text = new StringBuilder(64);
             SheetTextExtractor sheetExtractor = new SheetTextExtractor();
+            TextOutput text = sheetExtractor.setOutput(output, !getIncludeHeadersFooters());
             XSSFBHyperlinksTable hyperlinksTable = null;
             while (iter.hasNext()) {
-                InputStream stream = iter.next();
-                if (getIncludeSheetNames()) {
-                    text.append(iter.getSheetName());
-                    text.append('\n');
-                }
-                if (handleHyperlinksInCells) {
-                    hyperlinksTable = new XSSFBHyperlinksTable(iter.getSheetPart());
-                }
-                XSSFBCommentsTable comments = getIncludeCellComments() ? iter.getXSSFBSheetComments() : null;
-                processSheet(sheetExtractor, styles, comments, strings, stream);
-                if (getIncludeHeadersFooters()) {
-                    sheetExtractor.appendHeaderText(text);
-                }
-                sheetExtractor.appendCellText(text);
-                if (getIncludeTextBoxes()) {
-                    processShapes(iter.getShapes(), text);
-                }
-                if (getIncludeHeadersFooters()) {
-                    sheetExtractor.appendFooterText(text);
+                try (InputStream stream = iter.next()) {
+                    if (getIncludeSheetNames()) {
+                        text.append(iter.getSheetName());
+                        text.append('\n');
+                    }
+                    if (handleHyperlinksInCells) {
+                        hyperlinksTable = new XSSFBHyperlinksTable(iter.getSheetPart());
+                    }
+                    XSSFBCommentsTable comments = getIncludeCellComments() ? iter.getXSSFBSheetComments() : null;
+                    processSheet(sheetExtractor, styles, comments, strings, stream);
+                    if (getIncludeHeadersFooters()) {
+                        sheetExtractor.appendHeaderText(text);
+                    }
+                    sheetExtractor.appendCellText(text);
+                    if (getIncludeTextBoxes()) {
+                        processShapes(iter.getShapes(), text);
+                    }
+                    if (getIncludeHeadersFooters()) {
+                        sheetExtractor.appendFooterText(text);
+                    }
+                    sheetExtractor.reset();
                 }
-                sheetExtractor.reset();
-                stream.close();
             }
-
-            return text.toString();
-        } catch (IOException | OpenXML4JException | SAXException e) {
-            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
-            return null;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
         }
     }
 
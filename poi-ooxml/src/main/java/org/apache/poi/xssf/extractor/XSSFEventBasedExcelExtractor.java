@@ -18,6 +18,7 @@ package org.apache.poi.xssf.extractor;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -258,44 +259,61 @@ public class XSSFEventBasedExcelExtractor
      * Processes the file and returns the text
      */
     public String getText() {
+        StringBuilder text = new StringBuilder(64);
+        try {
+            writeText(text);
+            return text.toString();
+        } catch (IOException e) {
+            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
+            return null;
+        }
+    }
+
+    /**
+     * Processes the file and writes the text sheet by sheet. The headers and footers are stored
+     * at the end of a sheet, so without them the rows are written as soon as they are parsed.
+     * The max text size of {@link org.apache.poi.openxml4j.util.ZipSecureFile#setMaxTextSize(long)}
+     * applies to all text written by this call.
+     */
+    @Override
+    public void writeText(Appendable output) throws IOException {
         try {
             XSSFReader xssfReader = new XSSFReader(container);
             SharedStrings strings = createSharedStringsTable(xssfReader, container);
             StylesTable styles = xssfReader.getStylesTable();
             XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
-            StringBuilder text = new StringBuilder(64);
             SheetTextExtractor sheetExtractor = new SheetTextExtractor();
+            TextOutput text = sheetExtractor.setOutput(output, !includeHeadersFooters);
 
             while (iter.hasNext()) {
-                InputStream stream = iter.next();
-                if (includeSheetNames) {
-                    text.append(iter.getSheetName());
-                    text.append('\n');
-                }
-                Comments comments = includeCellComments ? iter.getSheetComments() : null;
-                processSheet(sheetExtractor, styles, comments, strings, stream);
-                if (includeHeadersFooters) {
-                    sheetExtractor.appendHeaderText(text);
+                try (InputStream stream = iter.next()) {
+                    if (includeSheetNames) {
+                        text.append(iter.getSheetName());
+                        text.append('\n');
+                    }
+                    Comments comments = includeCellComments ? iter.getSheetComments() : null;
+                    processSheet(sheetExtractor, styles, comments, strings, stream);
+                    if (includeHeadersFooters) {
+                        sheetExtractor.appendHeaderText(text);
+                    }
+                    sheetExtractor.appendCellText(text);
+                    if (includeTextBoxes) {
+                        processShapes(iter.getShapes(), text);
+                    }
+                    if (includeHeadersFooters) {
+                        sheetExtractor.appendFooterText(text);
+                    }
+                    sheetExtractor.reset();
                 }
-                sheetExtractor.appendCellText(text);
-                if (includeTextBoxes) {
-                    processShapes(iter.getShapes(), text);
-                }
-                if (includeHeadersFooters) {
-                    sheetExtractor.appendFooterText(text);
-                }
-                sheetExtractor.reset();
-                stream.close();
             }
-
-            return text.toString();
-        } catch (IOException | OpenXML4JException | SAXException e) {
-            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
-            return null;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
         }
     }
 
-    void processShapes(List<XSSFShape> shapes, StringBuilder text) {
+    void processShapes(List<XSSFShape> shapes, Appendable text) throws IOException {
         if (shapes == null) {
             return;
         }
@@ -329,8 +347,51 @@ public class XSSFEventBasedExcelExtractor
         return container;
     }
 
+    /**
+     * Counts the characters written to the output and enforces the max text size,
+     * as the rows may be flushed before the end of a sheet
+     */
+    final class TextOutput implements Appendable {
+        private final Appendable out;
+        private long size;
+
+        TextOutput(Appendable out) {
+            this.out = out;
+        }
+
+        long size() {
+            return size;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            final CharSequence cs = (csq == null) ? "null" : csq;
+            return append(cs, 0, cs.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            checkMaxTextSize(size, end - start);
+            out.append(csq, start, end);
+            size += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            checkMaxTextSize(size, 1);
+            out.append(c);
+            size++;
+            return this;
+        }
+    }
+
     protected class SheetTextExtractor implements SheetContentsHandler {
         private final StringBuilder output = new StringBuilder(64);
+        /** the text, which has been written so far */
+        private TextOutput textOutput;
+        /** if set, the rows are flushed to it and not buffered till the end of the sheet */
+        private Appendable rowOutput;
         private boolean firstCellOfRow;
         private final Map<String, String> headerFooterMap;
 
@@ -339,6 +400,22 @@ public class XSSFEventBasedExcelExtractor
             this.headerFooterMap = includeHeadersFooters ? new HashMap<>() : null;
         }
 
+        /**
+         * @param out the output of the extracted text
+         * @param flushRows if the rows are written as soon as they are parsed
+         * @return the size checked output
+         */
+        TextOutput setOutput(Appendable out, boolean flushRows) {
+            textOutput = new TextOutput(out);
+            rowOutput = flushRows ? textOutput : null;
+            return textOutput;
+        }
+
+        private void checkCellTextSize(String text) {
+            final long written = (textOutput == null) ? 0 : textOutput.size();
+            checkMaxTextSize(written + output.length(), text.length());
+        }
+
         @Override
         public void startRow(int rowNum) {
             firstCellOfRow = true;
@@ -347,6 +424,14 @@ public class XSSFEventBasedExcelExtractor
         @Override
         public void endRow(int rowNum) {
             output.append('\n');
+            if (rowOutput != null) {
+                try {
+                    rowOutput.append(output);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                output.setLength(0);
+            }
         }
 
         @Override
@@ -357,13 +442,13 @@ public class XSSFEventBasedExcelExtractor
                 output.append('\t');
             }
             if (formattedValue != null) {
-                checkMaxTextSize(output, formattedValue);
+                checkCellTextSize(formattedValue);
                 output.append(formattedValue);
             }
             if (includeCellComments && comment != null) {
                 String commentText = comment.getString().getString().replace('\n', ' ');
                 output.append(formattedValue != null ? " Comment by " : "Comment by ");
-                checkMaxTextSize(output, commentText);
+                checkCellTextSize(commentText);
                 if (commentText.startsWith(comment.getAuthor() + ": ")) {
                     output.append(commentText);
                 } else {
@@ -382,7 +467,7 @@ public class XSSFEventBasedExcelExtractor
         /**
          * Append the text for the named header or footer if found.
          */
-        private void appendHeaderFooterText(StringBuilder buffer, String name) {
+        private void appendHeaderFooterText(Appendable buffer, String name) throws IOException {
             String text = headerFooterMap.get(name);
             if (text != null && text.length() > 0) {
                 // this is a naive way of handling the left, center, and right
@@ -417,7 +502,7 @@ public class XSSFEventBasedExcelExtractor
          * @see XSSFExcelExtractor#getText()
          * @see org.apache.poi.hssf.extractor.ExcelExtractor#_extractHeaderFooter(HeaderFooter)
          */
-        void appendHeaderText(StringBuilder buffer) {
+        void appendHeaderText(Appendable buffer) throws IOException {
             appendHeaderFooterText(buffer, "firstHeader");
             appendHeaderFooterText(buffer, "oddHeader");
             appendHeaderFooterText(buffer, "evenHeader");
@@ -430,7 +515,7 @@ public class XSSFEventBasedExcelExtractor
          * @see XSSFExcelExtractor#getText()
          * @see org.apache.poi.hssf.extractor.ExcelExtractor#_extractHeaderFooter(HeaderFooter)
          */
-        void appendFooterText(StringBuilder buffer) {
+        void appendFooterText(Appendable buffer) throws IOException {
             // append the text for each footer type in the same order
             // they are appended in XSSFExcelExtractor
             appendHeaderFooterText(buffer, "firstFooter");
@@ -441,8 +526,10 @@ public class XSSFEventBasedExcelExtractor
         /**
          * Append the cell contents we have collected.
          */
-        void appendCellText(StringBuilder buffer) {
-            checkMaxTextSize(buffer, output.toString());
+        void appendCellText(Appendable buffer) throws IOException {
+            if (buffer instanceof CharSequence) {
+                checkMaxTextSize((CharSequence) buffer, output.toString());
+            }
             buffer.append(output);
         }
 
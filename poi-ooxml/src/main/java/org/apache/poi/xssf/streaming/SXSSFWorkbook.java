@@ -25,6 +25,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -43,6 +44,9 @@ import org.apache.poi.openxml4j.util.ZipArchiveThresholdInputStream;
 import org.apache.poi.openxml4j.util.ZipEntrySource;
 import org.apache.poi.openxml4j.util.ZipFileZipEntrySource;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.crypt.Encryptor;
+import org.apache.poi.poifs.filesystem.POIFSStreamingWriter;
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.formula.EvaluationWorkbook;
 import org.apache.poi.ss.formula.udf.UDFFinder;
@@ -977,6 +981,35 @@ public class SXSSFWorkbook implements Workbook {
         }
     }
 
+    /**
+     * Write out this workbook as password protected (encrypted) file.<p>
+     *
+     * The zipped package is encrypted while it's written, i.e. in contrast to writing into a
+     * temp file and encrypting that afterwards, the unencrypted package is never stored.
+     * The integrity HMAC of agile encryption is calculated while the encrypted package is
+     * copied into the OLE2 container, which is streamed to the output by a
+     * {@link POIFSStreamingWriter}, i.e. the encrypted package isn't kept in memory either.
+     *
+     * @param stream the java OutputStream you wish to write to
+     * @param info the encryption settings, e.g. {@code new EncryptionInfo(EncryptionMode.agile)}
+     * @param password the password for opening the file
+     * @exception IOException if anything can't be written.
+     *
+     * @since POI 5.0.1
+     */
+    public void writeEncrypted(OutputStream stream, EncryptionInfo info, String password) throws IOException {
+        Encryptor enc = info.getEncryptor();
+        enc.confirmPassword(password);
+
+        try (POIFSStreamingWriter writer = new POIFSStreamingWriter(stream)) {
+            try (OutputStream os = enc.getDataStream(writer.getRoot())) {
+                write(os);
+            } catch (GeneralSecurityException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
     protected void flushSheets() throws IOException {
         for (SXSSFSheet sheet : _xFromSxHash.values())
         {
@@ -20,6 +20,7 @@ package org.apache.poi.xssf.usermodel;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 
 import org.apache.poi.EncryptedDocumentException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
@@ -157,4 +158,37 @@ public class XSSFWorkbookFactory implements WorkbookProvider {
             throw new IOException(e);
         }
     }
+
+    /**
+     * Creates a read-only XSSFWorkbook from the given FileChannel, which is taken over by the workbook.
+     * The file is read via the channel, without opening it again.
+     *
+     *  @param channel The {@link FileChannel} positioned at the start of the file.
+     *
+     *  @return The created Workbook
+     *
+     *  @throws IOException if an error occurs while reading the data
+     *  @throws EncryptedDocumentException If the wrong password is given for a protected file
+     *
+     *  @since POI 5.0.1
+     */
+    @SuppressWarnings("resource")
+    @Override
+    public XSSFWorkbook create(FileChannel channel, String password) throws IOException {
+        FileMagic fm = FileMagic.valueOf(channel);
+
+        if (fm == FileMagic.OLE2) {
+            try (POIFSFileSystem poifs = new POIFSFileSystem(channel, true);
+                 InputStream stream = DocumentFactoryHelper.getDecryptedStream(poifs.getRoot(), password)) {
+                return create(stream);
+            }
+        }
+
+        try {
+            OPCPackage pkg = OPCPackage.open(channel);
+            return createWorkbook(pkg);
+        } catch (InvalidFormatException e) {
+            throw new IOException(e);
+        }
+    }
 }
@@ -0,0 +1,851 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.extractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CoreProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CustomProperties;
+import org.apache.poi.ooxml.POIXMLProperties.ExtendedProperties;
+import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
+import org.apache.xmlbeans.XmlException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Implementation of a text extractor from OOXML Word
+ * files that uses SAX event based parsing.
+ * <p>
+ * The main document part is streamed instead of being loaded into a
+ * {@link org.apache.poi.xwpf.usermodel.XWPFDocument}, so only the footnotes,
+ * endnotes and comments and the referenced headers and footers are kept in memory.
+ * {@link #writeText(Appendable)} also writes the body paragraph by paragraph, instead
+ * of collecting the text of the whole document.
+ * <p>
+ * The text is laid out like the text of {@link XWPFWordExtractor}, apart from the
+ * alternative text of pictures, which is not extracted, and the structured document
+ * tags, whose content is handled like ordinary paragraphs and tables.
+ *
+ * @since POI 5.0.1
+ */
+public class XWPFEventBasedWordExtractor implements POIXMLTextExtractor {
+
+    private static final Logger LOGGER = LogManager.getLogger(XWPFEventBasedWordExtractor.class);
+
+    private static final String NS_WORDPROCESSINGML = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+    /** the order of the header and footer types in the output */
+    private static final String[] HEADER_FOOTER_TYPES = {"first", "even", "default"};
+
+    private enum PartType {
+        /** the main document */
+        DOCUMENT,
+        /** a header or footer */
+        HEADER_FOOTER,
+        /** the footnotes, endnotes or comments */
+        NOTES
+    }
+
+    protected final OPCPackage container;
+    protected final POIXMLProperties properties;
+    private final PackagePart documentPart;
+
+    private boolean fetchHyperlinks;
+    private boolean concatenatePhoneticRuns = true;
+    private boolean doCloseFilesystem = true;
+
+    public XWPFEventBasedWordExtractor(String path) throws XmlException, OpenXML4JException, IOException {
+        this(OPCPackage.open(path));
+    }
+
+    public XWPFEventBasedWordExtractor(OPCPackage container) throws XmlException, OpenXML4JException, IOException {
+        this.container = container;
+        properties = new POIXMLProperties(container);
+
+        PackageRelationshipCollection core = container.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT);
+        if (core.size() != 1) {
+            throw new POIXMLException("OOXML file structure broken/invalid - no core document found!");
+        }
+        documentPart = container.getPart(core.getRelationship(0));
+    }
+
+    /**
+     * Should we also fetch the hyperlinks, when fetching
+     * the text content? Default is to only output the
+     * hyperlink label, and not the contents
+     */
+    public void setFetchHyperlinks(boolean fetch) {
+        fetchHyperlinks = fetch;
+    }
+
+    /**
+     * Should we concatenate phonetic runs in extraction.  Default is <code>true</code>
+     * @param concatenatePhoneticRuns If phonetic runs should be concatenated
+     */
+    public void setConcatenatePhoneticRuns(boolean concatenatePhoneticRuns) {
+        this.concatenatePhoneticRuns = concatenatePhoneticRuns;
+    }
+
+    /**
+     * Returns the opened OPCPackage container.
+     */
+    @Override
+    public OPCPackage getPackage() {
+        return container;
+    }
+
+    /**
+     * Returns the core document properties
+     */
+    @Override
+    public CoreProperties getCoreProperties() {
+        return properties.getCoreProperties();
+    }
+
+    /**
+     * Returns the extended document properties
+     */
+    @Override
+    public ExtendedProperties getExtendedProperties() {
+        return properties.getExtendedProperties();
+    }
+
+    /**
+     * Returns the custom document properties
+     */
+    @Override
+    public CustomProperties getCustomProperties() {
+        return properties.getCustomProperties();
+    }
+
+    /**
+     * Processes the file and returns the text
+     */
+    @Override
+    public String getText() {
+        try {
+            TextHandler handler = new TextHandler(new DocumentContext(), documentPart, PartType.DOCUMENT);
+            parse(documentPart, handler);
+            return handler.getText();
+        } catch (IOException | SAXException e) {
+            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
+            return null;
+        }
+    }
+
+    /**
+     * Writes the text paragraph by paragraph, while the document is parsed.
+     * <p>
+     * As the document headers are defined by the section properties at the end of the body,
+     * their ids are read by a quick first pass over the document.
+     */
+    @Override
+    public void writeText(Appendable out) throws IOException {
+        try {
+            DocumentContext context = new DocumentContext();
+            SectionHandler sections = new SectionHandler();
+            parse(documentPart, sections);
+            out.append(context.getHeadersFooters(documentPart, sections.headerIds));
+
+            TextHandler handler = new TextHandler(context, documentPart, PartType.DOCUMENT);
+            handler.out = out;
+            parse(documentPart, handler);
+            handler.flush();
+            out.append(handler.documentFooters);
+        } catch (SAXException e) {
+            Exception cause = e.getException();
+            throw (cause instanceof IOException) ? (IOException) cause : new IOException(e);
+        }
+    }
+
+    private static void parse(PackagePart part, DefaultHandler handler) throws IOException, SAXException {
+        try (InputStream stream = part.getInputStream()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            parser.parse(new InputSource(stream));
+        } catch (ParserConfigurationException e) {
+            throw new RuntimeException("SAX parser appears to be broken - " + e.getMessage());
+        }
+    }
+
+    @Override
+    public POIXMLDocument getDocument() {
+        return null;
+    }
+
+    @Override
+    public void setCloseFilesystem(boolean doCloseFilesystem) {
+        this.doCloseFilesystem = doCloseFilesystem;
+    }
+
+    @Override
+    public boolean isCloseFilesystem() {
+        return doCloseFilesystem;
+    }
+
+    @Override
+    public OPCPackage getFilesystem() {
+        return container;
+    }
+
+    /**
+     * The notes and the headers and footers of the document, which are read on first use
+     */
+    private final class DocumentContext {
+        private Map<String, String> footnotes;
+        private Map<String, String> endnotes;
+        private Map<String, String> comments;
+        private final Map<String, String> headersFooters = new HashMap<>();
+
+        private String getNote(String localName, String id) throws SAXException {
+            if ("footnoteReference".equals(localName)) {
+                if (footnotes == null) {
+                    footnotes = readNotes(XWPFRelation.FOOTNOTE);
+                }
+                return footnotes.get(id);
+            } else {
+                if (endnotes == null) {
+                    endnotes = readNotes(XWPFRelation.ENDNOTE);
+                }
+                return endnotes.get(id);
+            }
+        }
+
+        private String getComment(String id) throws SAXException {
+            if (comments == null) {
+                comments = readNotes(XWPFRelation.COMMENT);
+            }
+            return comments.get(id);
+        }
+
+        private Map<String, String> readNotes(XWPFRelation relation) throws SAXException {
+            Map<String, String> notes = new HashMap<>();
+            try {
+                for (PackageRelationship rel : documentPart.getRelationshipsByType(relation.getRelation())) {
+                    PackagePart notesPart = documentPart.getRelatedPart(rel);
+                    TextHandler handler = new TextHandler(this, notesPart, PartType.NOTES);
+                    handler.notes = notes;
+                    parse(notesPart, handler);
+                }
+            } catch (IOException | OpenXML4JException e) {
+                throw new SAXException(e);
+            }
+            return notes;
+        }
+
+        private String getHeaderFooter(PackagePart part, String id) throws SAXException {
+            PackageRelationship rel = part.getRelationship(id);
+            if (rel == null || !(XWPFRelation.HEADER.getRelation().equals(rel.getRelationshipType())
+                || XWPFRelation.FOOTER.getRelation().equals(rel.getRelationshipType()))) {
+                return "";
+            }
+            String text = headersFooters.get(id);
+            if (text == null) {
+                try {
+                    PackagePart hfPart = part.getRelatedPart(rel);
+                    TextHandler handler = new TextHandler(this, hfPart, PartType.HEADER_FOOTER);
+                    parse(hfPart, handler);
+                    text = handler.getText();
+                } catch (IOException | OpenXML4JException e) {
+                    throw new SAXException(e);
+                }
+                headersFooters.put(id, text);
+            }
+            return text;
+        }
+
+        private String getHeadersFooters(PackagePart part, String[] ids) throws SAXException {
+            StringBuilder sb = new StringBuilder();
+            for (String id : ids) {
+                if (id != null) {
+                    sb.append(getHeaderFooter(part, id));
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Reads the header ids of the document section properties, i.e. the last section
+     * properties, which aren't part of a paragraph or table. The footers are only needed
+     * at the end and are taken from the main pass.
+     */
+    private static final class SectionHandler extends DefaultHandler {
+        private final String[] headerIds = new String[HEADER_FOOTER_TYPES.length];
+
+        private int depth;
+        private int skipDepth;
+        private int sectPrDepth = -1;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            depth++;
+            if (skipDepth > 0) {
+                skipDepth++;
+                return;
+            }
+            if (NS_MARKUP_COMPATIBILITY.equals(uri) && "AlternateContent".equals(localName)) {
+                skipDepth = 1;
+                return;
+            }
+            if (!NS_WORDPROCESSINGML.equals(uri)) {
+                return;
+            }
+            switch (localName) {
+                case "p":
+                case "tbl":
+                    // the paragraph sections and the tables are of no interest
+                    skipDepth = 1;
+                    break;
+                case "sectPr":
+                    if (sectPrDepth < 0) {
+                        sectPrDepth = depth;
+                        Arrays.fill(headerIds, null);
+                    }
+                    break;
+                case "headerReference":
+                    addHeaderFooterId(headerIds, sectPrDepth, depth, attributes);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            depth--;
+            if (skipDepth > 0) {
+                skipDepth--;
+            } else if (depth + 1 == sectPrDepth) {
+                sectPrDepth = -1;
+            }
+        }
+    }
+
+    private static void addHeaderFooterId(String[] ids, int sectPrDepth, int depth, Attributes attributes) {
+        if (sectPrDepth < 0 || depth != sectPrDepth + 1) {
+            return;
+        }
+        // treat invalid options as "default" like XWPFHeaderFooterPolicy
+        String type = attributes.getValue(NS_WORDPROCESSINGML, "type");
+        int index = HEADER_FOOTER_TYPES.length - 1;
+        for (int i = 0; i < HEADER_FOOTER_TYPES.length; i++) {
+            if (HEADER_FOOTER_TYPES[i].equals(type)) {
+                index = i;
+            }
+        }
+        ids[index] = attributes.getValue(NS_RELATIONSHIPS, "id");
+    }
+
+    /**
+     * Collects the text of a part with the layout of {@link XWPFWordExtractor} - the text of the
+     * main document is written to {@link #out} at the end of each paragraph and table row, if set:
+     * <ul>
+     * <li>the document has the headers in front and the footers at the end and the body paragraphs
+     *     are followed by their comments, footnotes and - for paragraphs with section properties -
+     *     the footers of the section</li>
+     * <li>the headers and footers have the non-empty paragraphs first and then the tables</li>
+     * <li>the notes are mapped by their id</li>
+     * </ul>
+     */
+    private final class TextHandler extends DefaultHandler {
+        private final DocumentContext context;
+        private final PackagePart part;
+        private final PartType partType;
+
+        private final StringBuilder text = new StringBuilder(64);
+        private Appendable out;
+
+        /** the current element depth and the depth of ignored elements */
+        private int depth;
+        private int skipDepth;
+
+        private int paragraphDepth = -1;
+        private boolean paragraphHasChildren;
+        private final StringBuilder paragraph = new StringBuilder(64);
+        private final StringBuilder footnoteText = new StringBuilder();
+        private final StringBuilder commentText = new StringBuilder();
+        private String paragraphFooters;
+
+        private int runDepth;
+        private final StringBuilder run = new StringBuilder(64);
+        private final StringBuilder phonetic = new StringBuilder();
+        private boolean runDeleted;
+        private boolean inText;
+        private boolean inPhonetic;
+        private String hyperlinkURL;
+
+        private boolean inFldCharBegin;
+        private boolean inCheckBox;
+        private boolean checkBoxChecked;
+
+        private int sectPrDepth = -1;
+        private final String[] headerIds = new String[HEADER_FOOTER_TYPES.length];
+        private final String[] footerIds = new String[HEADER_FOOTER_TYPES.length];
+        private String documentHeaders = "";
+        private String documentFooters = "";
+
+        private int tableDepth;
+        private int cellDepth;
+        private boolean firstCellOfRow;
+        /** the separator, which is appended before the next element of a cell */
+        private char[] cellSeparators = new char[4];
+        private final StringBuilder tableText = new StringBuilder();
+        private final StringBuilder rowText = new StringBuilder();
+        private final StringBuilder tables = new StringBuilder();
+
+        private Map<String, String> notes;
+        private String noteId;
+        private String noteAuthor;
+        private boolean firstNoteParagraph;
+
+        private TextHandler(DocumentContext context, PackagePart part, PartType partType) {
+            this.context = context;
+            this.part = part;
+            this.partType = partType;
+        }
+
+        String getText() {
+            if (partType == PartType.HEADER_FOOTER) {
+                return text.toString() + tables;
+            }
+            return documentHeaders + text + documentFooters;
+        }
+
+        /**
+         * Writes the collected document text to the output, if the text is streamed
+         */
+        private void flush() throws SAXException {
+            if (out == null || text.length() == 0) {
+                return;
+            }
+            try {
+                out.append(text);
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
+            text.setLength(0);
+        }
+
+        /**
+         * @return true, if the paragraph is processed like {@link XWPFWordExtractor#appendParagraphText}
+         *  and not like {@link org.apache.poi.xwpf.usermodel.XWPFParagraph#getText()}
+         */
+        private boolean isBodyParagraph() {
+            return partType == PartType.DOCUMENT && tableDepth == 0;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            depth++;
+            if (skipDepth > 0) {
+                skipDepth++;
+                return;
+            }
+            if (paragraphDepth >= 0 && depth == paragraphDepth + 1) {
+                paragraphHasChildren = true;
+            }
+            if (!NS_WORDPROCESSINGML.equals(uri)) {
+                if (NS_MARKUP_COMPATIBILITY.equals(uri) && "AlternateContent".equals(localName)) {
+                    skipDepth = 1;
+                }
+                return;
+            }
+
+            switch (localName) {
+                case "p":
+                    startParagraph();
+                    break;
+                case "r":
+                    if (runDepth++ == 0) {
+                        run.setLength(0);
+                        phonetic.setLength(0);
+                        runDeleted = false;
+                    }
+                    break;
+                case "delText":
+                    runDeleted = true;
+                    // fall through
+                case "t":
+                    inText = runDepth > 0;
+                    break;
+                case "tab":
+                case "ptab":
+                    appendToRun('\t');
+                    break;
+                case "br":
+                case "cr":
+                    appendToRun('\n');
+                    break;
+                case "footnoteReference":
+                case "endnoteReference":
+                    if (runDepth > 0) {
+                        appendNoteReference(localName, attributes.getValue(NS_WORDPROCESSINGML, "id"));
+                    }
+                    break;
+                case "fldChar":
+                    inFldCharBegin = runDepth > 0
+                        && "begin".equals(attributes.getValue(NS_WORDPROCESSINGML, "fldCharType"));
+                    break;
+                case "checkBox":
+                    inCheckBox = inFldCharBegin;
+                    checkBoxChecked = false;
+                    break;
+                case "default":
+                    if (inCheckBox) {
+                        String val = attributes.getValue(NS_WORDPROCESSINGML, "val");
+                        checkBoxChecked = "true".equalsIgnoreCase(val) || "on".equalsIgnoreCase(val)
+                            || "x".equalsIgnoreCase(val) || "1".equals(val);
+                    }
+                    break;
+                case "rt":
+                    inPhonetic = runDepth > 0;
+                    break;
+                case "drawing":
+                case "pict":
+                case "object":
+                case "txbxContent":
+                    skipDepth = 1;
+                    break;
+                case "hyperlink":
+                    startHyperlink(attributes.getValue(NS_RELATIONSHIPS, "id"));
+                    break;
+                case "commentRangeStart":
+                    if (partType != PartType.NOTES && depth == paragraphDepth + 1) {
+                        String comment = context.getComment(attributes.getValue(NS_WORDPROCESSINGML, "id"));
+                        if (comment != null) {
+                            commentText.append(comment);
+                        }
+                    }
+                    break;
+                case "sectPr":
+                    if (sectPrDepth < 0 && partType == PartType.DOCUMENT && tableDepth == 0) {
+                        sectPrDepth = depth;
+                        Arrays.fill(headerIds, null);
+                        Arrays.fill(footerIds, null);
+                    }
+                    break;
+                case "headerReference":
+                    addHeaderFooterId(headerIds, sectPrDepth, depth, attributes);
+                    break;
+                case "footerReference":
+                    addHeaderFooterId(footerIds, sectPrDepth, depth, attributes);
+                    break;
+                case "tbl":
+                    flushCellSeparator();
+                    tableDepth++;
+                    break;
+                case "tr":
+                    if (tableDepth == 1) {
+                        firstCellOfRow = true;
+                        rowText.setLength(0);
+                    }
+                    break;
+                case "tc":
+                    startCell();
+                    break;
+                case "footnote":
+                case "endnote":
+                case "comment":
+                    if (partType == PartType.NOTES && depth == 2) {
+                        noteId = attributes.getValue(NS_WORDPROCESSINGML, "id");
+                        noteAuthor = attributes.getValue(NS_WORDPROCESSINGML, "author");
+                        firstNoteParagraph = true;
+                        text.setLength(0);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            depth--;
+            if (skipDepth > 0) {
+                skipDepth--;
+                return;
+            }
+            if (!NS_WORDPROCESSINGML.equals(uri)) {
+                return;
+            }
+
+            switch (localName) {
+                case "p":
+                    if (depth + 1 == paragraphDepth) {
+                        endParagraph();
+                    }
+                    break;
+                case "r":
+                    if (runDepth > 0 && --runDepth == 0) {
+                        endRun();
+                    }
+                    break;
+                case "t":
+                case "delText":
+                    inText = false;
+                    break;
+                case "fldChar":
+                    inFldCharBegin = false;
+                    break;
+                case "checkBox":
+                    if (inCheckBox) {
+                        run.append(checkBoxChecked ? "|X|" : "|_|");
+                        inCheckBox = false;
+                    }
+                    break;
+                case "rt":
+                    inPhonetic = false;
+                    break;
+                case "hyperlink":
+                    hyperlinkURL = null;
+                    break;
+                case "sectPr":
+                    if (depth + 1 == sectPrDepth) {
+                        sectPrDepth = -1;
+                        endSectPr();
+                    }
+                    break;
+                case "tbl":
+                    endTable();
+                    break;
+                case "tr":
+                    endRow();
+                    break;
+                case "tc":
+                    if (cellDepth > 0) {
+                        cellDepth--;
+                    }
+                    break;
+                case "footnote":
+                case "endnote":
+                case "comment":
+                    if (partType == PartType.NOTES && depth == 1 && noteId != null) {
+                        if ("comment".equals(localName)) {
+                            notes.put(noteId, "\tComment by " + noteAuthor + ": " + text);
+                        } else {
+                            notes.put(noteId, text.toString());
+                        }
+                        noteId = null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText && skipDepth == 0) {
+                (inPhonetic ? phonetic : run).append(ch, start, length);
+            }
+        }
+
+        private void appendToRun(char c) {
+            if (runDepth > 0) {
+                (inPhonetic ? phonetic : run).append(c);
+            }
+        }
+
+        private void startParagraph() {
+            flushCellSeparator();
+            paragraphDepth = depth;
+            paragraphHasChildren = false;
+            paragraph.setLength(0);
+            footnoteText.setLength(0);
+            commentText.setLength(0);
+            paragraphFooters = null;
+        }
+
+        private void endParagraph() throws SAXException {
+            paragraphDepth = -1;
+            if (isBodyParagraph()) {
+                text.append(paragraph);
+                if (commentText.length() > 0) {
+                    text.append(commentText).append('\n');
+                }
+                if (footnoteText.length() > 0) {
+                    text.append(footnoteText).append('\n');
+                }
+                if (paragraphFooters != null) {
+                    text.append(paragraphFooters);
+                }
+                text.append('\n');
+                flush();
+                return;
+            }
+
+            paragraph.append(footnoteText);
+            switch (partType) {
+                case DOCUMENT:
+                    text.append(paragraph);
+                    cellSeparators[cellDepth] = '\t';
+                    break;
+                case HEADER_FOOTER:
+                    if (tableDepth == 0) {
+                        if (paragraphHasChildren && paragraph.length() > 0) {
+                            text.append(paragraph).append('\n');
+                        }
+                    } else if (tableDepth == 1 && cellDepth == 1) {
+                        if (rowText.length() > 0) {
+                            rowText.append('\t');
+                        }
+                        rowText.append(paragraph);
+                    }
+                    break;
+                case NOTES:
+                    if (noteId != null && tableDepth == 0) {
+                        if (!firstNoteParagraph) {
+                            text.append('\n');
+                        }
+                        firstNoteParagraph = false;
+                        text.append(paragraph);
+                    }
+                    break;
+            }
+        }
+
+        private void endRun() {
+            boolean bodyParagraph = isBodyParagraph();
+            // like XWPFParagraph.getText(), the deleted runs are only skipped outside of the body
+            if (paragraphDepth < 0 || (runDeleted && !bodyParagraph)) {
+                return;
+            }
+            paragraph.append(run);
+            if (phonetic.length() > 0 && (concatenatePhoneticRuns || !bodyParagraph)) {
+                paragraph.append(" (").append(phonetic).append(')');
+            }
+            if (hyperlinkURL != null && fetchHyperlinks && bodyParagraph) {
+                paragraph.append(" <").append(hyperlinkURL).append('>');
+            }
+        }
+
+        private void appendNoteReference(String localName, String id) throws SAXException {
+            boolean isFootnote = "footnoteReference".equals(localName);
+            run.append(isFootnote ? "[footnoteRef:" : "[endnoteRef:").append(id).append(']');
+
+            footnoteText.append(" [").append(id).append(": ");
+            String note = (partType == PartType.NOTES) ? null : context.getNote(localName, id);
+            if (note != null) {
+                footnoteText.append(note);
+            } else {
+                footnoteText.append("!!! End note with ID \"").append(id).append("\" not found in document.");
+            }
+            footnoteText.append("] ");
+        }
+
+        private void startHyperlink(String id) {
+            hyperlinkURL = null;
+            if (id != null && partType == PartType.DOCUMENT) {
+                PackageRelationship rel = part.getRelationship(id);
+                if (rel != null && XWPFRelation.HYPERLINK.getRelation().equals(rel.getRelationshipType())) {
+                    hyperlinkURL = rel.getTargetURI().toString();
+                }
+            }
+        }
+
+        private void endSectPr() throws SAXException {
+            String headers = context.getHeadersFooters(part, headerIds);
+            String footers = context.getHeadersFooters(part, footerIds);
+            if (paragraphDepth >= 0) {
+                // the properties precede the runs of the paragraph
+                paragraph.append(headers);
+                paragraphFooters = footers;
+            } else {
+                documentHeaders = headers;
+                documentFooters = footers;
+            }
+        }
+
+        private void startCell() {
+            if (tableDepth == 1 && partType == PartType.DOCUMENT) {
+                if (!firstCellOfRow) {
+                    text.append('\t');
+                }
+                firstCellOfRow = false;
+            }
+            if (++cellDepth == cellSeparators.length) {
+                cellSeparators = Arrays.copyOf(cellSeparators, cellDepth * 2);
+            }
+            cellSeparators[cellDepth] = 0;
+        }
+
+        private void flushCellSeparator() {
+            if (partType == PartType.DOCUMENT && cellDepth > 0 && cellSeparators[cellDepth] != 0) {
+                text.append(cellSeparators[cellDepth]);
+                cellSeparators[cellDepth] = 0;
+            }
+        }
+
+        private void endRow() throws SAXException {
+            if (tableDepth != 1) {
+                return;
+            }
+            if (partType == PartType.DOCUMENT) {
+                text.append('\n');
+                flush();
+            } else if (rowText.length() > 0) {
+                tableText.append(rowText).append('\n');
+            }
+        }
+
+        private void endTable() throws SAXException {
+            if (tableDepth == 0) {
+                return;
+            }
+            tableDepth--;
+            if (partType == PartType.DOCUMENT) {
+                if (tableDepth == 0) {
+                    text.append('\n');
+                    flush();
+                } else if (cellDepth > 0) {
+                    cellSeparators[cellDepth] = '\n';
+                }
+            } else if (tableDepth == 0) {
+                if (partType == PartType.HEADER_FOOTER && tableText.length() > 0) {
+                    tables.append(tableText).append('\n');
+                }
+                tableText.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.extractor.ooxml;
+
+import static org.apache.poi.extractor.ExtractorFactory.createExtractor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.extractor.BatchExtractor;
+import org.apache.poi.extractor.BatchExtractor.Result;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POIOLE2TextExtractor;
+import org.apache.poi.extractor.POITextExtractor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BatchExtractor}
+ */
+class TestBatchExtractor {
+    private static final POIDataSamples ssTests = POIDataSamples.getSpreadSheetInstance();
+    private static final POIDataSamples wpTests = POIDataSamples.getDocumentInstance();
+    private static final POIDataSamples slTests = POIDataSamples.getSlideShowInstance();
+
+    private static final List<File> files = Arrays.asList(
+        ssTests.getFile("SampleSS.xls"), ssTests.getFile("SampleSS.xlsx"), ssTests.getFile("excel_with_embeded.xls"),
+        wpTests.getFile("SampleDoc.doc"), wpTests.getFile("SampleDoc.docx"), wpTests.getFile("word_with_embeded.doc"),
+        slTests.getFile("SampleShow.ppt"), slTests.getFile("SampleShow.pptx")
+    );
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void sameAsSequential() throws IOException {
+        BatchExtractor batch = new BatchExtractor();
+        batch.setPreferEventExtractors(false);
+        Map<File, Result> results = new HashMap<>();
+        batch.extract(files, pool, results::put);
+        assertEquals(files.size(), results.size());
+
+        for (File file : files) {
+            Result res = results.get(file);
+            assertTrue(res.isSuccess(), file.getName());
+            assertEquals(file.getPath(), res.getName());
+            try (POITextExtractor ext = createExtractor(file)) {
+                assertEquals(ext.getText(), res.getText(), file.getName());
+
+                if (!(ext instanceof POIOLE2TextExtractor)) {
+                    assertTrue(res.getEmbedded().isEmpty());
+                    continue;
+                }
+
+                POITextExtractor[] embeds = ExtractorFactory.getEmbeddedDocsTextExtractors((POIOLE2TextExtractor)ext);
+                assertEquals(embeds.length, res.getEmbedded().size(), file.getName());
+                for (int i = 0; i < embeds.length; i++) {
+                    try (POITextExtractor embed = embeds[i]) {
+                        Result embRes = res.getEmbedded().get(i);
+                        assertTrue(embRes.isSuccess());
+                        assertEquals(embed.getText(), embRes.getText(), file.getName() + " - embedding " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void embeddedWithEventExtractors() throws IOException {
+        // the default configuration prefers the event based extractors
+        BatchExtractor batch = new BatchExtractor();
+        assertTrue(batch.isPreferEventExtractors());
+        Map<File, Result> results = new HashMap<>();
+        batch.extract(files, pool, results::put);
+
+        BatchExtractor userModel = new BatchExtractor();
+        userModel.setPreferEventExtractors(false);
+        Map<File, Result> expected = new HashMap<>();
+        userModel.extract(files, pool, expected::put);
+
+        for (File file : files) {
+            assertTrue(results.get(file).isSuccess(), file.getName());
+            assertEquals(expected.get(file).getEmbedded().size(), results.get(file).getEmbedded().size(), file.getName());
+        }
+        assertEquals(6, results.get(ssTests.getFile("excel_with_embeded.xls")).getEmbedded().size());
+    }
+
+    @Test
+    void backpressure() throws IOException {
+        BatchExtractor batch = new BatchExtractor();
+        batch.setIncludeEmbedded(false);
+        batch.setMaxPending(2);
+
+        AtomicInteger requested = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        Iterable<File> counting = () -> new Iterator<File>() {
+            private final Iterator<File> iter = files.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public File next() {
+                assertTrue(requested.incrementAndGet() - consumed.get() <= 2);
+                return iter.next();
+            }
+        };
+
+        batch.extract(counting, pool, (file, res) -> {
+            assertTrue(res.isSuccess());
+            consumed.incrementAndGet();
+        });
+        assertEquals(files.size(), consumed.get());
+    }
+
+    @Test
+    void failures() throws IOException {
+        BatchExtractor batch = new BatchExtractor();
+        File txt = slTests.getFile("SampleShow.txt");
+        Map<File, Result> results = new HashMap<>();
+        batch.extract(Arrays.asList(txt, files.get(0)), pool, results::put);
+        assertFalse(results.get(txt).isSuccess());
+        assertNull(results.get(txt).getText());
+        assertTrue(results.get(files.get(0)).isSuccess());
+
+        batch.setMaxFileSize(100);
+        results.clear();
+        batch.extract(files.subList(0, 1), pool, results::put);
+        assertFalse(results.get(files.get(0)).isSuccess());
+
+        batch.setMaxFileSize(0);
+        batch.setMaxTextLength(10);
+        results.clear();
+        batch.extract(files.subList(0, 1), pool, results::put);
+        assertFalse(results.get(files.get(0)).isSuccess());
+
+        IOException ex = assertThrows(IOException.class, () ->
+            batch.extract(files, pool, (file, res) -> { throw new IOException("stop"); }));
+        assertEquals("stop", ex.getMessage());
+    }
+}
@@ -45,8 +45,12 @@ import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.xslf.extractor.XSLFEventBasedExtractor;
+import org.apache.poi.xslf.extractor.XSLFExtractor;
 import org.apache.poi.xssf.extractor.XSSFEventBasedExcelExtractor;
 import org.apache.poi.xssf.extractor.XSSFExcelExtractor;
+import org.apache.poi.xwpf.extractor.XWPFEventBasedWordExtractor;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
 import org.apache.xmlbeans.XmlException;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
@@ -149,6 +153,15 @@ class TestExtractorFactory {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("testFileData")
+    void testPath(String testcase, File file, String extractor, int count) throws Exception {
+        try (POITextExtractor ext = createExtractor(file.toPath())) {
+            assertNotNull(ext);
+            testExtractor(ext, testcase, extractor, count);
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("testScratchData")
     void testPOIFS(String testcase, File testFile, String extractor, int count) throws Exception {
@@ -189,6 +202,12 @@ class TestExtractorFactory {
         assertEquals("Can't create extractor - unsupported file type: UNKNOWN", ex.getMessage());
     }
 
+    @Test
+    void testPathInvalid() {
+        IOException ex = assertThrows(IOException.class, () -> createExtractor(txt.toPath()));
+        assertEquals("Can't create extractor - unsupported file type: UNKNOWN", ex.getMessage());
+    }
+
     @Test
     void testInputStreamInvalid() throws IOException {
         try (FileInputStream fis = new FileInputStream(txt)) {
@@ -254,6 +273,14 @@ class TestExtractorFactory {
                 assertTrue(extractor instanceof XSSFEventBasedExcelExtractor);
                 assertTrue(extractor.getText().length() > 200);
             }
+            try (POITextExtractor extractor = xmlFactory.create(OPCPackage.open(docx.toString(), PackageAccess.READ))) {
+                assertTrue(extractor instanceof XWPFEventBasedWordExtractor);
+                assertTrue(extractor.getText().length() > 120);
+            }
+            try (POITextExtractor extractor = xmlFactory.create(OPCPackage.open(pptx.toString(), PackageAccess.READ))) {
+                assertTrue(extractor instanceof XSLFEventBasedExtractor);
+                assertTrue(extractor.getText().length() > 120);
+            }
         } finally {
             // Put back to normal
             ExtractorFactory.setThreadPrefersEventExtractors(false);
@@ -273,6 +300,14 @@ class TestExtractorFactory {
             assertTrue(extractor instanceof XSSFExcelExtractor);
         }
 
+        try (POITextExtractor extractor = xmlFactory.create(OPCPackage.open(docx.toString(), PackageAccess.READ))) {
+            assertTrue(extractor instanceof XWPFWordExtractor);
+        }
+
+        try (POITextExtractor extractor = xmlFactory.create(OPCPackage.open(pptx.toString(), PackageAccess.READ))) {
+            assertTrue(extractor instanceof XSLFExtractor);
+        }
+
         try (POITextExtractor extractor = xmlFactory.create(OPCPackage.open(xlsx.toString()))) {
             assertNotNull(extractor);
             assertTrue(extractor.getText().length() > 200);
@@ -0,0 +1,119 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.extractor.ooxml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POITextExtractor;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xslf.extractor.XSLFEventBasedExtractor;
+import org.apache.poi.xssf.extractor.XSSFBEventBasedExcelExtractor;
+import org.apache.poi.xssf.extractor.XSSFEventBasedExcelExtractor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests that {@link POITextExtractor#writeText(Appendable)} produces the same text as
+ * {@link POITextExtractor#getText()}
+ */
+class TestWriteText {
+    private static final POIDataSamples ssTests = POIDataSamples.getSpreadSheetInstance();
+    private static final POIDataSamples wpTests = POIDataSamples.getDocumentInstance();
+    private static final POIDataSamples slTests = POIDataSamples.getSlideShowInstance();
+    private static final POIDataSamples olTests = POIDataSamples.getHSMFInstance();
+
+    @ParameterizedTest
+    @CsvSource({
+        "spreadsheet, SampleSS.xls", "spreadsheet, SampleSS.xlsx", "spreadsheet, excel_with_embeded.xls",
+        "document, SampleDoc.doc", "document, SampleDoc.docx", "document, word_with_embeded.doc",
+        "slideshow, SampleShow.ppt", "slideshow, SampleShow.pptx", "hsmf, quick.msg"
+    })
+    void sameAsGetText(String dir, String file) throws IOException {
+        File f = getSamples(dir).getFile(file);
+        for (boolean event : new boolean[]{false, true}) {
+            ExtractorFactory.setThreadPrefersEventExtractors(event);
+            try {
+                String expected;
+                try (POITextExtractor ext = ExtractorFactory.createExtractor(f)) {
+                    expected = ext.getText();
+                }
+                assertNotNull(expected);
+                try (POITextExtractor ext = ExtractorFactory.createExtractor(f)) {
+                    StringWriter sw = new StringWriter();
+                    ext.writeText(sw);
+                    assertEquals(expected, sw.toString(), file + " - event: " + event);
+                }
+            } finally {
+                ExtractorFactory.setThreadPrefersEventExtractors(false);
+            }
+        }
+    }
+
+    @Test
+    void xssfEventRowStreaming() throws Exception {
+        for (String file : new String[]{"SampleSS.xlsx", "sample.xlsb"}) {
+            for (boolean headersFooters : new boolean[]{true, false}) {
+                try (OPCPackage pkg = OPCPackage.open(ssTests.getFile(file), PackageAccess.READ);
+                     XSSFEventBasedExcelExtractor ext = file.endsWith(".xlsb")
+                         ? new XSSFBEventBasedExcelExtractor(pkg) : new XSSFEventBasedExcelExtractor(pkg)) {
+                    ext.setCloseFilesystem(false);
+                    ext.setIncludeHeadersFooters(headersFooters);
+                    ext.setIncludeCellComments(true);
+                    String expected = ext.getText();
+                    assertNotNull(expected);
+                    StringBuilder sb = new StringBuilder();
+                    ext.writeText(sb);
+                    assertEquals(expected, sb.toString(), file + " - headers/footers: " + headersFooters);
+                }
+            }
+        }
+    }
+
+    @Test
+    void xslfEvent() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(slTests.getFile("45545_Comment.pptx"), PackageAccess.READ);
+             XSLFEventBasedExtractor ext = new XSLFEventBasedExtractor(pkg)) {
+            ext.setCloseFilesystem(false);
+            ext.setNotesByDefault(true);
+            ext.setCommentsByDefault(true);
+            String expected = ext.getText();
+            assertNotNull(expected);
+            StringWriter sw = new StringWriter();
+            ext.writeText(sw);
+            assertEquals(expected, sw.toString());
+        }
+    }
+
+    private static POIDataSamples getSamples(String dir) {
+        switch (dir) {
+            case "spreadsheet": return ssTests;
+            case "document": return wpTests;
+            case "slideshow": return slTests;
+            default: return olTests;
+        }
+    }
+}
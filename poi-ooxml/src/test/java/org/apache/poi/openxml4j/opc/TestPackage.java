@@ -43,7 +43,9 @@ import java.io.OutputStream;
 import java.io.PushbackInputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -75,6 +77,7 @@ import org.apache.poi.openxml4j.opc.internal.FileHelper;
 import org.apache.poi.openxml4j.opc.internal.PackagePropertiesPart;
 import org.apache.poi.openxml4j.opc.internal.ZipHelper;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.sl.usermodel.SlideShow;
 import org.apache.poi.sl.usermodel.SlideShowFactory;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -565,6 +568,31 @@ public final class TestPackage {
         assertTrue(tempFile2.delete());
     }
 
+    /**
+     * Test that a package opened via a path or file channel is readable
+     * and that changes are written back on close
+     */
+    @Test
+    void openPathThenOverwrite() throws IOException, InvalidFormatException {
+        File tempFile = TempFile.createTempFile("poiTesting","tmp");
+        FileHelper.copyFile(getSampleFile("TestPackageCommon.docx"), tempFile);
+
+        try (OPCPackage p = OPCPackage.open(tempFile.toPath(), PackageAccess.READ_WRITE)) {
+            p.getPackageProperties().setTitleProperty("path title");
+        }
+
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ)) {
+            assertEquals(FileMagic.OOXML, FileMagic.valueOf(channel));
+            assertEquals(0, channel.position());
+            OPCPackage p = OPCPackage.open(channel);
+            assertEquals("path title", p.getPackageProperties().getTitleProperty().orElse(null));
+            p.revert();
+            assertFalse(channel.isOpen());
+        }
+
+        assertTrue(tempFile.delete());
+    }
+
 	private static ContentTypeManager getContentTypeManager(OPCPackage pkg) {
 	    return POITestCase.getFieldValue(OPCPackage.class, pkg, ContentTypeManager.class, "contentTypeManager");
 	}
@@ -16,6 +16,7 @@
 ==================================================================== */
 package org.apache.poi.poifs.crypt.tests;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -26,8 +27,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
+import java.util.Random;
 
 import javax.crypto.Cipher;
 
@@ -35,13 +38,19 @@ import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.poi.POIDataSamples;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.poifs.crypt.CryptoFunctions;
 import org.apache.poi.poifs.crypt.Decryptor;
 import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.crypt.EncryptionMode;
+import org.apache.poi.poifs.crypt.Encryptor;
 import org.apache.poi.poifs.crypt.HashAlgorithm;
+import org.apache.poi.poifs.crypt.agile.AgileDecryptor;
+import org.apache.poi.poifs.crypt.temp.DecryptedZipFileZipEntrySource;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.util.IOUtils;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.junit.jupiter.api.Test;
 
 class TestDecryptor {
@@ -101,6 +110,48 @@ class TestDecryptor {
         }
     }
 
+    @Test
+    void agileParallel() throws IOException, GeneralSecurityException {
+        // more segments than fit into a single batch, and a partial last segment
+        byte[] payload = new byte[3_000_000 + 123];
+        new Random(4711).nextBytes(payload);
+
+        try (POIFSFileSystem fs = new POIFSFileSystem()) {
+            EncryptionInfo ei = new EncryptionInfo(EncryptionMode.agile);
+            Encryptor enc = ei.getEncryptor();
+            enc.confirmPassword("pass");
+            try (OutputStream os = enc.getDataStream(fs.getRoot())) {
+                os.write(payload);
+            }
+
+            for (int parallelism : new int[]{ 1, 3 }) {
+                AgileDecryptor dec = (AgileDecryptor)Decryptor.getInstance(ei);
+                assertTrue(dec.verifyPassword("pass"));
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(payload.length);
+                assertEquals(payload.length, dec.decryptPackage(fs.getRoot(), bos, parallelism));
+                assertEquals(payload.length, dec.getLength());
+                assertArrayEquals(payload, bos.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    void decryptedZipEntrySource() throws Exception {
+        try (InputStream is = samples.openResourceAsStream("protected_agile.docx");
+             POIFSFileSystem fs = new POIFSFileSystem(is)) {
+            EncryptionInfo info = new EncryptionInfo(fs);
+            Decryptor d = Decryptor.getInstance(info);
+            assertTrue(d.verifyPassword(Decryptor.DEFAULT_PASSWORD));
+
+            DecryptedZipFileZipEntrySource source = DecryptedZipFileZipEntrySource.createZipEntrySource(d, fs.getRoot(), 2);
+            try (OPCPackage pkg = OPCPackage.open(source);
+                 XWPFDocument doc = new XWPFDocument(pkg)) {
+                assertTrue(doc.getParagraphs().size() > 0);
+            }
+            assertTrue(source.isClosed());
+        }
+    }
+
     @Test
     void dataLength() throws Exception {
         try (InputStream fsIs = samples.openResourceAsStream("protected_agile.docx");
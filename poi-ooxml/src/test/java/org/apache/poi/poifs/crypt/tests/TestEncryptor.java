@@ -57,6 +57,7 @@ import org.apache.poi.poifs.filesystem.DocumentEntry;
 import org.apache.poi.poifs.filesystem.DocumentNode;
 import org.apache.poi.poifs.filesystem.Entry;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSStreamingWriter;
 import org.apache.poi.poifs.filesystem.TempFilePOIFSFileSystem;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.NullOutputStream;
@@ -65,6 +66,8 @@ import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 class TestEncryptor {
     @Test
@@ -593,6 +596,37 @@ class TestEncryptor {
         assertArrayEquals(adOrig.getVerifier(), adReload.getVerifier());
     }
 
+    @ParameterizedTest
+    @EnumSource(value = EncryptionMode.class, names = {"agile", "standard"})
+    void streamingWriter(EncryptionMode mode) throws IOException, GeneralSecurityException {
+        final String pass = "s3cr3t";
+        byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+
+        EncryptionInfo info1 = new EncryptionInfo(mode);
+        Encryptor enc = info1.getEncryptor();
+        enc.confirmPassword(pass);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (POIFSStreamingWriter writer = new POIFSStreamingWriter(bos)) {
+            try (OutputStream os = enc.getDataStream(writer.getRoot())) {
+                os.write(data);
+            }
+        }
+
+        try (POIFSFileSystem poifs = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+            EncryptionInfo info2 = new EncryptionInfo(poifs);
+            assertEquals(mode, info2.getEncryptionMode());
+            Decryptor dec = info2.getDecryptor();
+            assertTrue(dec.verifyPassword(pass));
+
+            try (InputStream is = dec.getDataStream(poifs)) {
+                assertArrayEquals(data, IOUtils.toByteArray(is));
+            }
+            assertTrue(poifs.getRoot().hasEntry("\u0006DataSpaces"));
+        }
+    }
+
     @Test
     void smallFile() throws IOException, GeneralSecurityException {
         // see https://stackoverflow.com/questions/61463301
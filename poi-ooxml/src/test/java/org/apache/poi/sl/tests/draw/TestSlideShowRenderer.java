@@ -0,0 +1,157 @@
+/*
+ *  ====================================================================
+ *    Licensed to the Apache Software Foundation (ASF) under one or more
+ *    contributor license agreements.  See the NOTICE file distributed with
+ *    this work for additional information regarding copyright ownership.
+ *    The ASF licenses this file to You under the Apache License, Version 2.0
+ *    (the "License"); you may not use this file except in compliance with
+ *    the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ * ====================================================================
+ */
+package org.apache.poi.sl.tests.draw;
+
+import static org.apache.poi.sl.tests.SLCommonUtils.openSampleSlideshow;
+import static org.apache.poi.sl.tests.SLCommonUtils.xslfOnly;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.sl.draw.Drawable;
+import org.apache.poi.sl.draw.ImageCache;
+import org.apache.poi.sl.draw.SlideShowRenderer;
+import org.apache.poi.sl.usermodel.PictureData;
+import org.apache.poi.sl.usermodel.SlideShow;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFPictureData;
+import org.apache.poi.xslf.usermodel.XSLFPictureShape;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TestSlideShowRenderer {
+    private static final POIDataSamples slTests = POIDataSamples.getSlideShowInstance();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pictures.ppt", "shapes.pptx", "table_test.pptx", "SampleShow.pptx"})
+    void parallelEqualsSequential(String file) throws IOException {
+        assumeFalse(xslfOnly() && file.endsWith(".ppt"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (SlideShow<?,?> ppt = openSampleSlideshow(file)) {
+            SlideShowRenderer renderer = new SlideShowRenderer(ppt);
+            renderer.setScale(0.5);
+
+            int slideCnt = ppt.getSlides().size();
+            Map<Integer, BufferedImage> images = new HashMap<>();
+            renderer.renderSlides(IntStream.range(0, slideCnt).boxed().collect(Collectors.toList()), executor, images::put);
+            assertEquals(slideCnt, images.size());
+
+            for (int i = 0; i < slideCnt; i++) {
+                BufferedImage expected = renderer.renderSlide(i);
+                BufferedImage actual = images.get(i);
+                assertEquals(renderer.getImageSize().width, actual.getWidth());
+                assertEquals(renderer.getImageSize().height, actual.getHeight());
+                assertArrayEquals(getPixels(expected), getPixels(actual), file + " - slide " + i);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void imageCache() throws IOException {
+        try (SlideShow<?,?> ppt = openSampleSlideshow("shapes.pptx")) {
+            SlideShowRenderer renderer = new SlideShowRenderer(ppt);
+            renderer.setScale(0.25);
+            ImageCache cache = (ImageCache)renderer.getRenderingHint(Drawable.IMAGE_CACHE);
+            assertNotNull(cache);
+
+            BufferedImage img1 = renderer.renderSlide(0);
+            long misses = cache.getMissCount();
+            assertTrue(misses > 0);
+            assertEquals(0, cache.getHitCount());
+
+            BufferedImage img2 = renderer.renderSlide(0);
+            assertEquals(misses, cache.getMissCount());
+            assertEquals(misses, cache.getHitCount());
+            assertArrayEquals(getPixels(img1), getPixels(img2));
+
+            renderer.setRenderingHint(Drawable.IMAGE_CACHE, null);
+            BufferedImage img3 = renderer.renderSlide(0);
+            assertEquals(misses, cache.getHitCount());
+            assertArrayEquals(getPixels(img1), getPixels(img3));
+        }
+    }
+
+    @Test
+    void metafileCache() throws Exception {
+        assumeFalse(xslfOnly());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (XMLSlideShow ppt = new XMLSlideShow()) {
+            ppt.createSlide();
+            ppt.createSlide();
+            XSLFPictureData pd = ppt.addPicture(slTests.readFile("santa.wmf"), PictureData.PictureType.WMF);
+            XSLFPictureShape ps = ppt.getSlideMasters().get(0).createPicture(pd);
+            ps.setAnchor(new Rectangle2D.Double(10, 10, 200, 150));
+
+            SlideShowRenderer renderer = new SlideShowRenderer(ppt);
+            renderer.setScale(0.5);
+            ImageCache cache = (ImageCache)renderer.getRenderingHint(Drawable.METAFILE_CACHE);
+            assertNotNull(cache);
+
+            renderer.prerasterize(executor).get();
+            assertEquals(1, cache.size());
+            assertEquals(1, cache.getMissCount());
+
+            BufferedImage img1 = renderer.renderSlide(0);
+            BufferedImage img2 = renderer.renderSlide(1);
+            assertEquals(1, cache.getMissCount());
+            assertEquals(2, cache.getHitCount());
+            assertArrayEquals(getPixels(img1), getPixels(img2));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void consumerFailure() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (SlideShow<?,?> ppt = openSampleSlideshow("SampleShow.pptx")) {
+            SlideShowRenderer renderer = new SlideShowRenderer(ppt);
+            renderer.setScale(0.1);
+            IOException ex = assertThrows(IOException.class, () ->
+                renderer.renderSlides(Arrays.asList(0, 1), executor, (idx, img) -> { throw new IOException("stop"); }));
+            assertEquals("stop", ex.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int[] getPixels(BufferedImage img) {
+        return img.getRGB(0, 0, img.getWidth(), img.getHeight(), null, 0, img.getWidth());
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.poi.ss.tests;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -28,6 +29,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -239,6 +241,37 @@ public final class TestWorkbookFactory {
         }
     }
 
+    /**
+     * Check that the read-only path methods, which share the file channel, work properly
+     */
+    @ParameterizedTest
+    @MethodSource("workbookPass")
+    void testCreateWithPasswordFromPath(String fileName, String pass, boolean fails, Class<? extends Workbook> clazz) throws Exception {
+        Path path = HSSFTestDataSamples.getSampleFile(fileName).toPath();
+        if (fails) {
+            assertThrows(EncryptedDocumentException.class, () -> WorkbookFactory.create(path, pass, true),
+                "Shouldn't be able to open with the wrong password");
+        } else {
+            try (Workbook wb = WorkbookFactory.create(path, pass, true)) {
+                assertNotNull(wb);
+                assertTrue(clazz.isInstance(wb));
+                assertTrue(wb.getNumberOfSheets() > 0);
+                assertCloseDoesNotModifyFile(fileName, wb);
+            }
+        }
+    }
+
+    @Test
+    void testCreateFromPathInvalid() throws Exception {
+        assertNull(WorkbookFactory.create(HSSFTestDataSamples.getSampleFile(txt).toPath(), null, true));
+
+        File emptyFile = TempFile.createTempFile("empty", ".poi");
+        assertThrows(EmptyFileException.class, () -> WorkbookFactory.create(emptyFile.toPath(), null, true));
+        assertTrue(emptyFile.delete());
+
+        assertThrows(FileNotFoundException.class, () -> WorkbookFactory.create(new File("notExistingFile").toPath(), null, true));
+    }
+
     /**
      * Check that a helpful exception is given on an empty input stream
      */
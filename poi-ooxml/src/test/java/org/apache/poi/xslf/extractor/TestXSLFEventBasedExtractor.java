@@ -0,0 +1,91 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xslf.extractor;
+
+import static org.apache.poi.POITestCase.assertContains;
+import static org.apache.poi.POITestCase.assertNotContained;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.InputStream;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests for {@link XSLFEventBasedExtractor}
+ */
+class TestXSLFEventBasedExtractor {
+    private static final POIDataSamples slTests = POIDataSamples.getSlideShowInstance();
+
+    private static OPCPackage openPackage(String file) throws Exception {
+        try (InputStream is = slTests.openResourceAsStream(file)) {
+            return OPCPackage.open(is);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "sample.pptx", "SampleShow.pptx", "45545_Comment.pptx", "table_test.pptx", "table_test2.pptx",
+        "sample_pptx_grouping_issues.pptx", "alterman_security.pptx", "WithMaster.pptx"
+    })
+    void sameTextAsSlideShowExtractor(String file) throws Exception {
+        try (OPCPackage pkg = openPackage(file)) {
+            for (boolean all : new boolean[]{false, true}) {
+                String expected;
+                try (XSLFExtractor extractor = new XSLFExtractor(new XMLSlideShow(pkg))) {
+                    extractor.setCloseFilesystem(false);
+                    extractor.setNotesByDefault(all);
+                    extractor.setCommentsByDefault(all);
+                    expected = extractor.getText();
+                }
+
+                try (XSLFEventBasedExtractor extractor = new XSLFEventBasedExtractor(pkg)) {
+                    extractor.setCloseFilesystem(false);
+                    extractor.setNotesByDefault(all);
+                    extractor.setCommentsByDefault(all);
+                    assertEquals(expected, extractor.getText());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNotesAndComments() throws Exception {
+        try (XSLFEventBasedExtractor extractor = new XSLFEventBasedExtractor(openPackage("sample.pptx"))) {
+            extractor.setSlidesByDefault(false);
+            extractor.setNotesByDefault(true);
+            assertEquals("\n1\n\n2\n", extractor.getText());
+            assertNull(extractor.getDocument());
+        }
+
+        try (XSLFEventBasedExtractor extractor = new XSLFEventBasedExtractor(openPackage("45545_Comment.pptx"))) {
+            assertNotContained(extractor.getText(), "XPVMWARE01");
+
+            extractor.setCommentsByDefault(true);
+            String text = extractor.getText();
+            assertContains(text, "testdoc");
+            assertContains(text, "test phrase");
+            assertContains(text, "XPVMWARE01");
+        }
+    }
+}
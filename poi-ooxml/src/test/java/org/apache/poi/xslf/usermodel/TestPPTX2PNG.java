@@ -20,19 +20,25 @@
 package org.apache.poi.xslf.usermodel;
 
 import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import javax.imageio.ImageIO;
+
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.xslf.util.PPTX2PNG;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -89,6 +95,23 @@ class TestPPTX2PNG {
         }
     }
 
+    @Test
+    void renderParallel() throws Exception {
+        File tmpDir = new File("build/tmp/");
+        String[] args = getArgs("themes.pptx", "png");
+        List<String> argList = new ArrayList<>(asList(args));
+        argList.addAll(argList.size() - 1, asList("-threads", "3", "-outpat", "${basename}-${slideno}-parallel.${format}"));
+        PPTX2PNG.main(argList.toArray(new String[0]));
+
+        for (int slideNo = 1; slideNo <= 4; slideNo++) {
+            File png = new File(tmpDir, String.format(Locale.ROOT, "themes-%04d-parallel.png", slideNo));
+            assertTrue(png.exists(), png.getName());
+            BufferedImage img = ImageIO.read(png);
+            assertEquals(800, Math.max(img.getWidth(), img.getHeight()));
+            assertTrue(png.delete());
+        }
+    }
+
     private String[] getArgs(String pptFile, String format) throws IOException {
         File tmpDir = new File("build/tmp/");
 
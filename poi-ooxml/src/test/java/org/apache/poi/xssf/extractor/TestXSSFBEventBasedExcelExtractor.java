@@ -21,12 +21,15 @@ import static org.apache.poi.POITestCase.assertContains;
 import static org.apache.poi.POITestCase.assertStartsWith;
 import static org.apache.poi.POITestCase.assertEndsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.apache.poi.openxml4j.util.ZipSecureFile;
 import org.apache.poi.xssf.XSSFTestDataSamples;
 import org.junit.jupiter.api.Test;
 
 import java.io.BufferedReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 
@@ -126,4 +129,23 @@ class TestXSSFBEventBasedExcelExtractor {
             }
         }
     }
+
+    @Test
+    void testMaxTextSizeWithoutHeadersFooters() throws Exception {
+        try (XSSFEventBasedExcelExtractor extractor = getExtractor("sample.xlsb")) {
+            extractor.setIncludeHeadersFooters(false);
+            final int length = extractor.getText().length();
+            final long before = ZipSecureFile.getMaxTextSize();
+            try {
+                // the rows are flushed to the output, but the limit applies to the whole text
+                ZipSecureFile.setMaxTextSize(length);
+                assertEquals(length, extractor.getText().length());
+                ZipSecureFile.setMaxTextSize(length - 1);
+                assertThrows(IllegalStateException.class, extractor::getText);
+                assertThrows(IllegalStateException.class, () -> extractor.writeText(new StringWriter()));
+            } finally {
+                ZipSecureFile.setMaxTextSize(before);
+            }
+        }
+    }
 }
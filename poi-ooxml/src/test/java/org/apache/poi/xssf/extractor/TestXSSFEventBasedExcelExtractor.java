@@ -23,8 +23,10 @@ import static org.apache.poi.POITestCase.assertEndsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.StringWriter;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,6 +34,7 @@ import org.apache.poi.extractor.POITextExtractor;
 import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
 import org.apache.poi.hssf.HSSFTestDataSamples;
 import org.apache.poi.hssf.extractor.ExcelExtractor;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
 import org.apache.poi.xssf.XSSFTestDataSamples;
 import org.junit.jupiter.api.Test;
 
@@ -351,4 +354,23 @@ class TestXSSFEventBasedExcelExtractor {
 		ex.close();
 
 	}
+
+    @Test
+    void testMaxTextSizeWithoutHeadersFooters() throws Exception {
+        try (XSSFEventBasedExcelExtractor extractor = getExtractor("sample.xlsx")) {
+            extractor.setIncludeHeadersFooters(false);
+            final int length = extractor.getText().length();
+            final long before = ZipSecureFile.getMaxTextSize();
+            try {
+                // the rows are flushed to the output, but the limit applies to the whole text
+                ZipSecureFile.setMaxTextSize(length);
+                assertEquals(length, extractor.getText().length());
+                ZipSecureFile.setMaxTextSize(length - 1);
+                assertThrows(IllegalStateException.class, extractor::getText);
+                assertThrows(IllegalStateException.class, () -> extractor.writeText(new StringWriter()));
+            } finally {
+                ZipSecureFile.setMaxTextSize(before);
+            }
+        }
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.poi.xssf.streaming;
 
 import static org.apache.poi.POITestCase.assertEndsWith;
 import static org.apache.poi.POITestCase.assertStartsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -35,11 +36,21 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.crypt.CryptoFunctions;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.crypt.EncryptionMode;
+import org.apache.poi.poifs.crypt.HashAlgorithm;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.tests.usermodel.BaseTestXWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -48,6 +59,7 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.NullOutputStream;
 import org.apache.poi.xssf.SXSSFITestDataProvider;
 import org.apache.poi.xssf.XSSFTestDataSamples;
@@ -531,6 +543,43 @@ public final class TestSXSSFWorkbook extends BaseTestXWorkbook {
         wb.close();
     }
 
+    @Test
+    void writeEncrypted() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(10)) {
+            Sheet sh = wb.createSheet("Payroll");
+            for (int i = 0; i < 100; i++) {
+                Row row = sh.createRow(i);
+                row.createCell(0).setCellValue("Employee " + i);
+                row.createCell(1).setCellValue(1000.0 + i);
+            }
+            wb.writeEncrypted(bos, new EncryptionInfo(EncryptionMode.agile), "secret");
+        }
+
+        try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+            EncryptionInfo info = new EncryptionInfo(fs);
+            Decryptor dec = Decryptor.getInstance(info);
+            assertTrue(dec.verifyPassword("secret"));
+
+            // the integrity hmac covers the whole EncryptedPackage stream
+            HashAlgorithm hashAlgo = info.getHeader().getHashAlgorithm();
+            Mac mac = CryptoFunctions.getMac(hashAlgo);
+            mac.init(new SecretKeySpec(dec.getIntegrityHmacKey(), hashAlgo.jceHmacId));
+            try (InputStream is = fs.createDocumentInputStream(Decryptor.DEFAULT_POIFS_ENTRY)) {
+                mac.update(IOUtils.toByteArray(is));
+            }
+            assertArrayEquals(mac.doFinal(), dec.getIntegrityHmacValue());
+
+            try (InputStream is = dec.getDataStream(fs);
+                 XSSFWorkbook xssf = new XSSFWorkbook(is)) {
+                Sheet s = xssf.getSheet("Payroll");
+                assertEquals(99, s.getLastRowNum());
+                assertEquals("Employee 42", s.getRow(42).getCell(0).getStringCellValue());
+                assertEquals(1099.0, s.getRow(99).getCell(1).getNumericCellValue(), 0.0);
+            }
+        }
+    }
+
     void changeSheetNameWithSharedFormulas() {
         /* not implemented */
     }
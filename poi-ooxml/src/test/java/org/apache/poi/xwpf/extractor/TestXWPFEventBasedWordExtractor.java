@@ -0,0 +1,133 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.extractor;
+
+import static org.apache.poi.POITestCase.assertContains;
+import static org.apache.poi.POITestCase.assertEndsWith;
+import static org.apache.poi.POITestCase.assertStartsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests for {@link XWPFEventBasedWordExtractor}
+ */
+class TestXWPFEventBasedWordExtractor {
+
+    private static OPCPackage openSamplePackage(String sampleFileName) throws Exception {
+        try (InputStream is = POIDataSamples.getDocumentInstance().openResourceAsStream(sampleFileName)) {
+            return OPCPackage.open(is);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "sample.docx", "IllustrativeCases.docx", "TestDocument.docx", "ThreeColHeadFoot.docx",
+        "DiffFirstPageHeadFoot.docx", "Headers.docx", "footnotes.docx", "table_footnotes.docx",
+        "form_footnotes.docx", "endnotes.docx", "comment.docx", "WithTabs.docx", "FieldCodes.docx",
+        "FldSimple.docx", "Bug54849.docx", "checkboxes.docx", "TestTableColumns.docx", "55966.docx"
+    })
+    void sameTextAsDocumentExtractor(String sampleFileName) throws Exception {
+        try (OPCPackage pkg = openSamplePackage(sampleFileName)) {
+            String expected;
+            try (XWPFWordExtractor extractor = new XWPFWordExtractor(new XWPFDocument(pkg))) {
+                extractor.setCloseFilesystem(false);
+                extractor.setFetchHyperlinks(true);
+                expected = extractor.getText();
+            }
+
+            try (XWPFEventBasedWordExtractor extractor = new XWPFEventBasedWordExtractor(pkg)) {
+                extractor.setCloseFilesystem(false);
+                extractor.setFetchHyperlinks(true);
+                assertEquals(expected, extractor.getText());
+
+                StringBuilder sb = new StringBuilder();
+                extractor.writeText(sb);
+                assertEquals(expected, sb.toString());
+            }
+        }
+    }
+
+    @Test
+    void testWriteTextStreamsParagraphs() throws Exception {
+        try (XWPFEventBasedWordExtractor extractor =
+                 new XWPFEventBasedWordExtractor(openSamplePackage("ThreeColHeadFoot.docx"))) {
+            List<String> chunks = new ArrayList<>();
+            extractor.writeText(new Appendable() {
+                @Override
+                public Appendable append(CharSequence csq) {
+                    chunks.add(csq.toString());
+                    return this;
+                }
+
+                @Override
+                public Appendable append(CharSequence csq, int start, int end) {
+                    return append(csq.subSequence(start, end));
+                }
+
+                @Override
+                public Appendable append(char c) {
+                    return append(String.valueOf(c));
+                }
+            });
+            // the headers are written first, then the body paragraphs one by one and finally the footers
+            assertEquals("First header column!\tMid header\tRight header!\n", chunks.get(0));
+            assertStartsWith(chunks.get(1), "This is a sample word document.");
+            assertEquals("Footer Left\tFooter Middle\tFooter Right\n", chunks.get(chunks.size() - 1));
+            assertTrue(chunks.size() > 3);
+        }
+    }
+
+    @Test
+    void testHeadersFootersAndNotes() throws Exception {
+        try (XWPFEventBasedWordExtractor extractor =
+                 new XWPFEventBasedWordExtractor(openSamplePackage("ThreeColHeadFoot.docx"))) {
+            String text = extractor.getText();
+            assertStartsWith(text, "First header column!\tMid header\tRight header!\n");
+            assertEndsWith(text, "\nFooter Left\tFooter Middle\tFooter Right\n");
+            assertNull(extractor.getDocument());
+        }
+
+        try (XWPFEventBasedWordExtractor extractor =
+                 new XWPFEventBasedWordExtractor(openSamplePackage("endnotes.docx"))) {
+            String text = extractor.getText();
+            assertContains(text, "XXX");
+            assertContains(text, "tilaka [endnoteRef:2]or 'tika'");
+        }
+    }
+
+    @Test
+    void testMovedRuns() throws Exception {
+        // the runs in w:moveTo are extracted as well
+        try (XWPFEventBasedWordExtractor extractor =
+                 new XWPFEventBasedWordExtractor(openSamplePackage("Tika-792.docx"))) {
+            assertEquals("s.\nb\n", extractor.getText());
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.poi.hemf.draw;
 
+import static org.apache.poi.hwmf.draw.HwmfImageRenderer.drawRaster;
 import static org.apache.poi.hwmf.draw.HwmfImageRenderer.getOuterBounds;
 
 import java.awt.Graphics2D;
@@ -44,6 +45,7 @@ import org.apache.poi.util.Units;
 @SuppressWarnings("unused")
 public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
     HemfPicture image;
+    byte[] data;
     double alpha;
     boolean charsetInitialized = false;
 
@@ -58,6 +60,7 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
             throw new IOException("Invalid picture type");
         }
         image = new HemfPicture(data);
+        this.data = null;
     }
 
     @Override
@@ -65,7 +68,10 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         if (!PictureData.PictureType.EMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
-        image = new HemfPicture(new ByteArrayInputStream(data));
+        image = (data.length >= HwmfImageRenderer.getStreamingThreshold())
+            ? new HemfPicture(() -> new ByteArrayInputStream(data))
+            : new HemfPicture(new ByteArrayInputStream(data));
+        this.data = data;
     }
 
     @Override
@@ -122,7 +128,10 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
                 clip = new Insets(0, 0, 0, 0);
             }
 
-            image.draw(graphics, getOuterBounds(anchor, clip));
+            Rectangle2D outerBounds = getOuterBounds(anchor, clip);
+            if (!drawRaster(graphics, outerBounds, data, PictureData.PictureType.EMF.contentType, image::draw)) {
+                image.draw(graphics, outerBounds);
+            }
         } finally {
             graphicsState.restore(graphics);
         }
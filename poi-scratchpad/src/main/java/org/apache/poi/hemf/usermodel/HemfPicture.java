@@ -27,12 +27,14 @@ import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
+import java.io.Closeable;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -47,6 +49,7 @@ import org.apache.poi.hwmf.usermodel.HwmfCharsetAware;
 import org.apache.poi.hwmf.usermodel.HwmfEmbedded;
 import org.apache.poi.sl.draw.Drawable;
 import org.apache.poi.util.Dimension2DDouble;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.Internal;
 import org.apache.poi.util.LittleEndianInputStream;
 import org.apache.poi.util.LocaleUtil;
@@ -58,8 +61,10 @@ import org.apache.poi.util.Units;
 @Internal
 public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
     private final LittleEndianInputStream stream;
+    private final Supplier<? extends InputStream> source;
     private final List<HemfRecord> records = new ArrayList<>();
     private boolean isParsed = false;
+    private HemfHeader streamingHeader;
     private Charset defaultCharset = LocaleUtil.CHARSET_1252;
 
     public HemfPicture(InputStream is) {
@@ -68,45 +73,100 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
 
     public HemfPicture(LittleEndianInputStream is) {
         stream = is;
+        source = null;
+    }
+
+    /**
+     * Creates a streaming picture, which doesn't keep the parsed records in memory.
+     * Instead the records are parsed one at a time from the source, each time the picture is
+     * iterated or drawn. This trades parsing time for memory and is useful for large metafiles,
+     * which are only drawn once.<p>
+     *
+     * A new stream is opened for each pass over the records and closed afterwards,
+     * i.e. when the iteration is finished.
+     *
+     * @param source the supplier of the metafile data
+     *
+     * @since POI 5.0.1
+     */
+    public HemfPicture(Supplier<? extends InputStream> source) {
+        stream = null;
+        this.source = source;
+    }
+
+    /**
+     * @return {@code true}, if the records are parsed on each iteration and not kept in memory
+     *
+     * @since POI 5.0.1
+     */
+    public boolean isStreaming() {
+        return source != null;
     }
 
     public HemfHeader getHeader() {
-        return (HemfHeader)getRecords().get(0);
+        if (!isStreaming()) {
+            return (HemfHeader)getRecords().get(0);
+        }
+        if (streamingHeader == null) {
+            try (RecordIterator iter = new RecordIterator()) {
+                streamingHeader = (HemfHeader)iter.next();
+            }
+        }
+        return streamingHeader;
     }
 
+    /**
+     * Returns the records of this picture. In case of a streaming picture, the records
+     * are parsed again on each call and not cached.
+     *
+     * @return the records
+     */
     public List<HemfRecord> getRecords() {
+        if (isStreaming()) {
+            List<HemfRecord> list = new ArrayList<>();
+            forEach(list::add);
+            return list;
+        }
         if (!isParsed) {
             // in case the (first) parsing throws an exception, we can provide the
             // records up to that point
             isParsed = true;
             HemfHeader[] header = new HemfHeader[1];
-            new HemfRecordIterator(stream).forEachRemaining(r -> {
-                if (r instanceof HemfHeader) {
-                    header[0] = (HemfHeader) r;
-                }
-                r.setHeader(header[0]);
-                if (r instanceof HwmfCharsetAware) {
-                    ((HwmfCharsetAware)r).setCharsetProvider(this::getDefaultCharset);
-                }
-                records.add(r);
-            });
+            new HemfRecordIterator(stream).forEachRemaining(r -> records.add(initRecord(r, header)));
         }
         return records;
     }
 
+    private HemfRecord initRecord(HemfRecord r, HemfHeader[] header) {
+        if (r instanceof HemfHeader) {
+            header[0] = (HemfHeader) r;
+        }
+        r.setHeader(header[0]);
+        if (r instanceof HwmfCharsetAware) {
+            ((HwmfCharsetAware)r).setCharsetProvider(this::getDefaultCharset);
+        }
+        return r;
+    }
+
     @Override
     public Iterator<HemfRecord> iterator() {
-        return getRecords().iterator();
+        return isStreaming() ? new RecordIterator() : getRecords().iterator();
     }
 
     @Override
     public Spliterator<HemfRecord> spliterator() {
-        return getRecords().spliterator();
+        return isStreaming() ? Iterable.super.spliterator() : getRecords().spliterator();
     }
 
     @Override
     public void forEach(Consumer<? super HemfRecord> action) {
-        getRecords().forEach(action);
+        if (isStreaming()) {
+            try (RecordIterator iter = new RecordIterator()) {
+                iter.forEachRemaining(action);
+            }
+        } else {
+            getRecords().forEach(action);
+        }
     }
 
     /**
@@ -129,21 +189,24 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
 
     public void getInnerBounds(Rectangle2D window, Rectangle2D viewport) {
         HemfGraphics.EmfRenderState[] renderState = { HemfGraphics.EmfRenderState.INITIAL };
-        for (HemfRecord r : getRecords()) {
-            if (
-                (renderState[0] == EMF_ONLY && r instanceof HemfComment.EmfComment) ||
-                (renderState[0] == EMFPLUS_ONLY && !(r instanceof HemfComment.EmfComment))
-            ) {
-                continue;
-            }
+        try (RecordIterator iter = recordIterator()) {
+            while (iter.hasNext()) {
+                HemfRecord r = iter.next();
+                if (
+                    (renderState[0] == EMF_ONLY && r instanceof HemfComment.EmfComment) ||
+                    (renderState[0] == EMFPLUS_ONLY && !(r instanceof HemfComment.EmfComment))
+                ) {
+                    continue;
+                }
 
-            try {
-                r.calcBounds(window, viewport, renderState);
-            } catch (RuntimeException ignored) {
-            }
+                try {
+                    r.calcBounds(window, viewport, renderState);
+                } catch (RuntimeException ignored) {
+                }
 
-            if (!window.isEmpty() && !viewport.isEmpty()) {
-                break;
+                if (!window.isEmpty() && !viewport.isEmpty()) {
+                    break;
+                }
             }
         }
     }
@@ -197,13 +260,13 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
 
             HemfGraphics g = new HemfGraphics(ctx, b);
 
-            int idx=0;
-            for (HemfRecord r : getRecords()) {
-                try {
-                    g.draw(r);
-                } catch (RuntimeException ignored) {
+            try (RecordIterator iter = recordIterator()) {
+                while (iter.hasNext()) {
+                    try {
+                        g.draw(iter.next());
+                    } catch (RuntimeException ignored) {
+                    }
                 }
-                idx++;
             }
         } finally {
             ctx.setTransform(at);
@@ -234,6 +297,66 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
     }
 
 
+    private RecordIterator recordIterator() {
+        return isStreaming() ? new RecordIterator() : new RecordIterator(getRecords().iterator());
+    }
+
+    /**
+     * Iterates over the cached records or parses the records of a streaming picture one at a time.
+     * The source stream is closed when the iteration is finished or the iterator is closed.
+     */
+    private final class RecordIterator implements Iterator<HemfRecord>, Closeable {
+        private final InputStream is;
+        private final Iterator<HemfRecord> delegate;
+        private final HemfHeader[] header = new HemfHeader[1];
+        private boolean closed;
+
+        RecordIterator(Iterator<HemfRecord> delegate) {
+            this.is = null;
+            this.delegate = delegate;
+        }
+
+        RecordIterator() {
+            this.is = source.get();
+            boolean success = false;
+            try {
+                this.delegate = new HemfRecordIterator(new LittleEndianInputStream(is));
+                success = true;
+            } finally {
+                if (!success) {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            boolean hasNext = delegate.hasNext();
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public HemfRecord next() {
+            if (closed) {
+                throw new NoSuchElementException();
+            }
+            HemfRecord r = delegate.next();
+            return (is == null) ? r : initRecord(r, header);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            IOUtils.closeQuietly(is);
+        }
+    }
+
     private static class ReluctantRectangle2D extends Rectangle2D.Double {
         private boolean offsetSet = false;
         private boolean rangeSet = false;
@@ -146,10 +146,29 @@ public class MAPIMessage extends POIReadOnlyDocument {
     * @exception IOException on errors reading, or invalid data
     */
    public MAPIMessage(DirectoryNode poifsDir) throws IOException {
+      this(poifsDir, false);
+   }
+   /**
+    * Constructor for reading MSG Files from a certain
+    *  point within a POIFS filesystem
+    *
+    * <p>In lazy mode, the binary and string chunks - e.g. the bodies and the attachment data -
+    *  are only read, when they are accessed. This is useful for messages with large attachments,
+    *  when only the headers or bodies are needed. The attachments can be streamed via
+    *  {@link AttachmentChunks#getEmbeddedAttachmentObjectStream()}.
+    *  The underlying filesystem must not be closed, while the message is used.
+    *
+    * @param poifsDir Directory containing the message
+    * @param lazy if {@code true}, the chunk data is read on access
+    * @exception IOException on errors reading, or invalid data
+    *
+    * @since POI 5.0.1
+    */
+   public MAPIMessage(DirectoryNode poifsDir, boolean lazy) throws IOException {
       super(poifsDir);
 
       // Grab all the chunks
-      ChunkGroup[] chunkGroups = POIFSChunkParser.parse(poifsDir);
+      ChunkGroup[] chunkGroups = POIFSChunkParser.parse(poifsDir, lazy);
 
       // Grab interesting bits
       ArrayList<AttachmentChunks> attachments = new ArrayList<>();
@@ -25,6 +25,7 @@ import static org.apache.poi.hsmf.datatypes.MAPIProperty.ATTACH_MIME_TAG;
 import static org.apache.poi.hsmf.datatypes.MAPIProperty.ATTACH_RENDERING;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -97,6 +98,21 @@ public class AttachmentChunks implements ChunkGroup {
         return null;
     }
 
+    /**
+     * Returns the embedded object as stream, which is read from the underlying document without
+     * buffering it into memory, if the message was opened in lazy mode.
+     * The caller needs to close the stream.
+     *
+     * @return the embedded object stream or {@code null} if it's an embedded message
+     * @throws IOException if the attachment document can't be opened
+     *
+     * @see MAPIMessage#MAPIMessage(org.apache.poi.poifs.filesystem.DirectoryNode, boolean)
+     * @since POI 5.0.1
+     */
+    public InputStream getEmbeddedAttachmentObjectStream() throws IOException {
+        return (attachData != null) ? attachData.getValueStream() : null;
+    }
+
     public Chunk[] getAll() {
         return allChunks.toArray(new Chunk[0]);
     }
@@ -16,6 +16,7 @@
 ==================================================================== */
 package org.apache.poi.hsmf.datatypes;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -64,6 +65,20 @@ public class ByteChunk extends Chunk {
         this.value = value;
     }
 
+    /**
+     * Returns the data as stream, which avoids to copy the data of deferred chunks into memory.
+     * The caller needs to close the stream.
+     *
+     * @return the data stream or {@code null} if the chunk has no data
+     * @throws IOException if the underlying document can't be opened
+     *
+     * @since POI 5.0.1
+     */
+    public InputStream getValueStream() throws IOException {
+        final byte[] val = getValue();
+        return (val == null) ? null : new ByteArrayInputStream(val);
+    }
+
     /**
      * Returns the data in a debug-friendly string format
      */
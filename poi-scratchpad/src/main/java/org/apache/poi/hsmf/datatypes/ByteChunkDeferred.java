@@ -83,6 +83,14 @@ public class ByteChunkDeferred extends ByteChunk {
         }
     }
 
+    /**
+     * Returns the data as a stream of the linked document, so the data isn't read into memory.
+     */
+    @Override
+    public InputStream getValueStream() throws IOException {
+        return (node == null) ? super.getValueStream() : createDocumentInputStream();
+    }
+
     /**
      * Set bytes directly.
      * <p>
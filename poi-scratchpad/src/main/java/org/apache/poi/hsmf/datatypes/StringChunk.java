@@ -65,8 +65,8 @@ public class StringChunk extends Chunk {
     public void set7BitEncoding(String encoding) {
         this.encoding7Bit = encoding;
 
-        // Re-read the String if we're a 7 bit one
-        if (getType() == Types.ASCII_STRING) {
+        // Re-read the String if we're a 7 bit one and have already been read
+        if (getType() == Types.ASCII_STRING && rawValue != null) {
             parseString();
         }
     }
@@ -21,6 +21,7 @@ import static org.apache.poi.util.StringUtil.startsWithIgnoreCase;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collections;
@@ -87,7 +88,21 @@ public class OutlookTextExtractor implements POIOLE2TextExtractor {
      */
     public String getText() {
         StringBuilder s = new StringBuilder();
+        try {
+            writeText(s);
+        } catch (IOException e) {
+            // a StringBuilder doesn't throw IOExceptions
+            throw new UncheckedIOException(e);
+        }
+        return s.toString();
+    }
 
+    /**
+     * Writes the headers and the body of the message. With a lazy {@link MAPIMessage},
+     * the body is only read when it's written.
+     */
+    @Override
+    public void writeText(Appendable s) throws IOException {
         // See if we can get a suitable encoding for any
         //  non unicode text in the file
         msg.guess7BitEncoding();
@@ -110,15 +125,15 @@ public class OutlookTextExtractor implements POIOLE2TextExtractor {
         //  Recipient Chunks being in the same order as
         //  people in To + CC + BCC.
         try {
-            handleEmails(s, "To", msg.getDisplayTo(), emails);
+            appendEmails(s, "To", msg.getDisplayTo(), emails);
         } catch (ChunkNotFoundException ignored) {
         }
         try {
-            handleEmails(s, "CC", msg.getDisplayCC(), emails);
+            appendEmails(s, "CC", msg.getDisplayCC(), emails);
         } catch (ChunkNotFoundException ignored) {
         }
         try {
-            handleEmails(s, "BCC", msg.getDisplayBCC(), emails);
+            appendEmails(s, "BCC", msg.getDisplayBCC(), emails);
         } catch (ChunkNotFoundException ignored) {
         }
 
@@ -166,8 +181,13 @@ public class OutlookTextExtractor implements POIOLE2TextExtractor {
             s.append("\n").append(msg.getTextBody()).append("\n");
         } catch (ChunkNotFoundException ignored) {
         }
+    }
 
-        return s.toString();
+    private void appendEmails(Appendable s, String type, String displayText, Iterator<String> emails)
+    throws IOException {
+        StringBuilder sb = new StringBuilder();
+        handleEmails(sb, type, displayText, emails);
+        s.append(sb);
     }
 
     /**
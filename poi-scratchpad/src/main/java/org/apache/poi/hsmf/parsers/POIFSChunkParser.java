@@ -41,6 +41,7 @@ import org.apache.poi.hsmf.datatypes.PropertiesChunk;
 import org.apache.poi.hsmf.datatypes.RecipientChunks;
 import org.apache.poi.hsmf.datatypes.StoragePropertiesChunk;
 import org.apache.poi.hsmf.datatypes.StringChunk;
+import org.apache.poi.hsmf.datatypes.StringChunkDeferred;
 import org.apache.poi.hsmf.datatypes.Types;
 import org.apache.poi.hsmf.datatypes.Types.MAPIType;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
@@ -64,6 +65,21 @@ public final class POIFSChunkParser {
     }
 
     public static ChunkGroup[] parse(DirectoryNode node) {
+        return parse(node, false);
+    }
+
+    /**
+     * Parses the chunks of a message
+     *
+     * @param node the directory of the message
+     * @param lazy if {@code true}, the binary and string chunks are only linked to their documents
+     *  and their data is read on access. The underlying filesystem needs to stay open while
+     *  the chunks are used.
+     * @return the chunk groups of the message
+     *
+     * @since POI 5.0.1
+     */
+    public static ChunkGroup[] parse(DirectoryNode node, boolean lazy) {
         Chunks mainChunks = new Chunks();
 
         ArrayList<ChunkGroup> groups = new ArrayList<>();
@@ -89,14 +105,14 @@ public final class POIFSChunkParser {
                 }
 
                 if (group != null) {
-                    processChunks(dir, group);
+                    processChunks(dir, group, lazy);
                     groups.add(group);
                 }
             }
         }
 
         // Now do the top level chunks
-        processChunks(node, mainChunks);
+        processChunks(node, mainChunks, lazy);
 
         // All chunks are now processed, have the ChunkGroup
         // match up variable-length properties and their chunks
@@ -112,13 +128,13 @@ public final class POIFSChunkParser {
      * Creates all the chunks for a given Directory, but
      * doesn't recurse or descend
      */
-    private static void processChunks(DirectoryNode node, ChunkGroup grouping) {
+    private static void processChunks(DirectoryNode node, ChunkGroup grouping, boolean lazy) {
         final Map<Integer, MultiChunk> multiChunks = new TreeMap<>();
 
         for (Entry entry : node) {
             if (entry instanceof DocumentNode ||
                 (entry instanceof DirectoryNode && entry.getName().endsWith(Types.DIRECTORY.asFileEnding()))) {
-                process(entry, grouping, multiChunks);
+                process(entry, grouping, multiChunks, lazy);
             }
         }
 
@@ -132,20 +148,22 @@ public final class POIFSChunkParser {
     /**
      * Creates a chunk, and gives it to its parent group
      */
-    private static void process(Entry entry, ChunkGroup grouping, Map<Integer, MultiChunk> multiChunks) {
+    private static void process(Entry entry, ChunkGroup grouping, Map<Integer, MultiChunk> multiChunks, boolean lazy) {
         final String entryName = entry.getName();
         boolean[] isMultiValued = { false };
 
         // Is it a properties chunk? (They have special names)
         Chunk chunk = (PropertiesChunk.NAME.equals(entryName))
             ? readPropertiesChunk(grouping, entry)
-            : readPrimitiveChunk(entry, isMultiValued, multiChunks);
+            : readPrimitiveChunk(entry, isMultiValued, multiChunks, lazy);
 
         if (chunk == null) {
             return;
         }
 
-        if (entry instanceof DocumentNode) {
+        // deferred chunks have been linked to their document and are read on access
+        boolean isDeferred = chunk instanceof ByteChunkDeferred || chunk instanceof StringChunkDeferred;
+        if (entry instanceof DocumentNode && !isDeferred) {
             try (DocumentInputStream inp = new DocumentInputStream((DocumentNode) entry)) {
                 chunk.readValue(inp);
             } catch (IOException e) {
@@ -170,7 +188,7 @@ public final class POIFSChunkParser {
         }
     }
 
-    private static Chunk readPrimitiveChunk(Entry entry, boolean[] isMultiValue, Map<Integer, MultiChunk> multiChunks) {
+    private static Chunk readPrimitiveChunk(Entry entry, boolean[] isMultiValue, Map<Integer, MultiChunk> multiChunks, boolean lazy) {
         final String entryName = entry.getName();
         final int splitAt = entryName.lastIndexOf('_');
 
@@ -228,6 +246,9 @@ public final class POIFSChunkParser {
             } else {
                 if (type == Types.DIRECTORY && entry instanceof DirectoryNode) {
                     return new DirectoryChunk((DirectoryNode) entry, namePrefix, chunkId, type);
+                } else if (lazy && entry instanceof DocumentNode &&
+                    (type == Types.BINARY || type == Types.ASCII_STRING || type == Types.UNICODE_STRING)) {
+                    return readDeferredChunk((DocumentNode) entry, namePrefix, chunkId, type);
                 } else if (type == Types.BINARY) {
                     return new ByteChunk(namePrefix, chunkId, type);
                 } else if (type == Types.ASCII_STRING || type == Types.UNICODE_STRING) {
@@ -240,6 +261,17 @@ public final class POIFSChunkParser {
         }
     }
 
+    private static Chunk readDeferredChunk(DocumentNode entry, String namePrefix, int chunkId, MAPIType type) {
+        if (type == Types.BINARY) {
+            ByteChunkDeferred bcd = new ByteChunkDeferred(namePrefix, chunkId, type);
+            bcd.readValue(entry);
+            return bcd;
+        } else {
+            StringChunkDeferred scd = new StringChunkDeferred(namePrefix, chunkId, type);
+            scd.readValue(entry);
+            return scd;
+        }
+    }
 
     private static Chunk readMultiValue(String namePrefix, String ids, int chunkId, Entry entry, MAPIType type,
                                        Map<Integer, MultiChunk> multiChunks) {
@@ -21,6 +21,7 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
@@ -29,6 +30,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Iterator;
+import java.util.function.BiConsumer;
 
 import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.hwmf.usermodel.HwmfEmbedded;
@@ -37,6 +39,7 @@ import org.apache.poi.sl.draw.BitmapImageRenderer;
 import org.apache.poi.sl.draw.DrawPictureShape;
 import org.apache.poi.sl.draw.Drawable;
 import org.apache.poi.sl.draw.EmbeddedExtractor;
+import org.apache.poi.sl.draw.ImageCache;
 import org.apache.poi.sl.draw.ImageRenderer;
 import org.apache.poi.sl.usermodel.PictureData.PictureType;
 import org.apache.poi.util.Internal;
@@ -47,7 +50,13 @@ import org.apache.poi.util.Units;
  * via reflection
  */
 public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
+    /** the default size in bytes from which metafiles are parsed in streaming mode */
+    public static final int DEFAULT_STREAMING_THRESHOLD = 10_000_000;
+
+    private static int streamingThreshold = DEFAULT_STREAMING_THRESHOLD;
+
     HwmfPicture image;
+    byte[] data;
     double alpha;
     boolean charsetInitialized = false;
 
@@ -62,6 +71,7 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
             throw new IOException("Invalid picture type");
         }
         image = new HwmfPicture(data);
+        this.data = null;
     }
 
     @Override
@@ -69,7 +79,32 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         if (!PictureType.WMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
-        image = new HwmfPicture(new ByteArrayInputStream(data));
+        image = (data.length >= streamingThreshold)
+            ? new HwmfPicture(() -> new ByteArrayInputStream(data))
+            : new HwmfPicture(new ByteArrayInputStream(data));
+        this.data = data;
+    }
+
+    /**
+     * Sets the size of the metafiles (WMF and EMF), from which on the records are not kept in memory,
+     * but are parsed again each time the picture is drawn. Large metafiles often contain bitmaps, whose
+     * parsed records take a multiple of the file size.
+     *
+     * @param threshold the size in bytes, use {@code Integer.MAX_VALUE} to disable the streaming mode
+     *
+     * @since POI 5.0.1
+     */
+    public static void setStreamingThreshold(int threshold) {
+        streamingThreshold = threshold;
+    }
+
+    /**
+     * @return the size of the metafiles in bytes, from which on they are rendered in streaming mode
+     *
+     * @since POI 5.0.1
+     */
+    public static int getStreamingThreshold() {
+        return streamingThreshold;
     }
 
     @Override
@@ -134,13 +169,73 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
             graphics.clip(anchor);
         }
 
-        image.draw(graphics, getOuterBounds(anchor, clip));
+        Rectangle2D outerBounds = getOuterBounds(anchor, clip);
+        if (!drawRaster(graphics, outerBounds, data, PictureType.WMF.contentType, image::draw)) {
+            image.draw(graphics, outerBounds);
+        }
 
         graphicsState.restore(graphics);
 
         return true;
     }
 
+    /**
+     * Draws the metafile via a raster image from the {@link Drawable#METAFILE_CACHE}.
+     * The raster is rendered in the device resolution of the graphics context, so cache hits
+     * only occur for the same picture drawn in the same size and scale.
+     *
+     * @param graphics the target graphics context
+     * @param bounds the bounds of the metafile in user space
+     * @param data the metafile bytes or {@code null} if they aren't available
+     * @param contentType the content type of the metafile
+     * @param painter draws the metafile into the given bounds of the raster graphics
+     * @return {@code true} if the raster was drawn, {@code false} if there's no cache or the
+     *   raster would exceed the cache limit
+     *
+     * @since POI 5.0.1
+     */
+    @Internal
+    public static boolean drawRaster(Graphics2D graphics, Rectangle2D bounds, byte[] data, String contentType,
+                                     BiConsumer<Graphics2D, Rectangle2D> painter) {
+        final ImageCache cache = (ImageCache)graphics.getRenderingHint(Drawable.METAFILE_CACHE);
+        if (cache == null || data == null || bounds.isEmpty()) {
+            return false;
+        }
+
+        // the device scale is independent of rotation and translation
+        final AffineTransform tx = graphics.getTransform();
+        final double scaleX = Math.hypot(tx.getScaleX(), tx.getShearY());
+        final double scaleY = Math.hypot(tx.getShearX(), tx.getScaleY());
+        final int width = (int)Math.ceil(bounds.getWidth() * scaleX);
+        final int height = (int)Math.ceil(bounds.getHeight() * scaleY);
+        if (width <= 0 || height <= 0 || 4L * width * height > cache.getMaxBytes()) {
+            return false;
+        }
+
+        final BufferedImage img;
+        try {
+            img = cache.getImage(data, contentType, width, height, d -> {
+                BufferedImage bufImg = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = bufImg.createGraphics();
+                try {
+                    g.setRenderingHints(graphics.getRenderingHints());
+                    painter.accept(g, new Rectangle2D.Double(0, 0, width, height));
+                } finally {
+                    g.dispose();
+                }
+                return bufImg;
+            });
+        } catch (IOException e) {
+            return false;
+        }
+
+        AffineTransform at = new AffineTransform();
+        at.translate(bounds.getX(), bounds.getY());
+        at.scale(bounds.getWidth() / width, bounds.getHeight() / height);
+        graphics.drawRenderedImage(img, at);
+        return true;
+    }
+
     @Internal
     public static Rectangle2D getOuterBounds(Rectangle2D anchor, Insets clip) {
         double outerWidth = anchor.getWidth() / ((100_000.-clip.left-clip.right)/100_000.);
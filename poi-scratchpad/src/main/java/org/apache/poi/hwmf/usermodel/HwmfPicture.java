@@ -18,10 +18,10 @@
 package org.apache.poi.hwmf.usermodel;
 
 import java.awt.Graphics2D;
-import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -30,8 +30,9 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
@@ -62,67 +63,119 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
     final List<HwmfRecord> records = new ArrayList<>();
     final HwmfPlaceableHeader placeableHeader;
     final HwmfHeader header;
+    private final Supplier<? extends InputStream> source;
     /** The default charset */
     private Charset defaultCharset = LocaleUtil.CHARSET_1252;
 
     public HwmfPicture(InputStream inputStream) throws IOException {
-
+        source = null;
         try (LittleEndianInputStream leis = new LittleEndianInputStream(inputStream)) {
             placeableHeader = HwmfPlaceableHeader.readHeader(leis);
             header = new HwmfHeader(leis);
 
-            for (;;) {
-                long recordSize;
-                int recordFunction;
-                try {
-                    // recordSize in DWORDs
-                    long recordSizeLong = leis.readUInt()*2;
-                    if (recordSizeLong > Integer.MAX_VALUE) {
-                        throw new RecordFormatException("record size can't be > "+Integer.MAX_VALUE);
-                    } else if (recordSizeLong < 0L) {
-                        throw new RecordFormatException("record size can't be < 0");
-                    }
-                    recordSize = (int)recordSizeLong;
-                    recordFunction = leis.readShort();
-                } catch (Exception e) {
-                    LOG.atError().log("unexpected eof - wmf file was truncated");
-                    break;
-                }
-                // 4 bytes (recordSize) + 2 bytes (recordFunction)
-                int consumedSize = 6;
-                HwmfRecordType wrt = HwmfRecordType.getById(recordFunction);
-                if (wrt == null) {
-                    throw new IOException("unexpected record type: "+recordFunction);
-                }
-                if (wrt == HwmfRecordType.eof) {
-                    break;
-                }
-                if (wrt.constructor == null) {
-                    throw new IOException("unsupported record type: "+recordFunction);
-                }
-
-                final HwmfRecord wr = wrt.constructor.get();
+            for (HwmfRecord wr; (wr = readRecord(leis)) != null; ) {
                 records.add(wr);
+            }
+        }
+    }
 
-                consumedSize += wr.init(leis, recordSize, recordFunction);
-                int remainingSize = (int)(recordSize - consumedSize);
-                if (remainingSize < 0) {
-                    throw new RecordFormatException("read too many bytes. record size: "+recordSize + "; comsumed size: "+consumedSize);
-                } else if(remainingSize > 0) {
-                    long skipped = IOUtils.skipFully(leis, remainingSize);
-                    if (skipped != (long)remainingSize) {
-                        throw new RecordFormatException("Tried to skip "+remainingSize + " but skipped: "+skipped);
-                    }
-                }
+    /**
+     * Creates a streaming picture, which only reads the headers upfront and doesn't keep
+     * the records in memory. Instead the records are parsed one at a time from the source,
+     * each time the picture is iterated or drawn. This trades parsing time for memory and
+     * is useful for large metafiles, which are only drawn once.<p>
+     *
+     * A new stream is opened for each pass over the records and closed afterwards,
+     * i.e. when the iteration is finished.
+     *
+     * @param source the supplier of the metafile data
+     * @throws IOException if the headers can't be read
+     *
+     * @since POI 5.0.1
+     */
+    public HwmfPicture(Supplier<? extends InputStream> source) throws IOException {
+        this.source = source;
+        try (LittleEndianInputStream leis = new LittleEndianInputStream(source.get())) {
+            placeableHeader = HwmfPlaceableHeader.readHeader(leis);
+            header = new HwmfHeader(leis);
+        }
+    }
 
-                if (wr instanceof HwmfCharsetAware) {
-                    ((HwmfCharsetAware)wr).setCharsetProvider(this::getDefaultCharset);
-                }
+    /**
+     * @return {@code true}, if the records are parsed on each iteration and not kept in memory
+     *
+     * @since POI 5.0.1
+     */
+    public boolean isStreaming() {
+        return source != null;
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return the record or {@code null} if the end of the metafile is reached
+     */
+    private HwmfRecord readRecord(LittleEndianInputStream leis) throws IOException {
+        long recordSize;
+        int recordFunction;
+        try {
+            // recordSize in DWORDs
+            long recordSizeLong = leis.readUInt()*2;
+            if (recordSizeLong > Integer.MAX_VALUE) {
+                throw new RecordFormatException("record size can't be > "+Integer.MAX_VALUE);
+            } else if (recordSizeLong < 0L) {
+                throw new RecordFormatException("record size can't be < 0");
+            }
+            recordSize = (int)recordSizeLong;
+            recordFunction = leis.readShort();
+        } catch (Exception e) {
+            LOG.atError().log("unexpected eof - wmf file was truncated");
+            return null;
+        }
+        // 4 bytes (recordSize) + 2 bytes (recordFunction)
+        int consumedSize = 6;
+        HwmfRecordType wrt = HwmfRecordType.getById(recordFunction);
+        if (wrt == null) {
+            throw new IOException("unexpected record type: "+recordFunction);
+        }
+        if (wrt == HwmfRecordType.eof) {
+            return null;
+        }
+        if (wrt.constructor == null) {
+            throw new IOException("unsupported record type: "+recordFunction);
+        }
+
+        final HwmfRecord wr = wrt.constructor.get();
+
+        consumedSize += wr.init(leis, recordSize, recordFunction);
+        int remainingSize = (int)(recordSize - consumedSize);
+        if (remainingSize < 0) {
+            throw new RecordFormatException("read too many bytes. record size: "+recordSize + "; comsumed size: "+consumedSize);
+        } else if(remainingSize > 0) {
+            long skipped = IOUtils.skipFully(leis, remainingSize);
+            if (skipped != (long)remainingSize) {
+                throw new RecordFormatException("Tried to skip "+remainingSize + " but skipped: "+skipped);
             }
         }
+
+        if (wr instanceof HwmfCharsetAware) {
+            ((HwmfCharsetAware)wr).setCharsetProvider(this::getDefaultCharset);
+        }
+        return wr;
     }
 
+    /**
+     * Returns the records of this picture. In case of a streaming picture, the records
+     * are parsed again on each call and not cached.
+     *
+     * @return the records
+     */
     public List<HwmfRecord> getRecords() {
+        if (isStreaming()) {
+            List<HwmfRecord> list = new ArrayList<>();
+            forEach(list::add);
+            return list;
+        }
         return Collections.unmodifiableList(records);
     }
 
@@ -156,16 +209,10 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
             prop.setViewportOrg(innerBounds.getX(), innerBounds.getY());
             prop.setViewportExt(innerBounds.getWidth(), innerBounds.getHeight());
 
-            int idx = 0;
-            for (HwmfRecord r : records) {
-                prop = g.getProperties();
-                Shape propClip = prop.getClip();
-                Shape ctxClip = ctx.getClip();
-                if (!Objects.equals(propClip, ctxClip)) {
-                    int a = 5;
+            try (RecordIterator iter = recordIterator()) {
+                while (iter.hasNext()) {
+                    iter.next().draw(g);
                 }
-                r.draw(g);
-                idx++;
             }
         } finally {
             state.restore(ctx);
@@ -198,14 +245,17 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
     public Rectangle2D getInnnerBounds() {
         WmfSetWindowOrg wOrg = null;
         WmfSetWindowExt wExt = null;
-        for (HwmfRecord r : getRecords()) {
-            if (r instanceof WmfSetWindowOrg) {
-                wOrg = (WmfSetWindowOrg)r;
-            } else if (r instanceof WmfSetWindowExt) {
-                wExt = (WmfSetWindowExt)r;
-            }
-            if (wOrg != null && wExt != null) {
-                return new Rectangle2D.Double(wOrg.getX(), wOrg.getY(), wExt.getSize().getWidth(), wExt.getSize().getHeight());
+        try (RecordIterator iter = recordIterator()) {
+            while (iter.hasNext()) {
+                HwmfRecord r = iter.next();
+                if (r instanceof WmfSetWindowOrg) {
+                    wOrg = (WmfSetWindowOrg)r;
+                } else if (r instanceof WmfSetWindowExt) {
+                    wExt = (WmfSetWindowExt)r;
+                }
+                if (wOrg != null && wExt != null) {
+                    return new Rectangle2D.Double(wOrg.getX(), wOrg.getY(), wExt.getSize().getWidth(), wExt.getSize().getHeight());
+                }
             }
         }
         return null;
@@ -251,12 +301,23 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
 
     @Override
     public Iterator<HwmfRecord> iterator() {
-        return getRecords().iterator();
+        return isStreaming() ? new RecordIterator() : getRecords().iterator();
     }
 
     @Override
     public Spliterator<HwmfRecord> spliterator() {
-        return getRecords().spliterator();
+        return isStreaming() ? Iterable.super.spliterator() : getRecords().spliterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super HwmfRecord> action) {
+        if (isStreaming()) {
+            try (RecordIterator iter = new RecordIterator()) {
+                iter.forEachRemaining(action);
+            }
+        } else {
+            records.forEach(action);
+        }
     }
 
     @Override
@@ -276,4 +337,74 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
     public Charset getDefaultCharset() {
         return defaultCharset;
     }
+
+    private RecordIterator recordIterator() {
+        return isStreaming() ? new RecordIterator() : new RecordIterator(records.iterator());
+    }
+
+    /**
+     * Iterates over the cached records or parses the records of a streaming picture one at a time.
+     * The source stream is closed when the iteration is finished or the iterator is closed.
+     */
+    private final class RecordIterator implements Iterator<HwmfRecord>, Closeable {
+        private final LittleEndianInputStream leis;
+        private Iterator<HwmfRecord> delegate;
+        private HwmfRecord next;
+        private boolean closed;
+
+        RecordIterator(Iterator<HwmfRecord> delegate) {
+            this.leis = null;
+            this.delegate = delegate;
+        }
+
+        RecordIterator() {
+            leis = new LittleEndianInputStream(source.get());
+            try {
+                // skip the headers, they have been read by the constructor
+                HwmfPlaceableHeader.readHeader(leis);
+                new HwmfHeader(leis);
+            } catch (IOException e) {
+                close();
+                throw new RecordFormatException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (delegate != null) {
+                return delegate.hasNext();
+            }
+            if (next == null && leis != null && !closed) {
+                try {
+                    next = readRecord(leis);
+                } catch (IOException e) {
+                    close();
+                    throw new RecordFormatException(e);
+                }
+                if (next == null) {
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public HwmfRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (delegate != null) {
+                return delegate.next();
+            }
+            HwmfRecord r = next;
+            next = null;
+            return r;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            IOUtils.closeQuietly(leis);
+        }
+    }
 }
@@ -74,6 +74,7 @@ import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.Internal;
 import org.apache.poi.util.LittleEndianByteArrayOutputStream;
+import org.apache.poi.util.RecordFormatException;
 
 /**
  * This class acts as the bucket that we throw all of the Word data structures
@@ -87,6 +88,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
 
     private static final String STREAM_DATA = "Data";
 
+    // The latest spec doc says the cp of the start of text in the main stream is always zero!
+    private static final int FC_MIN = 0;
+
     /**
      * table stream buffer
      */
@@ -136,7 +140,7 @@ public final class HWPFDocument extends HWPFDocumentCore {
     /**
      * Office Art (Escher records) information
      */
-    private final OfficeArtContent officeArtContent;
+    private OfficeArtContent officeArtContent;
 
     /**
      * Holds pictures table
@@ -166,22 +170,22 @@ public final class HWPFDocument extends HWPFDocumentCore {
     /**
      * Holds the ending notes tables
      */
-    private NotesTables _endnotesTables = new NotesTables(NoteType.ENDNOTE);
+    private NotesTables _endnotesTables;
 
     /**
      * Holds the footnotes
      */
-    private Notes _endnotes = new NotesImpl(_endnotesTables);
+    private Notes _endnotes;
 
     /**
      * Holds the footnotes tables
      */
-    private NotesTables _footnotesTables = new NotesTables(NoteType.FOOTNOTE);
+    private NotesTables _footnotesTables;
 
     /**
      * Holds the footnotes
      */
-    private Notes _footnotes = new NotesImpl(_footnotesTables);
+    private Notes _footnotes;
 
     /**
      * Holds the fields PLCFs
@@ -226,6 +230,26 @@ public final class HWPFDocument extends HWPFDocumentCore {
      *                     in POIFSFileSystem.
      */
     public HWPFDocument(DirectoryNode directory) throws IOException {
+        this(directory, false);
+    }
+
+    /**
+     * This constructor loads a Word document from a specific point
+     * in a POIFSFileSystem, probably not the default.<p>
+     *
+     * In lazy mode, only the FIB and the streams are read up front and the structures
+     * referenced by the FIB are parsed when they are first accessed.  As long as the text
+     * structures weren't accessed, {@link #getDocumentText()} decodes the piece table
+     * straight into a string without building the character and paragraph runs.
+     *
+     * @param directory The DirectoryNode that contains the Word document.
+     * @param lazy if {@code true}, the structures are parsed on first access,
+     *             which also defers the errors of corrupted structures
+     * @throws IOException If there is an unexpected IOException from the passed
+     *                     in POIFSFileSystem.
+     * @since POI 5.0.1
+     */
+    public HWPFDocument(DirectoryNode directory, boolean lazy) throws IOException {
         // Load the main stream and FIB
         // Also handles HPSF bits
         super(directory);
@@ -251,15 +275,48 @@ public final class HWPFDocument extends HWPFDocumentCore {
         // read in the data stream.
         _dataStream = directory.hasEntry(STREAM_DATA) ? getDocumentEntryBytes(STREAM_DATA, 0, Integer.MAX_VALUE) : new byte[0];
 
-        // Get the cp of the start of text in the main stream
-        // The latest spec doc says this is always zero!
-        int fcMin = 0;
-        //fcMin = _fib.getFcMin()
+        if (!lazy) {
+            readStructures();
+        }
+    }
 
+    /**
+     * Parses all structures, which haven't been accessed yet
+     */
+    private void readStructures() throws IOException {
         // Start to load up our standard structures.
-        _dop = new DocumentProperties(_tableStream, _fib.getFcDop(), _fib.getLcbDop());
-        _cft = new ComplexFileTable(_mainStream, _tableStream, _fib.getFcClx(), fcMin);
-        TextPieceTable _tpt = _cft.getTextPieceTable();
+        getDocProperties();
+        readTextStructures();
+
+        // Read FSPA and Escher information
+        getOfficeDrawingsHeaders();
+        getPicturesTable();
+        getOfficeDrawingsMain();
+
+        getSectionTable();
+        getStyleSheet();
+        getFontTable();
+        getListTables();
+        getSavedByTable();
+        getRevisionMarkAuthorTable();
+
+        getBookmarks();
+        getEndnotes();
+        getFootnotes();
+        getFields();
+    }
+
+    /**
+     * Loads the text and the bin tables, which need to be adjusted
+     * for where text really begin
+     */
+    private void readTextStructures() throws IOException {
+        if (_cft != null) {
+            return;
+        }
+
+        ComplexFileTable cft = new ComplexFileTable(_mainStream, _tableStream, _fib.getFcClx(), FC_MIN);
+        TextPieceTable _tpt = cft.getTextPieceTable();
 
         // Now load the rest of the properties, which need to be adjusted
         //  for where text really begin
@@ -280,8 +337,8 @@ public final class HWPFDocument extends HWPFDocumentCore {
         }
 
         if (!preserveBinTables) {
-            _cbt.rebuild(_cft);
-            _pbt.rebuild(_text, _cft);
+            _cbt.rebuild(cft);
+            _pbt.rebuild(_text, cft);
         }
 
         /*
@@ -295,83 +352,114 @@ public final class HWPFDocument extends HWPFDocumentCore {
             // ignore;
         }
         if (!preserveTextTable) {
-            _cft = new ComplexFileTable();
-            _tpt = _cft.getTextPieceTable();
+            cft = new ComplexFileTable();
+            _tpt = cft.getTextPieceTable();
             final TextPiece textPiece = new SinglentonTextPiece(_text);
             _tpt.add(textPiece);
             _text = textPiece.getStringBuilder();
         }
+        _cft = cft;
+    }
 
-        // Read FSPA and Escher information
-        // _fspa = new FSPATable(_tableStream, _fib.getFcPlcspaMom(),
-        // _fib.getLcbPlcspaMom(), getTextTable().getTextPieces());
-        _fspaHeaders = new FSPATable(_tableStream, _fib,
-                FSPADocumentPart.HEADER);
-        _fspaMain = new FSPATable(_tableStream, _fib, FSPADocumentPart.MAIN);
-
-        officeArtContent = new OfficeArtContent(_tableStream, _fib.getFcDggInfo(), _fib.getLcbDggInfo());
+    private void initTextStructures() {
+        try {
+            readTextStructures();
+        } catch (IOException e) {
+            throw new RecordFormatException(e.getMessage(), e);
+        }
+    }
 
-        // read in the pictures stream
-        _pictures = new PicturesTable(this, _dataStream, _mainStream, _fspaMain, officeArtContent);
+    /**
+     * Returns document text, i.e. text information from all text pieces,
+     * including OLE descriptions and field codes.<p>
+     *
+     * If the document was opened in lazy mode and the text structures weren't accessed yet,
+     * the text is decoded from the piece table without parsing the formatting runs.
+     */
+    @Override
+    public String getDocumentText() {
+        if (_cft != null) {
+            return super.getDocumentText();
+        }
+        try {
+            return ComplexFileTable.readText(_mainStream, _tableStream, _fib.getFcClx()).toString();
+        } catch (IOException e) {
+            throw new RecordFormatException(e.getMessage(), e);
+        }
+    }
 
-        // And escher pictures
-        _officeDrawingsHeaders = new OfficeDrawingsImpl(_fspaHeaders, officeArtContent, _mainStream);
-        _officeDrawingsMain = new OfficeDrawingsImpl(_fspaMain, officeArtContent, _mainStream);
+    @Override
+    public CHPBinTable getCharacterTable() {
+        initTextStructures();
+        return _cbt;
+    }
 
-        _st = new SectionTable(_mainStream, _tableStream, _fib.getFcPlcfsed(), _fib.getLcbPlcfsed(), fcMin, _tpt, _fib.getSubdocumentTextStreamLength(SubdocumentType.MAIN));
-        _ss = new StyleSheet(_tableStream, _fib.getFcStshf());
-        _ft = new FontTable(_tableStream, _fib.getFcSttbfffn(), _fib.getLcbSttbfffn());
+    @Override
+    public PAPBinTable getParagraphTable() {
+        initTextStructures();
+        return _pbt;
+    }
 
-        int listOffset = _fib.getFcPlfLst();
-        // int lfoOffset = _fib.getFcPlfLfo();
-        if (listOffset != 0 && _fib.getLcbPlfLst() != 0) {
-            _lt = new ListTables(_tableStream, listOffset, _fib.getFcPlfLfo(),
-                    _fib.getLcbPlfLfo());
+    @Override
+    public SectionTable getSectionTable() {
+        if (_st == null) {
+            _st = new SectionTable(_mainStream, _tableStream, _fib.getFcPlcfsed(), _fib.getLcbPlcfsed(), FC_MIN,
+                    getTextTable(), _fib.getSubdocumentTextStreamLength(SubdocumentType.MAIN));
         }
+        return _st;
+    }
 
-        int sbtOffset = _fib.getFcSttbSavedBy();
-        int sbtLength = _fib.getLcbSttbSavedBy();
-        if (sbtOffset != 0 && sbtLength != 0) {
-            _sbt = new SavedByTable(_tableStream, sbtOffset, sbtLength);
+    @Override
+    public StyleSheet getStyleSheet() {
+        if (_ss == null) {
+            _ss = new StyleSheet(_tableStream, _fib.getFcStshf());
         }
+        return _ss;
+    }
 
-        int rmarkOffset = _fib.getFcSttbfRMark();
-        int rmarkLength = _fib.getLcbSttbfRMark();
-        if (rmarkOffset != 0 && rmarkLength != 0) {
-            _rmat = new RevisionMarkAuthorTable(_tableStream, rmarkOffset, rmarkLength);
+    @Override
+    public FontTable getFontTable() {
+        if (_ft == null) {
+            _ft = new FontTable(_tableStream, _fib.getFcSttbfffn(), _fib.getLcbSttbfffn());
         }
+        return _ft;
+    }
 
-        _bookmarksTables = new BookmarksTables(_tableStream, _fib);
-        _bookmarks = new BookmarksImpl(_bookmarksTables);
-
-        _endnotesTables = new NotesTables(NoteType.ENDNOTE, _tableStream, _fib);
-        _endnotes = new NotesImpl(_endnotesTables);
-        _footnotesTables = new NotesTables(NoteType.FOOTNOTE, _tableStream, _fib);
-        _footnotes = new NotesImpl(_footnotesTables);
-
-        _fieldsTables = new FieldsTables(_tableStream, _fib);
-        _fields = new FieldsImpl(_fieldsTables);
+    @Override
+    public ListTables getListTables() {
+        int listOffset = _fib.getFcPlfLst();
+        // int lfoOffset = _fib.getFcPlfLfo();
+        if (_lt == null && listOffset != 0 && _fib.getLcbPlfLst() != 0) {
+            _lt = new ListTables(_tableStream, listOffset, _fib.getFcPlfLfo(),
+                    _fib.getLcbPlfLfo());
+        }
+        return _lt;
     }
 
     @Override
     @Internal
     public TextPieceTable getTextTable() {
+        initTextStructures();
         return _cft.getTextPieceTable();
     }
 
     @Internal
     @Override
     public StringBuilder getText() {
+        initTextStructures();
         return _text;
     }
 
     public DocumentProperties getDocProperties() {
+        if (_dop == null) {
+            _dop = new DocumentProperties(_tableStream, _fib.getFcDop(), _fib.getLcbDop());
+        }
         return _dop;
     }
 
     @Override
     public Range getOverallRange() {
-        return new Range(0, _text.length(), this);
+        return new Range(0, getText().length(), this);
     }
 
     /**
@@ -482,7 +570,7 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return the character length of a document
      */
     public int characterLength() {
-        return _text.length();
+        return getText().length();
     }
 
     /**
@@ -492,6 +580,11 @@ public final class HWPFDocument extends HWPFDocumentCore {
      */
     @Internal
     public SavedByTable getSavedByTable() {
+        int sbtOffset = _fib.getFcSttbSavedBy();
+        int sbtLength = _fib.getLcbSttbSavedBy();
+        if (_sbt == null && sbtOffset != 0 && sbtLength != 0) {
+            _sbt = new SavedByTable(_tableStream, sbtOffset, sbtLength);
+        }
         return _sbt;
     }
 
@@ -502,6 +595,15 @@ public final class HWPFDocument extends HWPFDocumentCore {
      */
     @Internal
     public RevisionMarkAuthorTable getRevisionMarkAuthorTable() {
+        int rmarkOffset = _fib.getFcSttbfRMark();
+        int rmarkLength = _fib.getLcbSttbfRMark();
+        if (_rmat == null && rmarkOffset != 0 && rmarkLength != 0) {
+            try {
+                _rmat = new RevisionMarkAuthorTable(_tableStream, rmarkOffset, rmarkLength);
+            } catch (IOException e) {
+                throw new RecordFormatException(e.getMessage(), e);
+            }
+        }
         return _rmat;
     }
 
@@ -509,19 +611,45 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return PicturesTable object, that is able to extract images from this document
      */
     public PicturesTable getPicturesTable() {
+        if (_pictures == null) {
+            _pictures = new PicturesTable(this, _dataStream, _mainStream, getFspaMain(), getOfficeArtContent());
+        }
         return _pictures;
     }
 
     @Internal
     public OfficeArtContent getOfficeArtContent() {
+        if (officeArtContent == null) {
+            officeArtContent = new OfficeArtContent(_tableStream, _fib.getFcDggInfo(), _fib.getLcbDggInfo());
+        }
         return officeArtContent;
     }
 
+    private FSPATable getFspaHeaders() {
+        if (_fspaHeaders == null) {
+            _fspaHeaders = new FSPATable(_tableStream, _fib, FSPADocumentPart.HEADER);
+        }
+        return _fspaHeaders;
+    }
+
+    private FSPATable getFspaMain() {
+        if (_fspaMain == null) {
+            _fspaMain = new FSPATable(_tableStream, _fib, FSPADocumentPart.MAIN);
+        }
+        return _fspaMain;
+    }
+
     public OfficeDrawings getOfficeDrawingsHeaders() {
+        if (_officeDrawingsHeaders == null) {
+            _officeDrawingsHeaders = new OfficeDrawingsImpl(getFspaHeaders(), getOfficeArtContent(), _mainStream);
+        }
         return _officeDrawingsHeaders;
     }
 
     public OfficeDrawings getOfficeDrawingsMain() {
+        if (_officeDrawingsMain == null) {
+            _officeDrawingsMain = new OfficeDrawingsImpl(getFspaMain(), getOfficeArtContent(), _mainStream);
+        }
         return _officeDrawingsMain;
     }
 
@@ -529,6 +657,10 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document bookmarks
      */
     public Bookmarks getBookmarks() {
+        if (_bookmarks == null) {
+            _bookmarksTables = new BookmarksTables(_tableStream, _fib);
+            _bookmarks = new BookmarksImpl(_bookmarksTables);
+        }
         return _bookmarks;
     }
 
@@ -536,6 +668,10 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document endnotes
      */
     public Notes getEndnotes() {
+        if (_endnotes == null) {
+            _endnotesTables = new NotesTables(NoteType.ENDNOTE, _tableStream, _fib);
+            _endnotes = new NotesImpl(_endnotesTables);
+        }
         return _endnotes;
     }
 
@@ -543,6 +679,10 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document footnotes
      */
     public Notes getFootnotes() {
+        if (_footnotes == null) {
+            _footnotesTables = new NotesTables(NoteType.FOOTNOTE, _tableStream, _fib);
+            _footnotes = new NotesImpl(_footnotesTables);
+        }
         return _footnotes;
     }
 
@@ -552,6 +692,10 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document {@link Field}s
      */
     public Fields getFields() {
+        if (_fields == null) {
+            _fieldsTables = new FieldsTables(_tableStream, _fib);
+            _fields = new FieldsImpl(_fieldsTables);
+        }
         return _fields;
     }
 
@@ -617,6 +761,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
     }
 
     private void write(POIFSFileSystem pfs, boolean copyOtherEntries) throws IOException {
+        // the offsets of the structures, which weren't accessed yet, are still needed
+        readStructures();
+
         // clear the offsets and sizes in our FileInformationBlock.
         _fib.clearOffsetsSizes();
 
@@ -1000,7 +1147,7 @@ public final class HWPFDocument extends HWPFDocumentCore {
     }
 
     public int registerList(HWPFList list) {
-        if (_lt == null) {
+        if (getListTables() == null) {
             _lt = new ListTables();
         }
         return _lt.addList(list.getListData(), list.getLFO(),
@@ -19,6 +19,8 @@ package org.apache.poi.hwpf.converter;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -27,6 +29,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
@@ -51,6 +54,7 @@ import org.apache.poi.util.Beta;
 import org.apache.poi.util.XMLHelper;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 @Beta
 public class WordToTextConverter extends AbstractWordConverter
@@ -126,6 +130,10 @@ public class WordToTextConverter extends AbstractWordConverter
 
     private final TextDocumentFacade textDocumentFacade;
 
+    private final Writer writer;
+
+    private Element currentSection;
+
     /**
      * Creates new instance of {@link WordToTextConverter}. Can be used for
      * output several {@link HWPFDocument}s into single text document.
@@ -134,9 +142,31 @@ public class WordToTextConverter extends AbstractWordConverter
      *             if an internal {@link DocumentBuilder} cannot be created
      */
     public WordToTextConverter() throws ParserConfigurationException
+    {
+        this( (Writer) null );
+    }
+
+    /**
+     * Creates new instance of {@link WordToTextConverter}, which writes the
+     * text of each paragraph, table and section to the writer as soon as it
+     * is processed, instead of keeping it in the DOM. Only the notes are kept
+     * until the end and need to be written by {@link #writeText(Writer)}
+     * after the last document part was processed.
+     * <p>
+     * I/O errors of the writer are rethrown as {@link UncheckedIOException}.
+     *
+     * @param writer
+     *            the destination of the text
+     * @throws ParserConfigurationException
+     *             if an internal {@link DocumentBuilder} cannot be created
+     *
+     * @since POI 5.0.1
+     */
+    public WordToTextConverter( Writer writer ) throws ParserConfigurationException
     {
         this.textDocumentFacade = new TextDocumentFacade(
                 XMLHelper.newDocumentBuilder().newDocument() );
+        this.writer = writer;
     }
 
     /**
@@ -150,12 +180,14 @@ public class WordToTextConverter extends AbstractWordConverter
     public WordToTextConverter(Document document )
     {
         this.textDocumentFacade = new TextDocumentFacade( document );
+        this.writer = null;
     }
 
     @SuppressWarnings("unused")
     public WordToTextConverter(TextDocumentFacade textDocumentFacade )
     {
         this.textDocumentFacade = textDocumentFacade;
+        this.writer = null;
     }
 
     @Override
@@ -173,15 +205,54 @@ public class WordToTextConverter extends AbstractWordConverter
     public String getText() throws Exception
     {
         StringWriter stringWriter = new StringWriter();
+        writeText( stringWriter );
+        return stringWriter.toString();
+    }
+
+    /**
+     * Writes the processed text, which hasn't been streamed yet, and removes
+     * it from the DOM - the notes are always kept until the end.
+     */
+    private void flush( Element parent )
+    {
+        if ( writer == null )
+            return;
+
+        try
+        {
+            Node child = parent.getFirstChild();
+            while ( child != null )
+            {
+                Node next = child.getNextSibling();
+                if ( child != notes )
+                {
+                    writer.write( child.getTextContent() );
+                    parent.removeChild( child );
+                }
+                child = next;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Serializes the text of the processed document into the writer,
+     * without creating an intermediate string
+     *
+     * @since POI 5.0.1
+     */
+    public void writeText( Writer writer ) throws TransformerException
+    {
         DOMSource domSource = new DOMSource( getDocument() );
-        StreamResult streamResult = new StreamResult( stringWriter );
+        StreamResult streamResult = new StreamResult( writer );
 
         Transformer serializer =  XMLHelper.newTransformer();
         // TODO set encoding from a command argument
         serializer.setOutputProperty( OutputKeys.METHOD, "text" );
         serializer.transform( domSource, streamResult );
-
-        return stringWriter.toString();
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -226,6 +297,8 @@ public class WordToTextConverter extends AbstractWordConverter
                     .isNotEmpty( summaryInformation.getKeywords() ) )
                 textDocumentFacade.addKeywords( summaryInformation
                         .getKeywords() );
+
+            flush( textDocumentFacade.getHead() );
         }
     }
 
@@ -379,6 +452,8 @@ public class WordToTextConverter extends AbstractWordConverter
         Element block = textDocumentFacade.createBlock();
         block.appendChild( textDocumentFacade.createText( "\n" ) );
         flow.appendChild( block );
+        if ( flow == currentSection )
+            flush( flow );
     }
 
     @Override
@@ -400,6 +475,8 @@ public class WordToTextConverter extends AbstractWordConverter
         processCharacters( wordDocument, currentTableLevel, paragraph, pElement );
         pElement.appendChild( textDocumentFacade.createText( "\n" ) );
         parentElement.appendChild( pElement );
+        if ( parentElement == currentSection )
+            flush( parentElement );
     }
 
     @Override
@@ -407,10 +484,13 @@ public class WordToTextConverter extends AbstractWordConverter
             Section section, int s )
     {
         Element sectionElement = textDocumentFacade.createBlock();
+        currentSection = sectionElement;
         processParagraphes( wordDocument, sectionElement, section,
                 Integer.MIN_VALUE );
+        currentSection = null;
         sectionElement.appendChild( textDocumentFacade.createText( "\n" ) );
         textDocumentFacade.body.appendChild( sectionElement );
+        flush( textDocumentFacade.body );
     }
 
     protected void processTable( HWPFDocumentCore wordDocument, Element flow,
@@ -441,6 +521,8 @@ public class WordToTextConverter extends AbstractWordConverter
 
             tableRowElement.appendChild( textDocumentFacade.createText( "\n" ) );
             flow.appendChild( tableRowElement );
+            if ( flow == currentSection )
+                flush( flow );
         }
     }
 
@@ -19,6 +19,11 @@ package org.apache.poi.hwpf.extractor;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+import javax.xml.transform.TransformerException;
 
 import org.apache.poi.extractor.POIOLE2TextExtractor;
 import org.apache.poi.hwpf.HWPFDocument;
@@ -226,35 +231,7 @@ public final class WordExtractor implements POIOLE2TextExtractor {
      */
     public String getText() {
         try {
-            WordToTextConverter wordToTextConverter = new WordToTextConverter();
-
-            HeaderStories hs = new HeaderStories(doc);
-
-            if (hs.getFirstHeaderSubrange() != null)
-                wordToTextConverter.processDocumentPart(doc,
-                        hs.getFirstHeaderSubrange());
-            if (hs.getEvenHeaderSubrange() != null)
-                wordToTextConverter.processDocumentPart(doc,
-                        hs.getEvenHeaderSubrange());
-            if (hs.getOddHeaderSubrange() != null)
-                wordToTextConverter.processDocumentPart(doc,
-                        hs.getOddHeaderSubrange());
-
-            wordToTextConverter.processDocument(doc);
-            wordToTextConverter.processDocumentPart(doc,
-                    doc.getMainTextboxRange());
-
-            if (hs.getFirstFooterSubrange() != null)
-                wordToTextConverter.processDocumentPart(doc,
-                        hs.getFirstFooterSubrange());
-            if (hs.getEvenFooterSubrange() != null)
-                wordToTextConverter.processDocumentPart(doc,
-                        hs.getEvenFooterSubrange());
-            if (hs.getOddFooterSubrange() != null)
-                wordToTextConverter.processDocumentPart(doc,
-                        hs.getOddFooterSubrange());
-
-            return wordToTextConverter.getText();
+            return createTextConverter(null).getText();
         } catch (RuntimeException e) {
             throw e;
         } catch ( Exception exc ) {
@@ -262,6 +239,65 @@ public final class WordExtractor implements POIOLE2TextExtractor {
         }
     }
 
+    /**
+     * Writes the text, based on the WordToTextConverter, paragraph by
+     * paragraph while the document ranges are processed. Only the footnotes
+     * and endnotes are buffered, as they follow the rest of the text.
+     */
+    @Override
+    public void writeText(Appendable out) throws IOException {
+        Writer writer = (out instanceof Writer) ? (Writer) out : new AppendableWriter(out);
+        try {
+            createTextConverter(writer).writeText(writer);
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (TransformerException e) {
+            Throwable cause = e.getException();
+            throw (cause instanceof IOException) ? (IOException) cause : new IOException(e);
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @param writer if not null, the text is streamed to the writer and the
+     *               returned converter only holds the notes
+     */
+    private WordToTextConverter createTextConverter(Writer writer) throws Exception {
+        WordToTextConverter wordToTextConverter = new WordToTextConverter(writer);
+
+        HeaderStories hs = new HeaderStories(doc);
+
+        if (hs.getFirstHeaderSubrange() != null)
+            wordToTextConverter.processDocumentPart(doc,
+                hs.getFirstHeaderSubrange());
+        if (hs.getEvenHeaderSubrange() != null)
+            wordToTextConverter.processDocumentPart(doc,
+                hs.getEvenHeaderSubrange());
+        if (hs.getOddHeaderSubrange() != null)
+            wordToTextConverter.processDocumentPart(doc,
+                hs.getOddHeaderSubrange());
+
+        wordToTextConverter.processDocument(doc);
+        wordToTextConverter.processDocumentPart(doc,
+                doc.getMainTextboxRange());
+
+        if (hs.getFirstFooterSubrange() != null)
+            wordToTextConverter.processDocumentPart(doc,
+                hs.getFirstFooterSubrange());
+        if (hs.getEvenFooterSubrange() != null)
+            wordToTextConverter.processDocumentPart(doc,
+                hs.getEvenFooterSubrange());
+        if (hs.getOddFooterSubrange() != null)
+            wordToTextConverter.processDocumentPart(doc,
+                hs.getOddFooterSubrange());
+
+        return wordToTextConverter;
+    }
+
     /**
      * Removes any fields (eg macros, page markers etc) from the string.
      */
@@ -288,4 +324,33 @@ public final class WordExtractor implements POIOLE2TextExtractor {
     public HWPFDocument getFilesystem() {
         return doc;
     }
+
+    /**
+     * Adapts the output of {@link #writeText(Appendable)} for the transformer
+     */
+    private static final class AppendableWriter extends Writer {
+        private final Appendable out;
+
+        AppendableWriter(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            out.append(CharBuffer.wrap(cbuf, off, len));
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            out.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
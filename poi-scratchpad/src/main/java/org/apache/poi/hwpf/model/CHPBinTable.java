@@ -55,6 +55,9 @@ public class CHPBinTable
     /** List of character properties.*/
   protected List<CHPX> _textRuns = new ArrayList<>();
 
+    /** Index of the text runs, built on demand */
+    private PropertyNodeIndex _textRunsIndex;
+
   public CHPBinTable()
   {
   }
@@ -118,6 +121,7 @@ public class CHPBinTable
     public void rebuild( ComplexFileTable complexFileTable )
     {
         long start = currentTimeMillis();
+        _textRunsIndex = null;
 
         if ( complexFileTable != null )
         {
@@ -330,6 +334,7 @@ public class CHPBinTable
 
   public void adjustForDelete(int listIndex, int offset, int length)
   {
+    _textRunsIndex = null;
     int size = _textRuns.size();
     int endMark = offset + length;
     int endIndex = listIndex;
@@ -368,6 +373,7 @@ public class CHPBinTable
 
   public void insert(int listIndex, int cpStart, SprmBuffer buf)
   {
+    _textRunsIndex = null;
 
     CHPX insertChpx = new CHPX(0, 0, buf);
 
@@ -408,6 +414,7 @@ public class CHPBinTable
 
   public void adjustForInsert(int listIndex, int length)
   {
+    _textRunsIndex = null;
     int size = _textRuns.size();
     CHPX chpx = _textRuns.get(listIndex);
     chpx.setEnd(chpx.getEnd() + length);
@@ -425,6 +432,30 @@ public class CHPBinTable
     return _textRuns;
   }
 
+    /**
+     * @return the index of the {@link #getTextRuns() text runs}, which is built on first
+     *  access and dropped on modification - or {@code null} if there are {@code null} runs
+     * @since POI 5.0.1
+     */
+    public PropertyNodeIndex getTextRunsIndex()
+    {
+        if ( _textRunsIndex == null )
+        {
+            _textRunsIndex = PropertyNodeIndex.build( _textRuns );
+        }
+        return _textRunsIndex;
+    }
+
+    /**
+     * Drops the index, after the text runs have been changed directly
+     *
+     * @since POI 5.0.1
+     */
+    public void invalidateIndex()
+    {
+        _textRunsIndex = null;
+    }
+
     @Deprecated
     public void writeTo( HWPFFileSystem sys, int fcMin,
             CharIndexTranslator translator ) throws IOException
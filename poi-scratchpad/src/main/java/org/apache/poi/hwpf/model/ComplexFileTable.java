@@ -79,6 +79,31 @@ public class ComplexFileTable {
         this(documentStream, tableStream, offset, fcMin, StringUtil.WIN_1252);
     }
 
+    /**
+     * Reads only the text of the piece table, skipping the prms of fast saved files.
+     *
+     * @see TextPieceTable#readText(byte[], byte[], int, int)
+     * @since POI 5.0.1
+     */
+    public static StringBuilder readText(byte[] documentStream, byte[] tableStream, int offset) throws IOException {
+        while (tableStream[offset] == GRPPRL_TYPE) {
+            offset++;
+            int size = LittleEndian.getShort(tableStream, offset);
+            if (size < 0) {
+                throw new IOException("The text piece table is corrupted, invalid grpprl size " + size);
+            }
+            offset += LittleEndianConsts.SHORT_SIZE + size;
+        }
+
+        if (tableStream[offset] != TEXT_PIECE_TABLE_TYPE) {
+            throw new IOException("The text piece table is corrupted, expected byte value " + TEXT_PIECE_TABLE_TYPE +
+                    " but had " + tableStream[offset]);
+        }
+        int pieceTableSize = LittleEndian.getInt(tableStream, ++offset);
+        offset += LittleEndianConsts.INT_SIZE;
+        return TextPieceTable.readText(documentStream, tableStream, offset, pieceTableSize);
+    }
+
     public TextPieceTable getTextPieceTable() {
         return _tpt;
     }
@@ -50,6 +50,9 @@ public class PAPBinTable
 
     protected final ArrayList<PAPX> _paragraphs = new ArrayList<>();
 
+    /** Index of the paragraphs, built on demand */
+    private PropertyNodeIndex _paragraphsIndex;
+
     public PAPBinTable()
     {
     }
@@ -95,6 +98,7 @@ public class PAPBinTable
     public void rebuild( final StringBuilder docText,
             ComplexFileTable complexFileTable )
     {
+        _paragraphsIndex = null;
         rebuild( docText, complexFileTable, _paragraphs );
     }
 
@@ -269,6 +273,7 @@ public class PAPBinTable
 
     public void insert(int listIndex, int cpStart, SprmBuffer buf)
     {
+        _paragraphsIndex = null;
 
         PAPX forInsert = new PAPX(0, 0, buf);
 
@@ -312,6 +317,7 @@ public class PAPBinTable
 
     public void adjustForDelete(int listIndex, int offset, int length)
     {
+        _paragraphsIndex = null;
         int size = _paragraphs.size();
         int endMark = offset + length;
         int endIndex = listIndex;
@@ -351,6 +357,7 @@ public class PAPBinTable
 
     public void adjustForInsert(int listIndex, int length)
     {
+        _paragraphsIndex = null;
         int size = _paragraphs.size();
         PAPX papx = _paragraphs.get(listIndex);
         papx.setEnd(papx.getEnd() + length);
@@ -369,6 +376,30 @@ public class PAPBinTable
         return _paragraphs;
     }
 
+    /**
+     * @return the index of the {@link #getParagraphs() paragraphs}, which is built on first
+     *  access and dropped on modification - or {@code null} if there are {@code null} paragraphs
+     * @since POI 5.0.1
+     */
+    public PropertyNodeIndex getParagraphsIndex()
+    {
+        if ( _paragraphsIndex == null )
+        {
+            _paragraphsIndex = PropertyNodeIndex.build( _paragraphs );
+        }
+        return _paragraphsIndex;
+    }
+
+    /**
+     * Drops the index, after the paragraphs have been changed directly
+     *
+     * @since POI 5.0.1
+     */
+    public void invalidateIndex()
+    {
+        _paragraphsIndex = null;
+    }
+
     public void writeTo( ByteArrayOutputStream wordDocumentStream,
             ByteArrayOutputStream tableStream, CharIndexTranslator translator )
             throws IOException
@@ -0,0 +1,162 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hwpf.model;
+
+import java.util.List;
+
+import org.apache.poi.util.Internal;
+
+/**
+ * Interval index over a list of {@link PropertyNode}s sorted by their start,
+ * e.g. the text runs of the {@link CHPBinTable} or the paragraphs of the {@link PAPBinTable}.
+ * <p>
+ * The CP starts and ends are copied into primitive arrays, so the lookups are binary searches
+ * without touching the nodes.  The index is a snapshot and needs to be rebuilt after the nodes
+ * have been changed - the bin tables drop their cached index on each modification.
+ * Lists without a cached index are searched via {@link #wrap(List)}, which reads the nodes directly.
+ *
+ * @since POI 5.0.1
+ */
+@Internal
+public final class PropertyNodeIndex {
+    private final int[] _starts;
+    private final int[] _ends;
+    private final List<? extends PropertyNode<?>> _nodes;
+
+    private PropertyNodeIndex(int[] starts, int[] ends, List<? extends PropertyNode<?>> nodes) {
+        _starts = starts;
+        _ends = ends;
+        _nodes = nodes;
+    }
+
+    /**
+     * @param nodes the nodes sorted by their start
+     * @return the index or {@code null}, if the list contains {@code null} nodes
+     */
+    public static PropertyNodeIndex build(List<? extends PropertyNode<?>> nodes) {
+        final int size = nodes.size();
+        final int[] starts = new int[size];
+        final int[] ends = new int[size];
+        for (int i = 0; i < size; i++) {
+            PropertyNode<?> node = nodes.get(i);
+            if (node == null) {
+                return null;
+            }
+            starts[i] = node.getStart();
+            ends[i] = node.getEnd();
+        }
+        return new PropertyNodeIndex(starts, ends, null);
+    }
+
+    /**
+     * @param nodes the nodes sorted by their start
+     * @return an index, which isn't a snapshot but searches the nodes directly
+     */
+    public static PropertyNodeIndex wrap(List<? extends PropertyNode<?>> nodes) {
+        return new PropertyNodeIndex(null, null, nodes);
+    }
+
+    public int size() {
+        return _nodes == null ? _starts.length : _nodes.size();
+    }
+
+    public int getStart(int index) {
+        return _nodes == null ? _starts[index] : _nodes.get(index).getStart();
+    }
+
+    public int getEnd(int index) {
+        return _nodes == null ? _ends[index] : _nodes.get(index).getEnd();
+    }
+
+    /**
+     * @param start the starting character offset
+     * @return the index of the first node, which starts at {@code start} or contains it,
+     *  {@code 0} if all nodes start behind it and {@code -1} if there are no nodes
+     */
+    public int findStartIndex(int start) {
+        int startIndex = binarySearchStart(start);
+        while (startIndex > 0 && getStart(startIndex - 1) >= start) {
+            startIndex--;
+        }
+        return startIndex;
+    }
+
+    /**
+     * @param startIndex the result of {@link #findStartIndex(int)}
+     * @param end the ending character offset
+     * @return the exclusive index of the last node, which ends at or after {@code end}
+     */
+    public int findEndIndex(int startIndex, int end) {
+        int endIndex = binarySearchEnd(startIndex, end);
+        while (endIndex < size() - 1 && getEnd(endIndex + 1) <= end) {
+            endIndex++;
+        }
+        return endIndex + 1;
+    }
+
+    private int binarySearchStart(int start) {
+        final int size = size();
+        if (size == 0) {
+            return -1;
+        }
+        if (getStart(0) >= start) {
+            return 0;
+        }
+
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midStart = getStart(mid);
+
+            if (midStart < start) {
+                low = mid + 1;
+            } else if (midStart > start) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return low - 1;
+    }
+
+    private int binarySearchEnd(int foundStart, int end) {
+        final int last = size() - 1;
+        if (getEnd(last) <= end) {
+            return last;
+        }
+
+        int low = foundStart;
+        int high = last;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midEnd = getEnd(mid);
+
+            if (midEnd < end) {
+                low = mid + 1;
+            } else if (midEnd > end) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return low;
+    }
+}
@@ -77,12 +77,18 @@ public class TextPiece extends PropertyNode<TextPiece> {
      * Create the StringBuilder from the text and unicode flag
      */
     private static StringBuilder buildInitSB(byte[] text, PieceDescriptor pd) {
+        return new StringBuilder(decode(text, 0, text.length, pd));
+    }
+
+    /**
+     * Decode the raw bytes of a piece according to its descriptor
+     */
+    static String decode(byte[] text, int offset, int length, PieceDescriptor pd) {
         if (DoubleByteUtil.BIG5.equals(pd.getCharset())) {
-            return new StringBuilder(DoubleByteUtil.cp950ToString(text, 0, text.length));
+            return DoubleByteUtil.cp950ToString(text, offset, length);
         }
 
-        String str = new String(text, 0, text.length, (pd.isUnicode()) ? StringUtil.UTF16LE : pd.getCharset());
-        return new StringBuilder(str);
+        return new String(text, offset, length, (pd.isUnicode()) ? StringUtil.UTF16LE : pd.getCharset());
     }
 
     /**
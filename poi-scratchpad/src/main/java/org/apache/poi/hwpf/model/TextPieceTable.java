@@ -20,6 +20,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -30,6 +31,8 @@ import org.apache.logging.log4j.Logger;
 import org.apache.poi.poifs.common.POIFSConstants;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.Internal;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.util.LittleEndianConsts;
 
 import static java.lang.System.currentTimeMillis;
 import static org.apache.logging.log4j.util.Unbox.box;
@@ -117,6 +120,63 @@ public class TextPieceTable implements CharIndexTranslator {
         _textPiecesFCOrder.sort(new FCComparator());
     }
 
+    /**
+     * Decodes the text of the piece table without building the {@link TextPiece}s,
+     * i.e. returns the same text as {@code getText()} of a table created with the
+     * same parameters, but doesn't copy the raw bytes of each piece.
+     *
+     * @since POI 5.0.1
+     */
+    public static StringBuilder readText(byte[] documentStream, byte[] tableStream, int offset, int size) {
+        final int count = (size - 4) / (4 + PieceDescriptor.getSizeInBytes());
+        final int structOffset = offset + (count + 1) * LittleEndianConsts.INT_SIZE;
+
+        // text pieces don't have to be stored in order, but usually are
+        Integer[] order = new Integer[count];
+        boolean sorted = true;
+        for (int x = 0; x < count; x++) {
+            order[x] = x;
+            if (x > 0 && cpAt(tableStream, offset, x) < cpAt(tableStream, offset, x - 1)) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            Arrays.sort(order, Comparator.comparingInt(x -> cpAt(tableStream, offset, x)));
+        }
+
+        StringBuilder docText = new StringBuilder();
+        for (int x : order) {
+            PieceDescriptor pd = new PieceDescriptor(tableStream, structOffset + x * PieceDescriptor.getSizeInBytes());
+            int nodeStartChars = cpAt(tableStream, offset, x);
+            int textSizeChars = cpAt(tableStream, offset, x + 1) - nodeStartChars;
+            if (textSizeChars < 0) {
+                throw new IllegalStateException("Told we're of negative size! start=" + nodeStartChars + " end=" + (nodeStartChars + textSizeChars));
+            }
+            int textSizeBytes = textSizeChars * (pd.isUnicode() ? 2 : 1);
+            int start = pd.getFilePosition();
+
+            String toAppend;
+            if (start >= 0 && start + textSizeBytes <= documentStream.length) {
+                IOUtils.safelyAllocateCheck(textSizeBytes, MAX_RECORD_LENGTH);
+                toAppend = TextPiece.decode(documentStream, start, textSizeBytes, pd);
+            } else {
+                // the piece is truncated, so pad it like the TextPiece does
+                byte[] buf = IOUtils.safelyClone(documentStream, start, textSizeBytes, MAX_RECORD_LENGTH);
+                toAppend = TextPiece.decode(buf, 0, buf.length, pd);
+            }
+            if (toAppend.length() != textSizeChars) {
+                throw new IllegalStateException("Told we're for characters " + nodeStartChars + " -> " + (nodeStartChars + textSizeChars) + ", but actually covers " + toAppend.length() + " characters!");
+            }
+
+            docText.replace(nodeStartChars, nodeStartChars + textSizeChars, toAppend);
+        }
+        return docText;
+    }
+
+    private static int cpAt(byte[] tableStream, int offset, int index) {
+        return LittleEndian.getInt(tableStream, offset + index * LittleEndianConsts.INT_SIZE);
+    }
+
     protected TextPiece newTextPiece(int nodeStartChars, int nodeEndChars, byte[] buf, PieceDescriptor pd) {
         return new TextPiece(nodeStartChars, nodeEndChars, buf, pd);
     }
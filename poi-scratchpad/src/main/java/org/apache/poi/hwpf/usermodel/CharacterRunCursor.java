@@ -0,0 +1,184 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hwpf.usermodel;
+
+import java.util.NoSuchElementException;
+
+import org.apache.poi.hwpf.model.CHPX;
+import org.apache.poi.hwpf.model.PAPX;
+
+/**
+ * Forward-only cursor over the character runs of a {@link Range}, which is reused for
+ * each run.  The offsets and the text are available right away, while the style and
+ * the character properties are only resolved when they are asked for.<p>
+ *
+ * The cursor must not be used after the document has been modified.
+ *
+ * <pre>{@code
+ * CharacterRunCursor cursor = range.getCharacterRunCursor();
+ * while (cursor.next()) {
+ *     if (cursor.getCharacterProperties().isFBold()) {
+ *         cursor.appendText(sb);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see Range#getCharacterRunCursor()
+ * @since POI 5.0.1
+ */
+public final class CharacterRunCursor {
+    private final Range _range;
+
+    /** the index relative to the range */
+    private int _index = -1;
+    private CHPX _chpx;
+    private int _start;
+    private int _end;
+
+    private boolean _styleResolved;
+    /** the index of the paragraph of the last resolved run, the paragraphs are looked up in ascending order */
+    private int _parIndex;
+    private PAPX _papx;
+    private CharacterProperties _props;
+
+    CharacterRunCursor(Range range) {
+        _range = range;
+    }
+
+    /**
+     * Moves to the next character run
+     *
+     * @return {@code true}, if there's a next run
+     */
+    public boolean next() {
+        _styleResolved = false;
+        _papx = null;
+        _props = null;
+        while (_range._charStart + ++_index < _range._charEnd) {
+            CHPX chpx = _range._characters.get(_range._charStart + _index);
+            if (chpx != null) {
+                _chpx = chpx;
+                _start = Math.max(_range._start, chpx.getStart());
+                _end = Math.min(_range._end, chpx.getEnd());
+                return true;
+            }
+        }
+        _index = _range._charEnd - _range._charStart;
+        _chpx = null;
+        return false;
+    }
+
+    private CHPX current() {
+        if (_chpx == null) {
+            throw new NoSuchElementException("The cursor isn't positioned on a character run");
+        }
+        return _chpx;
+    }
+
+    /**
+     * @return the index of the current run relative to the range,
+     *  i.e. the index for {@link Range#getCharacterRun(int)}
+     */
+    public int getIndex() {
+        current();
+        return _index;
+    }
+
+    /**
+     * @return Starting character offset of the current run
+     */
+    public int getStartOffset() {
+        current();
+        return _start;
+    }
+
+    /**
+     * @return The ending character offset of the current run
+     */
+    public int getEndOffset() {
+        current();
+        return _end;
+    }
+
+    /**
+     * @return the text of the current run
+     */
+    public String text() {
+        current();
+        return _range._text.substring(_start, _end);
+    }
+
+    /**
+     * Appends the text of the current run without creating an intermediate string
+     *
+     * @param sb the target of the text
+     */
+    public void appendText(StringBuilder sb) {
+        current();
+        sb.append(_range._text, _start, _end);
+    }
+
+    private boolean resolveStyle() {
+        CHPX chpx = current();
+        if (!_styleResolved) {
+            if (!(_range instanceof Paragraph)) {
+                int parIndex = _range.findNextParagraphIndex(_parIndex, chpx);
+                if (parIndex >= 0) {
+                    _parIndex = parIndex;
+                    _papx = _range._paragraphs.get(parIndex);
+                }
+            }
+            _styleResolved = true;
+        }
+        return _range instanceof Paragraph || _papx != null;
+    }
+
+    /**
+     * @return the style index of the paragraph containing the current run,
+     *  or {@code -1} if the run doesn't belong to a paragraph
+     */
+    public int getStyleIndex() {
+        if (!resolveStyle()) {
+            return -1;
+        }
+        return (_range instanceof Paragraph) ? ((Paragraph) _range)._istd : _papx.getIstd();
+    }
+
+    /**
+     * @return the properties of the current run or {@code null},
+     *  if the run doesn't belong to a paragraph
+     */
+    public CharacterProperties getCharacterProperties() {
+        if (_props == null && resolveStyle()) {
+            _props = _chpx.getCharacterProperties(_range._doc.getStyleSheet(), (short) getStyleIndex());
+        }
+        return _props;
+    }
+
+    /**
+     * Creates the character run of the current position
+     *
+     * @return the same run as {@link Range#getCharacterRun(int)} for {@link #getIndex()}
+     */
+    public CharacterRun getCharacterRun() {
+        if (!resolveStyle()) {
+            return null;
+        }
+        return new CharacterRun(_chpx, _range._doc.getStyleSheet(), (short) getStyleIndex(), _range);
+    }
+}
@@ -26,10 +26,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.hwpf.HWPFDocument;
 import org.apache.poi.hwpf.HWPFDocumentCore;
+import org.apache.poi.hwpf.model.CHPBinTable;
 import org.apache.poi.hwpf.model.CHPX;
 import org.apache.poi.hwpf.model.FileInformationBlock;
+import org.apache.poi.hwpf.model.PAPBinTable;
 import org.apache.poi.hwpf.model.PAPX;
 import org.apache.poi.hwpf.model.PropertyNode;
+import org.apache.poi.hwpf.model.PropertyNodeIndex;
 import org.apache.poi.hwpf.model.SEPX;
 import org.apache.poi.hwpf.model.StyleSheet;
 import org.apache.poi.hwpf.model.SubdocumentType;
@@ -566,6 +569,9 @@ public class Range {
 			// + " -> " + sepx.getEnd());
 		}
 
+		_doc.getCharacterTable().invalidateIndex();
+		_doc.getParagraphTable().invalidateIndex();
+
         if ( _doc instanceof HWPFDocument )
         {
             ( (BookmarksImpl) ( (HWPFDocument) _doc ).getBookmarks() )
@@ -724,19 +730,11 @@ public class Range {
         }
         else
         {
-            int[] point = findRange( _paragraphs,
-                    Math.max( chpx.getStart(), _start ),
-                    Math.min( chpx.getEnd(), _end ) );
-
-            initParagraphs();
-            int parStart = Math.max( point[0], _parStart );
-
-            if ( parStart >= _paragraphs.size() )
+            PAPX papx = findParagraphOf( chpx );
+            if ( papx == null )
             {
                 return null;
             }
-
-            PAPX papx = _paragraphs.get( point[0] );
             istd = papx.getIstd();
         }
 
@@ -744,6 +742,70 @@ public class Range {
 				this);
     }
 
+    /**
+     * @return the paragraph containing the start of the character run within this range,
+     *         or {@code null} if there's no such paragraph
+     */
+    PAPX findParagraphOf( CHPX chpx )
+    {
+        int[] point = findRange( _paragraphs, getParagraphsIndex(),
+                Math.max( chpx.getStart(), _start ),
+                Math.min( chpx.getEnd(), _end ) );
+
+        initParagraphs();
+        int parStart = Math.max( point[0], _parStart );
+
+        if ( parStart >= _paragraphs.size() )
+        {
+            return null;
+        }
+
+        return _paragraphs.get( point[0] );
+    }
+
+    /**
+     * Forward-only variant of {@link #findParagraphOf(CHPX)} for character runs in ascending order,
+     * which continues the search at the paragraph found for the previous run
+     *
+     * @param fromIndex the paragraph index found for the previous run or {@code 0}
+     * @return the index of the paragraph containing the start of the character run within this range,
+     *         or {@code -1} if there's no such paragraph
+     */
+    int findNextParagraphIndex( int fromIndex, CHPX chpx )
+    {
+        initParagraphs();
+        final int size = _paragraphs.size();
+        if ( _parStart >= size )
+        {
+            return -1;
+        }
+
+        // same result as PropertyNodeIndex.findStartIndex(): the first paragraph starting
+        // at the offset, otherwise the last one starting before it
+        final int start = Math.max( chpx.getStart(), _start );
+        int index = fromIndex;
+        while ( index + 1 < size && _paragraphs.get( index ).getStart() < start
+                && _paragraphs.get( index + 1 ).getStart() <= start )
+        {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns a forward-only cursor over the character runs of this range.
+     * In contrast to {@link #getCharacterRun(int)}, the cursor doesn't create
+     * a {@link CharacterRun} per run and only resolves the properties on demand.
+     *
+     * @return the cursor positioned before the first character run
+     * @since POI 5.0.1
+     */
+    public CharacterRunCursor getCharacterRunCursor()
+    {
+        initCharacterRuns();
+        return new CharacterRunCursor( this );
+    }
+
 	/**
 	 * Gets the section at index. The index is relative to this range.
 	 *
@@ -855,7 +917,7 @@ public class Range {
 	 */
 	private void initParagraphs() {
 		if (!_parRangeFound) {
-			int[] point = findRange(_paragraphs, _start, _end);
+			int[] point = findRange(_paragraphs, getParagraphsIndex(), _start, _end);
 			_parStart = point[0];
 			_parEnd = point[1];
 			_parRangeFound = true;
@@ -867,7 +929,7 @@ public class Range {
 	 */
 	private void initCharacterRuns() {
 		if (!_charRangeFound) {
-			int[] point = findRange(_characters, _start, _end);
+			int[] point = findRange(_characters, getTextRunsIndex(), _start, _end);
 			_charStart = point[0];
 			_charEnd = point[1];
 			_charRangeFound = true;
@@ -886,71 +948,22 @@ public class Range {
 		}
 	}
 
-    private static int binarySearchStart( List<? extends PropertyNode<?>> rpl,
-            int start )
+    /**
+     * @return the index of the document paragraphs, if this range uses them
+     */
+    private PropertyNodeIndex getParagraphsIndex()
     {
-        if ( rpl.size() == 0 )
-            return -1;
-        if ( rpl.get( 0 ).getStart() >= start )
-            return 0;
-
-        int low = 0;
-        int high = rpl.size() - 1;
-
-        while ( low <= high )
-        {
-            int mid = ( low + high ) >>> 1;
-            PropertyNode<?> node = rpl.get( mid );
-
-            if ( node.getStart() < start )
-            {
-                low = mid + 1;
-            }
-            else if ( node.getStart() > start )
-            {
-                high = mid - 1;
-            }
-            else
-            {
-                assert node.getStart() == start;
-                return mid;
-            }
-        }
-        assert low != 0;
-        return low - 1;
+        PAPBinTable pbt = _doc.getParagraphTable();
+        return pbt.getParagraphs() == _paragraphs ? pbt.getParagraphsIndex() : null;
     }
 
-    private static int binarySearchEnd( List<? extends PropertyNode<?>> rpl,
-            int foundStart, int end )
+    /**
+     * @return the index of the document text runs, if this range uses them
+     */
+    private PropertyNodeIndex getTextRunsIndex()
     {
-        if ( rpl.get( rpl.size() - 1 ).getEnd() <= end )
-            return rpl.size() - 1;
-
-        int low = foundStart;
-        int high = rpl.size() - 1;
-
-        while ( low <= high )
-        {
-            int mid = ( low + high ) >>> 1;
-            PropertyNode<?> node = rpl.get( mid );
-
-            if ( node.getEnd() < end )
-            {
-                low = mid + 1;
-            }
-            else if ( node.getEnd() > end )
-            {
-                high = mid - 1;
-            }
-            else
-            {
-                assert node.getEnd() == end;
-                return mid;
-            }
-        }
-        assert 0 <= low && low < rpl.size();
-
-        return low;
+        CHPBinTable cbt = _doc.getCharacterTable();
+        return cbt.getTextRuns() == _characters ? cbt.getTextRunsIndex() : null;
     }
 
     /**
@@ -958,6 +971,8 @@ public class Range {
      *
      * @param rpl
      *            A list of property nodes.
+     * @param index
+     *            The cached index of the property nodes or {@code null} to search the list directly.
      * @param start
      *            The starting character offset.
      * @param end
@@ -965,17 +980,12 @@ public class Range {
      * @return An int array of length 2. The first int is the start index and
      *         the second int is the end index.
      */
-    private int[] findRange( List<? extends PropertyNode<?>> rpl, int start,
-            int end )
+    private int[] findRange( List<? extends PropertyNode<?>> rpl,
+            PropertyNodeIndex index, int start, int end )
     {
-        int startIndex = binarySearchStart( rpl, start );
-        while ( startIndex > 0 && rpl.get( startIndex - 1 ).getStart() >= start )
-            startIndex--;
-
-        int endIndex = binarySearchEnd( rpl, startIndex, end );
-        while ( endIndex < rpl.size() - 1
-                && rpl.get( endIndex + 1 ).getEnd() <= end )
-            endIndex++;
+        PropertyNodeIndex idx = index != null ? index : PropertyNodeIndex.wrap( rpl );
+        int startIndex = idx.findStartIndex( start );
+        int endIndex = idx.findEndIndex( startIndex, end ) - 1;
 
         if ( startIndex < 0 || startIndex >= rpl.size()
                 || startIndex > endIndex || endIndex < 0
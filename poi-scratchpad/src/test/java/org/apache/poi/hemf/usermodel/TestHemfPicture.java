@@ -19,20 +19,28 @@
 package org.apache.poi.hemf.usermodel;
 
 import static org.apache.poi.POITestCase.assertContains;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.hemf.record.emf.HemfComment;
@@ -51,6 +59,8 @@ import org.apache.poi.hwmf.usermodel.HwmfPicture;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.RecordFormatException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 @SuppressWarnings("StatementWithEmptyBody")
 public class TestHemfPicture {
@@ -316,6 +326,103 @@ public class TestHemfPicture {
         }
     }
 
+    @ParameterizedTest
+    @CsvSource({"spreadsheet, SimpleEMF_windows.emf", "spreadsheet, SimpleEMF_mac.emf", "slideshow, wrench.emf", "slideshow, nested_wmf.emf"})
+    void streaming(String dir, String file) throws Exception {
+        byte[] data = ("slideshow".equals(dir) ? sl_samples : ss_samples).readFile(file);
+        HemfPicture pic = new HemfPicture(new ByteArrayInputStream(data));
+        HemfPicture streamPic = new HemfPicture(() -> new ByteArrayInputStream(data));
+        assertFalse(pic.isStreaming());
+        assertTrue(streamPic.isStreaming());
+
+        assertEquals(pic.getHeader().getRecords(), streamPic.getHeader().getRecords());
+        assertEquals(pic.getBounds(), streamPic.getBounds());
+
+        List<HemfRecordType> types = new ArrayList<>();
+        streamPic.forEach(r -> types.add(r.getEmfRecordType()));
+        assertEquals(pic.getRecords().stream().map(HemfRecord::getEmfRecordType).collect(Collectors.toList()), types);
+
+        assertArrayEquals(render(pic), render(streamPic));
+    }
+
+    @Test
+    void streamingEmbeddings() throws Exception {
+        byte[] data = sl_samples.readFile("nested_wmf.emf");
+        HemfPicture emf = new HemfPicture(() -> new ByteArrayInputStream(data));
+        List<HwmfEmbedded> embeds = new ArrayList<>();
+        emf.getEmbeddings().forEach(embeds::add);
+        assertEquals(1, embeds.size());
+        assertEquals(HwmfEmbeddedType.WMF, embeds.get(0).getEmbeddedType());
+    }
+
+    @Test
+    void streamingIteratorAfterEnd() throws Exception {
+        List<CheckedCloseStream> streams = new ArrayList<>();
+        byte[] data = sl_samples.readFile("nested_wmf.emf");
+        HemfPicture emf = new HemfPicture(() -> {
+            CheckedCloseStream cs = new CheckedCloseStream(data);
+            streams.add(cs);
+            return cs;
+        });
+        Iterator<HemfRecord> iter = emf.iterator();
+        int cnt = 0;
+        while (iter.hasNext()) {
+            iter.next();
+            cnt++;
+        }
+        assertEquals(new HemfPicture(new ByteArrayInputStream(data)).getRecords().size(), cnt);
+        // the stream has been closed at the end, so it must not be read again
+        assertFalse(iter.hasNext());
+        assertThrows(NoSuchElementException.class, iter::next);
+        assertTrue(streams.stream().allMatch(cs -> cs.closed && cs.readsAfterClose == 0));
+    }
+
+    /** Counts the reads after it has been closed, which a plain ByteArrayInputStream silently allows */
+    private static final class CheckedCloseStream extends ByteArrayInputStream {
+        private boolean closed;
+        private int readsAfterClose;
+
+        CheckedCloseStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read() {
+            checkOpen();
+            return super.read();
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            checkOpen();
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public synchronized long skip(long n) {
+            checkOpen();
+            return super.skip(n);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                readsAfterClose++;
+            }
+        }
+    }
+
+    private static int[] render(HemfPicture pic) {
+        BufferedImage img = new BufferedImage(200, 150, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        pic.draw(g, new Rectangle2D.Double(0, 0, 200, 150));
+        g.dispose();
+        return img.getRGB(0, 0, 200, 150, null, 0, 200);
+    }
 
     /* govdocs1 064213.doc-0.emf contains an example of extextouta */
 }
\ No newline at end of file
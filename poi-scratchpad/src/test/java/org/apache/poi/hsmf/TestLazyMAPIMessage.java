@@ -0,0 +1,139 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hsmf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.hsmf.datatypes.AttachmentChunks;
+import org.apache.poi.hsmf.datatypes.ByteChunkDeferred;
+import org.apache.poi.hsmf.datatypes.Chunk;
+import org.apache.poi.hsmf.datatypes.ChunkGroup;
+import org.apache.poi.hsmf.datatypes.PropertiesChunk;
+import org.apache.poi.hsmf.datatypes.StringChunkDeferred;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that messages which are parsed lazily equal the eagerly parsed ones
+ */
+class TestLazyMAPIMessage {
+    private static final POIDataSamples samples = POIDataSamples.getHSMFInstance();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "quick.msg", "attachment_test_msg.msg", "attachment_msg_pdf.msg", "attachment_msg_inlineImg.msg",
+        "58214_with_attachment.msg", "ASCII_CP1251_LCID1049.msg", "HTMLBodyBinary_UTF-8.msg", "outlook_30_msg.msg"
+    })
+    void sameAsEager(String file) throws Exception {
+        try (POIFSFileSystem fs = new POIFSFileSystem(samples.getFile(file), true)) {
+            MAPIMessage eager = new MAPIMessage(fs.getRoot());
+            MAPIMessage lazy = new MAPIMessage(fs.getRoot(), true);
+            eager.setReturnNullOnMissingChunk(true);
+            lazy.setReturnNullOnMissingChunk(true);
+
+            assertEquals(eager.has7BitEncodingStrings(), lazy.has7BitEncodingStrings());
+            eager.guess7BitEncoding();
+            lazy.guess7BitEncoding();
+
+            assertEquals(eager.getSubject(), lazy.getSubject());
+            assertEquals(eager.getDisplayFrom(), lazy.getDisplayFrom());
+            assertEquals(eager.getDisplayTo(), lazy.getDisplayTo());
+            assertArrayEquals(eager.getHeaders(), lazy.getHeaders());
+            assertEquals(eager.getTextBody(), lazy.getTextBody());
+            assertEquals(eager.getHtmlBody(), lazy.getHtmlBody());
+            assertEquals(eager.getRtfBody(), lazy.getRtfBody());
+
+            assertEquals(getRawChunks(eager), getRawChunks(lazy));
+
+            AttachmentChunks[] eagerAtt = eager.getAttachmentFiles();
+            AttachmentChunks[] lazyAtt = lazy.getAttachmentFiles();
+            assertEquals(eagerAtt.length, lazyAtt.length);
+            for (int i = 0; i < eagerAtt.length; i++) {
+                byte[] expected = eagerAtt[i].getEmbeddedAttachmentObject();
+                try (InputStream is = lazyAtt[i].getEmbeddedAttachmentObjectStream()) {
+                    if (expected == null) {
+                        assertNull(is);
+                    } else {
+                        assertNotNull(is);
+                        assertArrayEquals(expected, IOUtils.toByteArray(is));
+                    }
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"quick.msg", "attachment_test_msg.msg"})
+    void chunksAreDeferred(String file) throws Exception {
+        try (POIFSFileSystem fs = new POIFSFileSystem(samples.getFile(file), true)) {
+            MAPIMessage lazy = new MAPIMessage(fs.getRoot(), true);
+            assertTrue(lazy.getMainChunks().getSubjectChunk() instanceof StringChunkDeferred);
+            for (AttachmentChunks att : lazy.getAttachmentFiles()) {
+                if (att.getAttachData() != null) {
+                    assertTrue(att.getAttachData() instanceof ByteChunkDeferred);
+                }
+            }
+
+            // changing the value unlinks the chunk from the document
+            StringChunkDeferred subject = (StringChunkDeferred)lazy.getMainChunks().getSubjectChunk();
+            subject.setValue("changed");
+            assertEquals("changed", lazy.getSubject());
+        }
+    }
+
+    /**
+     * @return the raw chunk data by entry name - the chunk order of the groups isn't stable
+     */
+    private static Map<String, String> getRawChunks(MAPIMessage msg) throws IOException {
+        List<ChunkGroup> groups = new ArrayList<>();
+        groups.add(msg.getMainChunks());
+        groups.addAll(Arrays.asList(msg.getRecipientDetailsChunks()));
+        groups.addAll(Arrays.asList(msg.getAttachmentFiles()));
+
+        Map<String, String> raw = new TreeMap<>();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (int i = 0; i < groups.size(); i++) {
+            for (Chunk c : groups.get(i).getChunks()) {
+                if (c instanceof PropertiesChunk) {
+                    // the properties are always read eagerly and written in hash order
+                    continue;
+                }
+                bos.reset();
+                c.writeValue(bos);
+                raw.merge(i + "/" + c.getEntryName(), Arrays.toString(bos.toByteArray()), String::concat);
+            }
+        }
+        return raw;
+    }
+}
@@ -18,16 +18,27 @@
 package org.apache.poi.hwmf;
 
 import static org.apache.poi.POITestCase.assertContains;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.hwmf.record.HwmfFont;
@@ -64,6 +75,92 @@ public class TestHwmfParsing {
         }
     }
 
+    @ParameterizedTest
+    @CsvSource({"santa.wmf, 581", "empty-polygon-close.wmf, 272"})
+    void streaming(String file, int recordCnt) throws IOException {
+        byte[] data = samples.readFile(file);
+        HwmfPicture wmf = new HwmfPicture(new ByteArrayInputStream(data));
+        HwmfPicture streamWmf = new HwmfPicture(() -> new ByteArrayInputStream(data));
+        assertTrue(streamWmf.isStreaming());
+        assertEquals(wmf.getBounds(), streamWmf.getBounds());
+
+        List<HwmfRecordType> types = new ArrayList<>();
+        streamWmf.forEach(r -> types.add(r.getWmfRecordType()));
+        assertEquals(recordCnt, types.size());
+        assertEquals(wmf.getRecords().stream().map(HwmfRecord::getWmfRecordType).collect(Collectors.toList()), types);
+
+        assertArrayEquals(render(wmf), render(streamWmf));
+    }
+
+    @Test
+    void streamingIteratorAfterEnd() throws IOException {
+        List<CheckedCloseStream> streams = new ArrayList<>();
+        byte[] data = samples.readFile("santa.wmf");
+        HwmfPicture streamWmf = new HwmfPicture(() -> {
+            CheckedCloseStream cs = new CheckedCloseStream(data);
+            streams.add(cs);
+            return cs;
+        });
+        Iterator<HwmfRecord> iter = streamWmf.iterator();
+        int cnt = 0;
+        while (iter.hasNext()) {
+            iter.next();
+            cnt++;
+        }
+        assertEquals(581, cnt);
+        // the stream has been closed at the end, so it must not be read again
+        assertFalse(iter.hasNext());
+        assertThrows(NoSuchElementException.class, iter::next);
+        assertTrue(streams.stream().allMatch(cs -> cs.closed && cs.readsAfterClose == 0));
+    }
+
+    /** Counts the reads after it has been closed, which a plain ByteArrayInputStream silently allows */
+    private static final class CheckedCloseStream extends ByteArrayInputStream {
+        private boolean closed;
+        private int readsAfterClose;
+
+        CheckedCloseStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read() {
+            checkOpen();
+            return super.read();
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            checkOpen();
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public synchronized long skip(long n) {
+            checkOpen();
+            return super.skip(n);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                readsAfterClose++;
+            }
+        }
+    }
+
+    private static int[] render(HwmfPicture wmf) {
+        BufferedImage img = new BufferedImage(200, 150, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        wmf.draw(g, new Rectangle2D.Double(0, 0, 200, 150));
+        g.dispose();
+        return img.getRGB(0, 0, 200, 150, null, 0, 200);
+    }
+
     @Test
     void testInfiniteLoop() throws Exception {
         try (InputStream is = samples.openResourceAsStream("61338.wmf")) {
@@ -0,0 +1,82 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hwpf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.hwpf.model.ComplexFileTable;
+import org.apache.poi.hwpf.usermodel.Range;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests the lazy mode of {@link HWPFDocument} and the text-only fast path
+ */
+class TestLazyHWPFDocument {
+
+    private static HWPFDocument openLazy(POIFSFileSystem fs) throws IOException {
+        return new HWPFDocument(fs.getRoot(), true);
+    }
+
+    private static POIFSFileSystem openSample(String sampleFileName) throws IOException {
+        try (InputStream is = POIDataSamples.getDocumentInstance().openResourceAsStream(sampleFileName)) {
+            return new POIFSFileSystem(is);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ThreeColHeadFoot.doc", "HeaderFooterUnicode.doc", "Bug47286.doc", "Bug46610_1.doc", "Bug51604.doc"})
+    void textOnly(String sampleFileName) throws IOException {
+        try (POIFSFileSystem fs = openSample(sampleFileName)) {
+            HWPFDocument eager = new HWPFDocument(fs.getRoot());
+            String expected = eager.getDocumentText();
+
+            HWPFDocument lazy = openLazy(fs);
+            assertEquals(expected, lazy.getDocumentText());
+            assertEquals(expected, ComplexFileTable.readText(lazy.getMainStream(),
+                lazy.getTableStream(), lazy.getFileInformationBlock().getFcClx()).toString());
+
+            // accessing the ranges parses the remaining structures
+            Range range = lazy.getRange();
+            assertEquals(eager.getRange().text(), range.text());
+            assertEquals(eager.getRange().numParagraphs(), range.numParagraphs());
+            assertEquals(eager.getHeaderStoryRange().text(), lazy.getHeaderStoryRange().text());
+            assertEquals(expected, lazy.getDocumentText());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ThreeColHeadFoot.doc", "Bug47286.doc"})
+    void writeUntouched(String sampleFileName) throws IOException {
+        try (POIFSFileSystem fs = openSample(sampleFileName)) {
+            HWPFDocument eager = new HWPFDocument(fs.getRoot());
+            HWPFDocument lazy = HWPFTestDataSamples.writeOutAndReadBack(openLazy(fs));
+
+            assertEquals(eager.getDocumentText(), lazy.getDocumentText());
+            assertEquals(eager.getRange().numParagraphs(), lazy.getRange().numParagraphs());
+            assertEquals(eager.getBookmarks().getBookmarksCount(), lazy.getBookmarks().getBookmarksCount());
+            assertEquals(eager.getFootnotes().getNotesCount(), lazy.getFootnotes().getNotesCount());
+            assertEquals(eager.getStyleSheet().numStyles(), lazy.getStyleSheet().numStyles());
+        }
+    }
+}
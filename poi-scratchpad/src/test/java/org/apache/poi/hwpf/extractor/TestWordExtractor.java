@@ -21,6 +21,7 @@ import static org.apache.poi.POITestCase.assertContains;
 import static org.apache.poi.POITestCase.assertStartsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -38,6 +39,8 @@ import org.apache.poi.poifs.filesystem.Entry;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.util.StringUtil;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * Test the different routes to extracting text
@@ -402,6 +405,45 @@ public final class TestWordExtractor {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "test2.doc", "ThreeColHeadFoot.doc", "HeaderFooterUnicode.doc", "footnote.doc",
+        "Bug53453Section.doc", "innertable.doc", "MarkAuthorsTable.doc", "ListEntryNoListTable.doc"
+    })
+    void testWriteText(String fileName) throws IOException {
+        try (WordExtractor extractor = openExtractor(fileName)) {
+            String expected = extractor.getText();
+            StringBuilder sb = new StringBuilder();
+            extractor.writeText(sb);
+            assertEquals(expected, sb.toString());
+        }
+    }
+
+    @Test
+    void testWriteTextStreamsParagraphs() throws IOException {
+        // the text is written while the document is processed, so errors of the sink abort the extraction
+        IOException ex = new IOException("sink closed");
+        Appendable failing = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                throw ex;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw ex;
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                throw ex;
+            }
+        };
+        try (WordExtractor extractor = openExtractor("test2.doc")) {
+            assertSame(ex, assertThrows(IOException.class, () -> extractor.writeText(failing)));
+        }
+    }
+
     private WordExtractor openExtractor(String fileName) throws IOException {
         try (InputStream is = docTests.openResourceAsStream(fileName)) {
             return new WordExtractor(is);
@@ -0,0 +1,131 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hwpf.usermodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+
+import org.apache.poi.hwpf.HWPFDocument;
+import org.apache.poi.hwpf.HWPFTestDataSamples;
+import org.apache.poi.hwpf.model.CHPX;
+import org.apache.poi.hwpf.model.PAPX;
+import org.apache.poi.hwpf.model.PropertyNodeIndex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link CharacterRunCursor} and the indexed lookups of {@link Range}
+ */
+final class TestCharacterRunCursor {
+
+    private static void assertSameRuns(Range range) {
+        CharacterRunCursor cursor = range.getCharacterRunCursor();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < range.numCharacterRuns(); i++) {
+            CharacterRun expected = range.getCharacterRun(i);
+            if (expected == null) {
+                continue;
+            }
+            assertTrue(cursor.next());
+            assertEquals(i, cursor.getIndex());
+            assertEquals(expected.getStartOffset(), cursor.getStartOffset());
+            assertEquals(expected.getEndOffset(), cursor.getEndOffset());
+            assertEquals(expected.text(), cursor.text());
+            assertEquals(expected.getStyleIndex(), cursor.getStyleIndex());
+            assertEquals(expected.isBold(), cursor.getCharacterProperties().isFBold());
+            assertEquals(expected.getFontSize(), cursor.getCharacterProperties().getHps());
+            assertEquals(expected.text(), cursor.getCharacterRun().text());
+            cursor.appendText(text);
+        }
+        assertFalse(cursor.next());
+        assertFalse(cursor.next());
+        assertThrows(NoSuchElementException.class, cursor::getStartOffset);
+        assertEquals(range.text(), text.toString());
+    }
+
+    @Test
+    void cursorMatchesRuns() {
+        HWPFDocument doc = HWPFTestDataSamples.openSampleFile("ThreeColHeadFoot.doc");
+        Range range = doc.getRange();
+        assertSameRuns(range);
+        assertSameRuns(doc.getHeaderStoryRange());
+        for (int i = 0; i < range.numParagraphs(); i++) {
+            assertSameRuns(range.getParagraph(i));
+        }
+    }
+
+    @Test
+    void indexIsDroppedOnModification() {
+        HWPFDocument doc = HWPFTestDataSamples.openSampleFile("Bug46610_1.doc");
+        PropertyNodeIndex runsIndex = doc.getCharacterTable().getTextRunsIndex();
+        PropertyNodeIndex parIndex = doc.getParagraphTable().getParagraphsIndex();
+        assertSame(runsIndex, doc.getCharacterTable().getTextRunsIndex());
+        assertEquals(doc.getCharacterTable().getTextRuns().size(), runsIndex.size());
+
+        Range range = doc.getRange();
+        int numRuns = range.numCharacterRuns();
+        range.getParagraph(0).insertBefore("Inserted text. ");
+        assertNotSame(runsIndex, doc.getCharacterTable().getTextRunsIndex());
+        assertNotSame(parIndex, doc.getParagraphTable().getParagraphsIndex());
+
+        range = doc.getRange();
+        assertEquals(numRuns, range.numCharacterRuns());
+        assertTrue(range.text().startsWith("Inserted text. "));
+        assertSameRuns(range);
+    }
+
+    @Test
+    void forwardParagraphLookupMatchesSearch() {
+        for (String sample : new String[]{"Bug46610_1.doc", "ThreeColHeadFoot.doc", "Bug45269.doc"}) {
+            HWPFDocument doc = HWPFTestDataSamples.openSampleFile(sample);
+            for (Range range : new Range[]{doc.getRange(), doc.getHeaderStoryRange()}) {
+                range.getCharacterRunCursor();
+                int parIndex = 0;
+                for (int i = range._charStart; i < range._charEnd; i++) {
+                    CHPX chpx = range._characters.get(i);
+                    if (chpx == null) {
+                        continue;
+                    }
+                    PAPX expected = range.findParagraphOf(chpx);
+                    parIndex = range.findNextParagraphIndex(parIndex, chpx);
+                    assertSame(expected, parIndex < 0 ? null : range._paragraphs.get(parIndex), sample);
+                }
+            }
+        }
+    }
+
+    @Test
+    void wrappedIndexMatchesSnapshot() {
+        HWPFDocument doc = HWPFTestDataSamples.openSampleFile("Bug46610_1.doc");
+        PropertyNodeIndex snapshot = doc.getParagraphTable().getParagraphsIndex();
+        PropertyNodeIndex wrapped = PropertyNodeIndex.wrap(doc.getParagraphTable().getParagraphs());
+        assertEquals(snapshot.size(), wrapped.size());
+
+        int last = snapshot.getEnd(snapshot.size() - 1);
+        for (int cp = 0; cp <= last; cp += 7) {
+            int startIndex = snapshot.findStartIndex(cp);
+            assertEquals(startIndex, wrapped.findStartIndex(cp));
+            assertEquals(snapshot.findEndIndex(startIndex, cp + 20), wrapped.findEndIndex(startIndex, cp + 20));
+        }
+    }
+}
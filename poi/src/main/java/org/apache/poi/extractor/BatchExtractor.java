@@ -0,0 +1,497 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.extractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.poi.poifs.filesystem.DirectoryEntry;
+import org.apache.poi.poifs.filesystem.Entry;
+import org.apache.poi.poifs.filesystem.EntryUtils;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
+
+/**
+ * Extracts the text of many documents in parallel on a {@link ForkJoinPool}.<p>
+ *
+ * The documents are handed to the {@link ExtractorFactory}, which detects the format via the
+ * {@link org.apache.poi.poifs.filesystem.FileMagic}. By default, the event based extractors are
+ * preferred. The embedded documents of OLE2 documents are extracted as subtasks on the same pool.<p>
+ *
+ * The results are handed to the consumer on the calling thread in the order of completion.
+ * Only a limited number of documents is queued or processed at the same time, so a slow consumer
+ * throttles the extraction and the files are only requested from the iterator when there's capacity.<p>
+ *
+ * The budget of a document is limited by its file size, the length of the extracted text and the
+ * processing time. When a document exceeds the time limit, its worker thread is interrupted - this
+ * stops the reading from file channels, but otherwise the extraction only stops at the next embedded
+ * document. The timed out document is reported immediately, but it keeps its slot until it's finished.
+ *
+ * @since POI 5.0.1
+ */
+public class BatchExtractor {
+
+    /**
+     * The extraction result of a document or an embedded document
+     */
+    public static final class Result {
+        private final String name;
+        private final String text;
+        private final List<Result> embedded;
+        private final Throwable error;
+
+        Result(String name, String text, List<Result> embedded, Throwable error) {
+            this.name = name;
+            this.text = text;
+            this.embedded = embedded;
+            this.error = error;
+        }
+
+        /**
+         * @return the path of the file or the name of the embedded entry,
+         *  {@code null} for embedded documents which aren't stored in an entry
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the extracted text or {@code null} if the extraction failed
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the results of the embedded documents
+         */
+        public List<Result> getEmbedded() {
+            return embedded;
+        }
+
+        /**
+         * @return the cause of the failed extraction or {@code null} if the extraction succeeded
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Receives the extraction results on the calling thread
+     */
+    @FunctionalInterface
+    public interface ResultConsumer {
+        /**
+         * @param file the extracted file
+         * @param result the result
+         * @throws IOException if the result can't be processed, which stops the batch
+         */
+        void accept(File file, Result result) throws IOException;
+    }
+
+    private boolean preferEventExtractors = true;
+    private boolean includeEmbedded = true;
+    private String password;
+    private long timeout;
+    private long maxFileSize;
+    private int maxTextLength;
+    private int maxPending;
+
+    /**
+     * @param preferEventExtractors if the event based extractors should be used, if available. Default is true.
+     */
+    public void setPreferEventExtractors(boolean preferEventExtractors) {
+        this.preferEventExtractors = preferEventExtractors;
+    }
+
+    public boolean isPreferEventExtractors() {
+        return preferEventExtractors;
+    }
+
+    /**
+     * @param includeEmbedded if the embedded documents should be extracted. Default is true.
+     */
+    public void setIncludeEmbedded(boolean includeEmbedded) {
+        this.includeEmbedded = includeEmbedded;
+    }
+
+    public boolean isIncludeEmbedded() {
+        return includeEmbedded;
+    }
+
+    /**
+     * @param password the password for encrypted documents or {@code null} for none
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * @param timeout the maximum processing time of a document in milliseconds or 0 for no limit
+     */
+    public void setTimeout(long timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        this.timeout = timeout;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @param maxFileSize the maximum size of a file in bytes or 0 for no limit.
+     *  Bigger files are reported as failed without processing them.
+     */
+    public void setMaxFileSize(long maxFileSize) {
+        if (maxFileSize < 0) {
+            throw new IllegalArgumentException("maxFileSize must not be negative: " + maxFileSize);
+        }
+        this.maxFileSize = maxFileSize;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * @param maxTextLength the maximum text length of a document or embedded document or 0 for no limit.
+     *  Documents with longer texts are reported as failed.
+     */
+    public void setMaxTextLength(int maxTextLength) {
+        if (maxTextLength < 0) {
+            throw new IllegalArgumentException("maxTextLength must not be negative: " + maxTextLength);
+        }
+        this.maxTextLength = maxTextLength;
+    }
+
+    public int getMaxTextLength() {
+        return maxTextLength;
+    }
+
+    /**
+     * @param maxPending the maximum number of documents, which are processed or waiting to be processed or
+     *  consumed at the same time, or 0 for twice the parallelism of the pool
+     */
+    public void setMaxPending(int maxPending) {
+        if (maxPending < 0) {
+            throw new IllegalArgumentException("maxPending must not be negative: " + maxPending);
+        }
+        this.maxPending = maxPending;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * Extracts the text of the files. Failed documents are reported as results with an error.
+     * This method returns when all files are processed and consumed.
+     *
+     * @param files the files, e.g. {@code stream.map(Path::toFile)::iterator}
+     * @param pool the pool to process the documents and their embedded documents
+     * @param consumer the consumer of the results
+     * @throws IOException if the consumer fails
+     * @throws InterruptedIOException if the calling thread is interrupted
+     */
+    public void extract(Iterable<File> files, ForkJoinPool pool, ResultConsumer consumer) throws IOException {
+        final int window = (maxPending > 0) ? maxPending : 2 * pool.getParallelism();
+        final long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+        final BlockingQueue<Job> done = new LinkedBlockingQueue<>();
+        final Set<Job> pending = new LinkedHashSet<>();
+        final Iterator<File> iter = files.iterator();
+
+        try {
+            for (;;) {
+                while (pending.size() < window && iter.hasNext()) {
+                    Job job = new Job(iter.next(), done);
+                    pending.add(job);
+                    pool.execute(job);
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                Job job = (timeoutNanos == 0) ? done.take() : done.poll(nextDeadline(pending, timeoutNanos), TimeUnit.NANOSECONDS);
+                if (job != null) {
+                    pending.remove(job);
+                    if (!job.reported) {
+                        job.reported = true;
+                        if (job.result.error instanceof Error) {
+                            throw (Error)job.result.error;
+                        }
+                        consumer.accept(job.file, job.result);
+                    }
+                }
+
+                if (timeoutNanos > 0) {
+                    reportTimeouts(pending, timeoutNanos, consumer);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Extraction was interrupted");
+        } finally {
+            pending.forEach(Job::cancel);
+        }
+    }
+
+    /**
+     * @return the nanos till the first running job times out
+     */
+    private static long nextDeadline(Set<Job> pending, long timeoutNanos) {
+        final long now = System.nanoTime();
+        long wait = timeoutNanos;
+        for (Job job : pending) {
+            final long started = job.started;
+            if (started != 0 && !job.reported) {
+                wait = Math.min(wait, started + timeoutNanos - now);
+            }
+        }
+        return Math.max(wait, 0);
+    }
+
+    private void reportTimeouts(Set<Job> pending, long timeoutNanos, ResultConsumer consumer) throws IOException {
+        final long now = System.nanoTime();
+        for (Job job : pending) {
+            final long started = job.started;
+            if (started == 0 || job.reported || now - started < timeoutNanos) {
+                continue;
+            }
+            job.cancel();
+            job.reported = true;
+            TimeoutException ex = new TimeoutException("Extraction exceeded the timeout of " + timeout + " ms");
+            consumer.accept(job.file, new Result(job.file.getPath(), null, Collections.emptyList(), ex));
+        }
+    }
+
+    private Result extract(File file, Job job) throws IOException {
+        if (maxFileSize > 0 && file.length() > maxFileSize) {
+            throw new IOException("File size " + file.length() + " exceeds the limit of " + maxFileSize + " bytes");
+        }
+        try (POITextExtractor ext = ExtractorFactory.createExtractor(file.toPath(), password)) {
+            return extract(file.getPath(), ext, job);
+        }
+    }
+
+    private Result extract(String name, POITextExtractor ext, Job job) throws IOException {
+        checkCancelled(job);
+        // the text is streamed into a bounded buffer, so an oversized document is aborted early
+        final TextBuffer buf = new TextBuffer(maxTextLength);
+        ext.writeText(buf);
+        final String text = buf.toString();
+
+        final List<Result> embedded = (includeEmbedded && ext instanceof POIOLE2TextExtractor)
+            ? extractEmbedded((POIOLE2TextExtractor)ext, job)
+            : Collections.emptyList();
+        return new Result(name, text, embedded, null);
+    }
+
+    private List<Result> extractEmbedded(POIOLE2TextExtractor ext, Job job) throws IOException {
+        List<Entry> dirs = new ArrayList<>();
+        List<InputStream> nonPOIFS = new ArrayList<>();
+        ExtractorFactory.identifyEmbeddedResources(ext, dirs, nonPOIFS);
+
+        // The container can't be read concurrently, so the embedded documents
+        // are copied before their text is extracted in parallel
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>();
+        for (Entry dir : dirs) {
+            checkCancelled(job);
+            final POIFSFileSystem poifs = new POIFSFileSystem();
+            EntryUtils.copyNodes((DirectoryEntry)dir, poifs.getRoot());
+            tasks.add(fork(dir.getName(), job, () -> {
+                // the copy is closed with the extractor
+                try {
+                    return ExtractorFactory.createExtractor(poifs.getRoot(), password);
+                } catch (IOException | RuntimeException e) {
+                    IOUtils.closeQuietly(poifs);
+                    throw e;
+                }
+            }));
+        }
+        for (InputStream is : nonPOIFS) {
+            checkCancelled(job);
+            final byte[] data = IOUtils.toByteArray(is);
+            tasks.add(fork(null, job, () -> ExtractorFactory.createExtractor(new ByteArrayInputStream(data), password)));
+        }
+
+        List<Result> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Result> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    private interface ExtractorSupplier {
+        POITextExtractor create() throws IOException;
+    }
+
+    private ForkJoinTask<Result> fork(String name, Job job, ExtractorSupplier supplier) {
+        final ForkJoinTask<Result> task = ForkJoinTask.adapt(() -> {
+            final boolean prefers = ExtractorFactory.getThreadPrefersEventExtractors();
+            ExtractorFactory.setThreadPrefersEventExtractors(preferEventExtractors);
+            try (POITextExtractor ext = supplier.create()) {
+                return extract(name, ext, job);
+            } catch (Exception e) {
+                return new Result(name, null, Collections.emptyList(), e);
+            } finally {
+                ExtractorFactory.setThreadPrefersEventExtractors(prefers);
+            }
+        });
+        // outside of a pool, the task is executed on join
+        return ForkJoinTask.inForkJoinPool() ? task.fork() : task;
+    }
+
+    private static void checkCancelled(Job job) {
+        if (job.cancelled) {
+            throw new CancellationException("Extraction of " + job.file + " was cancelled");
+        }
+    }
+
+    /**
+     * The job, which is processed by the current thread. A worker, which waits for embedded documents,
+     * can run another job inline, so the jobs of a thread are nested.
+     */
+    private static final ThreadLocal<Job> CURRENT_JOB = new ThreadLocal<>();
+
+    private final class Job implements Runnable {
+        private final File file;
+        private final BlockingQueue<Job> done;
+        /** the start time in nanos or 0 if not started */
+        private volatile long started;
+        private volatile boolean cancelled;
+        /** the worker thread, guarded by this */
+        private Thread runner;
+        /** only accessed by the calling thread */
+        private boolean reported;
+        /** published via the done queue */
+        private Result result;
+
+        Job(File file, BlockingQueue<Job> done) {
+            this.file = file;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            // a pending interrupt belongs to the enclosing job, which is restored afterwards
+            final Job outer = CURRENT_JOB.get();
+            final boolean outerInterrupted = Thread.interrupted();
+            CURRENT_JOB.set(this);
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            started = Math.max(System.nanoTime(), 1);
+            final boolean prefers = ExtractorFactory.getThreadPrefersEventExtractors();
+            ExtractorFactory.setThreadPrefersEventExtractors(preferEventExtractors);
+            try {
+                checkCancelled(this);
+                result = extract(file, this);
+            } catch (Exception | Error e) {
+                result = new Result(file.getPath(), null, Collections.emptyList(), e);
+            } finally {
+                ExtractorFactory.setThreadPrefersEventExtractors(prefers);
+                synchronized (this) {
+                    runner = null;
+                    // clear a pending interrupt of a timeout, before the worker takes the next job
+                    Thread.interrupted();
+                }
+                if (outer == null) {
+                    CURRENT_JOB.remove();
+                } else {
+                    CURRENT_JOB.set(outer);
+                    if (outerInterrupted || outer.cancelled) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                done.add(this);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    /**
+     * A text buffer, which fails as soon as its limit is exceeded
+     */
+    private static final class TextBuffer implements Appendable {
+        private final StringBuilder text = new StringBuilder(64);
+        private final int limit;
+
+        TextBuffer(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return append(csq, 0, (csq == null ? "null" : csq).length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            checkLimit(end - start);
+            text.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            checkLimit(1);
+            text.append(c);
+            return this;
+        }
+
+        private void checkLimit(int len) throws IOException {
+            if (limit > 0 && text.length() + len > limit) {
+                throw new IOException("Text length exceeds the limit of " + limit);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -22,6 +22,9 @@ import static org.apache.poi.poifs.crypt.Decryptor.DEFAULT_POIFS_ENTRY;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
@@ -30,13 +33,13 @@ import java.util.stream.StreamSupport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.EmptyFileException;
-import org.apache.poi.hssf.extractor.ExcelExtractor;
 import org.apache.poi.poifs.crypt.Decryptor;
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.Entry;
 import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.extractor.ExcelExtractor;
 import org.apache.poi.util.IOUtils;
 
 /**
@@ -205,6 +208,53 @@ public final class ExtractorFactory {
     }
 
 
+    public static POITextExtractor createExtractor(Path path) throws IOException {
+        return createExtractor(path, getCurrentUserPassword());
+    }
+
+    /**
+     * Create the Extractor from a file, which is opened only once: the file magic is sniffed
+     * from the same {@link FileChannel}, which is then handed over to the extractor.
+     *
+     * @param path the file
+     * @param password the password or {@code null} if not encrypted
+     * @return the extractor
+     * @throws IOException if the file can't be read or parsed
+     *
+     * @since POI 5.0.1
+     */
+    @SuppressWarnings({"java:S2095"})
+    public static POITextExtractor createExtractor(Path path, String password) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() == 0) {
+                throw new EmptyFileException(path.toFile());
+            }
+
+            final FileMagic fm = FileMagic.valueOf(channel);
+            if (FileMagic.OOXML == fm) {
+                return wp(fm, w -> w.create(channel, password));
+            }
+
+            if (FileMagic.OLE2 != fm) {
+                throw new IOException("Can't create extractor - unsupported file type: "+fm);
+            }
+
+            POIFSFileSystem poifs = new POIFSFileSystem(channel, true);
+            try {
+                DirectoryNode root = poifs.getRoot();
+                boolean isOOXML = root.hasEntry(DEFAULT_POIFS_ENTRY) || root.hasEntry(OOXML_PACKAGE);
+                return wp(isOOXML ? FileMagic.OOXML : fm, w -> w.create(root, password));
+            } catch (IOException | RuntimeException e) {
+                IOUtils.closeQuietly(poifs);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            IOUtils.closeQuietly(channel);
+            throw e;
+        }
+    }
+
     /**
      * Create the Extractor, if possible. Generally needs the Scratchpad jar.
      * Note that this won't check for embedded OOXML resources either, use
@@ -260,24 +310,7 @@ public final class ExtractorFactory {
         List<InputStream> nonPOIFS = new ArrayList<>();
 
         // Find all the embedded directories
-        DirectoryEntry root = ext.getRoot();
-        if(root == null) {
-            throw new IllegalStateException("The extractor didn't know which POIFS it came from!");
-        }
-
-        if(ext instanceof ExcelExtractor) {
-            // These are in MBD... under the root
-            StreamSupport.stream(root.spliterator(), false)
-                .filter(entry -> entry.getName().startsWith("MBD"))
-                .forEach(dirs::add);
-        } else {
-            for (ExtractorProvider prov : Singleton.INSTANCE.provider) {
-                if (prov.accepts(FileMagic.OLE2)) {
-                    prov.identifyEmbeddedResources(ext, dirs, nonPOIFS);
-                    break;
-                }
-            }
-        }
+        identifyEmbeddedResources(ext, dirs, nonPOIFS);
 
         // Create the extractors
         if(dirs.size() == 0 && nonPOIFS.size() == 0){
@@ -299,6 +332,35 @@ public final class ExtractorFactory {
         return textExtractors.toArray(new POITextExtractor[0]);
     }
 
+    /**
+     * Finds the embedded documents of the extractors document
+     *
+     * @param ext The extractor to look at for embedded documents
+     * @param dirs a list to be filled with directory references holding embedded
+     * @param nonPOIFS a list to be filled with streams which aren't based on POIFS entries
+     */
+    static void identifyEmbeddedResources(POIOLE2TextExtractor ext, List<Entry> dirs, List<InputStream> nonPOIFS)
+    throws IOException {
+        DirectoryEntry root = ext.getRoot();
+        if(root == null) {
+            throw new IllegalStateException("The extractor didn't know which POIFS it came from!");
+        }
+
+        if(ext instanceof ExcelExtractor) {
+            // These are in MBD... under the root
+            StreamSupport.stream(root.spliterator(), false)
+                .filter(entry -> entry.getName().startsWith("MBD"))
+                .forEach(dirs::add);
+        } else {
+            for (ExtractorProvider prov : Singleton.INSTANCE.provider) {
+                if (prov.accepts(FileMagic.OLE2)) {
+                    prov.identifyEmbeddedResources(ext, dirs, nonPOIFS);
+                    break;
+                }
+            }
+        }
+    }
+
     private static POITextExtractor wp(FileMagic fm, ProviderMethod fun) throws IOException {
         for (ExtractorProvider prov : Singleton.INSTANCE.provider) {
             if (prov.accepts(fm)) {
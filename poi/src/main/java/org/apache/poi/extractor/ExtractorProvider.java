@@ -20,6 +20,8 @@ package org.apache.poi.extractor;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.List;
 
 import org.apache.poi.poifs.filesystem.DirectoryNode;
@@ -47,6 +49,26 @@ public interface ExtractorProvider {
      */
     POITextExtractor create(InputStream inputStream, String password) throws IOException;
 
+    /**
+     * Create Extractor via an open file channel, whose file magic was already checked by the caller.
+     * The extractor takes over the channel and closes it, when the extractor is closed.
+     * In case of an exception, the caller is responsible to close the channel.<p>
+     *
+     * The default implementation reads the channel as stream.
+     *
+     * @param channel the channel positioned at the start of the file
+     * @param password the password or {@code null} if not encrypted
+     * @return the extractor
+     * @throws IOException if channel can't be read or parsed
+     *
+     * @since POI 5.0.1
+     */
+    default POITextExtractor create(FileChannel channel, String password) throws IOException {
+        try (InputStream is = Channels.newInputStream(channel)) {
+            return create(is, password);
+        }
+    }
+
     /**
      * Create Extractor from POIFS node
      * @param poifsDir the node
@@ -40,6 +40,24 @@ public interface POITextExtractor extends Closeable {
 	 */
 	String getText();
 
+	/**
+	 * Writes all the text from the document to the given output, e.g. a {@link java.io.Writer}.
+	 * The text is the same as of {@link #getText()}, but extractors which support it emit the
+	 * text incrementally while the document is processed, so the text doesn't need to be held
+	 * in memory as a whole. The default implementation appends the result of {@link #getText()}.
+	 *
+	 * @param out the output
+	 * @throws IOException if the output can't be written or the document can't be read
+	 *
+	 * @since POI 5.0.1
+	 */
+	default void writeText(Appendable out) throws IOException {
+		String text = getText();
+		if (text != null) {
+			out.append(text);
+		}
+	}
+
 	/**
 	 * Returns another text extractor, which is able to
 	 *  output the textual content of the document
@@ -19,6 +19,7 @@ package org.apache.poi.hssf.extractor;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -131,23 +132,21 @@ public class EventBasedExcelExtractor implements POIOLE2TextExtractor, org.apach
     * Retreives the text contents of the file
     */
    public String getText() {
-       String text;
+       StringBuilder text = new StringBuilder();
        try {
-           TextListener tl = triggerExtraction();
-
-           text = tl._text.toString();
-           if(! text.endsWith("\n")) {
-               text = text + "\n";
-           }
+           writeText(text);
        } catch(IOException e) {
            throw new RuntimeException(e);
        }
-
-       return text;
+       return text.toString();
    }
 
-   private TextListener triggerExtraction() throws IOException {
-       TextListener tl = new TextListener();
+   /**
+    * Writes the text contents of the file, while the records are processed
+    */
+   @Override
+   public void writeText(Appendable out) throws IOException {
+       TextListener tl = new TextListener(out);
        FormatTrackingHSSFListener ft = new FormatTrackingHSSFListener(tl);
        tl._ft = ft;
 
@@ -156,9 +155,15 @@ public class EventBasedExcelExtractor implements POIOLE2TextExtractor, org.apach
        HSSFRequest request = new HSSFRequest();
        request.addListenerForAllRecords(ft);
 
-       factory.processWorkbookEvents(request, _dir);
+       try {
+           factory.processWorkbookEvents(request, _dir);
+       } catch (UncheckedIOException e) {
+           throw e.getCause();
+       }
 
-       return tl;
+       if(tl.lastChar != '\n') {
+           out.append('\n');
+       }
    }
 
    private class TextListener implements HSSFListener {
@@ -166,15 +171,18 @@ public class EventBasedExcelExtractor implements POIOLE2TextExtractor, org.apach
        private SSTRecord sstRecord;
 
        private final List<String> sheetNames;
-       final StringBuilder _text = new StringBuilder();
+       private final Appendable _text;
+       /** the last written character or 0, if nothing was written yet */
+       private char lastChar;
        private int sheetNum = -1;
        private int rowNum;
 
        private boolean outputNextStringValue;
        private int nextRow = -1;
 
-       public TextListener() {
+       public TextListener(Appendable text) {
            sheetNames = new ArrayList<>();
+           _text = text;
        }
        public void processRecord(org.apache.poi.hssf.record.Record record) {
            String thisText = null;
@@ -192,8 +200,8 @@ public class EventBasedExcelExtractor implements POIOLE2TextExtractor, org.apach
                    rowNum = -1;
 
                    if(_includeSheetNames) {
-                       if(_text.length() > 0) _text.append("\n");
-                       _text.append(sheetNames.get(sheetNum));
+                       if(lastChar != 0) append("\n");
+                       append(sheetNames.get(sheetNum));
                    }
                }
                break;
@@ -257,13 +265,25 @@ public class EventBasedExcelExtractor implements POIOLE2TextExtractor, org.apach
            if(thisText != null) {
                if(thisRow != rowNum) {
                    rowNum = thisRow;
-                   if(_text.length() > 0)
-                       _text.append("\n");
+                   if(lastChar != 0)
+                       append("\n");
                } else {
-                   _text.append("\t");
+                   append("\t");
                }
-               _text.append(thisText);
+               append(thisText);
+           }
+       }
+
+       private void append(String str) {
+           if(str.isEmpty()) {
+               return;
+           }
+           try {
+               _text.append(str);
+           } catch(IOException e) {
+               throw new UncheckedIOException(e);
            }
+           lastChar = str.charAt(str.length()-1);
        }
    }
 
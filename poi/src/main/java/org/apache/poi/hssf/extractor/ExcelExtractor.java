@@ -22,6 +22,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.Locale;
 
 import org.apache.poi.extractor.POIOLE2TextExtractor;
@@ -272,7 +273,20 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 	@Override
     public String getText() {
 		StringBuilder text = new StringBuilder();
+		try {
+			writeText(text);
+		} catch (IOException e) {
+			// a StringBuilder doesn't throw IOExceptions
+			throw new UncheckedIOException(e);
+		}
+		return text.toString();
+	}
 
+	/**
+	 * Writes the text row by row
+	 */
+	@Override
+	public void writeText(Appendable text) throws IOException {
 		// We don't care about the difference between
 		//  null (missing) and blank cells
 		_wb.setMissingCellPolicy(MissingCellPolicy.RETURN_BLANK_AS_NULL);
@@ -324,7 +338,7 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 								text.append(_formatter.formatCellValue(cell));
 								break;
 							case BOOLEAN:
-								text.append(cell.getBooleanCellValue());
+								text.append(String.valueOf(cell.getBooleanCellValue()));
 								break;
 							case ERROR:
 								text.append(ErrorEval.getText(cell.getErrorCellValue()));
@@ -337,7 +351,7 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 										case STRING:
 											HSSFRichTextString str = cell.getRichStringCellValue();
 											if(str != null && str.length() > 0) {
-												text.append(str);
+												text.append(str.getString());
 											}
 											break;
 										case NUMERIC:
@@ -348,7 +362,7 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 											text.append(_formatter.formatRawCellContents(nVal, df, dfs));
 											break;
 										case BOOLEAN:
-											text.append(cell.getBooleanCellValue());
+											text.append(String.valueOf(cell.getBooleanCellValue()));
 											break;
 										case ERROR:
 											text.append(ErrorEval.getText(cell.getErrorCellValue()));
@@ -388,8 +402,6 @@ public class ExcelExtractor implements POIOLE2TextExtractor, org.apache.poi.ss.e
 				text.append(_extractHeaderFooter(sheet.getFooter()));
 			}
 		}
-
-		return text.toString();
 	}
 
 	public static String _extractHeaderFooter(HeaderFooter hf) {
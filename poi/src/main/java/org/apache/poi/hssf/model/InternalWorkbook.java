@@ -532,6 +532,18 @@ public final class InternalWorkbook {
         .setPositionOfBof(pos);
     }
 
+    /**
+     * Returns the BOF position of a given sheet, as read from the file or set by the last serialization
+     *
+     * @param sheetIndex the number of the sheet
+     * @return the position of the BOF record in the workbook stream
+     *
+     * @since POI 5.0.1
+     */
+    public int getSheetBof(int sheetIndex) {
+        return getBoundSheetRec(sheetIndex).getPositionOfBof();
+    }
+
     private BoundSheetRecord getBoundSheetRec(int sheetIndex) {
         return boundsheets.get(sheetIndex);
     }
@@ -989,6 +1001,19 @@ public final class InternalWorkbook {
         return retval;
     }
 
+    /**
+     * Discards the cached serialized form of the SST, which needs to be called
+     * after strings of the SST were modified in place.
+     *
+     * @see SSTRecord#invalidateSerializedForm()
+     * @since POI 5.0.1
+     */
+    public void invalidateSSTStrings() {
+        if (sst != null) {
+            sst.invalidateSerializedForm();
+        }
+    }
+
     /**
      * use this function to add a Shared String Table to an existing sheet (say
      * generated by a different java api) without an sst....
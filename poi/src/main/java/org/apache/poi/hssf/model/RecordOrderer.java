@@ -44,6 +44,7 @@ import org.apache.poi.hssf.record.IndexRecord;
 import org.apache.poi.hssf.record.IterationRecord;
 import org.apache.poi.hssf.record.LabelRecord;
 import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
 import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.ObjRecord;
 import org.apache.poi.hssf.record.PaneRecord;
@@ -447,6 +448,7 @@ final class RecordOrderer {
 			case LabelSSTRecord.sid:
 			case NumberRecord.sid:
 			case RKRecord.sid:
+			case MulRKRecord.sid:
 
 			case ArrayRecord.sid:
 			case SharedFormulaRecord.sid:
@@ -24,11 +24,11 @@ import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.hssf.util.RKUtil;
 import org.apache.poi.util.GenericRecordUtil;
 import org.apache.poi.util.LittleEndianOutput;
-import org.apache.poi.util.RecordFormatException;
 
 /**
  * Used to store multiple RK numbers on a row.  1 MulRk = Multiple Cell values.
- * HSSF just converts this into multiple NUMBER records.  READ-ONLY SUPPORT!
+ * HSSF just converts this into multiple NUMBER records when reading. Only sheets with
+ * compact cell storage write their runs of RK numbers as MulRK records.
  *
  * @since 2.0-pre
  */
@@ -100,6 +100,29 @@ public final class MulRKRecord extends StandardRecord {
 		field_4_last_col = in.readShort();
 	}
 
+	/**
+	 * Creates a record for consecutive numbers of a row
+	 *
+	 * @param row the row index
+	 * @param firstCol the column of the first number
+	 * @param xfs the XF indexes of the cells
+	 * @param rks the RK numbers of the cells, see {@link RKUtil#encodeNumber(double)}
+	 *
+	 * @since POI 5.0.1
+	 */
+	public MulRKRecord(int row, int firstCol, short[] xfs, int[] rks) {
+		if (xfs.length == 0 || xfs.length != rks.length) {
+			throw new IllegalArgumentException("Invalid number of cells: " + xfs.length + " / " + rks.length);
+		}
+		field_1_row = row;
+		field_2_first_col = (short)firstCol;
+		field_3_rks = new RkRec[xfs.length];
+		for (int i = 0; i < xfs.length; i++) {
+			field_3_rks[i] = new RkRec(xfs[i], rks[i]);
+		}
+		field_4_last_col = (short)(firstCol + xfs.length - 1);
+	}
+
 	@Override
     public short getSid()
 	{
@@ -108,11 +131,17 @@ public final class MulRKRecord extends StandardRecord {
 
 	@Override
     public void serialize(LittleEndianOutput out) {
-		throw new RecordFormatException( "Sorry, you can't serialize MulRK in this release");
+		out.writeShort(field_1_row);
+		out.writeShort(field_2_first_col);
+		for (RkRec rk : field_3_rks) {
+			out.writeShort(rk.xf);
+			out.writeInt(rk.rk);
+		}
+		out.writeShort(field_4_last_col);
 	}
 	@Override
     protected int getDataSize() {
-		throw new RecordFormatException( "Sorry, you can't serialize MulRK in this release");
+		return 6 + field_3_rks.length * RkRec.ENCODED_SIZE;
 	}
 
 	private static final class RkRec implements GenericRecord {
@@ -120,6 +149,11 @@ public final class MulRKRecord extends StandardRecord {
 		public final short xf;
 		public final int   rk;
 
+		private RkRec(short xf, int rk) {
+			this.xf = xf;
+			this.rk = rk;
+		}
+
 		private RkRec(RecordInputStream in) {
 			xf = in.readShort();
 			rk = in.readInt();
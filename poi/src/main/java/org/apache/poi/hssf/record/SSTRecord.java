@@ -17,6 +17,7 @@
 
 package org.apache.poi.hssf.record;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -26,11 +27,18 @@ import org.apache.poi.hssf.record.cont.ContinuableRecord;
 import org.apache.poi.hssf.record.cont.ContinuableRecordOutput;
 import org.apache.poi.util.GenericRecordUtil;
 import org.apache.poi.util.IntMapper;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.util.LittleEndianByteArrayOutputStream;
 
 /**
  * Static String Table Record (0x00FC)<p>
  *
- * This holds all the strings for LabelSSTRecords.
+ * This holds all the strings for LabelSSTRecords.<p>
+ *
+ * The serialized form of the strings - including the CONTINUE records - is kept between writes.
+ * When strings are added, only the last physical record is rewritten and the new strings are appended.
+ * Therefore the strings of the table must not be modified in place, without calling
+ * {@link #invalidateSerializedForm()} afterwards.
  *
  * @see org.apache.poi.hssf.record.LabelSSTRecord
  * @see org.apache.poi.hssf.record.ContinueRecord
@@ -62,6 +70,13 @@ public final class SSTRecord extends ContinuableRecord {
      */
     private int[] bucketRelativeOffsets;
 
+    /** the serialized record (SST and CONTINUE records) or {@code null} if not serialized yet */
+    private byte[] serialized;
+    /** the number of strings in {@link #serialized} */
+    private int serializedStrings;
+    /** the offset of the last physical record (SST or CONTINUE) in {@link #serialized} */
+    private int serializedLastRecord;
+
     public SSTRecord() {
         field_1_num_strings = 0;
         field_2_num_unique_strings = 0;
@@ -252,6 +267,83 @@ public final class SSTRecord extends ContinuableRecord {
         return field_3_strings.size();
     }
 
+    @Override
+    public int getRecordSize() {
+        return getSerializedForm().length;
+    }
+
+    @Override
+    public int serialize(int offset, byte[] data) {
+        byte[] buf = getSerializedForm();
+        System.arraycopy(buf, 0, data, offset, buf.length);
+        return buf.length;
+    }
+
+    /**
+     * Discards the cached serialized form of the strings, which is only needed,
+     * if strings of the table were modified in place.
+     *
+     * @since POI 5.0.1
+     */
+    public void invalidateSerializedForm() {
+        serialized = null;
+    }
+
+    /**
+     * @return the serialized record, which is only updated for strings added since the last call
+     */
+    private byte[] getSerializedForm() {
+        if (serialized == null || serializedStrings != field_3_strings.size()) {
+            updateSerializedForm();
+        }
+        // the counts of the header change with every added string, even if it's a duplicate
+        LittleEndian.putInt(serialized, 4, getNumStrings());
+        LittleEndian.putInt(serialized, 8, getNumUniqueStrings());
+        return serialized;
+    }
+
+    private void updateSerializedForm() {
+        final SSTSerializer serializer = new SSTSerializer(field_3_strings, getNumStrings(), getNumUniqueStrings());
+        final byte[] buf;
+        final ContinuableRecordOutput out;
+        if (serialized == null) {
+            ContinuableRecordOutput counter = ContinuableRecordOutput.createForCountingOnly();
+            serializer.serialize(counter);
+            counter.terminate();
+
+            buf = new byte[counter.getTotalSize()];
+            out = new ContinuableRecordOutput(new LittleEndianByteArrayOutputStream(buf, 0), sid);
+            serializer.serialize(out);
+        } else {
+            // continue in the last physical record, the preceding records are copied unchanged
+            final int lastRecordDataSize = serialized.length - serializedLastRecord - 4;
+            ContinuableRecordOutput counter =
+                ContinuableRecordOutput.createForCountingOnly(lastRecordDataSize, serializedLastRecord);
+            serializer.serializeStrings(counter, serializedStrings);
+            counter.terminate();
+
+            buf = Arrays.copyOf(serialized, counter.getTotalSize());
+            out = new ContinuableRecordOutput(
+                new LittleEndianByteArrayOutputStream(buf, serialized.length),
+                new LittleEndianByteArrayOutputStream(buf, serializedLastRecord + 2, 2),
+                lastRecordDataSize, serializedLastRecord);
+            serializer.serializeStrings(out, serializedStrings);
+
+            // keep the offsets of the unchanged buckets
+            int[] oldOffsets = bucketAbsoluteOffsets;
+            System.arraycopy(oldOffsets, 0, serializer.getBucketAbsoluteOffsets(), 0, oldOffsets.length);
+            oldOffsets = bucketRelativeOffsets;
+            System.arraycopy(oldOffsets, 0, serializer.getBucketRelativeOffsets(), 0, oldOffsets.length);
+        }
+        serializedLastRecord = out.getCurrentRecordOffset();
+        out.terminate();
+
+        serialized = buf;
+        serializedStrings = field_3_strings.size();
+        bucketAbsoluteOffsets = serializer.getBucketAbsoluteOffsets();
+        bucketRelativeOffsets = serializer.getBucketRelativeOffsets();
+    }
+
     protected void serialize(ContinuableRecordOutput out) {
         SSTSerializer serializer = new SSTSerializer(field_3_strings, getNumStrings(), getNumUniqueStrings() );
         serializer.serialize(out);
@@ -52,7 +52,18 @@ final class SSTSerializer {
         out.writeInt(_numStrings);
         out.writeInt(_numUniqueStrings);
 
-        for ( int k = 0; k < strings.size(); k++ )
+        serializeStrings(out, 0);
+    }
+
+    /**
+     * Serializes the strings starting at the given index, e.g. to continue a previous serialization.
+     * Only the bucket offsets of the written strings are updated.
+     *
+     * @param out the output, which is positioned after the previous string
+     * @param startIndex the index of the first string to write
+     */
+    public void serializeStrings(ContinuableRecordOutput out, int startIndex) {
+        for ( int k = startIndex; k < strings.size(); k++ )
         {
             if (k % ExtSSTRecord.DEFAULT_BUCKET_SIZE == 0)
             {
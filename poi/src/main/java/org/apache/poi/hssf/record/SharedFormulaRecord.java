@@ -24,7 +24,11 @@ import org.apache.poi.hssf.util.CellRangeAddress8Bit;
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.formula.Formula;
 import org.apache.poi.ss.formula.SharedFormula;
+import org.apache.poi.ss.formula.ptg.AreaNPtg;
+import org.apache.poi.ss.formula.ptg.AreaPtgBase;
 import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.RefNPtg;
+import org.apache.poi.ss.formula.ptg.RefPtgBase;
 import org.apache.poi.util.GenericRecordUtil;
 import org.apache.poi.util.LittleEndianOutput;
 
@@ -42,6 +46,10 @@ public final class SharedFormulaRecord extends SharedValueRecordBase {
 
     private int field_5_reserved;
     private Formula field_7_parsed_expr;
+    /** the lazily parsed tokens, which are shared by all cells of the group */
+    private Ptg[] _tokens;
+    /** if all references of the tokens are relative to the formula cell */
+    private boolean _relocatable;
 
     // for testing only
     public SharedFormulaRecord() {
@@ -99,7 +107,39 @@ public final class SharedFormulaRecord extends SharedValueRecordBase {
         }
 
         SharedFormula sf = new SharedFormula(SpreadsheetVersion.EXCEL97);
-        return sf.convertSharedFormulas(field_7_parsed_expr.getTokens(), formulaRow, formulaColumn);
+        return sf.convertSharedFormulas(getTokens(), formulaRow, formulaColumn);
+    }
+
+    /**
+     * Returns the tokens of the shared formula, whose {@link RefNPtg} and {@link AreaNPtg} references
+     * are relative to the formula cell. Instead of converting the tokens for each cell, they are parsed
+     * only once and shared by all cells of the group, so they must not be modified.
+     *
+     * @return the shared tokens or {@code null}, if the formula contains other references,
+     *  which need to be converted by {@link #getFormulaTokens(FormulaRecord)}
+     *
+     * @since POI 5.0.1
+     */
+    public Ptg[] getSharedFormulaTokens() {
+        Ptg[] tokens = getTokens();
+        return _relocatable ? tokens : null;
+    }
+
+    private Ptg[] getTokens() {
+        if (_tokens == null) {
+            Ptg[] tokens = field_7_parsed_expr.getTokens();
+            boolean relocatable = true;
+            for (Ptg ptg : tokens) {
+                if ((ptg instanceof RefPtgBase && !(ptg instanceof RefNPtg))
+                    || (ptg instanceof AreaPtgBase && !(ptg instanceof AreaNPtg))) {
+                    relocatable = false;
+                    break;
+                }
+            }
+            _relocatable = relocatable;
+            _tokens = tokens;
+        }
+        return _tokens;
     }
 
     @Override
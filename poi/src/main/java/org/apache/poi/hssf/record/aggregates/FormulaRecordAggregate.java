@@ -200,6 +200,25 @@ public final class FormulaRecordAggregate extends RecordAggregate implements Cel
 		return _formulaRecord.getParsedExpression();
 	}
 
+	/**
+	 * Returns the formula tokens for the evaluation of this cell. Contrary to {@link #getFormulaTokens()},
+	 * the tokens of a shared formula aren't converted for this cell, but the tokens of the group are
+	 * returned, whose relative {@link org.apache.poi.ss.formula.ptg.RefNPtg RefNPtg} and
+	 * {@link org.apache.poi.ss.formula.ptg.AreaNPtg AreaNPtg} references are relocated by the evaluator.
+	 * The returned tokens must not be modified.
+	 *
+	 * @since POI 5.0.1
+	 */
+	public Ptg[] getFormulaTokensForEvaluation() {
+		if (_sharedFormulaRecord != null) {
+			Ptg[] ptgs = _sharedFormulaRecord.getSharedFormulaTokens();
+			if (ptgs != null) {
+				return ptgs;
+			}
+		}
+		return getFormulaTokens();
+	}
+
 	/**
 	 * Also checks for a related shared formula and unlinks it if found
 	 */
@@ -34,7 +34,10 @@ import org.apache.poi.hssf.record.FormulaRecord;
 import org.apache.poi.hssf.record.IndexRecord;
 import org.apache.poi.hssf.record.MergeCellsRecord;
 import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactory;
 import org.apache.poi.hssf.record.RowRecord;
 import org.apache.poi.hssf.record.SharedFormulaRecord;
 import org.apache.poi.hssf.record.TableRecord;
@@ -54,6 +57,9 @@ public final class RowRecordsAggregate extends RecordAggregate {
     // getStartRowNumberForBlock / getEndRowNumberForBlock, see Bugzilla 47405
     private RowRecord[] _rowRecordValues;
 
+    /** if rows or cells were changed since the last call of {@link #setModified(boolean)} */
+    private boolean _modified;
+
     /** Creates a new instance of ValueRecordsAggregate */
     public RowRecordsAggregate() {
         this(SharedValueManager.createEmpty());
@@ -102,6 +108,13 @@ public final class RowRecordsAggregate extends RecordAggregate {
                 _valuesAgg.addMultipleBlanks((MulBlankRecord) rec);
                 continue;
             }
+            if (rec instanceof MulRKRecord) {
+                // written for sheets in compact storage, e.g. when a sheet is cloned
+                for (NumberRecord nr : RecordFactory.convertRKRecords((MulRKRecord) rec)) {
+                    _valuesAgg.insertCell(nr);
+                }
+                continue;
+            }
             if (!(rec instanceof CellValueRecordInterface)) {
                 throw new RuntimeException("Unexpected record type (" + rec.getClass().getName() + ")");
             }
@@ -122,6 +135,7 @@ public final class RowRecordsAggregate extends RecordAggregate {
         _unknownRecords.add(rec);
     }
     public void insertRow(RowRecord row) {
+        _modified = true;
         // Integer integer = Integer.valueOf(row.getRowNumber());
         _rowRecords.put(Integer.valueOf(row.getRowNumber()), row);
         // Clear the cached values
@@ -135,6 +149,7 @@ public final class RowRecordsAggregate extends RecordAggregate {
     }
 
     public void removeRow(RowRecord row) {
+        _modified = true;
         int rowIndex = row.getRowNumber();
         _valuesAgg.removeAllCellsValuesForRow(rowIndex);
         Integer key = Integer.valueOf(rowIndex);
@@ -352,6 +367,7 @@ public final class RowRecordsAggregate extends RecordAggregate {
     }
 
     public void collapseRow(int rowNumber) {
+        _modified = true;
 
         // Find the start of the group.
         int startRow = findStartOfRowOutlineGroup(rowNumber);
@@ -387,6 +403,7 @@ public final class RowRecordsAggregate extends RecordAggregate {
     }
 
     public void expandRow(int rowNumber) {
+        _modified = true;
         if (rowNumber == -1)
             return;
 
@@ -461,6 +478,98 @@ public final class RowRecordsAggregate extends RecordAggregate {
         return _valuesAgg.iterator();
     }
 
+    /**
+     * Returns an iterator for the cell values of a row. The records of cells in compact storage
+     * need to be passed to {@link #promoteCell(CellValueRecordInterface)}, before they are modified.
+     *
+     * @param rowIndex the row index
+     *
+     * @since POI 5.0.1
+     */
+    public Iterator<CellValueRecordInterface> getCellValueIterator(int rowIndex) {
+        return _valuesAgg.iterator(rowIndex);
+    }
+
+    /**
+     * Moves a cell record out of compact storage, see {@link ValueRecordsAggregate#promoteCell(CellValueRecordInterface)}
+     *
+     * @param cell the cell record, which is about to be modified
+     *
+     * @since POI 5.0.1
+     */
+    public void promoteCell(CellValueRecordInterface cell) {
+        _modified = true;
+        _valuesAgg.promoteCell(cell);
+    }
+
+    /**
+     * @return {@code true}, if rows or cells were inserted, removed or promoted for modification
+     *  since the last call of {@link #setModified(boolean)}
+     *
+     * @since POI 5.0.1
+     */
+    public boolean isModified() {
+        return _modified;
+    }
+
+    /**
+     * @param modified the modification state, e.g. {@code false} after the records have been saved
+     *
+     * @since POI 5.0.1
+     */
+    public void setModified(boolean modified) {
+        _modified = modified;
+    }
+
+    /**
+     * Adds the cells, which were put into compact storage while the records of the sheet were read,
+     * see {@link ValueRecordsAggregate#addCompactCells(ValueRecordsAggregate)}.
+     * {@link #compactCells()} needs to be called afterwards to add the missing row records.
+     *
+     * @param cells the aggregate with the compact cells
+     *
+     * @since POI 5.0.1
+     */
+    public void addCompactCells(ValueRecordsAggregate cells) {
+        _valuesAgg.addCompactCells(cells);
+    }
+
+    /**
+     * Moves the plain cell values into compact storage, see {@link ValueRecordsAggregate#compact()}.
+     * As the usermodel creates the cells of such rows on demand, the column bounds of the row records
+     * are updated here and missing row records are added.
+     *
+     * @since POI 5.0.1
+     */
+    public void compactCells() {
+        _valuesAgg.compact();
+        final int maxrow = SpreadsheetVersion.EXCEL97.getLastRowIndex();
+        for (int rowIndex = 0; rowIndex <= maxrow; rowIndex++) {
+            RowRecord row = getRow(rowIndex);
+            if (!_valuesAgg.rowHasCells(rowIndex)) {
+                if (row != null) {
+                    row.setEmpty();
+                }
+                continue;
+            }
+            if (row == null) {
+                row = new RowRecord(rowIndex);
+                insertRow(row);
+            }
+            row.setFirstCol(_valuesAgg.getFirstCellNum(rowIndex));
+            row.setLastCol(_valuesAgg.getLastCellNum(rowIndex) + 1);
+        }
+    }
+
+    /**
+     * @return {@code true}, if the plain cell values are kept in compact storage
+     *
+     * @since POI 5.0.1
+     */
+    public boolean isCompactCells() {
+        return _valuesAgg.isCompact();
+    }
+
     public IndexRecord createIndexRecord(int indexRecordOffset, int sizeOfInitialSheetRecords) {
         IndexRecord result = new IndexRecord();
         result.setFirstRow(_firstrow);
@@ -496,9 +605,11 @@ public final class RowRecordsAggregate extends RecordAggregate {
         return result;
     }
     public void insertCell(CellValueRecordInterface cvRec) {
+        _modified = true;
         _valuesAgg.insertCell(cvRec);
     }
     public void removeCell(CellValueRecordInterface cvRec) {
+        _modified = true;
         if (cvRec instanceof FormulaRecordAggregate) {
             ((FormulaRecordAggregate)cvRec).notifyFormulaChanging();
         }
@@ -511,6 +622,7 @@ public final class RowRecordsAggregate extends RecordAggregate {
         return new FormulaRecordAggregate(fr, null, _sharedValueManager);
     }
     public void updateFormulasAfterRowShift(FormulaShifter formulaShifter, int currentExternSheetIndex) {
+        _modified = true;
         _valuesAgg.updateFormulasAfterRowShift(formulaShifter, currentExternSheetIndex);
     }
     public DimensionsRecord createDimensions() {
@@ -22,16 +22,22 @@ import java.util.NoSuchElementException;
 
 import org.apache.poi.hssf.model.RecordStream;
 import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
 import org.apache.poi.hssf.record.CellValueRecordInterface;
 import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
 import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordBase;
 import org.apache.poi.hssf.record.StringRecord;
 import org.apache.poi.hssf.record.aggregates.RecordAggregate.RecordVisitor;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.hssf.util.RKUtil;
 import org.apache.poi.ss.formula.FormulaShifter;
 import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.util.Removal;
 
 /**
@@ -44,6 +50,8 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	private int firstcell = INDEX_NOT_SET;
 	private int lastcell  = INDEX_NOT_SET;
 	private CellValueRecordInterface[][] records;
+	/** the plain value cells in compact storage, indexed by row - {@code null} if not compacted */
+	private CompactRow[] compactRows;
 
 	/** Creates a new instance of ValueRecordsAggregate */
 
@@ -59,14 +67,7 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	public void insertCell(CellValueRecordInterface cell) {
 		short column = cell.getColumn();
 		int row = cell.getRow();
-		if (row >= records.length) {
-			CellValueRecordInterface[][] oldRecords = records;
-			int newSize = oldRecords.length * 2;
-			if (newSize < row + 1)
-				newSize = row + 1;
-			records = new CellValueRecordInterface[newSize][];
-			System.arraycopy(oldRecords, 0, records, 0, oldRecords.length);
-		}
+		ensureRowCapacity(row);
 		CellValueRecordInterface[] rowCells = records[row];
 		if (rowCells == null) {
 			int newSize = column + 1;
@@ -86,7 +87,114 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 			records[row] = rowCells;
 		}
 		rowCells[column] = cell;
+		clearCompactCell(row, column);
+		updateCellBounds(column);
+	}
+
+	/**
+	 * Adds a plain value cell straight to the compact storage - see {@link #compact()} - instead of
+	 * keeping its record. This is used while the records of a sheet are read, so only the primitive
+	 * values of the cells are retained.
+	 *
+	 * @param cell the cell record
+	 * @return {@code false}, if the cell can't be kept in compact storage and wasn't added
+	 *
+	 * @since POI 5.0.1
+	 */
+	public boolean insertCompactCell(CellValueRecordInterface cell) {
+		if (!CompactRow.isCompactable(cell)) {
+			return false;
+		}
+		short column = cell.getColumn();
+		int row = cell.getRow();
+		ensureRowCapacity(row);
+		CompactRow[] rows = getCompactRows();
+		CompactRow compactRow = rows[row];
+		if (compactRow == null || column >= compactRow.types.length) {
+			// the cells are usually read from left to right, so grow like the record rows
+			int length = (compactRow == null) ? column + 1 : Math.max(column + 1, compactRow.types.length * 2);
+			compactRow = new CompactRow(length, compactRow);
+			rows[row] = compactRow;
+		}
+		CellValueRecordInterface[] rowCells = records[row];
+		if (rowCells != null && column < rowCells.length) {
+			rowCells[column] = null;
+		}
+		compactRow.set(cell);
+		updateCellBounds(column);
+		return true;
+	}
+
+	/**
+	 * Adds the compact cells of the other aggregate, which were collected by {@link #insertCompactCell},
+	 * unless this aggregate has a record for the same cell.
+	 *
+	 * @param cells the aggregate with the compact cells
+	 *
+	 * @since POI 5.0.1
+	 */
+	public void addCompactCells(ValueRecordsAggregate cells) {
+		if (cells.compactRows == null) {
+			return;
+		}
+		for (int r = 0; r < cells.compactRows.length; r++) {
+			CompactRow other = cells.compactRows[r];
+			if (other == null) {
+				continue;
+			}
+			int length = other.types.length;
+			while (length > 0 && other.types[length - 1] == CompactRow.NONE) {
+				length--;
+			}
+			if (length == 0) {
+				continue;
+			}
+			ensureRowCapacity(r);
+			CompactRow[] rows = getCompactRows();
+			CompactRow compactRow = rows[r];
+			if (compactRow == null || compactRow.types.length < length) {
+				compactRow = new CompactRow(length, compactRow);
+				rows[r] = compactRow;
+			}
+			CellValueRecordInterface[] rowCells = records[r];
+			for (int c = 0; c < length; c++) {
+				if (other.types[c] != CompactRow.NONE && getRecord(rowCells, c) == null) {
+					compactRow.copy(other, c);
+					updateCellBounds(c);
+				}
+			}
+			if (compactRow.getCount() == 0) {
+				rows[r] = null;
+			}
+		}
+	}
+
+	private void ensureRowCapacity(int row) {
+		if (row >= records.length) {
+			CellValueRecordInterface[][] oldRecords = records;
+			int newSize = oldRecords.length * 2;
+			if (newSize < row + 1)
+				newSize = row + 1;
+			records = new CellValueRecordInterface[newSize][];
+			System.arraycopy(oldRecords, 0, records, 0, oldRecords.length);
+		}
+	}
 
+	/**
+	 * @return the compact rows, which are created or grown to the size of the record rows
+	 */
+	private CompactRow[] getCompactRows() {
+		if (compactRows == null) {
+			compactRows = new CompactRow[records.length];
+		} else if (compactRows.length < records.length) {
+			CompactRow[] oldRows = compactRows;
+			compactRows = new CompactRow[records.length];
+			System.arraycopy(oldRows, 0, compactRows, 0, oldRows.length);
+		}
+		return compactRows;
+	}
+
+	private void updateCellBounds(int column) {
 		if (column < firstcell || firstcell == INDEX_NOT_SET) {
 			firstcell = column;
 		}
@@ -104,14 +212,47 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 			throw new RuntimeException("cell row is out of range");
 		}
 		CellValueRecordInterface[] rowCells = records[row];
-		if (rowCells == null) {
+		CompactRow compactRow = getCompactRow(row);
+		if (rowCells == null && compactRow == null) {
 			throw new RuntimeException("cell row is already empty");
 		}
 		short column = cell.getColumn();
-		if (column >= rowCells.length) {
+		if (column >= getRowLength(rowCells, compactRow)) {
 			throw new RuntimeException("cell column is out of range");
 		}
-		rowCells[column] = null;
+		if (rowCells != null && column < rowCells.length) {
+			rowCells[column] = null;
+		}
+		clearCompactCell(row, column);
+	}
+
+	/**
+	 * Removes a cell from compact storage and releases the compact row, once it's empty
+	 */
+	private void clearCompactCell(int rowIndex, int column) {
+		CompactRow compactRow = getCompactRow(rowIndex);
+		if (compactRow != null && compactRow.clear(column) && compactRow.getCount() == 0) {
+			compactRows[rowIndex] = null;
+		}
+	}
+
+	/**
+	 * Moves a cell record, which was materialized from compact storage by {@link #iterator(int)},
+	 * into the aggregate. This needs to be called before the record is modified, as the compact
+	 * storage doesn't notice the changes of such a transient record otherwise.
+	 * Records, which are already part of the aggregate, are ignored.
+	 *
+	 * @param cell the cell record, which is about to be modified
+	 *
+	 * @since POI 5.0.1
+	 */
+	public void promoteCell(CellValueRecordInterface cell) {
+		int row = cell.getRow();
+		int column = cell.getColumn();
+		if (getCompactType(getCompactRow(row), column) != CompactRow.NONE
+			&& getRecord(row < records.length ? records[row] : null, column) == null) {
+			insertCell(cell);
+		}
 	}
 
 	public void removeAllCellsValuesForRow(int rowIndex) {
@@ -126,6 +267,9 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 		}
 
 		records[rowIndex] = null;
+		if (getCompactRow(rowIndex) != null) {
+			compactRows[rowIndex] = null;
+		}
 	}
 
 
@@ -139,10 +283,152 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 						count++;
 				}
 			}
+			CompactRow compactRow = getCompactRow(r);
+			if (compactRow != null) {
+				count += compactRow.getCount();
+			}
 		}
 		return count;
 	}
 
+	/**
+	 * Moves the plain value cells - numbers, shared strings, blanks, booleans and errors - into compact storage,
+	 * which keeps the type, the XF index and the value of the cells of a row in primitive arrays instead of
+	 * a record per cell. The records are materialized, when they are returned by the cell iterators.
+	 * During serialization they're only created temporarily and consecutive numbers are written as
+	 * {@link MulRKRecord}s, if they can be encoded as RK numbers.<p>
+	 *
+	 * This must only be called while the cell records aren't referenced elsewhere, i.e. before
+	 * the usermodel cells are created, as changes to those records wouldn't be noticed.
+	 *
+	 * @since POI 5.0.1
+	 */
+	public void compact() {
+		getCompactRows();
+		for (int r = 0; r < records.length; r++) {
+			CellValueRecordInterface[] rowCells = records[r];
+			if (rowCells == null) {
+				continue;
+			}
+			int length = 0;
+			boolean hasRecords = false;
+			for (int c = 0; c < rowCells.length; c++) {
+				if (CompactRow.isCompactable(rowCells[c])) {
+					length = c + 1;
+				} else if (rowCells[c] != null) {
+					hasRecords = true;
+				}
+			}
+			if (length == 0) {
+				continue;
+			}
+			CompactRow compactRow = compactRows[r];
+			if (compactRow == null || compactRow.types.length < length) {
+				compactRow = new CompactRow(length, compactRow);
+				compactRows[r] = compactRow;
+			}
+			for (int c = 0; c < length; c++) {
+				if (CompactRow.isCompactable(rowCells[c])) {
+					compactRow.set(rowCells[c]);
+					rowCells[c] = null;
+				}
+			}
+			if (!hasRecords) {
+				records[r] = null;
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true}, if the plain value cells are kept in compact storage
+	 *
+	 * @since POI 5.0.1
+	 */
+	public boolean isCompact() {
+		return compactRows != null;
+	}
+
+	/**
+	 * @return the first column of the cells of the row or -1, if the row has no cells
+	 */
+	int getFirstCellNum(int rowIndex) {
+		CellValueRecordInterface[] rowCells = rowIndex < records.length ? records[rowIndex] : null;
+		CompactRow compactRow = getCompactRow(rowIndex);
+		int length = getRowLength(rowCells, compactRow);
+		for (int c = 0; c < length; c++) {
+			if (hasCell(rowCells, compactRow, c)) {
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the last column of the cells of the row or -1, if the row has no cells
+	 */
+	int getLastCellNum(int rowIndex) {
+		CellValueRecordInterface[] rowCells = rowIndex < records.length ? records[rowIndex] : null;
+		CompactRow compactRow = getCompactRow(rowIndex);
+		for (int c = getRowLength(rowCells, compactRow) - 1; c >= 0; c--) {
+			if (hasCell(rowCells, compactRow, c)) {
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return {@code true}, if the row has cells in compact storage
+	 */
+	boolean hasCompactRow(int rowIndex) {
+		return getCompactRow(rowIndex) != null;
+	}
+
+	private CompactRow getCompactRow(int rowIndex) {
+		return (compactRows != null && rowIndex < compactRows.length) ? compactRows[rowIndex] : null;
+	}
+
+	private static int getRowLength(CellValueRecordInterface[] rowCells, CompactRow compactRow) {
+		return Math.max(rowCells == null ? 0 : rowCells.length, compactRow == null ? 0 : compactRow.types.length);
+	}
+
+	private static CellValueRecordInterface getRecord(CellValueRecordInterface[] rowCells, int column) {
+		return (rowCells != null && column < rowCells.length) ? rowCells[column] : null;
+	}
+
+	private static byte getCompactType(CompactRow compactRow, int column) {
+		return (compactRow != null && column < compactRow.types.length) ? compactRow.types[column] : CompactRow.NONE;
+	}
+
+	private static boolean hasCell(CellValueRecordInterface[] rowCells, CompactRow compactRow, int column) {
+		return getRecord(rowCells, column) != null || getCompactType(compactRow, column) != CompactRow.NONE;
+	}
+
+	/**
+	 * @return the record of the cell, which is materialized from compact storage for serialization
+	 */
+	private static CellValueRecordInterface getCellForSerialization(int rowIndex, CellValueRecordInterface[] rowCells, CompactRow compactRow, int column) {
+		CellValueRecordInterface cvr = getRecord(rowCells, column);
+		return (cvr != null || getCompactType(compactRow, column) == CompactRow.NONE) ? cvr : compactRow.materialize(rowIndex, column);
+	}
+
+	/**
+	 * @param promote if {@code true}, the record of the cell is moved out of compact storage,
+	 *  otherwise a transient record is materialized
+	 * @return the record of the cell
+	 */
+	private CellValueRecordInterface getCell(int rowIndex, int column, boolean promote) {
+		CellValueRecordInterface cvr = getRecord(records[rowIndex], column);
+		CompactRow compactRow = getCompactRow(rowIndex);
+		if (cvr == null && getCompactType(compactRow, column) != CompactRow.NONE) {
+			cvr = compactRow.materialize(rowIndex, column);
+			if (promote) {
+				insertCell(cvr);
+			}
+		}
+		return cvr;
+	}
+
 	public int getFirstCellNum() {
 		return firstcell;
 	}
@@ -189,7 +475,7 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	public int getRowCellBlockSize(int startRow, int endRow) {
 		int result = 0;
 		for(int rowIx=startRow; rowIx<=endRow && rowIx<records.length; rowIx++) {
-			result += getRowSerializedSize(records[rowIx]);
+			result += getRowSerializedSize(rowIx);
 		}
 		return result;
 	}
@@ -200,29 +486,37 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 			return false;
 		}
 		CellValueRecordInterface[] rowCells=records[row];
-		if(rowCells==null) return false;
-		for(int col=0;col<rowCells.length;col++) {
-			if(rowCells[col]!=null) return true;
+		CompactRow compactRow = getCompactRow(row);
+		if(rowCells==null && compactRow==null) return false;
+		int length = getRowLength(rowCells, compactRow);
+		for(int col=0;col<length;col++) {
+			if(hasCell(rowCells, compactRow, col)) return true;
 		}
 		return false;
 	}
 
-	private static int getRowSerializedSize(CellValueRecordInterface[] rowCells) {
-		if(rowCells == null) {
+	private int getRowSerializedSize(int rowIndex) {
+		CellValueRecordInterface[] rowCells = records[rowIndex];
+		CompactRow compactRow = getCompactRow(rowIndex);
+		if(rowCells == null && compactRow == null) {
 			return 0;
 		}
+		int length = getRowLength(rowCells, compactRow);
 		int result = 0;
-		for (int i = 0; i < rowCells.length; i++) {
-			RecordBase cvr = (RecordBase) rowCells[i];
-			if(cvr == null) {
+		for (int i = 0; i < length; i++) {
+			if(!hasCell(rowCells, compactRow, i)) {
 				continue;
 			}
-			int nBlank = countBlanks(rowCells, i);
+			int nBlank = countBlanks(rowCells, compactRow, i);
+			int nNumber = (nBlank > 1) ? 0 : countRKNumbers(rowCells, compactRow, i);
 			if (nBlank > 1) {
 				result += (10 + 2*nBlank);
 				i+=nBlank-1;
+			} else if (nNumber > 1) {
+				result += (10 + 6*nNumber);
+				i+=nNumber-1;
 			} else {
-				result += cvr.getRecordSize();
+				result += ((RecordBase) getCellForSerialization(rowIndex, rowCells, compactRow, i)).getRecordSize();
 			}
 		}
 		return result;
@@ -231,21 +525,27 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	public void visitCellsForRow(int rowIndex, RecordVisitor rv) {
 
 		CellValueRecordInterface[] rowCells = records[rowIndex];
-		if(rowCells == null) {
+		CompactRow compactRow = getCompactRow(rowIndex);
+		if(rowCells == null && compactRow == null) {
 			throw new IllegalArgumentException("Row [" + rowIndex + "] is empty");
 		}
 
 
-		for (int i = 0; i < rowCells.length; i++) {
-			RecordBase cvr = (RecordBase) rowCells[i];
-			if(cvr == null) {
+		int length = getRowLength(rowCells, compactRow);
+		for (int i = 0; i < length; i++) {
+			if(!hasCell(rowCells, compactRow, i)) {
 				continue;
 			}
-			int nBlank = countBlanks(rowCells, i);
+			int nBlank = countBlanks(rowCells, compactRow, i);
+			int nNumber = (nBlank > 1) ? 0 : countRKNumbers(rowCells, compactRow, i);
+			RecordBase cvr;
 			if (nBlank > 1) {
-				rv.visitRecord(createMBR(rowCells, i, nBlank));
+				rv.visitRecord(createMBR(rowIndex, rowCells, compactRow, i, nBlank));
 				i+=nBlank-1;
-			} else if (cvr instanceof RecordAggregate) {
+			} else if (nNumber > 1) {
+				rv.visitRecord(createMRK(rowIndex, rowCells, compactRow, i, nNumber));
+				i+=nNumber-1;
+			} else if ((cvr = (RecordBase) getCellForSerialization(rowIndex, rowCells, compactRow, i)) instanceof RecordAggregate) {
 				RecordAggregate agg = (RecordAggregate) cvr;
 				agg.visitContainedRecords(rv);
 			} else {
@@ -258,11 +558,12 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 	 * @return the number of <em>consecutive</em> {@link BlankRecord}s in the specified row
 	 * starting from startIx.
 	 */
-	private static int countBlanks(CellValueRecordInterface[] rowCellValues, int startIx) {
+	private static int countBlanks(CellValueRecordInterface[] rowCellValues, CompactRow compactRow, int startIx) {
 		int i = startIx;
-		while(i < rowCellValues.length) {
-			CellValueRecordInterface cvr = rowCellValues[i];
-			if (!(cvr instanceof BlankRecord)) {
+		int length = getRowLength(rowCellValues, compactRow);
+		while(i < length) {
+			CellValueRecordInterface cvr = getRecord(rowCellValues, i);
+			if (!(cvr instanceof BlankRecord) && getCompactType(compactRow, i) != CompactRow.BLANK) {
 				break;
 			}
 			i++;
@@ -270,16 +571,61 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 		return i - startIx;
 	}
 
-	private MulBlankRecord createMBR(CellValueRecordInterface[] cellValues, int startIx, int nBlank) {
+	/**
+	 * @return the number of <em>consecutive</em> numbers, which can be encoded as RK numbers,
+	 * in the specified row starting from startIx - or 0, if the cells aren't in compact storage
+	 */
+	private int countRKNumbers(CellValueRecordInterface[] rowCellValues, CompactRow compactRow, int startIx) {
+		if (!isCompact()) {
+			// the output of the usual mode stays unchanged
+			return 0;
+		}
+		int i = startIx;
+		int length = getRowLength(rowCellValues, compactRow);
+		while(i < length && getRKNumber(rowCellValues, compactRow, i) != -1) {
+			i++;
+		}
+		return i - startIx;
+	}
+
+	/**
+	 * @return the RK number of the cell or -1, if it's not a number or can't be encoded
+	 */
+	private static long getRKNumber(CellValueRecordInterface[] rowCellValues, CompactRow compactRow, int column) {
+		CellValueRecordInterface cvr = getRecord(rowCellValues, column);
+		if (cvr instanceof NumberRecord) {
+			return RKUtil.encodeNumber(((NumberRecord)cvr).getValue());
+		}
+		if (getCompactType(compactRow, column) == CompactRow.NUMBER) {
+			return RKUtil.encodeNumber(Double.longBitsToDouble(compactRow.values[column]));
+		}
+		return -1;
+	}
+
+	private static short getXFIndex(CellValueRecordInterface[] rowCellValues, CompactRow compactRow, int column) {
+		CellValueRecordInterface cvr = getRecord(rowCellValues, column);
+		return (cvr != null) ? cvr.getXFIndex() : compactRow.xfs[column];
+	}
+
+	private static MulBlankRecord createMBR(int rowIx, CellValueRecordInterface[] cellValues, CompactRow compactRow, int startIx, int nBlank) {
 
 		short[] xfs = new short[nBlank];
 		for (int i = 0; i < xfs.length; i++) {
-			xfs[i] = cellValues[startIx + i].getXFIndex();
+			xfs[i] = getXFIndex(cellValues, compactRow, startIx + i);
 		}
-		int rowIx = cellValues[startIx].getRow();
 		return new MulBlankRecord(rowIx, startIx, xfs);
 	}
 
+	private static MulRKRecord createMRK(int rowIx, CellValueRecordInterface[] cellValues, CompactRow compactRow, int startIx, int nNumber) {
+		short[] xfs = new short[nNumber];
+		int[] rks = new int[nNumber];
+		for (int i = 0; i < nNumber; i++) {
+			xfs[i] = getXFIndex(cellValues, compactRow, startIx + i);
+			rks[i] = (int)getRKNumber(cellValues, compactRow, startIx + i);
+		}
+		return new MulRKRecord(rowIx, startIx, xfs, rks);
+	}
+
 	public void updateFormulasAfterRowShift(FormulaShifter shifter, int currentExternSheetIndex) {
 		for (int i = 0; i < records.length; i++) {
 			CellValueRecordInterface[] rowCells = records[i];
@@ -291,7 +637,6 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 				if (cell instanceof FormulaRecordAggregate) {
                     FormulaRecordAggregate fra = (FormulaRecordAggregate)cell;
                     Ptg[] ptgs = fra.getFormulaTokens(); // needs clone() inside this getter?
-                    Ptg[] ptgs2 = ((FormulaRecordAggregate)cell).getFormulaRecord().getParsedExpression(); // needs clone() inside this getter?
 
                     if (shifter.adjustFormula(ptgs, currentExternSheetIndex)) {
                         fra.setParsedExpression(ptgs);
@@ -308,31 +653,48 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 
 		int curRowIndex, curColIndex = -1;
 		int nextRowIndex, nextColIndex = -1;
+		/** the row after the last row to iterate */
+		private final int endRowIndex;
+		/** if the returned records are moved out of compact storage, as they might be modified */
+		private final boolean promote;
 
 		public ValueIterator() {
+			this(0, Integer.MAX_VALUE, true);
+		}
+
+		ValueIterator(int startRowIndex, int endRowIndex, boolean promote) {
+			nextRowIndex = startRowIndex;
+			this.endRowIndex = endRowIndex;
+			this.promote = promote;
 			getNextPos();
 		}
 
+		private int getEndRowIndex() {
+			return Math.min(endRowIndex, records.length);
+		}
+
 		void getNextPos() {
-			if (nextRowIndex >= records.length)
+			if (nextRowIndex >= getEndRowIndex())
 				return; // no next already
 
-			while (nextRowIndex < records.length) {
+			while (nextRowIndex < getEndRowIndex()) {
 				++nextColIndex;
-				if (records[nextRowIndex] == null || nextColIndex >= records[nextRowIndex].length) {
+				CellValueRecordInterface[] rowCells = records[nextRowIndex];
+				CompactRow compactRow = getCompactRow(nextRowIndex);
+				if (nextColIndex >= getRowLength(rowCells, compactRow)) {
 					++nextRowIndex;
 					nextColIndex = -1;
 					continue;
 				}
 
-				if (records[nextRowIndex][nextColIndex] != null)
+				if (hasCell(rowCells, compactRow, nextColIndex))
 					return; // next cell found
 			}
 			// no next found
 		}
 
 		public boolean hasNext() {
-			return nextRowIndex < records.length;
+			return nextRowIndex < getEndRowIndex();
 		}
 
 		public CellValueRecordInterface next() {
@@ -342,13 +704,17 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 
 			curRowIndex = nextRowIndex;
 			curColIndex = nextColIndex;
-			final CellValueRecordInterface ret = records[curRowIndex][curColIndex];
+			final CellValueRecordInterface ret = getCell(curRowIndex, curColIndex, promote);
 			getNextPos();
 			return ret;
 		}
 
 		public void remove() {
-			records[curRowIndex][curColIndex] = null;
+			CellValueRecordInterface[] rowCells = records[curRowIndex];
+			if (rowCells != null && curColIndex < rowCells.length) {
+				rowCells[curColIndex] = null;
+			}
+			clearCompactCell(curRowIndex, curColIndex);
 		}
 	}
 
@@ -357,6 +723,165 @@ public final class ValueRecordsAggregate implements Iterable<CellValueRecordInte
 		return new ValueIterator();
 	}
 
+	/**
+	 * The records of cells in compact storage are only materialized temporarily and need
+	 * to be passed to {@link #promoteCell(CellValueRecordInterface)}, before they are modified.
+	 *
+	 * @param rowIndex the row index
+	 * @return an iterator over the cells of the row
+	 *
+	 * @since POI 5.0.1
+	 */
+	public Iterator<CellValueRecordInterface> iterator(int rowIndex) {
+		return new ValueIterator(rowIndex, rowIndex + 1, false);
+	}
+
+	/**
+	 * The plain value cells of a row in compact storage, indexed by column
+	 */
+	private static final class CompactRow {
+		static final byte NONE = 0;
+		static final byte NUMBER = 1;
+		static final byte LABEL_SST = 2;
+		static final byte BLANK = 3;
+		static final byte BOOLEAN = 4;
+		static final byte ERROR = 5;
+
+		final byte[] types;
+		final short[] xfs;
+		/** the bits of the number, the SST index or the boolean / error code */
+		final long[] values;
+		/** the number of cells in the row */
+		private int count;
+
+		CompactRow(int length, CompactRow other) {
+			types = new byte[length];
+			xfs = new short[length];
+			values = new long[length];
+			if (other != null) {
+				System.arraycopy(other.types, 0, types, 0, other.types.length);
+				System.arraycopy(other.xfs, 0, xfs, 0, other.xfs.length);
+				System.arraycopy(other.values, 0, values, 0, other.values.length);
+				count = other.count;
+			}
+		}
+
+		/**
+		 * @return {@code true}, if the record can be recreated from its primitive values
+		 */
+		static boolean isCompactable(CellValueRecordInterface cell) {
+			if (cell instanceof NumberRecord || cell instanceof LabelSSTRecord || cell instanceof BlankRecord) {
+				return true;
+			}
+			if (!(cell instanceof BoolErrRecord)) {
+				return false;
+			}
+			// only the values, which are accepted by the setters
+			BoolErrRecord ber = (BoolErrRecord)cell;
+			int value = ber.getErrorValue();
+			if (ber.isBoolean()) {
+				return value == 0 || value == 1;
+			}
+			switch (FormulaError.isValidCode(value) ? FormulaError.forInt(value) : FormulaError._NO_ERROR) {
+				case NULL:
+				case DIV0:
+				case VALUE:
+				case REF:
+				case NAME:
+				case NUM:
+				case NA:
+					return true;
+				default:
+					return false;
+			}
+		}
+
+		void set(CellValueRecordInterface cell) {
+			int column = cell.getColumn();
+			if (types[column] == NONE) {
+				count++;
+			}
+			xfs[column] = cell.getXFIndex();
+			if (cell instanceof NumberRecord) {
+				types[column] = NUMBER;
+				values[column] = Double.doubleToRawLongBits(((NumberRecord)cell).getValue());
+			} else if (cell instanceof LabelSSTRecord) {
+				types[column] = LABEL_SST;
+				values[column] = ((LabelSSTRecord)cell).getSSTIndex();
+			} else if (cell instanceof BlankRecord) {
+				types[column] = BLANK;
+			} else {
+				BoolErrRecord ber = (BoolErrRecord)cell;
+				types[column] = ber.isBoolean() ? BOOLEAN : ERROR;
+				values[column] = ber.getErrorValue();
+			}
+		}
+
+		void copy(CompactRow other, int column) {
+			if (types[column] == NONE) {
+				count++;
+			}
+			types[column] = other.types[column];
+			xfs[column] = other.xfs[column];
+			values[column] = other.values[column];
+		}
+
+		/**
+		 * @return {@code true}, if the row contained a cell in the column
+		 */
+		boolean clear(int column) {
+			if (column >= types.length || types[column] == NONE) {
+				return false;
+			}
+			types[column] = NONE;
+			count--;
+			return true;
+		}
+
+		int getCount() {
+			return count;
+		}
+
+		CellValueRecordInterface materialize(int row, int column) {
+			CellValueRecordInterface cell;
+			switch (types[column]) {
+				case NUMBER: {
+					NumberRecord nr = new NumberRecord();
+					nr.setValue(Double.longBitsToDouble(values[column]));
+					cell = nr;
+					break;
+				}
+				case LABEL_SST: {
+					LabelSSTRecord lr = new LabelSSTRecord();
+					lr.setSSTIndex((int)values[column]);
+					cell = lr;
+					break;
+				}
+				case BLANK:
+					cell = new BlankRecord();
+					break;
+				case BOOLEAN: {
+					BoolErrRecord br = new BoolErrRecord();
+					br.setValue(values[column] != 0);
+					cell = br;
+					break;
+				}
+				case ERROR: {
+					BoolErrRecord br = new BoolErrRecord();
+					br.setValue((byte)values[column]);
+					cell = br;
+					break;
+				}
+				default:
+					return null;
+			}
+			cell.setRow(row);
+			cell.setColumn((short)column);
+			cell.setXFIndex(xfs[column]);
+			return cell;
+		}
+	}
+
 	/**
 	 * @deprecated use {@link org.apache.poi.hssf.usermodel.HSSFSheet#cloneSheet(HSSFWorkbook)} instead
 	 */
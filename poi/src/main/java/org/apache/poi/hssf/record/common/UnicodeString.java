@@ -110,7 +110,8 @@ public class UnicodeString implements Comparable<UnicodeString>, Duplicatable, G
     }
 
     public int hashCode() {
-        return Objects.hash(field_1_charCount, field_3_string);
+        // same as Objects.hash(field_1_charCount, field_3_string) without boxing, as it's used by the SST index
+        return 31 * (31 + field_1_charCount) + Objects.hashCode(field_3_string);
     }
 
     /**
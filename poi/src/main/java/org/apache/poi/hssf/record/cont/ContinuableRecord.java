@@ -55,7 +55,7 @@ public abstract class ContinuableRecord extends Record {
 	 * size of those too)
 	 */
 	@Override
-	public final int getRecordSize() {
+	public int getRecordSize() {
 		ContinuableRecordOutput out = ContinuableRecordOutput.createForCountingOnly();
 		serialize(out);
 		out.terminate();
@@ -63,7 +63,7 @@ public abstract class ContinuableRecord extends Record {
 	}
 
 	@Override
-	public final int serialize(int offset, byte[] data) {
+	public int serialize(int offset, byte[] data) {
 		int totalSize = 0;
 		try (LittleEndianByteArrayOutputStream leo =
 				new LittleEndianByteArrayOutputStream(data, offset)) {
@@ -19,6 +19,7 @@ package org.apache.poi.hssf.record.cont;
 
 import org.apache.poi.hssf.record.ContinueRecord;
 import org.apache.poi.util.DelayableLittleEndianOutput;
+import org.apache.poi.util.Internal;
 import org.apache.poi.util.LittleEndianOutput;
 import org.apache.poi.util.StringUtil;
 
@@ -39,20 +40,61 @@ public final class ContinuableRecordOutput implements LittleEndianOutput {
 		_totalPreviousRecordsSize = 0;
 	}
 
+	/**
+	 * Creates an output, which continues a previous serialization after its last written byte.
+	 * The already written records are left untouched, apart from the 'ushort size' field of
+	 * the last record, which is updated when the output is terminated.
+	 *
+	 * @param out the output for the subsequent data
+	 * @param dataSizeOutput the output for the 'ushort size' field of the last record
+	 * @param lastRecordDataSize the number of data bytes, which were written to the last record
+	 * @param totalPreviousRecordsSize the size of the records before the last record (including all BIFF headers)
+	 *
+	 * @since POI 5.0.1
+	 */
+	@Internal
+	public ContinuableRecordOutput(LittleEndianOutput out, LittleEndianOutput dataSizeOutput,
+			int lastRecordDataSize, int totalPreviousRecordsSize) {
+		_ulrOutput = new UnknownLengthRecordOutput(out, dataSizeOutput, lastRecordDataSize);
+		_out = out;
+		_totalPreviousRecordsSize = totalPreviousRecordsSize;
+	}
+
 	public static ContinuableRecordOutput createForCountingOnly() {
 		return new ContinuableRecordOutput(NOPOutput, -777); // fake sid
 	}
 
+	/**
+	 * Creates an output for sizing purposes, which continues a previous serialization
+	 *
+	 * @see #ContinuableRecordOutput(LittleEndianOutput, LittleEndianOutput, int, int)
+	 *
+	 * @since POI 5.0.1
+	 */
+	@Internal
+	public static ContinuableRecordOutput createForCountingOnly(int lastRecordDataSize, int totalPreviousRecordsSize) {
+		return new ContinuableRecordOutput(NOPOutput, NOPOutput, lastRecordDataSize, totalPreviousRecordsSize);
+	}
+
 	/**
 	 * @return total number of bytes written so far (including all BIFF headers)
 	 */
 	public int getTotalSize() {
 		return _totalPreviousRecordsSize + _ulrOutput.getTotalSize();
 	}
+	/**
+	 * @return the offset of the current record (SST or CONTINUE), i.e. the total size of the previous records
+	 *
+	 * @since POI 5.0.1
+	 */
+	@Internal
+	public int getCurrentRecordOffset() {
+		return _totalPreviousRecordsSize;
+	}
 	/**
 	 * Terminates the last record (also updates its 'ushort size' field)
 	 */
-	void terminate() {
+	public void terminate() {
 		_ulrOutput.terminate();
 	}
 	/**
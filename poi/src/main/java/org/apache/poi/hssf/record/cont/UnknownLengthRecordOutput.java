@@ -52,6 +52,21 @@ final class UnknownLengthRecordOutput implements LittleEndianOutput {
 			_out = new LittleEndianByteArrayOutputStream(_byteBuffer, 0);
 		}
 	}
+	/**
+	 * Continues a record, whose header and first {@code size} data bytes were already written
+	 *
+	 * @param out the output for the subsequent data
+	 * @param dataSizeOutput the output for the 'ushort size' field of the record
+	 * @param size the number of data bytes, which were already written
+	 */
+	UnknownLengthRecordOutput(LittleEndianOutput out, LittleEndianOutput dataSizeOutput, int size) {
+		_originalOut = out;
+		_dataSizeOutput = dataSizeOutput;
+		_byteBuffer = null;
+		_out = out;
+		_size = size;
+	}
+
 	/**
 	 * includes 4 byte header
 	 */
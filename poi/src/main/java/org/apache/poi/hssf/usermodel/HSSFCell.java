@@ -187,7 +187,7 @@ public class HSSFCell extends CellBase {
         switch (_cellType)
         {
             case STRING :
-                _stringValue = new HSSFRichTextString(book.getWorkbook(), (LabelSSTRecord ) cval);
+                _stringValue = new HSSFRichTextString(book.getWorkbook(), (LabelSSTRecord ) cval, this);
                 break;
 
             case BLANK :
@@ -249,6 +249,7 @@ public class HSSFCell extends CellBase {
      */
     protected void updateCellNum(short num)
     {
+        promoteRecord();
         _record.setColumn(num);
     }
 
@@ -443,9 +444,11 @@ public class HSSFCell extends CellBase {
                         _record.getXFIndex());
                 // fall through
             case NUMERIC:
+                promoteRecord();
                 ((NumberRecord)_record).setValue(value);
                 break;
             case FORMULA:
+                promoteRecord();
                 ((FormulaRecordAggregate)_record).setCachedDoubleResult(value);
                 break;
         }
@@ -498,6 +501,7 @@ public class HSSFCell extends CellBase {
             // Set the 'pre-evaluated result' for the formula
             // note - formulas do not preserve text formatting.
             FormulaRecordAggregate fr = (FormulaRecordAggregate) _record;
+            promoteRecord();
             fr.setCachedStringResult(value.getString());
             // Update our local cache to the un-formatted version
             _stringValue = new HSSFRichTextString(value.getString());
@@ -520,9 +524,10 @@ public class HSSFCell extends CellBase {
         HSSFRichTextString hvalue = (HSSFRichTextString) value;
         UnicodeString str = hvalue.getUnicodeString();
         index = _book.getWorkbook().addSSTString(str);
+        promoteRecord();
         (( LabelSSTRecord ) _record).setSSTIndex(index);
         _stringValue = hvalue;
-        _stringValue.setWorkbookReferences(_book.getWorkbook(), (( LabelSSTRecord ) _record));
+        _stringValue.setWorkbookReferences(_book.getWorkbook(), (( LabelSSTRecord ) _record), this);
         _stringValue.setUnicodeString(_book.getWorkbook().getSSTString(index));
     }
 
@@ -548,6 +553,7 @@ public class HSSFCell extends CellBase {
         Ptg[] ptgs = HSSFFormulaParser.parse(formula, _book, FormulaType.CELL, sheetIndex);
         setCellType(CellType.FORMULA, false, row, col, styleIndex);
         FormulaRecordAggregate agg = (FormulaRecordAggregate) _record;
+        promoteRecord();
         FormulaRecord frec = agg.getFormulaRecord();
         frec.setOptions((short) 2);
 
@@ -630,12 +636,21 @@ public class HSSFCell extends CellBase {
         }
     }
 
+    /**
+     * Moves the record of this cell out of the compact cell storage of the sheet and marks
+     * the sheet as modified, as the record is about to be modified in place
+     */
+    void promoteRecord() {
+        _sheet.getSheet().getRowsAggregate().promoteCell(_record);
+    }
+
     /**
      * Should be called any time that a formula could potentially be deleted.
      * Does nothing if this cell currently does not hold a formula
      */
     private void notifyFormulaChanging() {
         if (_record instanceof FormulaRecordAggregate) {
+            promoteRecord();
             ((FormulaRecordAggregate)_record).notifyFormulaChanging();
         }
     }
@@ -775,9 +790,11 @@ public class HSSFCell extends CellBase {
                 setCellType(CellType.BOOLEAN, false, row, col, styleIndex);
                 // fall through
             case BOOLEAN:
+                promoteRecord();
                 (( BoolErrRecord ) _record).setValue(value);
                 break;
             case FORMULA:
+                promoteRecord();
                 ((FormulaRecordAggregate)_record).setCachedBooleanResult(value);
                 break;
         }
@@ -815,9 +832,11 @@ public class HSSFCell extends CellBase {
                 setCellType(CellType.ERROR, false, row, col, styleIndex);
                 // fall through
             case ERROR:
+                promoteRecord();
                 (( BoolErrRecord ) _record).setValue(error);
                 break;
             case FORMULA:
+                promoteRecord();
                 ((FormulaRecordAggregate)_record).setCachedErrorResult(error.getCode());
                 break;
         }
@@ -954,6 +973,7 @@ public class HSSFCell extends CellBase {
     public void setCellStyle(HSSFCellStyle style) {
         // A style of null means resetting back to the default style
         if (style == null) {
+            promoteRecord();
             _record.setXFIndex((short)0xf);
             return;
         }
@@ -969,6 +989,7 @@ public class HSSFCell extends CellBase {
         }
 
         // Change our cell record to use this style
+        promoteRecord();
         _record.setXFIndex(styleIndex);
     }
 
@@ -1014,6 +1035,7 @@ public class HSSFCell extends CellBase {
     {
         int row=_record.getRow();
         short col=_record.getColumn();
+        _sheet.markModified();
         _sheet.getSheet().setActiveCellRow(row);
         _sheet.getSheet().setActiveCellCol(col);
     }
@@ -1068,6 +1090,7 @@ public class HSSFCell extends CellBase {
             return;
         }
 
+        _sheet.markModified();
         comment.setRow(_record.getRow());
         comment.setColumn(_record.getColumn());
         _comment = (HSSFComment)comment;
@@ -1143,6 +1166,7 @@ public class HSSFCell extends CellBase {
                 break;
         }
 
+        _sheet.markModified();
         List<RecordBase> records = _sheet.getSheet().getRecords();
         int eofLoc = records.size() - 1;
         records.add( eofLoc, link.record );
@@ -1157,6 +1181,7 @@ public class HSSFCell extends CellBase {
             if (rec instanceof HyperlinkRecord) {
                 HyperlinkRecord link = (HyperlinkRecord) rec;
                 if (link.getFirstColumn() == _record.getColumn() && link.getFirstRow() == _record.getRow()) {
+                    _sheet.markModified();
                     it.remove();
                     return;
                 }
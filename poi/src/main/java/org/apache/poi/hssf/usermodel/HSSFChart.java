@@ -240,6 +240,10 @@ public final class HSSFChart {
             }
         }
 
+        if (!charts.isEmpty()) {
+            // the chart records can be changed via the returned charts
+            sheet.markModified();
+        }
         return charts.toArray(new HSSFChart[0]);
     }
 
@@ -228,7 +228,8 @@ public final class HSSFEvaluationWorkbook implements FormulaRenderingWorkbook, E
         // It is useful within the tests to make sure that all formulas POI can evaluate can also be parsed.
         // see HSSFFileHandler.handleFile instead
         FormulaRecordAggregate fra = (FormulaRecordAggregate) cell.getCellValueRecord();
-        return fra.getFormulaTokens();
+        // the tokens of shared formulas are relocated lazily by the evaluator
+        return fra.getFormulaTokensForEvaluation();
     }
 
     @Override
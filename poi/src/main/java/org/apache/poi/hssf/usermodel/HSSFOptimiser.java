@@ -163,6 +163,8 @@ public class HSSFOptimiser {
 				}
 			}
 		}
+		// the font indexes of the shared strings were changed in place
+		workbook.getWorkbook().invalidateSSTStrings();
 	}
 
    /**
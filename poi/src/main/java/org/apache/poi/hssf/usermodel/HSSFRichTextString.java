@@ -73,6 +73,8 @@ public final class HSSFRichTextString implements Comparable<HSSFRichTextString>,
     private UnicodeString _string;
     private InternalWorkbook _book;
     private LabelSSTRecord _record;
+    /** the cell of the record, which is notified before the record is changed */
+    private HSSFCell _cell;
 
     public HSSFRichTextString() {
         this("");
@@ -86,8 +88,8 @@ public final class HSSFRichTextString implements Comparable<HSSFRichTextString>,
         }
     }
 
-    HSSFRichTextString(InternalWorkbook book, LabelSSTRecord record) {
-      setWorkbookReferences(book, record);
+    HSSFRichTextString(InternalWorkbook book, LabelSSTRecord record, HSSFCell cell) {
+      setWorkbookReferences(book, record, cell);
 
       _string = book.getSSTString(record.getSSTIndex());
     }
@@ -95,9 +97,10 @@ public final class HSSFRichTextString implements Comparable<HSSFRichTextString>,
     /** This must be called to setup the internal work book references whenever
      * a RichTextString is added to a cell
      */
-    void setWorkbookReferences(InternalWorkbook book, LabelSSTRecord record) {
+    void setWorkbookReferences(InternalWorkbook book, LabelSSTRecord record, HSSFCell cell) {
       _book = book;
       _record = record;
+      _cell = cell;
     }
 
     /** Called whenever the unicode string is modified. When it is modified
@@ -111,6 +114,7 @@ public final class HSSFRichTextString implements Comparable<HSSFRichTextString>,
     private void addToSSTIfRequired() {
       if (_book != null) {
         int index = _book.addSSTString(_string);
+        _cell.promoteRecord();
         _record.setSSTIndex(index);
         //The act of adding the string to the SST record may have meant that
         //an existing string was returned for the index, so update our local version
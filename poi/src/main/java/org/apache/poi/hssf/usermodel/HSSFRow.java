@@ -43,6 +43,8 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
 
     private int rowNum;
     private HSSFCell[] cells;
+    /** if the cells are still in the compact storage of the sheet and need to be created on access */
+    private boolean cellsPending;
 
     /**
      * reference to low level representation
@@ -81,11 +83,29 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * @see org.apache.poi.hssf.usermodel.HSSFSheet#createRow(int)
      */
     HSSFRow(HSSFWorkbook book, HSSFSheet sheet, RowRecord record) {
+        this(book, sheet, record, false);
+    }
+
+    /**
+     * Creates an HSSFRow from a low level RowRecord object.
+     *
+     * @param book low-level Workbook object containing the sheet that contains this row
+     * @param sheet low-level Sheet object that contains this Row
+     * @param record the low level api object this row should represent
+     * @param lazyCells if {@code true}, the cells are created from the compact cell storage of the sheet,
+     *  when they are accessed the first time. The column bounds of the record need to be valid.
+     */
+    HSSFRow(HSSFWorkbook book, HSSFSheet sheet, RowRecord record, boolean lazyCells) {
         this.book = book;
         this.sheet = sheet;
         row = record;
         setRowNum(record.getRowNumber());
 
+        if (lazyCells) {
+            cellsPending = true;
+            return;
+        }
+
         // Size the initial cell list such that a read only case won't waste
         //  lots of memory, and a create/read followed by adding new cells can
         //  add a bit without needing a resize
@@ -97,6 +117,22 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
         // subsequent calls to createCellFromRecord() will update the colIx boundaries properly
     }
 
+    /**
+     * Creates the cells of a row, which were kept in the compact storage of the sheet.
+     * The cell records are only moved out of the compact storage, when the cells are modified.
+     */
+    private void loadCells() {
+        if (!cellsPending) {
+            return;
+        }
+        cellsPending = false;
+        cells = new HSSFCell[row.getLastCol()+INITIAL_CAPACITY];
+        Iterator<CellValueRecordInterface> iter = sheet.getSheet().getRowsAggregate().getCellValueIterator(rowNum);
+        while (iter.hasNext()) {
+            createCellFromRecord(iter.next());
+        }
+    }
+
     /**
      * Use this to create new cells within the row and return it.
      * <p>
@@ -155,6 +191,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
         removeCell((HSSFCell)cell, true);
     }
     private void removeCell(HSSFCell cell, boolean alsoRemoveRecords) {
+        loadCells();
 
         int column=cell.getColumnIndex();
         if(column < 0) {
@@ -186,6 +223,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      *  records too.
      */
     protected void removeAllCells() {
+        loadCells();
         for (HSSFCell cell : cells) {
             if (cell != null) {
                 removeCell(cell, true);
@@ -233,6 +271,13 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
           throw new IllegalArgumentException("Invalid row number (" + rowIndex
                   + ") outside allowable range (0.." + maxrow + ")");
         }
+        if (rowIndex != rowNum) {
+            if (cellsPending) {
+                // the cells are looked up by the row number
+                loadCells();
+            }
+            sheet.markModified();
+        }
         rowNum = rowIndex;
         if (row != null) {
             row.setRowNumber(rowIndex);   // used only for KEY comparison (HSSFRow)
@@ -277,6 +322,8 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * @param newColumn The new column number (0 based)
      */
     public void moveCell(HSSFCell cell, short newColumn) {
+        loadCells();
+        sheet.markModified();
         // Ensure the destination is free
         if(cells.length > newColumn && cells[newColumn] != null) {
             throw new IllegalArgumentException("Asked to move cell to column " + newColumn + " but there's already a cell there");
@@ -298,6 +345,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * used internally to add a cell.
      */
     private void addCell(HSSFCell cell) {
+        loadCells();
 
         int column=cell.getColumnIndex();
         // re-allocate cells array as required.
@@ -333,6 +381,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * @return HSSFCell representing that column or null if undefined.
      */
     private HSSFCell retrieveCell(int cellIndex) {
+        loadCells();
         if(cellIndex<0||cellIndex>=cells.length) {
             return null;
         }
@@ -427,6 +476,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     @Override
     public int getPhysicalNumberOfCells()
     {
+        loadCells();
         int count = 0;
         for (HSSFCell cell : cells) {
             if (cell != null) {
@@ -445,6 +495,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     @Override
     public void setHeight(short height)
     {
+        sheet.markModified();
         if(height == -1){
             row.setHeight((short)(0xFF | 0x8000));
             row.setBadFontHeight(false);
@@ -460,6 +511,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      */
     @Override
     public void setZeroHeight(boolean zHeight) {
+        sheet.markModified();
         row.setZeroHeight(zHeight);
     }
 
@@ -480,6 +532,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     @Override
     public void setHeightInPoints(float height)
     {
+        sheet.markModified();
         if(height == -1){
             row.setHeight((short)(0xFF | 0x8000));
             row.setBadFontHeight(false);
@@ -592,6 +645,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
      * Applies a whole-row cell styling to the row.
      */
     public void setRowStyle(HSSFCellStyle style) {
+        sheet.markModified();
         row.setFormatted(true);
         row.setXFIndex(style.getIndex());
     }
@@ -633,6 +687,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
       int nextId=-1;
 
       public CellIterator() {
+          loadCells();
           findNext();
       }
 
@@ -729,6 +784,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     @Override
     public void shiftCellsRight(int firstShiftColumnIndex, int lastShiftColumnIndex, int step) {
         RowShifter.validateShiftParameters(firstShiftColumnIndex, lastShiftColumnIndex, step);
+        loadCells();
 
         if (lastShiftColumnIndex + step + 1 > cells.length) {
             extend(lastShiftColumnIndex + step + 1);
@@ -761,6 +817,7 @@ public final class HSSFRow implements Row, Comparable<HSSFRow> {
     @Override
     public void shiftCellsLeft(int firstShiftColumnIndex, int lastShiftColumnIndex, int step) {
         RowShifter.validateShiftLeftParameters(firstShiftColumnIndex, lastShiftColumnIndex, step);
+        loadCells();
 
         for (int columnIndex = firstShiftColumnIndex; columnIndex <= lastShiftColumnIndex; columnIndex++){
             HSSFCell cell = getCell(columnIndex);
@@ -122,6 +122,11 @@ public final class HSSFSheet implements Sheet {
     private HSSFPatriarch _patriarch;
     private int _firstrow = -1;
     private int _lastrow = -1;
+    /**
+     * the offset of the BOF record of this sheet in the workbook stream, which it was read from or last
+     * written to, as long as the sheet wasn't modified - otherwise -1
+     */
+    private int _unmodifiedBof = -1;
 
     /**
      * Creates new HSSFSheet   - called by HSSFWorkbook to create a sheet from
@@ -170,6 +175,33 @@ public final class HSSFSheet implements Sheet {
         return sheet;
     }
 
+    /**
+     * @return the offset of the BOF record of this sheet in the workbook stream, which it was read from or
+     *  last written to in place, or -1 if the sheet might have been modified since then
+     */
+    int getUnmodifiedBof() {
+        // the cell records are also changed via the low level api
+        return _sheet.getRowsAggregate().isModified() ? -1 : _unmodifiedBof;
+    }
+
+    /**
+     * @param unmodifiedBof the offset of the BOF record of this sheet in the current workbook stream,
+     *  or -1 to mark the sheet as modified
+     */
+    void setUnmodifiedBof(int unmodifiedBof) {
+        _unmodifiedBof = unmodifiedBof;
+        _sheet.getRowsAggregate().setModified(unmodifiedBof == -1);
+    }
+
+    /**
+     * Marks the sheet as modified, i.e. it's serialized from its records on the next incremental write.
+     * This needs to be called by all methods, which change the records of the sheet or hand out objects,
+     * which can change them, e.g. the print setup.
+     */
+    void markModified() {
+        _unmodifiedBof = -1;
+    }
+
     /**
      * check whether the data of sheet can be serialized
      */
@@ -193,6 +225,15 @@ public final class HSSFSheet implements Sheet {
      * used internally to set the properties given a Sheet object
      */
     private void setPropertiesFromSheet(InternalSheet sheet) {
+        if (_workbook.isCompactCells()) {
+            // the cells of the rows are created on demand from the compact storage
+            sheet.getRowsAggregate().compactCells();
+            for (RowRecord row = sheet.getNextRow(); row != null; row = sheet.getNextRow()) {
+                addRow(new HSSFRow(_workbook, this, row, true), false);
+            }
+            return;
+        }
+
         RowRecord row = sheet.getNextRow();
 
         while (row != null) {
@@ -256,6 +297,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public HSSFRow createRow(int rownum) {
+        markModified();
         HSSFRow row = new HSSFRow(_workbook, this, rownum);
         // new rows inherit default height from the sheet
         row.setHeight(getDefaultRowHeight());
@@ -287,6 +329,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void removeRow(Row row) {
+        markModified();
         HSSFRow hrow = (HSSFRow) row;
         if (row.getSheet() != this) {
             throw new IllegalArgumentException("Specified row does not belong to this sheet");
@@ -429,6 +472,7 @@ public final class HSSFSheet implements Sheet {
 
     @Override
     public List<HSSFDataValidation> getDataValidations() {
+        markModified();
         DataValidityTable dvt = _sheet.getOrCreateDataValidityTable();
         final List<HSSFDataValidation> hssfValidations = new ArrayList<>();
         RecordVisitor visitor = new RecordVisitor() {
@@ -464,6 +508,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void addValidationData(DataValidation dataValidation) {
+        markModified();
         if (dataValidation == null) {
             throw new IllegalArgumentException("objValidation must not be null");
         }
@@ -482,6 +527,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setColumnHidden(int columnIndex, boolean hidden) {
+        markModified();
         _sheet.setColumnHidden(columnIndex, hidden);
     }
 
@@ -536,6 +582,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setColumnWidth(int columnIndex, int width) {
+        markModified();
         _sheet.setColumnWidth(columnIndex, width);
     }
 
@@ -578,6 +625,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDefaultColumnWidth(int width) {
+        markModified();
         _sheet.setDefaultColumnWidth(width);
     }
 
@@ -612,6 +660,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDefaultRowHeight(short height) {
+        markModified();
         _sheet.setDefaultRowHeight(height);
     }
 
@@ -623,6 +672,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDefaultRowHeightInPoints(float height) {
+        markModified();
         _sheet.setDefaultRowHeight((short) (height * 20));
     }
 
@@ -659,6 +709,7 @@ public final class HSSFSheet implements Sheet {
      * @param value false if not printed.
      */
     public void setGridsPrinted(boolean value) {
+        markModified();
         _sheet.setGridsPrinted(value);
     }
 
@@ -718,6 +769,7 @@ public final class HSSFSheet implements Sheet {
      * or multi-cell array formula on this sheet
      */
     private int addMergedRegion(CellRangeAddress region, boolean validate) {
+        markModified();
         if (region.getNumberOfCells() < 2) {
             throw new IllegalArgumentException("Merged region " + region.formatAsString() + " must contain 2 or more cells");
         }
@@ -826,6 +878,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setForceFormulaRecalculation(boolean value) {
+        markModified();
         _sheet.setUncalced(value);
     }
 
@@ -848,6 +901,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setVerticallyCenter(boolean value) {
+        markModified();
         _sheet.getPageSettings().getVCenter().setVCenter(value);
     }
 
@@ -866,6 +920,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setHorizontallyCenter(boolean value) {
+        markModified();
         _sheet.getPageSettings().getHCenter().setHCenter(value);
     }
 
@@ -884,6 +939,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setRightToLeft(boolean value) {
+        markModified();
         _sheet.getWindowTwo().setArabic(value);
     }
 
@@ -904,6 +960,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void removeMergedRegion(int index) {
+        markModified();
         _sheet.removeMergedRegion(index);
     }
 
@@ -914,6 +971,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void removeMergedRegions(Collection<Integer> indices) {
+        markModified();
         for (int i : (new TreeSet<>(indices)).descendingSet()) {
             _sheet.removeMergedRegion(i);
         }
@@ -989,6 +1047,7 @@ public final class HSSFSheet implements Sheet {
      * @param b alternative expression evaluation or not
      */
     public void setAlternativeExpression(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1001,6 +1060,7 @@ public final class HSSFSheet implements Sheet {
      * @param b alternative formulas or not
      */
     public void setAlternativeFormula(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1014,6 +1074,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setAutobreaks(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1026,6 +1087,7 @@ public final class HSSFSheet implements Sheet {
      * @param b isDialog or not
      */
     public void setDialog(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1039,6 +1101,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDisplayGuts(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1052,6 +1115,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setFitToPage(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1065,6 +1129,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setRowSumsBelow(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1080,6 +1145,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setRowSumsRight(boolean b) {
+        markModified();
         WSBoolRecord record =
                 (WSBoolRecord) _sheet.findFirstRecordBySid(WSBoolRecord.sid);
 
@@ -1164,6 +1230,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDisplayZeros(boolean value) {
+        markModified();
         _sheet.getWindowTwo().setDisplayZeros(value);
     }
 
@@ -1218,6 +1285,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setPrintGridlines(boolean show) {
+        markModified();
         getSheet().getPrintGridlines().setPrintGridlines(show);
     }
 
@@ -1239,6 +1307,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setPrintRowAndColumnHeadings(boolean show) {
+        markModified();
         getSheet().getPrintHeaders().setPrintHeaders(show);
     }
 
@@ -1249,16 +1318,19 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public HSSFPrintSetup getPrintSetup() {
+        markModified();
         return new HSSFPrintSetup(_sheet.getPageSettings().getPrintSetup());
     }
 
     @Override
     public HSSFHeader getHeader() {
+        markModified();
         return new HSSFHeader(_sheet.getPageSettings());
     }
 
     @Override
     public HSSFFooter getFooter() {
+        markModified();
         return new HSSFFooter(_sheet.getPageSettings());
     }
 
@@ -1279,6 +1351,9 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setSelected(boolean sel) {
+        if (sel != isSelected()) {
+            markModified();
+        }
         getSheet().getWindowTwo().setSelected(sel);
     }
 
@@ -1295,6 +1370,9 @@ public final class HSSFSheet implements Sheet {
      * @param sel Whether to select the sheet or deselect the sheet.
      */
     public void setActive(boolean sel) {
+        if (sel != isActive()) {
+            markModified();
+        }
         getSheet().getWindowTwo().setActive(sel);
     }
 
@@ -1324,6 +1402,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setMargin(short margin, double size) {
+        markModified();
         switch (margin) {
             case FooterMargin:
                 _sheet.getPageSettings().getPrintSetup().setFooterMargin(size);
@@ -1383,6 +1462,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void protectSheet(String password) {
+        markModified();
         getProtectionBlock().protectSheet(password, true, true); //protect objs&scenarios(normal)
     }
 
@@ -1396,6 +1476,7 @@ public final class HSSFSheet implements Sheet {
      * @see #setZoom(int)
      */
     public void setZoom(int numerator, int denominator) {
+        markModified();
         if (numerator < 1 || numerator > 65535)
             throw new IllegalArgumentException("Numerator must be greater than 0 and less than 65536");
         if (denominator < 1 || denominator > 65535)
@@ -1426,6 +1507,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setZoom(int scale) {
+        markModified();
         setZoom(scale, 100);
     }
 
@@ -1487,6 +1569,7 @@ public final class HSSFSheet implements Sheet {
      * @deprecated POI 3.15 beta 2. Use {@link HSSFRowShifter#shiftMergedRegions(int, int, int)}.
      */
     protected void shiftMerged(int startRow, int endRow, int n, boolean isRow) {
+        markModified();
         RowShifter rowShifter = new HSSFRowShifter(this);
         rowShifter.shiftMergedRegions(startRow, endRow, n);
     }
@@ -1507,6 +1590,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void shiftRows(int startRow, int endRow, int n) {
+        markModified();
         shiftRows(startRow, endRow, n, false, false);
     }
 
@@ -1529,6 +1613,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void shiftRows(int startRow, int endRow, int n, boolean copyRowHeight, boolean resetOriginalRowHeight) {
+        markModified();
         shiftRows(startRow, endRow, n, copyRowHeight, resetOriginalRowHeight, true);
     }
 
@@ -1562,6 +1647,7 @@ public final class HSSFSheet implements Sheet {
      */
     public void shiftRows(int startRow, int endRow, int n,
                           boolean copyRowHeight, boolean resetOriginalRowHeight, boolean moveComments) {
+        markModified();
         int s, inc;
         if (endRow < startRow) {
             throw new IllegalArgumentException("startRow must be less than or equal to endRow. To shift rows up, use n<0.");
@@ -1671,10 +1757,12 @@ public final class HSSFSheet implements Sheet {
         // update formulas on other sheets that point to rows that have been moved on this sheet
         int nSheets = _workbook.getNumberOfSheets();
         for (int i = 0; i < nSheets; i++) {
-            InternalSheet otherSheet = _workbook.getSheetAt(i).getSheet();
+            HSSFSheet other = _workbook.getSheetAt(i);
+            InternalSheet otherSheet = other.getSheet();
             if (otherSheet == this._sheet) {
                 continue;
             }
+            other.markModified();
             short otherExtSheetIx = _book.checkExternSheet(i);
             otherSheet.updateFormulasAfterCellShift(formulaShifter, otherExtSheetIx);
         }
@@ -1758,6 +1846,7 @@ public final class HSSFSheet implements Sheet {
     @Beta
     @Override
     public void shiftColumns(int startColumn, int endColumn, int n){
+        markModified();
         HSSFColumnShifter columnShifter = new HSSFColumnShifter(this);
         columnShifter.shiftColumns(startColumn, endColumn, n);
 
@@ -1771,6 +1860,7 @@ public final class HSSFSheet implements Sheet {
     }
 
     protected void insertChartRecords(List<Record> records) {
+        markModified();
         int window2Loc = _sheet.findFirstRecordLocBySid(WindowTwoRecord.sid);
         _sheet.getRecords().addAll(window2Loc, records);
     }
@@ -1798,6 +1888,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void createFreezePane(int colSplit, int rowSplit, int leftmostColumn, int topRow) {
+        markModified();
         validateColumn(colSplit);
         validateRow(rowSplit);
         if (leftmostColumn < colSplit)
@@ -1817,6 +1908,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void createFreezePane(int colSplit, int rowSplit) {
+        markModified();
         createFreezePane(colSplit, rowSplit, colSplit, rowSplit);
     }
 
@@ -1836,6 +1928,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void createSplitPane(int xSplitPos, int ySplitPos, int leftmostColumn, int topRow, int activePane) {
+        markModified();
         getSheet().createSplitPane(xSplitPos, ySplitPos, topRow, leftmostColumn, activePane);
     }
 
@@ -1856,6 +1949,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDisplayGridlines(boolean show) {
+        markModified();
         _sheet.setDisplayGridlines(show);
     }
 
@@ -1876,6 +1970,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDisplayFormulas(boolean show) {
+        markModified();
         _sheet.setDisplayFormulas(show);
     }
 
@@ -1896,6 +1991,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDisplayRowColHeadings(boolean show) {
+        markModified();
         _sheet.setDisplayRowColHeadings(show);
     }
 
@@ -1922,6 +2018,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setRowBreak(int row) {
+        markModified();
         validateRow(row);
         _sheet.getPageSettings().setRowBreak(row, (short) 0, (short) 255);
     }
@@ -1939,6 +2036,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void removeRowBreak(int row) {
+        markModified();
         _sheet.getPageSettings().removeRowBreak(row);
     }
 
@@ -1974,6 +2072,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setColumnBreak(int column) {
+        markModified();
         validateColumn((short) column);
         _sheet.getPageSettings().setColumnBreak((short) column, (short) 0, (short) SpreadsheetVersion.EXCEL97.getLastRowIndex());
     }
@@ -1996,6 +2095,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void removeColumnBreak(int column) {
+        markModified();
         _sheet.getPageSettings().removeColumnBreak(column);
     }
 
@@ -2092,6 +2192,8 @@ public final class HSSFSheet implements Sheet {
 
     private HSSFPatriarch getPatriarch(boolean createIfMissing) {
         if (_patriarch != null) {
+            // the shapes of the patriarch can be changed
+            markModified();
             return _patriarch;
         }
         DrawingManager2 dm = _book.findDrawingGroup();
@@ -2108,6 +2210,7 @@ public final class HSSFSheet implements Sheet {
             int pos = _sheet.aggregateDrawingRecords(dm, false);
             if (-1 == pos) {
                 if (createIfMissing) {
+                    markModified();
                     pos = _sheet.aggregateDrawingRecords(dm, true);
                     agg = (EscherAggregate) _sheet.getRecords().get(pos);
                     HSSFPatriarch patriarch = new HSSFPatriarch(this, agg);
@@ -2119,6 +2222,7 @@ public final class HSSFSheet implements Sheet {
             }
             agg = (EscherAggregate) _sheet.getRecords().get(pos);
         }
+        markModified();
         return new HSSFPatriarch(this, agg);
     }
 
@@ -2130,6 +2234,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setColumnGroupCollapsed(int columnNumber, boolean collapsed) {
+        markModified();
         _sheet.setColumnGroupCollapsed(columnNumber, collapsed);
     }
 
@@ -2141,11 +2246,13 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void groupColumn(int fromColumn, int toColumn) {
+        markModified();
         _sheet.groupColumnRange(fromColumn, toColumn, true);
     }
 
     @Override
     public void ungroupColumn(int fromColumn, int toColumn) {
+        markModified();
         _sheet.groupColumnRange(fromColumn, toColumn, false);
     }
 
@@ -2157,16 +2264,19 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void groupRow(int fromRow, int toRow) {
+        markModified();
         _sheet.groupRowRange(fromRow, toRow, true);
     }
 
     @Override
     public void ungroupRow(int fromRow, int toRow) {
+        markModified();
         _sheet.groupRowRange(fromRow, toRow, false);
     }
 
     @Override
     public void setRowGroupCollapsed(int rowIndex, boolean collapse) {
+        markModified();
         if (collapse) {
             _sheet.getRowsAggregate().collapseRow(rowIndex);
         } else {
@@ -2182,6 +2292,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setDefaultColumnStyle(int column, CellStyle style) {
+        markModified();
         _sheet.setDefaultColumnStyle(column, style.getIndex());
     }
 
@@ -2196,6 +2307,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void autoSizeColumn(int column) {
+        markModified();
         autoSizeColumn(column, false);
     }
 
@@ -2214,6 +2326,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void autoSizeColumn(int column, boolean useMergedCells) {
+        markModified();
         double width = SheetUtil.getColumnWidth(this, column, useMergedCells);
 
         if (width != -1) {
@@ -2249,6 +2362,8 @@ public final class HSSFSheet implements Sheet {
             if (rec instanceof HyperlinkRecord) {
                 HyperlinkRecord link = (HyperlinkRecord) rec;
                 if (link.getFirstColumn() == column && link.getFirstRow() == row) {
+                    // the hyperlink can be changed
+                    markModified();
                     return new HSSFHyperlink(link);
                 }
             }
@@ -2279,6 +2394,7 @@ public final class HSSFSheet implements Sheet {
         for (RecordBase rec : _sheet.getRecords()) {
             if (rec instanceof HyperlinkRecord) {
                 HyperlinkRecord link = (HyperlinkRecord) rec;
+                markModified();
                 hyperlinkList.add(new HSSFHyperlink(link));
             }
         }
@@ -2292,6 +2408,7 @@ public final class HSSFSheet implements Sheet {
      * @param link the HSSFHyperlink wrapper around the HyperlinkRecord to remove
      */
     protected void removeHyperlink(HSSFHyperlink link) {
+        markModified();
         removeHyperlink(link.record);
     }
 
@@ -2301,6 +2418,7 @@ public final class HSSFSheet implements Sheet {
      * @param link the underlying HyperlinkRecord to remove from this sheet
      */
     protected void removeHyperlink(HyperlinkRecord link) {
+        markModified();
         for (Iterator<RecordBase> it = _sheet.getRecords().iterator(); it.hasNext();) {
             RecordBase rec = it.next();
             if (rec instanceof HyperlinkRecord) {
@@ -2316,6 +2434,7 @@ public final class HSSFSheet implements Sheet {
 
     @Override
     public HSSFSheetConditionalFormatting getSheetConditionalFormatting() {
+        markModified();
         return new HSSFSheetConditionalFormatting(this);
     }
 
@@ -2361,6 +2480,7 @@ public final class HSSFSheet implements Sheet {
 
     @Override
     public CellRange<HSSFCell> setArrayFormula(String formula, CellRangeAddress range) {
+        markModified();
         // make sure the formula parses OK first
         int sheetIndex = _workbook.getSheetIndex(this);
         Ptg[] ptgs = HSSFFormulaParser.parse(formula, _workbook, FormulaType.ARRAY, sheetIndex);
@@ -2377,6 +2497,7 @@ public final class HSSFSheet implements Sheet {
 
     @Override
     public CellRange<HSSFCell> removeArrayFormula(Cell cell) {
+        markModified();
         if (cell.getSheet() != this) {
             throw new IllegalArgumentException("Specified cell does not belong to this sheet.");
         }
@@ -2403,6 +2524,7 @@ public final class HSSFSheet implements Sheet {
 
     @Override
     public HSSFAutoFilter setAutoFilter(CellRangeAddress range) {
+        markModified();
         InternalWorkbook workbook = _workbook.getWorkbook();
         int sheetIndex = _workbook.getSheetIndex(this);
 
@@ -2522,12 +2644,14 @@ public final class HSSFSheet implements Sheet {
 
     @Override
     public void setRepeatingRows(CellRangeAddress rowRangeRef) {
+        markModified();
         CellRangeAddress columnRangeRef = getRepeatingColumns();
         setRepeatingRowsAndColumns(rowRangeRef, columnRangeRef);
     }
 
     @Override
     public void setRepeatingColumns(CellRangeAddress columnRangeRef) {
+        markModified();
         CellRangeAddress rowRangeRef = getRepeatingRows();
         setRepeatingRowsAndColumns(rowRangeRef, columnRangeRef);
     }
@@ -2687,6 +2811,7 @@ public final class HSSFSheet implements Sheet {
      */
     @Override
     public void setActiveCell(CellAddress address) {
+        markModified();
         int row = address.getRow();
         short col = (short) address.getColumn();
         _sheet.setActiveCellRow(row);
@@ -69,22 +69,30 @@ import org.apache.poi.hssf.model.InternalWorkbook;
 import org.apache.poi.hssf.model.RecordStream;
 import org.apache.poi.hssf.model.WorkbookRecordList;
 import org.apache.poi.hssf.record.AbstractEscherHolderRecord;
+import org.apache.poi.hssf.record.BOFRecord;
 import org.apache.poi.hssf.record.BackupRecord;
+import org.apache.poi.hssf.record.BlankRecord;
 import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
 import org.apache.poi.hssf.record.DrawingGroupRecord;
+import org.apache.poi.hssf.record.EOFRecord;
 import org.apache.poi.hssf.record.ExtendedFormatRecord;
 import org.apache.poi.hssf.record.FilePassRecord;
 import org.apache.poi.hssf.record.FontRecord;
 import org.apache.poi.hssf.record.FormatRecord;
+import org.apache.poi.hssf.record.IndexRecord;
 import org.apache.poi.hssf.record.LabelRecord;
 import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
 import org.apache.poi.hssf.record.NameRecord;
 import org.apache.poi.hssf.record.RecalcIdRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordFactory;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
 import org.apache.poi.hssf.record.SSTRecord;
 import org.apache.poi.hssf.record.UnknownRecord;
 import org.apache.poi.hssf.record.aggregates.RecordAggregate.RecordVisitor;
+import org.apache.poi.hssf.record.aggregates.ValueRecordsAggregate;
 import org.apache.poi.hssf.record.common.UnicodeString;
 import org.apache.poi.hssf.record.crypto.Biff8DecryptingStream;
 import org.apache.poi.hssf.record.crypto.Biff8EncryptionKey;
@@ -191,6 +199,16 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
      */
     private boolean preserveNodes;
 
+    /**
+     * holds whether the plain cell values of the sheets are kept in compact storage
+     */
+    private boolean compactCells;
+
+    /**
+     * holds whether {@link #write()} copies the unmodified sheets from the original stream
+     */
+    private boolean incrementalWrite;
+
     /**
      * Used to keep track of the data formatter so that all
      * createDataFormatter calls return the same one for a given
@@ -325,7 +343,35 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
      */
     public HSSFWorkbook(DirectoryNode directory, boolean preserveNodes)
             throws IOException {
+        this(directory, preserveNodes, false);
+    }
+
+    /**
+     * given a POI POIFSFileSystem object, and a specific directory
+     * within it, read in its Workbook and populate the high and
+     * low level models.<p>
+     *
+     * In compact mode, the number, string, blank, boolean and error cells of the sheets are
+     * kept in primitive arrays instead of a record per cell and the usermodel rows create their
+     * cells on first access. The cells are moved into these arrays while the records are read,
+     * so neither the peak nor the retained memory includes a record per cell. This reduces the
+     * memory footprint of large, mostly read workbooks. Consecutive numbers are written as
+     * MULRK records.
+     *
+     * @param directory     the POI filesystem directory to process from
+     * @param preserveNodes whether to preserve other nodes, such as
+     *                      macros.  This takes more memory, so only say yes if you
+     *                      need to. If set, will store all of the POIFSFileSystem
+     *                      in memory
+     * @param compactCells  whether to keep the plain cell values in compact storage
+     * @throws IOException if the stream cannot be read
+     * @see POIFSFileSystem
+     * @since POI 5.0.1
+     */
+    public HSSFWorkbook(DirectoryNode directory, boolean preserveNodes, boolean compactCells)
+            throws IOException {
         super(directory);
+        this.compactCells = compactCells;
         String workbookName = getWorkbookDirEntryName(directory);
 
         this.preserveNodes = preserveNodes;
@@ -343,7 +389,8 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         //  it happens to be spelled.
         InputStream stream = directory.createDocumentInputStream(workbookName);
 
-        List<Record> records = RecordFactory.createRecords(stream);
+        List<ValueRecordsAggregate> sheetCells = new ArrayList<>();
+        List<Record> records = compactCells ? readRecords(stream, sheetCells) : RecordFactory.createRecords(stream);
 
         workbook = InternalWorkbook.createWorkbook(records);
         setPropertiesFromWorkbook(workbook);
@@ -352,9 +399,13 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         // convert all LabelRecord records to LabelSSTRecord
         convertLabelRecords(records, recOffset);
         RecordStream rs = new RecordStream(records, recOffset);
-        while (rs.hasNext()) {
+        for (int substream = 0; rs.hasNext(); substream++) {
             try {
                 InternalSheet sheet = InternalSheet.createSheet(rs);
+                if (substream < sheetCells.size() && sheetCells.get(substream) != null) {
+                    sheet.getRowsAggregate().addCompactCells(sheetCells.get(substream));
+                    sheetCells.set(substream, null);
+                }
                 _sheets.add(new HSSFSheet(this, sheet));
             } catch (UnsupportedBOFType eb) {
                 // Hopefully there's a supported one after this!
@@ -362,6 +413,13 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
             }
         }
 
+        // remember the substream positions for the incremental write, unless sheets were skipped
+        if (workbook.getNumSheets() == _sheets.size()) {
+            for (int i = 0; i < _sheets.size(); i++) {
+                _sheets.get(i).setUnmodifiedBof(workbook.getSheetBof(i));
+            }
+        }
+
         for (int i = 0; i < workbook.getNumNames(); ++i) {
             NameRecord nameRecord = workbook.getNameRecord(i);
             HSSFName name = new HSSFName(this, nameRecord, workbook.getNameCommentRecord(nameRecord));
@@ -369,6 +427,56 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         }
     }
 
+    /**
+     * Reads the records like {@link RecordFactory#createRecords(InputStream)}, but moves the plain
+     * cell values of the worksheets straight into compact storage instead of the record list.
+     *
+     * @param stream the workbook stream
+     * @param sheetCells receives the compact cells of each sheet substream, {@code null} for
+     *                   substreams other than worksheets
+     */
+    private static List<Record> readRecords(InputStream stream, List<ValueRecordsAggregate> sheetCells) {
+        List<Record> records = new ArrayList<>(512);
+        RecordFactoryInputStream recStream = new RecordFactoryInputStream(stream, true);
+        ValueRecordsAggregate cells = null;
+        int bofDepth = 0;
+        boolean globals = true;
+
+        Record record;
+        while ((record = recStream.nextRecord()) != null) {
+            if (record instanceof BOFRecord) {
+                if (bofDepth++ == 0) {
+                    if (globals) {
+                        globals = false;
+                    } else {
+                        cells = (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) ? new ValueRecordsAggregate() : null;
+                        sheetCells.add(cells);
+                    }
+                }
+            } else if (record instanceof EOFRecord) {
+                bofDepth--;
+            } else if (bofDepth == 1 && cells != null) {
+                // the embedded chart substreams are skipped, as they have cell records for the series data
+                if (record instanceof CellValueRecordInterface && cells.insertCompactCell((CellValueRecordInterface) record)) {
+                    continue;
+                }
+                if (record instanceof MulBlankRecord) {
+                    MulBlankRecord mbr = (MulBlankRecord) record;
+                    for (int j = 0; j < mbr.getNumColumns(); j++) {
+                        BlankRecord br = new BlankRecord();
+                        br.setColumn((short) (j + mbr.getFirstColumn()));
+                        br.setRow(mbr.getRow());
+                        br.setXFIndex(mbr.getXFAt(j));
+                        cells.insertCompactCell(br);
+                    }
+                    continue;
+                }
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
     /**
      * Companion to HSSFWorkbook(POIFSFileSystem), this constructs the
      * POI filesystem around your {@link InputStream}, including all nodes.
@@ -493,6 +601,7 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
 
         FormulaShifter shifter = FormulaShifter.createForSheetShift(oldSheetIndex, pos);
         for (HSSFSheet sheet : _sheets) {
+            sheet.markModified();
             sheet.getSheet().updateFormulasAfterCellShift(shifter, /* not used */ -1);
         }
 
@@ -985,6 +1094,49 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         return _sheets.size();
     }
 
+    /**
+     * @return {@code true}, if the plain cell values of the sheets are kept in compact storage
+     *
+     * @see #HSSFWorkbook(DirectoryNode, boolean, boolean)
+     * @since POI 5.0.1
+     */
+    public boolean isCompactCells() {
+        return compactCells;
+    }
+
+    /**
+     * Enables or disables the incremental write.<p>
+     *
+     * If enabled, the sheets which haven't been modified since the workbook was opened
+     * or last written are copied byte-for-byte from the original workbook stream,
+     * instead of being serialized from their records. When writing in-place via {@link #write()},
+     * only the changed blocks of the workbook stream are rewritten, if its size is unchanged.<p>
+     *
+     * A sheet is considered modified, when its cells, rows or settings are changed through the usermodel,
+     * or when objects which can change its records are requested, e.g. the print setup, the header and footer,
+     * the drawing patriarch, its hyperlinks or the conditional formatting. Reading the sheet, e.g. for formula
+     * evaluation, leaves it unmodified. Of the changes made via the low level {@link HSSFSheet#getSheet()},
+     * only those of the cell and row records are noticed.
+     * The incremental write is not applied to encrypted workbooks.
+     *
+     * @param incrementalWrite {@code true} to copy the unmodified sheets on write
+     *
+     * @since POI 5.0.1
+     */
+    public void setIncrementalWrite(boolean incrementalWrite) {
+        this.incrementalWrite = incrementalWrite;
+    }
+
+    /**
+     * @return {@code true}, if the unmodified sheets are copied from the original stream on write
+     *
+     * @see #setIncrementalWrite(boolean)
+     * @since POI 5.0.1
+     */
+    public boolean isIncrementalWrite() {
+        return incrementalWrite;
+    }
+
     private HSSFSheet[] getSheets() {
         HSSFSheet[] result = new HSSFSheet[_sheets.size()];
         _sheets.toArray(result);
@@ -1310,7 +1462,18 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         DocumentNode workbookNode = (DocumentNode) dir.getEntry(
                 getWorkbookDirEntryName(dir));
         POIFSDocument workbookDoc = new POIFSDocument(workbookNode);
-        workbookDoc.replaceContents(new ByteArrayInputStream(getBytes()));
+        byte[] bytes = getBytes();
+        if (!incrementalWrite || !workbookDoc.updateContents(bytes)) {
+            workbookDoc.replaceContents(new ByteArrayInputStream(bytes));
+        }
+
+        // the untouched sheets can be copied from their new position by the next write
+        for (int k = 0; k < _sheets.size(); k++) {
+            HSSFSheet sheet = _sheets.get(k);
+            if (sheet.getUnmodifiedBof() != -1) {
+                sheet.setUnmodifiedBof(workbook.getSheetBof(k));
+            }
+        }
 
         // Update the properties streams in the file
         writeProperties();
@@ -1452,12 +1615,24 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
 
         updateEncryptionInfo();
 
+        // the unmodified sheets are copied from the previous workbook stream, if available
+        byte[] previous = getPreviousWorkbookStream();
+        int[] previousBofs = new int[nSheets];
+        int[] previousSizes = new int[nSheets];
+        for (int k = 0; k < nSheets; k++) {
+            int bof = (previous == null) ? -1 : sheets[k].getUnmodifiedBof();
+            previousBofs[k] = bof;
+            previousSizes[k] = (bof == -1) ? -1 : getSubstreamSize(previous, bof);
+        }
+
         // before getting the workbook size we must tell the sheets that
         // serialization is about to occur.
         workbook.preSerialize();
-        for (HSSFSheet sheet : sheets) {
-            sheet.getSheet().preSerialize();
-            sheet.preSerialize();
+        for (int k = 0; k < nSheets; k++) {
+            if (previousSizes[k] == -1) {
+                sheets[k].getSheet().preSerialize();
+                sheets[k].preSerialize();
+            }
         }
 
         int totalsize = workbook.getSize();
@@ -1466,6 +1641,10 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         SheetRecordCollector[] srCollectors = new SheetRecordCollector[nSheets];
         for (int k = 0; k < nSheets; k++) {
             workbook.setSheetBof(k, totalsize);
+            if (previousSizes[k] != -1) {
+                totalsize += previousSizes[k];
+                continue;
+            }
             SheetRecordCollector src = new SheetRecordCollector();
             sheets[k].getSheet().visitContainedRecords(src, totalsize);
             totalsize += src.getTotalSize();
@@ -1477,6 +1656,12 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
 
         for (int k = 0; k < nSheets; k++) {
             SheetRecordCollector src = srCollectors[k];
+            if (src == null) {
+                System.arraycopy(previous, previousBofs[k], retval, pos, previousSizes[k]);
+                updateIndexRecord(retval, pos, previousSizes[k], pos - previousBofs[k]);
+                pos += previousSizes[k];
+                continue;
+            }
             int serializedSize = src.serialize(pos, retval);
             if (serializedSize != src.getTotalSize()) {
                 // Wrong offset values have been passed in the call to setSheetBof() above.
@@ -1495,6 +1680,98 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         return retval;
     }
 
+    /**
+     * @return the unencrypted workbook stream of the underlying directory, if the unmodified sheets
+     *  can be copied from it, otherwise {@code null}
+     */
+    private byte[] getPreviousWorkbookStream() {
+        final DirectoryNode dir = getDirectory();
+        if (!incrementalWrite || dir == null || getEncryptionInfo() != null) {
+            return null;
+        }
+
+        final byte[] previous;
+        try (InputStream is = dir.createDocumentInputStream(getWorkbookDirEntryName(dir))) {
+            previous = IOUtils.toByteArray(is);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.atWarn().withThrowable(e).log("Can't read the previous workbook stream - serializing all sheets");
+            return null;
+        }
+
+        // the records of an encrypted stream can't be copied
+        for (int pos = 0; pos + 4 <= previous.length; ) {
+            final int sid = LittleEndian.getUShort(previous, pos);
+            if (sid == FilePassRecord.sid) {
+                return null;
+            }
+            if (sid == EOFRecord.sid) {
+                break;
+            }
+            pos += 4 + LittleEndian.getUShort(previous, pos + 2);
+        }
+        return previous;
+    }
+
+    /**
+     * @return the size of the substream starting with the BOF record at {@code bof}
+     *  including its EOF record, or -1 if there's no valid substream at that position
+     */
+    private static int getSubstreamSize(byte[] data, int bof) {
+        if (bof < 0 || bof + 4 > data.length || LittleEndian.getUShort(data, bof) != BOFRecord.sid) {
+            return -1;
+        }
+        int depth = 0;
+        for (int pos = bof; pos + 4 <= data.length; ) {
+            final int sid = LittleEndian.getUShort(data, pos);
+            pos += 4 + LittleEndian.getUShort(data, pos + 2);
+            if (pos > data.length) {
+                break;
+            }
+            if (sid == BOFRecord.sid) {
+                depth++;
+            } else if (sid == EOFRecord.sid && --depth == 0) {
+                return pos - bof;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adjusts the absolute stream offsets of the sheet INDEX record after the substream was moved
+     *
+     * @param data the workbook stream
+     * @param bof the offset of the sheet substream
+     * @param size the size of the sheet substream
+     * @param delta the distance, which the substream was moved by
+     */
+    private static void updateIndexRecord(byte[] data, int bof, int size, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        int depth = 0;
+        for (int pos = bof; pos < bof + size; ) {
+            final int sid = LittleEndian.getUShort(data, pos);
+            final int len = LittleEndian.getUShort(data, pos + 2);
+            if (sid == BOFRecord.sid) {
+                depth++;
+            } else if (sid == EOFRecord.sid) {
+                depth--;
+            } else if (sid == IndexRecord.sid && depth == 1 && len >= 16) {
+                // reserved(4), rwMic(4), rwMac(4), ibXF(4) and the offsets of the DBCELL records
+                final int data0 = pos + 4;
+                final int ibXF = LittleEndian.getInt(data, data0 + 12);
+                if (ibXF != 0) {
+                    LittleEndian.putInt(data, data0 + 12, ibXF + delta);
+                }
+                for (int i = data0 + 16; i + 4 <= data0 + len; i += 4) {
+                    LittleEndian.putInt(data, i, LittleEndian.getInt(data, i) + delta);
+                }
+                return;
+            }
+            pos += 4 + len;
+        }
+    }
+
     @SuppressWarnings("resource")
     void encryptBytes(byte[] buf) {
         EncryptionInfo ei = getEncryptionInfo();
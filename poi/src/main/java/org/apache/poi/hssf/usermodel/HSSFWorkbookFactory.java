@@ -20,6 +20,7 @@ package org.apache.poi.hssf.usermodel;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 
 import org.apache.poi.hssf.record.crypto.Biff8EncryptionKey;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
@@ -117,4 +118,27 @@ public class HSSFWorkbookFactory implements WorkbookProvider {
             }
         }
     }
+
+    @Override
+    public Workbook create(FileChannel channel, String password) throws IOException {
+        boolean passwordSet = false;
+        if (password != null) {
+            Biff8EncryptionKey.setCurrentUserPassword(password);
+            passwordSet = true;
+        }
+        try {
+            POIFSFileSystem fs = new POIFSFileSystem(channel, true);
+            try {
+                return new HSSFWorkbook(fs, true);
+            } catch (RuntimeException e) {
+                // the caller closes the channel, but the filesystem may hold mapped buffers
+                fs.close();
+                throw e;
+            }
+        } finally {
+            if (passwordSet) {
+                Biff8EncryptionKey.setCurrentUserPassword(null);
+            }
+        }
+    }
 }
@@ -65,4 +65,39 @@ public final class RKUtil {
 
         return rvalue;
     }
+
+    /**
+     * Encodes a number as RK number, if this is possible without loss of precision.
+     *
+     * @param value the number to encode
+     * @return the RK number in the lower 32 bits or {@code -1}, if the value can't be encoded
+     *
+     * @since POI 5.0.1
+     */
+    public static long encodeNumber(double value) {
+        long rk = encodeUnscaled(value);
+        if (rk != -1) {
+            return rk;
+        }
+        // the same with the value multiplied by 100, as long as the division gives back the same value
+        rk = encodeUnscaled(value * 100);
+        if (rk != -1 && decodeNumber((int)(rk | 0x01)) == value) {
+            return rk | 0x01;
+        }
+        return -1;
+    }
+
+    private static long encodeUnscaled(double value) {
+        // a signed 30 bit integer
+        if (value >= -(1 << 29) && value < (1 << 29) && value == (int)value
+            && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0.0)) {
+            return ((((int)value) << 2) | 0x02) & 0xFFFFFFFFL;
+        }
+        // a double, whose lower 34 bits are zero
+        long bits = Double.doubleToRawLongBits(value);
+        if ((bits & 0x3FFFFFFFFL) == 0) {
+            return bits >>> 32;
+        }
+        return -1;
+    }
 }
@@ -36,6 +36,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.EncryptedDocumentException;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSStreamingWriter.StreamingDirectory;
 import org.apache.poi.poifs.filesystem.POIFSWriterEvent;
 import org.apache.poi.poifs.filesystem.POIFSWriterListener;
 import org.apache.poi.util.IOUtils;
@@ -59,6 +61,7 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
     private final SparseBitSet plainByteFlags;
     private final File fileOut;
     private final DirectoryNode dir;
+    private final StreamingDirectory streamingDir;
 
     private long pos;
     private long totalPos;
@@ -70,6 +73,23 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
     private boolean isClosed;
 
     public ChunkedCipherOutputStream(DirectoryNode dir, int chunkSize) throws IOException, GeneralSecurityException {
+        this(dir, null, chunkSize);
+    }
+
+    /**
+     * Creates a cipher stream, which writes the EncryptedPackage entry into a streaming OLE2 writer
+     *
+     * @param dir the streaming directory receiving the encrypted entries
+     * @param chunkSize the chunk size
+     *
+     * @since POI 5.0.1
+     */
+    public ChunkedCipherOutputStream(StreamingDirectory dir, int chunkSize) throws IOException, GeneralSecurityException {
+        this(null, dir, chunkSize);
+    }
+
+    private ChunkedCipherOutputStream(DirectoryNode dir, StreamingDirectory streamingDir, int chunkSize)
+    throws IOException, GeneralSecurityException {
         super(null);
         this.chunkSize = chunkSize;
         int cs = chunkSize == STREAMING ? 4096 : chunkSize;
@@ -80,6 +100,7 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
         this.fileOut.deleteOnExit();
         this.out = new FileOutputStream(fileOut);
         this.dir = dir;
+        this.streamingDir = streamingDir;
         this.cipher = initCipherForBlock(null, 0, false);
     }
 
@@ -92,6 +113,7 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
         this.chunkBits = Integer.bitCount(cs-1);
         this.fileOut = null;
         this.dir = null;
+        this.streamingDir = null;
         this.cipher = initCipherForBlock(null, 0, false);
     }
 
@@ -115,6 +137,21 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
     protected abstract void createEncryptionInfoEntry(DirectoryNode dir, File tmpFile)
     throws IOException, GeneralSecurityException;
 
+    /**
+     * Called with the encrypted data, while it's copied from the temp file into the EncryptedPackage
+     * entry, i.e. after {@link #calculateChecksum(File, int)} and before
+     * {@link #createEncryptionInfoEntry(DirectoryNode, File)}.  This allows checksums over the encrypted
+     * data without reading the temp file again.  The default implementation does nothing.
+     *
+     * @param encrypted the buffer with the encrypted data
+     * @param off the offset of the data
+     * @param len the length of the data
+     *
+     * @since POI 5.0.1
+     */
+    protected void updateChecksum(byte[] encrypted, int off, int len) {
+    }
+
     @Override
     public void write(int b) throws IOException {
         write(new byte[]{(byte)b});
@@ -271,8 +308,19 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
             if (fileOut != null) {
                 int oleStreamSize = (int)(fileOut.length()+LittleEndianConsts.LONG_SIZE);
                 calculateChecksum(fileOut, (int)pos);
-                dir.createDocument(DEFAULT_POIFS_ENTRY, oleStreamSize, new EncryptedPackageWriter());
-                createEncryptionInfoEntry(dir, fileOut);
+                if (streamingDir == null) {
+                    dir.createDocument(DEFAULT_POIFS_ENTRY, oleStreamSize, new EncryptedPackageWriter());
+                    createEncryptionInfoEntry(dir, fileOut);
+                } else {
+                    try (OutputStream os = streamingDir.createDocument(DEFAULT_POIFS_ENTRY)) {
+                        writeEncryptedPackage(os);
+                    }
+                    // the encryption info entries are small, so they are prepared in memory and copied afterwards
+                    try (POIFSFileSystem fs = new POIFSFileSystem()) {
+                        createEncryptionInfoEntry(fs.getRoot(), fileOut);
+                        streamingDir.copyFrom(fs.getRoot());
+                    }
+                }
             }
         } catch (GeneralSecurityException e) {
             throw new IOException(e);
@@ -305,27 +353,34 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
     public void setNextRecordSize(int recordSize, boolean isPlain) {
     }
     
+    private void writeEncryptedPackage(OutputStream os) throws IOException {
+        try (FileInputStream fis = new FileInputStream(fileOut)) {
+            // StreamSize (8 bytes): An unsigned integer that specifies the number of bytes used by data
+            // encrypted within the EncryptedData field, not including the size of the StreamSize field.
+            // Note that the actual size of the \EncryptedPackage stream (1) can be larger than this
+            // value, depending on the block size of the chosen encryption algorithm
+            byte[] buf = new byte[LittleEndianConsts.LONG_SIZE];
+            LittleEndian.putLong(buf, 0, pos);
+            os.write(buf);
+
+            byte[] copyBuf = new byte[chunk.length];
+            int readBytes;
+            while ((readBytes = fis.read(copyBuf)) != -1) {
+                os.write(copyBuf, 0, readBytes);
+                updateChecksum(copyBuf, 0, readBytes);
+            }
+        }
+
+        if (!fileOut.delete()) {
+            LOG.atError().log("Can't delete temporary encryption file: {}", fileOut);
+        }
+    }
+
     private class EncryptedPackageWriter implements POIFSWriterListener {
         @Override
         public void processPOIFSWriterEvent(POIFSWriterEvent event) {
-            try {
-                try (OutputStream os = event.getStream();
-                     FileInputStream fis = new FileInputStream(fileOut)) {
-
-                    // StreamSize (8 bytes): An unsigned integer that specifies the number of bytes used by data
-                    // encrypted within the EncryptedData field, not including the size of the StreamSize field.
-                    // Note that the actual size of the \EncryptedPackage stream (1) can be larger than this
-                    // value, depending on the block size of the chosen encryption algorithm
-                    byte[] buf = new byte[LittleEndianConsts.LONG_SIZE];
-                    LittleEndian.putLong(buf, 0, pos);
-                    os.write(buf);
-
-                    IOUtils.copy(fis, os);
-                }
-
-                if (!fileOut.delete()) {
-                    LOG.atError().log("Can't delete temporary encryption file: {}", fileOut);
-                }
+            try (OutputStream os = event.getStream()) {
+                writeEncryptedPackage(os);
             } catch (IOException e) {
                 throw new EncryptedDocumentException(e);
             }
@@ -25,7 +25,10 @@ import java.security.Provider;
 import java.security.Security;
 import java.security.spec.AlgorithmParameterSpec;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.crypto.Cipher;
 import javax.crypto.Mac;
@@ -49,9 +52,62 @@ public final class CryptoFunctions {
     //arbitrarily selected; may need to increase
     private static final int MAX_RECORD_LENGTH = 100_000;
 
+    /** max. number of derived password hashes kept in memory, 0 disables the cache */
+    private static volatile int PASSWORD_HASH_CACHE_SIZE = 0;
+
+    private static final Map<PasswordHashKey, byte[]> PASSWORD_HASH_CACHE =
+        new LinkedHashMap<PasswordHashKey, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PasswordHashKey, byte[]> eldest) {
+                return size() > PASSWORD_HASH_CACHE_SIZE;
+            }
+        };
+
     private CryptoFunctions() {
     }
 
+    /**
+     * Sets the number of derived password hashes, which are kept in memory.<p>
+     *
+     * Deriving the hash of a password takes as many hash iterations as the spin count of the document,
+     * i.e. usually 100,000.  Applications which open the same documents repeatedly or try several
+     * passwords on the same documents can enable this cache to avoid deriving the same hash again.
+     * The entries are keyed by the initial (salted) hash of the password, so plain text passwords are
+     * never stored, but the cached hashes are sufficient to decrypt the documents.  Therefore the
+     * cache is disabled by default.
+     *
+     * @param size the max. number of cached hashes, 0 (the default) disables the cache
+     *
+     * @since POI 5.0.1
+     */
+    public static void setPasswordHashCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative, but had " + size);
+        }
+        synchronized (PASSWORD_HASH_CACHE) {
+            PASSWORD_HASH_CACHE_SIZE = size;
+            if (size == 0) {
+                PASSWORD_HASH_CACHE.clear();
+            } else {
+                // drop the least recently used hashes
+                Iterator<PasswordHashKey> iter = PASSWORD_HASH_CACHE.keySet().iterator();
+                while (PASSWORD_HASH_CACHE.size() > size) {
+                    iter.next();
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the max. number of cached password hashes, 0 if the cache is disabled
+     *
+     * @since POI 5.0.1
+     */
+    public static int getPasswordHashCacheSize() {
+        return PASSWORD_HASH_CACHE_SIZE;
+    }
+
     /**
      * <p><cite>2.3.4.7 ECMA-376 Document Encryption Key Generation (Standard Encryption)<br>
      * 2.3.4.11 Encryption Key Generation (Agile Encryption)</cite></p>
@@ -115,6 +171,19 @@ public final class CryptoFunctions {
 
         hashAlg.update(salt);
         byte[] hash = hashAlg.digest(StringUtil.getToUnicodeLE(password));
+
+        PasswordHashKey key = null;
+        if (PASSWORD_HASH_CACHE_SIZE > 0) {
+            key = new PasswordHashKey(hashAlgorithm, hash, spinCount, iteratorFirst);
+            byte[] cached;
+            synchronized (PASSWORD_HASH_CACHE) {
+                cached = PASSWORD_HASH_CACHE.get(key);
+            }
+            if (cached != null) {
+                return cached.clone();
+            }
+        }
+
         byte[] iterator = new byte[LittleEndianConsts.INT_SIZE];
 
         byte[] first = (iteratorFirst ? iterator : hash);
@@ -123,18 +192,53 @@ public final class CryptoFunctions {
         try {
             for (int i = 0; i < spinCount; i++) {
                 LittleEndian.putInt(iterator, 0, i);
-                hashAlg.reset();
+                // digest() resets the digest, and writes into the existing hash buffer
                 hashAlg.update(first);
                 hashAlg.update(second);
-                hashAlg.digest(hash, 0, hash.length); // don't create hash buffer everytime new
+                hashAlg.digest(hash, 0, hash.length);
             }
         } catch (DigestException e) {
             throw new EncryptedDocumentException("error in password hashing");
         }
 
+        if (key != null) {
+            synchronized (PASSWORD_HASH_CACHE) {
+                PASSWORD_HASH_CACHE.put(key, hash.clone());
+            }
+        }
+
         return hash;
     }
 
+    private static final class PasswordHashKey {
+        private final HashAlgorithm hashAlgorithm;
+        private final byte[] initialHash;
+        private final int spinCount;
+        private final boolean iteratorFirst;
+
+        PasswordHashKey(HashAlgorithm hashAlgorithm, byte[] initialHash, int spinCount, boolean iteratorFirst) {
+            this.hashAlgorithm = hashAlgorithm;
+            this.initialHash = initialHash.clone();
+            this.spinCount = spinCount;
+            this.iteratorFirst = iteratorFirst;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PasswordHashKey)) {
+                return false;
+            }
+            PasswordHashKey other = (PasswordHashKey)o;
+            return hashAlgorithm == other.hashAlgorithm && spinCount == other.spinCount
+                && iteratorFirst == other.iteratorFirst && Arrays.equals(initialHash, other.initialHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(initialHash) ^ spinCount;
+        }
+    }
+
     /**
      * <p><cite>2.3.4.12 Initialization Vector Generation (Agile Encryption)</cite></p>
      *
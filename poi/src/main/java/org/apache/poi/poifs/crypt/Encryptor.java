@@ -28,6 +28,7 @@ import org.apache.poi.EncryptedDocumentException;
 import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSStreamingWriter.StreamingDirectory;
 import org.apache.poi.util.GenericRecordUtil;
 
 public abstract class Encryptor implements GenericRecord {
@@ -65,6 +66,20 @@ public abstract class Encryptor implements GenericRecord {
         return getDataStream(fs.getRoot());
     }
 
+    /**
+     * Return a output stream for encrypted data, which is written into a streaming OLE2 writer.
+     * The encrypted package is copied from the temp file of the cipher stream into the writer,
+     * i.e. no in-memory file system is needed for it.
+     *
+     * @param dir the streaming directory to write to
+     * @return encrypted stream
+     *
+     * @since POI 5.0.1
+     */
+    public OutputStream getDataStream(StreamingDirectory dir) throws IOException, GeneralSecurityException {
+        throw new EncryptedDocumentException("this encryptor doesn't support writing to a streaming directory");
+    }
+
     public ChunkedCipherOutputStream getDataStream(OutputStream stream, int initialOffset)
     throws IOException, GeneralSecurityException {
         throw new EncryptedDocumentException("this decryptor doesn't support writing directly to a stream");
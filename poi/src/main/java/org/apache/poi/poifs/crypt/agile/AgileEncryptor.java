@@ -58,6 +58,7 @@ import org.apache.poi.poifs.crypt.EncryptionInfo;
 import org.apache.poi.poifs.crypt.Encryptor;
 import org.apache.poi.poifs.crypt.HashAlgorithm;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.POIFSStreamingWriter.StreamingDirectory;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.LittleEndian;
 import org.apache.poi.util.LittleEndianByteArrayOutputStream;
@@ -213,6 +214,12 @@ public class AgileEncryptor extends Encryptor {
         return new AgileCipherOutputStream(dir);
     }
 
+    @Override
+    public OutputStream getDataStream(StreamingDirectory dir)
+            throws IOException, GeneralSecurityException {
+        return new AgileCipherOutputStream(dir);
+    }
+
     /**
      * Generate an HMAC, as specified in [RFC2104], of the encrypted form of the data (message),
      * which the DataIntegrity element will verify by using the Salt generated in step 2 as the key.
@@ -223,6 +230,23 @@ public class AgileEncryptor extends Encryptor {
      * 0xa0, 0x67, 0x7f, 0x02, 0xb2, 0x2c, 0x84, and 0x33.
      **/
     protected void updateIntegrityHMAC(File tmpFile, int oleStreamSize) throws GeneralSecurityException, IOException {
+        Mac integrityMD = initIntegrityHMAC(oleStreamSize);
+
+        byte[] buf = new byte[1024];
+        try (InputStream fis = new FileInputStream(tmpFile)) {
+            int readBytes;
+            while ((readBytes = fis.read(buf)) != -1) {
+                integrityMD.update(buf, 0, readBytes);
+            }
+        }
+
+        finishIntegrityHMAC(integrityMD);
+    }
+
+    /**
+     * @return the integrity hmac, initialized with the StreamSize field of the EncryptedPackage stream
+     */
+    private Mac initIntegrityHMAC(long oleStreamSize) throws GeneralSecurityException {
         // as the integrity hmac needs to contain the StreamSize,
         // it's not possible to calculate it on-the-fly while buffering
         // TODO: add stream size parameter to getDataStream()
@@ -233,16 +257,18 @@ public class AgileEncryptor extends Encryptor {
         byte[] hmacKey = getBlock0(this.integritySalt, getNextBlockSize(this.integritySalt.length, blockSize));
         integrityMD.init(new SecretKeySpec(hmacKey, hashAlgo.jceHmacId));
 
-        byte[] buf = new byte[1024];
+        byte[] buf = new byte[LittleEndianConsts.LONG_SIZE];
         LittleEndian.putLong(buf, 0, oleStreamSize);
         integrityMD.update(buf, 0, LittleEndianConsts.LONG_SIZE);
+        return integrityMD;
+    }
 
-        try (InputStream fis = new FileInputStream(tmpFile)) {
-            int readBytes;
-            while ((readBytes = fis.read(buf)) != -1) {
-                integrityMD.update(buf, 0, readBytes);
-            }
-        }
+    /**
+     * Encrypts the hmac value of the EncryptedPackage stream and stores it in the header
+     */
+    private void finishIntegrityHMAC(Mac integrityMD) throws GeneralSecurityException {
+        AgileEncryptionHeader header = (AgileEncryptionHeader)getEncryptionInfo().getHeader();
+        int blockSize = header.getBlockSize();
 
         byte[] hmacValue = integrityMD.doFinal();
         byte[] hmacValueFilled = getBlock0(hmacValue, getNextBlockSize(hmacValue.length, blockSize));
@@ -342,10 +368,16 @@ public class AgileEncryptor extends Encryptor {
      * unencrypted data as specified in section 2.3.4.4.
      */
     private class AgileCipherOutputStream extends ChunkedCipherOutputStream {
+        private Mac integrityMD;
+
         public AgileCipherOutputStream(DirectoryNode dir) throws IOException, GeneralSecurityException {
             super(dir, 4096);
         }
 
+        public AgileCipherOutputStream(StreamingDirectory dir) throws IOException, GeneralSecurityException {
+            super(dir, 4096);
+        }
+
         @Override
         protected Cipher initCipherForBlock(Cipher existing, int block, boolean lastChunk)
         throws GeneralSecurityException {
@@ -354,14 +386,21 @@ public class AgileEncryptor extends Encryptor {
 
         @Override
         protected void calculateChecksum(File fileOut, int oleStreamSize)
-        throws GeneralSecurityException, IOException {
-            // integrityHMAC needs to be updated before the encryption document is created
-            updateIntegrityHMAC(fileOut, oleStreamSize);
+        throws GeneralSecurityException {
+            // the encrypted data is added in updateChecksum(), while it's copied into the EncryptedPackage entry
+            integrityMD = initIntegrityHMAC(oleStreamSize);
+        }
+
+        @Override
+        protected void updateChecksum(byte[] encrypted, int off, int len) {
+            integrityMD.update(encrypted, off, len);
         }
 
         @Override
         protected void createEncryptionInfoEntry(DirectoryNode dir, File tmpFile)
-        throws IOException {
+        throws IOException, GeneralSecurityException {
+            // integrityHMAC needs to be updated before the encryption document is created
+            finishIntegrityHMAC(integrityMD);
             DataSpaceMapUtils.addDefaultDataSpace(dir);
             createEncryptionEntry(dir, ENCRYPTION_INFO_ENTRY, this::marshallEncryptionRecord);
         }
@@ -45,6 +45,8 @@ import org.apache.poi.poifs.crypt.EncryptionInfo;
 import org.apache.poi.poifs.crypt.EncryptionVerifier;
 import org.apache.poi.poifs.crypt.Encryptor;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSStreamingWriter.StreamingDirectory;
 import org.apache.poi.poifs.filesystem.POIFSWriterEvent;
 import org.apache.poi.poifs.filesystem.POIFSWriterListener;
 import org.apache.poi.util.IOUtils;
@@ -125,13 +127,26 @@ public class StandardEncryptor extends Encryptor {
         return new StandardCipherOutputStream(dir);
     }
 
+    @Override
+    public OutputStream getDataStream(final StreamingDirectory dir)
+    throws IOException, GeneralSecurityException {
+        // the encryption info entries are small, so they are prepared in memory and copied upfront
+        try (POIFSFileSystem fs = new POIFSFileSystem()) {
+            createEncryptionInfoEntry(fs.getRoot());
+            DataSpaceMapUtils.addDefaultDataSpace(fs.getRoot());
+            dir.copyFrom(fs.getRoot());
+        }
+        return new StandardCipherOutputStream(null, dir, TempFile.createTempFile("encrypted_package", "crypt"));
+    }
+
     protected class StandardCipherOutputStream extends FilterOutputStream implements POIFSWriterListener {
         protected long countBytes;
         protected final File fileOut;
         protected final DirectoryNode dir;
+        private final StreamingDirectory streamingDir;
 
         @SuppressWarnings({"resource", "squid:S2095"})
-        private StandardCipherOutputStream(DirectoryNode dir, File fileOut) throws IOException {
+        private StandardCipherOutputStream(DirectoryNode dir, StreamingDirectory streamingDir, File fileOut) throws IOException {
             // although not documented, we need the same padding as with agile encryption
             // and instead of calculating the missing bytes for the block size ourselves
             // we leave it up to the CipherOutputStream, which generates/saves them on close()
@@ -147,10 +162,11 @@ public class StandardEncryptor extends Encryptor {
             );
             this.fileOut = fileOut;
             this.dir = dir;
+            this.streamingDir = streamingDir;
         }
 
         protected StandardCipherOutputStream(DirectoryNode dir) throws IOException {
-            this(dir, TempFile.createTempFile("encrypted_package", "crypt"));
+            this(dir, null, TempFile.createTempFile("encrypted_package", "crypt"));
         }
 
         @Override
@@ -173,6 +189,12 @@ public class StandardEncryptor extends Encryptor {
         }
 
         void writeToPOIFS() throws IOException {
+            if (streamingDir != null) {
+                try (OutputStream os = streamingDir.createDocument(DEFAULT_POIFS_ENTRY)) {
+                    writeEncryptedPackage(os);
+                }
+                return;
+            }
             int oleStreamSize = (int)(fileOut.length()+LittleEndianConsts.LONG_SIZE);
             dir.createDocument(DEFAULT_POIFS_ENTRY, oleStreamSize, this);
             // TODO: any properties???
@@ -180,25 +202,27 @@ public class StandardEncryptor extends Encryptor {
 
         @Override
         public void processPOIFSWriterEvent(POIFSWriterEvent event) {
-            try {
-                LittleEndianOutputStream leos = new LittleEndianOutputStream(event.getStream());
+            try (OutputStream os = event.getStream()) {
+                writeEncryptedPackage(os);
+            } catch (IOException e) {
+                throw new EncryptedDocumentException(e);
+            }
+        }
 
-                // StreamSize (8 bytes): An unsigned integer that specifies the number of bytes used by data
-                // encrypted within the EncryptedData field, not including the size of the StreamSize field.
-                // Note that the actual size of the \EncryptedPackage stream (1) can be larger than this
-                // value, depending on the block size of the chosen encryption algorithm
-                leos.writeLong(countBytes);
+        private void writeEncryptedPackage(OutputStream os) throws IOException {
+            LittleEndianOutputStream leos = new LittleEndianOutputStream(os);
 
-                try (FileInputStream fis = new FileInputStream(fileOut)) {
-                    IOUtils.copy(fis, leos);
-                }
-                if (!fileOut.delete()) {
-                    LOG.atError().log("Can't delete temporary encryption file: {}", fileOut);
-                }
+            // StreamSize (8 bytes): An unsigned integer that specifies the number of bytes used by data
+            // encrypted within the EncryptedData field, not including the size of the StreamSize field.
+            // Note that the actual size of the \EncryptedPackage stream (1) can be larger than this
+            // value, depending on the block size of the chosen encryption algorithm
+            leos.writeLong(countBytes);
 
-                leos.close();
-            } catch (IOException e) {
-                throw new EncryptedDocumentException(e);
+            try (FileInputStream fis = new FileInputStream(fileOut)) {
+                IOUtils.copy(fis, leos);
+            }
+            if (!fileOut.delete()) {
+                LOG.atError().log("Can't delete temporary encryption file: {}", fileOut);
             }
         }
     }
@@ -22,6 +22,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 
 import org.apache.poi.poifs.storage.HeaderBlockConstants;
@@ -187,6 +189,32 @@ public enum FileMagic {
     }
 
 
+    /**
+     * Get the file magic of the supplied {@link FileChannel}.<p>
+     *
+     * The bytes are read from the start of the channel, without changing its position,
+     * so the channel can be handed over to {@link POIFSFileSystem#POIFSFileSystem(FileChannel)}
+     * or another channel based reader afterwards.
+     *
+     * @param channel a channel to be identified
+     *
+     * @since POI 5.0.1
+     */
+    public static FileMagic valueOf(final FileChannel channel) throws IOException {
+        final ByteBuffer bb = ByteBuffer.allocate(MAX_PATTERN_LENGTH);
+        while (bb.hasRemaining()) {
+            if (channel.read(bb, bb.position()) == -1) {
+                break;
+            }
+        }
+        if (bb.position() == 0) {
+            return FileMagic.UNKNOWN;
+        }
+
+        // only use the bytes that could be read
+        return FileMagic.valueOf(Arrays.copyOf(bb.array(), bb.position()));
+    }
+
     /**
      * Get the file magic of the supplied InputStream (which MUST
      *  support mark and reset).<p>
@@ -197,6 +197,43 @@ public final class POIFSDocument implements POIFSViewable, Iterable<ByteBuffer>
        _property.updateSize(size);
    }
 
+   /**
+    * Overwrites the contents of this document in place, if the new contents have the same size.
+    * Only the blocks, whose data differs, are written - so the unchanged parts of a file backed
+    * filesystem aren't touched.
+    *
+    * @param contents the new contents
+    * @return {@code true} if the contents were updated, {@code false} if the size differs and
+    *  {@link #replaceContents(InputStream)} needs to be used instead
+    * @throws IOException if the blocks can't be read
+    *
+    * @since POI 5.0.1
+    */
+   public boolean updateContents(byte[] contents) throws IOException {
+       if (contents.length != getSize()) {
+           return false;
+       }
+       int offset = 0;
+       for (ByteBuffer block : this) {
+           if (offset >= contents.length) {
+               break;
+           }
+           final int length = Math.min(_block_size, contents.length - offset);
+           final int start = block.position();
+           for (int i = 0; i < length; i++) {
+               if (block.get(start + i) != contents[offset + i]) {
+                   // write the rest of the block, starting with the first difference
+                   ByteBuffer dst = block.duplicate();
+                   dst.position(start + i);
+                   dst.put(contents, offset + i, length - i);
+                   break;
+               }
+           }
+           offset += length;
+       }
+       return true;
+   }
+
    /**
     * @return the instance's DocumentProperty
     */
@@ -0,0 +1,481 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.filesystem;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.hpsf.ClassID;
+import org.apache.poi.poifs.common.POIFSBigBlockSize;
+import org.apache.poi.poifs.common.POIFSConstants;
+import org.apache.poi.poifs.property.DirectoryProperty;
+import org.apache.poi.poifs.property.DocumentProperty;
+import org.apache.poi.poifs.property.Property;
+import org.apache.poi.poifs.property.PropertyTable;
+import org.apache.poi.poifs.storage.HeaderBlock;
+import org.apache.poi.poifs.storage.HeaderBlockConstants;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.IntList;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.util.LittleEndianConsts;
+import org.apache.poi.util.TempFile;
+
+/**
+ * Write-once builder for OLE2 files, which doesn't keep the documents in memory.<p>
+ *
+ * In contrast to {@link POIFSFileSystem}, documents can't be read or modified after they have
+ * been added.  Their data is spilled into a temp block store, which is copied to the output
+ * when the writer is {@link #close() closed}, preceded by the header and followed by the
+ * mini stream allocation table, the property table and the block allocation tables.
+ * So the output is written in a single sequential pass and the memory usage only depends
+ * on the number of entries and blocks, but not on the size of the documents.<p>
+ *
+ * Only one document can be written at a time, i.e. the stream of a document needs to be
+ * closed before the next entry is created.  If the writer isn't closed properly, e.g.
+ * because of an exception, the output is incomplete.<p>
+ *
+ * Example:
+ * <pre>
+ * try (POIFSStreamingWriter writer = new POIFSStreamingWriter(out)) {
+ *     writer.getRoot().createDocument("Workbook", workbookStream);
+ *     try (OutputStream os = writer.getRoot().createDirectory("Data").createDocument("Values")) {
+ *         // write the values
+ *     }
+ * }
+ * </pre>
+ *
+ * @since POI 5.0.1
+ */
+public final class POIFSStreamingWriter implements Closeable {
+    private static final Logger LOG = LogManager.getLogger(POIFSStreamingWriter.class);
+
+    private static final POIFSBigBlockSize BIG_BLOCK_SIZE = POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS;
+    private static final int BLOCK_SIZE = BIG_BLOCK_SIZE.getBigBlockSize();
+    private static final int SMALL_BLOCK_SIZE = POIFSConstants.SMALL_BLOCK_SIZE;
+    private static final int ENTRIES_PER_BLOCK = BLOCK_SIZE / LittleEndianConsts.INT_SIZE;
+
+    private final OutputStream _out;
+    private final File _blockStore;
+    private final OutputStream _blockStoreOut;
+    private final PropertyTable _propertyTable;
+    // the properties in the order of the property table
+    private final List<Property> _properties = new ArrayList<>();
+    private final StreamingDirectory _root;
+
+    /** the big documents, each is a contiguous range of blocks: start block, block count */
+    private final IntList _bigChains = new IntList();
+    /** the small documents, each is a contiguous range of mini blocks: start mini block, mini block count */
+    private final IntList _smallChains = new IntList();
+    /** the big blocks which make up the mini stream */
+    private final IntList _miniStreamBlocks = new IntList();
+    /** the current, partially filled big block of the mini stream */
+    private final byte[] _miniStreamBlock = new byte[BLOCK_SIZE];
+    private int _miniStreamBlockUsed;
+    private int _miniBlockCount;
+    private int _dataBlockCount;
+
+    private DocumentStream _openDocument;
+    private boolean _closed;
+
+    /**
+     * @param out the stream receiving the OLE2 file, which is not closed by this writer
+     */
+    public POIFSStreamingWriter(OutputStream out) throws IOException {
+        _out = out;
+        _blockStore = TempFile.createTempFile("poifs-stream", ".tmp");
+        _blockStoreOut = new BufferedOutputStream(new FileOutputStream(_blockStore));
+        HeaderBlock header = new HeaderBlock(BIG_BLOCK_SIZE);
+        _propertyTable = new PropertyTable(header);
+        _properties.add(_propertyTable.getRoot());
+        _root = new StreamingDirectory(_propertyTable.getRoot());
+    }
+
+    /**
+     * @return the root directory of the file
+     */
+    public StreamingDirectory getRoot() {
+        return _root;
+    }
+
+    /**
+     * A directory of the OLE2 file, which can only receive new entries
+     */
+    public final class StreamingDirectory {
+        private final DirectoryProperty _property;
+
+        private StreamingDirectory(DirectoryProperty property) {
+            _property = property;
+        }
+
+        /**
+         * @return the name of this directory
+         */
+        public String getName() {
+            return _property.getName();
+        }
+
+        /**
+         * Sets the storage clsid of this directory
+         */
+        public void setStorageClsid(ClassID clsid) {
+            _property.setStorageClsid(clsid);
+        }
+
+        /**
+         * Creates a sub directory
+         *
+         * @param name the name of the new directory
+         * @return the new directory
+         * @throws IOException if an entry with the same name already exists
+         */
+        public StreamingDirectory createDirectory(String name) throws IOException {
+            checkWritable();
+            DirectoryProperty property = new DirectoryProperty(name);
+            addProperty(property);
+            return new StreamingDirectory(property);
+        }
+
+        /**
+         * Creates a document, whose content is written to the returned stream.
+         * The document is added when the stream is closed.
+         *
+         * @param name the name of the new document
+         * @return the stream for the document data
+         */
+        public OutputStream createDocument(String name) throws IOException {
+            checkWritable();
+            _openDocument = new DocumentStream(this, name);
+            return _openDocument;
+        }
+
+        /**
+         * Creates a document with the content of the given stream, which is read until its end
+         *
+         * @param name the name of the new document
+         * @param stream the document data, which is not closed
+         */
+        public void createDocument(String name, InputStream stream) throws IOException {
+            try (OutputStream os = createDocument(name)) {
+                IOUtils.copy(stream, os);
+            }
+        }
+
+        /**
+         * Copies the entries of the given directory recursively into this directory
+         *
+         * @param source the directory to copy
+         */
+        public void copyFrom(DirectoryEntry source) throws IOException {
+            if (source.getStorageClsid() != null) {
+                setStorageClsid(source.getStorageClsid());
+            }
+            for (Iterator<Entry> iter = source.getEntries(); iter.hasNext(); ) {
+                Entry entry = iter.next();
+                if (entry.isDirectoryEntry()) {
+                    createDirectory(entry.getName()).copyFrom((DirectoryEntry)entry);
+                } else if (entry.isDocumentEntry()) {
+                    try (InputStream is = new DocumentInputStream((DocumentEntry)entry)) {
+                        createDocument(entry.getName(), is);
+                    }
+                }
+            }
+        }
+
+        private void addProperty(Property property) throws IOException {
+            _property.addChild(property);
+            _propertyTable.addProperty(property);
+            _properties.add(property);
+        }
+    }
+
+    private void checkWritable() {
+        if (_closed) {
+            throw new IllegalStateException("The writer has already been closed");
+        }
+        if (_openDocument != null) {
+            throw new IllegalStateException("The document '" + _openDocument._name + "' needs to be closed first");
+        }
+    }
+
+    /**
+     * Buffers the data of a document until it's known whether it's stored in the mini stream,
+     * afterwards it's written directly to the block store.
+     */
+    private final class DocumentStream extends OutputStream {
+        private final StreamingDirectory _parent;
+        private final String _name;
+        private final byte[] _smallBuffer = new byte[POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE];
+        private long _size;
+        private int _startBlock = POIFSConstants.END_OF_CHAIN;
+        private boolean _streamClosed;
+
+        DocumentStream(StreamingDirectory parent, String name) {
+            _parent = parent;
+            _name = name;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{ (byte)b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (_streamClosed) {
+                throw new IOException("The document '" + _name + "' has already been closed");
+            }
+            if (_size + len > Integer.MAX_VALUE) {
+                throw new IOException("The document '" + _name + "' is too large");
+            }
+            if (_startBlock == POIFSConstants.END_OF_CHAIN) {
+                int buffered = (int)Math.min(len, _smallBuffer.length - _size);
+                System.arraycopy(b, off, _smallBuffer, (int)_size, buffered);
+                _size += buffered;
+                off += buffered;
+                len -= buffered;
+                if (_size < _smallBuffer.length) {
+                    return;
+                }
+                // too large for the mini stream
+                _startBlock = _dataBlockCount;
+                _blockStoreOut.write(_smallBuffer);
+            }
+            _blockStoreOut.write(b, off, len);
+            _size += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (_streamClosed) {
+                return;
+            }
+            _streamClosed = true;
+            _openDocument = null;
+
+            int size = (int)_size;
+            DocumentProperty property = new DocumentProperty(_name, size);
+            if (_startBlock != POIFSConstants.END_OF_CHAIN) {
+                int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+                int padding = blocks * BLOCK_SIZE - size;
+                _blockStoreOut.write(new byte[padding]);
+                _bigChains.add(_startBlock);
+                _bigChains.add(blocks);
+                _dataBlockCount += blocks;
+                property.setStartBlock(_startBlock);
+            } else if (size > 0) {
+                int miniBlocks = (size + SMALL_BLOCK_SIZE - 1) / SMALL_BLOCK_SIZE;
+                _smallChains.add(_miniBlockCount);
+                _smallChains.add(miniBlocks);
+                property.setStartBlock(_miniBlockCount);
+                _miniBlockCount += miniBlocks;
+                writeMiniStream(_smallBuffer, miniBlocks * SMALL_BLOCK_SIZE);
+            } else {
+                property.setStartBlock(POIFSConstants.END_OF_CHAIN);
+            }
+            _parent.addProperty(property);
+        }
+    }
+
+    /**
+     * Appends the data to the mini stream, whose full blocks are written to the block store
+     */
+    private void writeMiniStream(byte[] data, int len) throws IOException {
+        int off = 0;
+        while (off < len) {
+            int count = Math.min(len - off, BLOCK_SIZE - _miniStreamBlockUsed);
+            System.arraycopy(data, off, _miniStreamBlock, _miniStreamBlockUsed, count);
+            off += count;
+            _miniStreamBlockUsed += count;
+            if (_miniStreamBlockUsed == BLOCK_SIZE) {
+                flushMiniStreamBlock();
+            }
+        }
+    }
+
+    private void flushMiniStreamBlock() throws IOException {
+        _blockStoreOut.write(_miniStreamBlock);
+        Arrays.fill(_miniStreamBlock, (byte)0);
+        _miniStreamBlocks.add(_dataBlockCount++);
+        _miniStreamBlockUsed = 0;
+    }
+
+    /**
+     * Writes the OLE2 file to the output stream and removes the temp block store.
+     * The output stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (_closed) {
+            return;
+        }
+        if (_openDocument != null) {
+            _openDocument.close();
+        }
+        _closed = true;
+
+        try {
+            if (_miniStreamBlockUsed > 0) {
+                flushMiniStreamBlock();
+            }
+            _blockStoreOut.close();
+            writeFilesystem();
+        } finally {
+            if (!_blockStore.delete()) {
+                LOG.atWarn().log("Can't delete temporary block store: {}", _blockStore);
+            }
+        }
+    }
+
+    private void writeFilesystem() throws IOException {
+        // layout: header, data blocks, mini FAT, properties, FAT, DIFAT
+        final int dataBlocks = _dataBlockCount;
+        final int miniFatBlocks = blocksFor(_miniBlockCount);
+        final int miniFatStart = dataBlocks;
+        final int propertyStart = miniFatStart + miniFatBlocks;
+        final int propertyBlocks = _propertyTable.countBlocks();
+        final int fatStart = propertyStart + propertyBlocks;
+
+        // the allocation tables need to contain their own blocks
+        int fatBlocks = 0, difatBlocks = 0;
+        while (true) {
+            int total = fatStart + fatBlocks + difatBlocks;
+            int fat = blocksFor(total);
+            int difat = difatBlocksFor(fat);
+            if (fat == fatBlocks && difat == difatBlocks) {
+                break;
+            }
+            fatBlocks = fat;
+            difatBlocks = difat;
+        }
+        final int difatStart = fatStart + fatBlocks;
+
+        _propertyTable.getRoot().setStartBlock(_miniStreamBlocks.isEmpty()
+            ? POIFSConstants.END_OF_CHAIN : _miniStreamBlocks.get(0));
+        _propertyTable.getRoot().setSize(_miniBlockCount);
+        _propertyTable.preWrite();
+
+        HeaderBlock header = new HeaderBlock(BIG_BLOCK_SIZE);
+        int[] fatIndexes = new int[fatBlocks];
+        for (int i = 0; i < fatBlocks; i++) {
+            fatIndexes[i] = fatStart + i;
+        }
+        header.setBATCount(fatBlocks);
+        header.setBATArray(fatIndexes);
+        header.setPropertyStart(propertyStart);
+        header.setSBATStart(miniFatBlocks == 0 ? POIFSConstants.END_OF_CHAIN : miniFatStart);
+        header.setSBATBlockCount(miniFatBlocks);
+        header.setXBATCount(difatBlocks);
+        header.setXBATStart(difatBlocks == 0 ? POIFSConstants.END_OF_CHAIN : difatStart);
+        header.writeData(_out);
+
+        // data blocks
+        try (InputStream is = new FileInputStream(_blockStore)) {
+            IOUtils.copy(is, _out);
+        }
+
+        // mini FAT
+        int[] miniFat = newTable(miniFatBlocks);
+        for (int i = 0; i < _smallChains.size(); i += 2) {
+            chain(miniFat, _smallChains.get(i), _smallChains.get(i + 1));
+        }
+        writeTable(miniFat);
+
+        // properties
+        ByteArrayOutputStream propertyData = new ByteArrayOutputStream(propertyBlocks * BLOCK_SIZE);
+        for (Property p : _properties) {
+            p.writeData(propertyData);
+        }
+        // unused property slots are empty
+        propertyData.write(new byte[propertyBlocks * BLOCK_SIZE - propertyData.size()]);
+        propertyData.writeTo(_out);
+
+        // FAT
+        int[] fat = newTable(fatBlocks);
+        for (int i = 0; i < _bigChains.size(); i += 2) {
+            chain(fat, _bigChains.get(i), _bigChains.get(i + 1));
+        }
+        for (int i = 0; i < _miniStreamBlocks.size(); i++) {
+            fat[_miniStreamBlocks.get(i)] = (i + 1 < _miniStreamBlocks.size())
+                ? _miniStreamBlocks.get(i + 1) : POIFSConstants.END_OF_CHAIN;
+        }
+        chain(fat, miniFatStart, miniFatBlocks);
+        chain(fat, propertyStart, propertyBlocks);
+        Arrays.fill(fat, fatStart, difatStart, POIFSConstants.FAT_SECTOR_BLOCK);
+        Arrays.fill(fat, difatStart, difatStart + difatBlocks, POIFSConstants.DIFAT_SECTOR_BLOCK);
+        writeTable(fat);
+
+        // DIFAT for the FAT blocks, which don't fit into the header
+        final int difatEntries = BIG_BLOCK_SIZE.getXBATEntriesPerBlock();
+        final int headerEntries = Math.min(fatBlocks, HeaderBlockConstants._max_bats_in_header);
+        int[] difat = newTable(difatBlocks);
+        int fatIndex = headerEntries;
+        for (int b = 0; b < difatBlocks; b++) {
+            int offset = b * ENTRIES_PER_BLOCK;
+            for (int i = 0; i < difatEntries && fatIndex < fatBlocks; i++) {
+                difat[offset + i] = fatStart + fatIndex++;
+            }
+            difat[offset + difatEntries] = (b + 1 < difatBlocks) ? difatStart + b + 1 : POIFSConstants.END_OF_CHAIN;
+        }
+        writeTable(difat);
+    }
+
+    private static int blocksFor(int entries) {
+        return (entries + ENTRIES_PER_BLOCK - 1) / ENTRIES_PER_BLOCK;
+    }
+
+    private static int difatBlocksFor(int fatBlocks) {
+        int entries = BIG_BLOCK_SIZE.getXBATEntriesPerBlock();
+        int remaining = fatBlocks - HeaderBlockConstants._max_bats_in_header;
+        return remaining <= 0 ? 0 : (remaining + entries - 1) / entries;
+    }
+
+    private static int[] newTable(int blocks) {
+        int[] table = new int[blocks * ENTRIES_PER_BLOCK];
+        Arrays.fill(table, POIFSConstants.UNUSED_BLOCK);
+        return table;
+    }
+
+    private static void chain(int[] table, int start, int count) {
+        for (int i = 0; i < count; i++) {
+            table[start + i] = (i + 1 < count) ? start + i + 1 : POIFSConstants.END_OF_CHAIN;
+        }
+    }
+
+    private void writeTable(int[] table) throws IOException {
+        byte[] block = new byte[BLOCK_SIZE];
+        for (int i = 0; i < table.length; i += ENTRIES_PER_BLOCK) {
+            for (int j = 0; j < ENTRIES_PER_BLOCK; j++) {
+                LittleEndian.putInt(block, j * LittleEndianConsts.INT_SIZE, table[i + j]);
+            }
+            _out.write(block);
+        }
+    }
+}
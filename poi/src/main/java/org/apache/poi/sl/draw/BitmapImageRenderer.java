@@ -53,6 +53,8 @@ public class BitmapImageRenderer implements ImageRenderer {
 
     protected BufferedImage img;
 
+    private ImageCache cache;
+
     @Override
     public boolean canRender(String contentType) {
         PictureType[] pts = {
@@ -66,14 +68,32 @@ public class BitmapImageRenderer implements ImageRenderer {
         return false;
     }
 
+    /**
+     * Sets the cache for the decoded images. As the cached images are shared,
+     * the image returned by {@link #getImage()} must not be modified.
+     *
+     * @param cache the image cache or {@code null} to decode the images on each load
+     *
+     * @since POI 5.0.1
+     */
+    public void setImageCache(ImageCache cache) {
+        this.cache = cache;
+    }
+
     @Override
     public void loadImage(InputStream data, String contentType) throws IOException {
-        img = readImage(data, contentType);
+        if (cache == null) {
+            img = readImage(data, contentType);
+        } else {
+            loadImage(IOUtils.toByteArray(data), contentType);
+        }
     }
 
     @Override
     public void loadImage(byte[] data, String contentType) throws IOException {
-        img = readImage(new ByteArrayInputStream(data), contentType);
+        img = (cache == null)
+            ? readImage(new ByteArrayInputStream(data), contentType)
+            : cache.getImage(data, contentType, d -> readImage(new ByteArrayInputStream(d), contentType));
     }
 
     /**
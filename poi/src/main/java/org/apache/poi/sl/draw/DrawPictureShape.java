@@ -88,6 +88,9 @@ public class DrawPictureShape extends DrawSimpleShape {
         }
 
         final BitmapImageRenderer fallback = new BitmapImageRenderer();
+        if (graphics != null) {
+            fallback.setImageCache((ImageCache)graphics.getRenderingHint(Drawable.IMAGE_CACHE));
+        }
         if (fallback.canRender(contentType)) {
             return fallback;
         }
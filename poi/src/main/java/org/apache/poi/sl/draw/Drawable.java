@@ -50,6 +50,8 @@ public interface Drawable {
             case 13: return "BUFFERED_IMAGE";
             case 14: return "DEFAULT_CHARSET";
             case 15: return "EMF_FORCE_HEADER_BOUNDS";
+            case 16: return "IMAGE_CACHE";
+            case 17: return "METAFILE_CACHE";
             default: return "UNKNOWN_ID "+intKey();
             }
         }
@@ -166,6 +168,26 @@ public interface Drawable {
      */
     DrawableHint EMF_FORCE_HEADER_BOUNDS = new DrawableHint(15);
 
+    /**
+     * An {@link ImageCache} instance, which is used to reuse the decoded bitmap images.
+     * Share the instance between the graphics contexts, e.g. of all slides of a slideshow.
+     * By default, the images are decoded each time they are drawn.
+     *
+     * @since POI 5.0.1
+     */
+    DrawableHint IMAGE_CACHE = new DrawableHint(16);
+
+    /**
+     * An {@link ImageCache} instance for the rasterized renderings of WMF/EMF pictures.
+     * If set, the metafiles are rasterized in the device resolution of the graphics context and
+     * the raster is reused for the following draw calls with the same resolution.
+     * Only set this for raster targets, as vector targets like PDF or SVG would receive bitmaps.
+     * By default, the metafile records are replayed for each draw call.
+     *
+     * @since POI 5.0.1
+     */
+    DrawableHint METAFILE_CACHE = new DrawableHint(17);
+
     /**
      * Apply 2-D transforms before drawing this shape. This includes rotation and flipping.
      *
@@ -0,0 +1,228 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+import org.apache.poi.poifs.crypt.CryptoFunctions;
+import org.apache.poi.poifs.crypt.HashAlgorithm;
+
+/**
+ * A bounded cache of decoded bitmap images, which avoids decoding the same picture again,
+ * e.g. a logo on the slide master, which is drawn on every slide.<p>
+ *
+ * The images are keyed by the MD5 checksum of the picture bytes - the same checksum which is used
+ * by HSLF for its picture UIDs - and the content type, so a cache instance can be shared between
+ * slideshows of both formats. The memory of the cached images is accounted by the size of their
+ * rasters. When the limit is exceeded, the least recently used images are evicted.<p>
+ *
+ * The cache is activated by setting it via the rendering hint {@link Drawable#IMAGE_CACHE}
+ * or {@link Drawable#METAFILE_CACHE} for the rasterized metafiles.
+ * The cached images are shared between all users of the cache and must not be modified.
+ * The cache is thread-safe. If two threads request the same uncached image, both decode it.
+ *
+ * @since POI 5.0.1
+ */
+public class ImageCache {
+    /**
+     * Decodes the picture bytes, in case of a cache miss
+     */
+    @FunctionalInterface
+    public interface ImageLoader {
+        /**
+         * @param data the picture bytes
+         * @return the decoded image or {@code null} if it can't be decoded
+         * @throws IOException if the image data is invalid
+         */
+        BufferedImage load(byte[] data) throws IOException;
+    }
+
+    /** the default memory limit of 64 MiB */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public ImageCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes the maximum memory of all cached images in bytes
+     */
+    public ImageCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached image of the picture bytes or decodes and caches it
+     *
+     * @param data the picture bytes
+     * @param contentType the content type of the picture
+     * @param loader the decoder, which is called if the image isn't cached
+     * @return the image or {@code null} if the loader couldn't decode it
+     * @throws IOException if the loader fails
+     */
+    public BufferedImage getImage(byte[] data, String contentType, ImageLoader loader) throws IOException {
+        return getImage(data, contentType, 0, 0, loader);
+    }
+
+    /**
+     * Returns the cached rendering of the picture bytes in the given size or renders and caches it.
+     * This is used for vector images, which are rasterized for a specific target resolution.
+     *
+     * @param data the picture bytes
+     * @param contentType the content type of the picture
+     * @param width the width of the rendering in pixels or 0 for the native size
+     * @param height the height of the rendering in pixels or 0 for the native size
+     * @param loader the renderer, which is called if the image isn't cached
+     * @return the image or {@code null} if the loader couldn't render it
+     * @throws IOException if the loader fails
+     */
+    public BufferedImage getImage(byte[] data, String contentType, int width, int height, ImageLoader loader)
+    throws IOException {
+        final Key key = new Key(data, contentType, width, height);
+        synchronized (this) {
+            BufferedImage img = images.get(key);
+            if (img != null) {
+                hitCount++;
+                return img;
+            }
+            missCount++;
+        }
+
+        final BufferedImage img = loader.load(data);
+        if (img != null) {
+            put(key, img);
+        }
+        return img;
+    }
+
+    private synchronized void put(Key key, BufferedImage img) {
+        final long size = getMemorySize(img);
+        if (size > maxBytes) {
+            return;
+        }
+        final BufferedImage old = images.put(key, img);
+        if (old != null) {
+            usedBytes -= getMemorySize(old);
+        }
+        usedBytes += size;
+
+        for (Iterator<BufferedImage> iter = images.values().iterator(); usedBytes > maxBytes && iter.hasNext(); ) {
+            usedBytes -= getMemorySize(iter.next());
+            iter.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all images from the cache. The counters are not reset.
+     */
+    public synchronized void clear() {
+        images.clear();
+        usedBytes = 0;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the memory of the cached images in bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return the number of cached images
+     */
+    public synchronized int size() {
+        return images.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the memory of the image raster in bytes
+     */
+    private static long getMemorySize(BufferedImage img) {
+        final DataBuffer db = img.getRaster().getDataBuffer();
+        return (long)db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+
+    private static final class Key {
+        private final byte[] checksum;
+        private final String contentType;
+        private final int width;
+        private final int height;
+        private final int hash;
+
+        Key(byte[] data, String contentType, int width, int height) {
+            MessageDigest md5 = CryptoFunctions.getMessageDigest(HashAlgorithm.md5);
+            checksum = md5.digest(data);
+            this.contentType = contentType;
+            this.width = width;
+            this.height = height;
+            hash = Objects.hash(Arrays.hashCode(checksum), contentType, width, height);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return width == other.width && height == other.height &&
+                Arrays.equals(checksum, other.checksum) && Objects.equals(contentType, other.contentType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
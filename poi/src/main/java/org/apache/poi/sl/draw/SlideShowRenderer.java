@@ -0,0 +1,334 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.poi.sl.draw.geom.PresetGeometries;
+import org.apache.poi.sl.usermodel.GroupShape;
+import org.apache.poi.sl.usermodel.MasterSheet;
+import org.apache.poi.sl.usermodel.PictureData;
+import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.apache.poi.sl.usermodel.PictureShape;
+import org.apache.poi.sl.usermodel.Placeholder;
+import org.apache.poi.sl.usermodel.Shape;
+import org.apache.poi.sl.usermodel.Sheet;
+import org.apache.poi.sl.usermodel.SimpleShape;
+import org.apache.poi.sl.usermodel.Slide;
+import org.apache.poi.sl.usermodel.SlideShow;
+
+/**
+ * Renders the slides of a slideshow into images, optionally on a number of threads.<p>
+ *
+ * Each slide is drawn with its own {@link Graphics2D} and {@link DrawFactory} instance,
+ * so the drawing state is confined to the rendering thread. The preset geometries and
+ * the decoded bitmaps of the {@link ImageCache} are shared between all threads. Each renderer
+ * has its own image cache, which can be replaced via the rendering hint {@link Drawable#IMAGE_CACHE},
+ * e.g. to share it between several slideshows. Likewise the WMF/EMF pictures are rasterized in the
+ * target resolution and kept in the {@link Drawable#METAFILE_CACHE}.<p>
+ *
+ * The slideshow is only read while rendering. Before the slides are handed over to the
+ * executor, the shapes, master sheets and placeholders of the requested slides are
+ * initialized on the calling thread, as the usermodels initialize them lazily. The
+ * slideshow must not be modified while a rendering is in progress.
+ *
+ * @since POI 5.0.1
+ */
+public class SlideShowRenderer {
+    /**
+     * Callback for the rendered slides
+     */
+    @FunctionalInterface
+    public interface SlideConsumer {
+        /**
+         * Handles a rendered slide, e.g. by writing it to a stream.
+         * This is called on the thread which started the rendering.
+         *
+         * @param slideIdx the 0-based index of the slide
+         * @param image the rendered slide
+         * @throws IOException if the image can't be processed
+         */
+        void accept(int slideIdx, BufferedImage image) throws IOException;
+    }
+
+    private final SlideShow<?,?> slideShow;
+    private final Map<RenderingHints.Key, Object> hints = new LinkedHashMap<>();
+    private Supplier<DrawFactory> drawFactory = DrawFactory::new;
+    private double scale = 1;
+
+    public SlideShowRenderer(SlideShow<?,?> slideShow) {
+        this.slideShow = slideShow;
+        hints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        hints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        hints.put(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+        hints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        hints.put(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        hints.put(Drawable.IMAGE_CACHE, new ImageCache());
+        hints.put(Drawable.METAFILE_CACHE, new ImageCache());
+    }
+
+    /**
+     * @param scale the scale factor applied to the page size, defaults to 1
+     */
+    public void setScale(double scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("scale must be positive: " + scale);
+        }
+        this.scale = scale;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Sets a rendering hint, which is applied to the graphics context of each slide,
+     * e.g. {@link Drawable#FONT_MAP} or {@link Drawable#DEFAULT_CHARSET}.
+     * The value is shared between the rendering threads and must not be modified afterwards.
+     *
+     * @param key the hint key
+     * @param value the hint value or {@code null} to remove the hint
+     */
+    public void setRenderingHint(RenderingHints.Key key, Object value) {
+        if (value == null) {
+            hints.remove(key);
+        } else {
+            hints.put(key, value);
+        }
+    }
+
+    /**
+     * @param key the hint key
+     * @return the hint value, which is applied to the graphics context of each slide, or {@code null}
+     */
+    public Object getRenderingHint(RenderingHints.Key key) {
+        return hints.get(key);
+    }
+
+    /**
+     * @param drawFactory the supplier of the draw factories - it's called once for each rendered slide,
+     *   i.e. a factory is never used by more than one thread
+     */
+    public void setDrawFactory(Supplier<DrawFactory> drawFactory) {
+        this.drawFactory = (drawFactory == null) ? DrawFactory::new : drawFactory;
+    }
+
+    /**
+     * @return the size of the rendered images
+     */
+    public Dimension getImageSize() {
+        Dimension pgsize = slideShow.getPageSize();
+        return new Dimension(
+            Math.max((int)Math.rint(pgsize.getWidth() * scale), 1),
+            Math.max((int)Math.rint(pgsize.getHeight() * scale), 1)
+        );
+    }
+
+    /**
+     * Renders a single slide on the calling thread
+     *
+     * @param slideIdx the 0-based index of the slide
+     * @return the rendered slide
+     */
+    public BufferedImage renderSlide(int slideIdx) {
+        Slide<?,?> slide = slideShow.getSlides().get(slideIdx);
+        prepare(Collections.singletonList(slide));
+        return draw(slide, getImageSize(), scale, hints, drawFactory);
+    }
+
+    /**
+     * Renders the given slides on the executor. The images are passed to the consumer in the order
+     * of completion, as soon as a slide is rendered, so the images don't need to be kept in memory
+     * until the whole slideshow is finished.<p>
+     *
+     * If a slide fails to render or the consumer throws an exception, the pending slides are cancelled.
+     *
+     * @param slideIdxs the 0-based indexes of the slides
+     * @param executor the executor for the rendering tasks, e.g. a fixed thread pool
+     * @param consumer the handler for the rendered slides
+     * @throws IOException if the consumer fails or the calling thread was interrupted
+     */
+    public void renderSlides(Iterable<Integer> slideIdxs, Executor executor, SlideConsumer consumer) throws IOException {
+        final List<? extends Slide<?,?>> allSlides = slideShow.getSlides();
+        final List<Slide<?,?>> slides = new ArrayList<>();
+        final List<Integer> idxs = new ArrayList<>();
+        for (int idx : slideIdxs) {
+            slides.add(allSlides.get(idx));
+            idxs.add(idx);
+        }
+
+        prepare(slides);
+
+        // take a snapshot of the settings, in case the renderer is reconfigured while the tasks are running
+        final Dimension size = getImageSize();
+        final Map<RenderingHints.Key, Object> hintsCopy = new LinkedHashMap<>(hints);
+        final double scaleCopy = scale;
+        final Supplier<DrawFactory> factoryCopy = drawFactory;
+        final CompletionService<BufferedImage> service = new ExecutorCompletionService<>(executor);
+        final Map<Future<BufferedImage>, Integer> pending = new IdentityHashMap<>();
+        try {
+            for (int i = 0; i < slides.size(); i++) {
+                final Slide<?,?> slide = slides.get(i);
+                pending.put(service.submit(() -> draw(slide, size, scaleCopy, hintsCopy, factoryCopy)), idxs.get(i));
+            }
+
+            while (!pending.isEmpty()) {
+                final Future<BufferedImage> done = service.take();
+                final int slideIdx = pending.remove(done);
+                consumer.accept(slideIdx, done.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering the slides");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            pending.keySet().forEach(f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * Rasterizes the WMF/EMF pictures of the master sheets into the {@link Drawable#METAFILE_CACHE}
+     * in the background, e.g. right after the slideshow is loaded. The slides, which are rendered
+     * afterwards with the same scale, reuse the rasterized logos and backgrounds instead of replaying
+     * the metafile records. Without calling this method, the metafiles are rasterized on the first use,
+     * possibly by several rendering threads at the same time.
+     *
+     * @param executor the executor for the rasterization tasks
+     * @return a future, which completes when all pictures of the master sheets are rasterized
+     */
+    public CompletableFuture<Void> prerasterize(Executor executor) {
+        if (hints.get(Drawable.METAFILE_CACHE) == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final List<PictureShape<?,?>> pictures = new ArrayList<>();
+        for (Sheet<?,?> sheet : prepare(slideShow.getSlides())) {
+            if (!(sheet instanceof MasterSheet)) {
+                continue;
+            }
+            for (Shape<?,?> shape : sheet.getShapes()) {
+                if (shape instanceof PictureShape && isMetafile(((PictureShape<?,?>)shape).getPictureData())) {
+                    pictures.add((PictureShape<?,?>)shape);
+                }
+            }
+        }
+
+        final Map<RenderingHints.Key, Object> hintsCopy = new LinkedHashMap<>(hints);
+        final double scaleCopy = scale;
+        final Supplier<DrawFactory> factoryCopy = drawFactory;
+        return CompletableFuture.allOf(pictures.stream()
+            .map(ps -> CompletableFuture.runAsync(() -> rasterize(ps, scaleCopy, hintsCopy, factoryCopy), executor))
+            .toArray(CompletableFuture[]::new));
+    }
+
+    private static boolean isMetafile(PictureData data) {
+        return data != null && (data.getType() == PictureType.EMF || data.getType() == PictureType.WMF);
+    }
+
+    private static void rasterize(PictureShape<?,?> ps, double scale,
+                                  Map<RenderingHints.Key, Object> hints, Supplier<DrawFactory> drawFactory) {
+        // the picture is drawn into the metafile cache, the target image is only a dummy
+        final BufferedImage img = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = img.createGraphics();
+        try {
+            hints.forEach(graphics::setRenderingHint);
+            final DrawFactory factory = drawFactory.get();
+            graphics.setRenderingHint(Drawable.DRAW_FACTORY, factory);
+            graphics.scale(scale, scale);
+            factory.getDrawable(ps).draw(graphics);
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    private static BufferedImage draw(Slide<?,?> slide, Dimension size, double scale,
+                                      Map<RenderingHints.Key, Object> hints, Supplier<DrawFactory> drawFactory) {
+        final BufferedImage img = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = img.createGraphics();
+        try {
+            hints.forEach(graphics::setRenderingHint);
+            graphics.setRenderingHint(Drawable.DRAW_FACTORY, drawFactory.get());
+
+            graphics.setComposite(AlphaComposite.Clear);
+            graphics.fillRect(0, 0, size.width, size.height);
+            graphics.setComposite(AlphaComposite.SrcOver);
+
+            graphics.scale(scale, scale);
+            slide.draw(graphics);
+        } finally {
+            graphics.dispose();
+        }
+        return img;
+    }
+
+    /**
+     * Initializes the lazily created parts of the sheets, which are read by all rendering threads
+     */
+    private static Set<Sheet<?,?>> prepare(List<? extends Slide<?,?>> slides) {
+        // load the preset geometries before the rendering threads compete for it
+        PresetGeometries.getInstance();
+
+        final Set<Sheet<?,?>> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Slide<?,?> slide : slides) {
+            for (Sheet<?,?> sheet = slide; sheet != null && seen.add(sheet); sheet = sheet.getMasterSheet()) {
+                prepareShapes(sheet.getShapes());
+                sheet.getBackground();
+                sheet.getPlaceholderDetails(Placeholder.BODY);
+            }
+        }
+        return seen;
+    }
+
+    private static void prepareShapes(List<? extends Shape<?,?>> shapes) {
+        for (Shape<?,?> shape : shapes) {
+            if (shape instanceof SimpleShape) {
+                ((SimpleShape<?,?>)shape).getPlaceholderDetails().getPlaceholder();
+            } else if (shape instanceof GroupShape) {
+                prepareShapes(((GroupShape<?,?>)shape).getShapes());
+            }
+        }
+    }
+}
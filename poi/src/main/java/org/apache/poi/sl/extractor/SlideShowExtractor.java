@@ -17,6 +17,8 @@
 
 package org.apache.poi.sl.extractor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.LinkedList;
@@ -125,13 +127,36 @@ public class SlideShowExtractor<
     @Override
     public String getText() {
         final StringBuilder sb = new StringBuilder();
-        for (final Slide<S, P> slide : slideshow.getSlides()) {
-            getText(slide, sb::append);
+        try {
+            writeText(sb);
+        } catch (IOException e) {
+            // a StringBuilder doesn't throw IOExceptions
+            throw new UncheckedIOException(e);
         }
-
         return sb.toString();
     }
 
+    /**
+     * Writes the text slide by slide - the text fragments are appended as soon as they are extracted
+     */
+    @Override
+    public void writeText(final Appendable out) throws IOException {
+        final Consumer<String> consumer = s -> {
+            try {
+                out.append(s);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            for (final Slide<S, P> slide : slideshow.getSlides()) {
+                getText(slide, consumer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     public String getText(final Slide<S,P> slide) {
         final StringBuilder sb = new StringBuilder();
         getText(slide, sb::append);
@@ -292,4 +292,27 @@ public abstract class BaseFormulaEvaluator implements FormulaEvaluator, Workbook
     public void setDebugEvaluationOutputForNextEval(boolean value){
         _bookEvaluator.setDebugEvaluationOutputForNextEval(value);
     }
+
+    /**
+     * Whether formulas should be compiled into reusable executable trees instead of being
+     * interpreted on each evaluation. This pays off, if the same workbook is recalculated many times.
+     *
+     * @param compile {@code true} to compile formulas, {@code false} (the default) to interpret them
+     * @see WorkbookEvaluator#setCompileFormulas(boolean)
+     * @since POI 5.0.1
+     */
+    public void setCompileFormulas(boolean compile){
+        _bookEvaluator.setCompileFormulas(compile);
+    }
+
+    /**
+     * Attaches a profiler, which collects statistics about the following evaluations
+     *
+     * @param profiler the profiler or {@code null} to stop profiling
+     * @see WorkbookEvaluator#setProfiler(EvaluationProfiler)
+     * @since POI 5.0.1
+     */
+    public void setProfiler(EvaluationProfiler profiler){
+        _bookEvaluator.setProfiler(profiler);
+    }
 }
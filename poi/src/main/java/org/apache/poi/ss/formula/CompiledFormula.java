@@ -0,0 +1,829 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.poi.ss.formula.eval.AreaEval;
+import org.apache.poi.ss.formula.eval.BlankEval;
+import org.apache.poi.ss.formula.eval.BoolEval;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.formula.eval.EvaluationException;
+import org.apache.poi.ss.formula.eval.FunctionEval;
+import org.apache.poi.ss.formula.eval.MissingArgEval;
+import org.apache.poi.ss.formula.eval.NotImplementedException;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.OperandResolver;
+import org.apache.poi.ss.formula.eval.RefListEval;
+import org.apache.poi.ss.formula.eval.StringEval;
+import org.apache.poi.ss.formula.eval.TwoOperandNumericOperation;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.function.FunctionMetadataRegistry;
+import org.apache.poi.ss.formula.functions.ArrayMode;
+import org.apache.poi.ss.formula.functions.Function;
+import org.apache.poi.ss.formula.functions.IfFunc;
+import org.apache.poi.ss.formula.ptg.*;
+import org.apache.poi.util.Internal;
+
+/**
+ * A formula which has been compiled from its RPN token array into a tree of executable nodes.<p>
+ *
+ * The {@link WorkbookEvaluator} interprets the {@link Ptg} array of a formula on each evaluation,
+ * creating a {@link ValueEval} for every operand and intermediate result. A compiled formula is
+ * built once and then re-executed: relative cell references are stored as offsets to the formula cell,
+ * so the same tree can be executed for every cell of a shared formula group (or any other formulas
+ * with the same relative structure), and the arithmetic operators pass intermediate results as
+ * primitive doubles instead of boxing them into {@link NumberEval}s.<p>
+ *
+ * Compiled formulas are immutable and implement {@link #equals(Object)} and {@link #hashCode()}
+ * structurally, so that an evaluator can intern them.<p>
+ *
+ * Formulas which contain tokens that are not supported by the compiler (e.g. the optimized CHOOSE)
+ * can't be compiled and are still interpreted.
+ *
+ * @see WorkbookEvaluator#setCompileFormulas(boolean)
+ */
+@Internal
+final class CompiledFormula {
+
+    /**
+     * Marker for formulas which contain tokens that the compiler doesn't support
+     */
+    static final CompiledFormula NOT_COMPILABLE = new CompiledFormula(null);
+
+    private final Node _root;
+
+    private CompiledFormula(Node root) {
+        _root = root;
+    }
+
+    /**
+     * Compiles the formula tokens of a cell
+     *
+     * @param ptgs the (non-shared) formula tokens, as returned by {@link EvaluationWorkbook#getFormulaTokens(EvaluationCell)}
+     * @param rowIndex the row of the formula cell, used to make relative references relocatable
+     * @param columnIndex the column of the formula cell, used to make relative references relocatable
+     * @return the compiled formula or {@link #NOT_COMPILABLE}, if the formula needs to be interpreted
+     */
+    static CompiledFormula compile(Ptg[] ptgs, int rowIndex, int columnIndex) {
+        return compile(ptgs, rowIndex, columnIndex, null);
+    }
+
+    /**
+     * Compiles the formula tokens of a cell, which may contain the relative references of a shared formula
+     *
+     * @param ptgs the formula tokens, as returned by {@link EvaluationWorkbook#getFormulaTokens(EvaluationCell)}
+     * @param rowIndex the row of the formula cell, used to make relative references relocatable
+     * @param columnIndex the column of the formula cell, used to make relative references relocatable
+     * @param sharedFormula relocates the {@link RefNPtg} and {@link AreaNPtg} references or {@code null},
+     *  if these are left to the interpreter
+     * @return the compiled formula or {@link #NOT_COMPILABLE}, if the formula needs to be interpreted
+     */
+    static CompiledFormula compile(Ptg[] ptgs, int rowIndex, int columnIndex, SharedFormula sharedFormula) {
+        Deque<Node> stack = new ArrayDeque<>();
+        // condition nodes which are followed by a tAttrIf, i.e. whose IF can skip the unused branch
+        Set<Node> optimizedIfConditions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (int i = 0; i < ptgs.length; i++) {
+            Ptg ptg = ptgs[i];
+            if (ptg instanceof AttrPtg) {
+                AttrPtg attrPtg = (AttrPtg) ptg;
+                if (attrPtg.isOptimizedChoose()) {
+                    return NOT_COMPILABLE;
+                }
+                if (attrPtg.isOptimizedIf()) {
+                    if (stack.isEmpty()) {
+                        return NOT_COMPILABLE;
+                    }
+                    optimizedIfConditions.add(stack.peek());
+                    continue;
+                }
+                if (!attrPtg.isSum()) {
+                    // tAttrSkip is implied by the IF node, the other attributes are only cosmetic
+                    continue;
+                }
+                ptg = FuncVarPtg.SUM;
+            }
+            if (ptg instanceof ControlPtg || ptg instanceof MemFuncPtg
+                    || ptg instanceof MemAreaPtg || ptg instanceof MemErrPtg) {
+                // same as the interpreter - the remaining tokens are in RPN order
+                continue;
+            }
+
+            Node node;
+            if (ptg instanceof UnionPtg) {
+                if (stack.size() < 2) {
+                    return NOT_COMPILABLE;
+                }
+                Node v2 = stack.pop();
+                Node v1 = stack.pop();
+                node = new UnionNode(v1, v2);
+            } else if (ptg instanceof OperationPtg) {
+                OperationPtg optg = (OperationPtg) ptg;
+                int numops = optg.getNumberOfOperands();
+                if (stack.size() < numops) {
+                    return NOT_COMPILABLE;
+                }
+                Node[] ops = new Node[numops];
+                for (int j = numops - 1; j >= 0; j--) {
+                    ops[j] = stack.pop();
+                }
+                node = createOperationNode(optg, ops, isArrayModeFunctionAhead(ptgs, i), optimizedIfConditions);
+            } else {
+                node = createOperandNode(ptg, rowIndex, columnIndex, sharedFormula);
+            }
+            if (node == null) {
+                return NOT_COMPILABLE;
+            }
+            stack.push(node);
+        }
+
+        if (stack.size() != 1) {
+            return NOT_COMPILABLE;
+        }
+        return new CompiledFormula(stack.pop());
+    }
+
+    /**
+     * Mirrors the look-ahead of the interpreter, which switches operations with area operands
+     * to array mode, if the next function token is an {@link ArrayMode} function.
+     */
+    private static boolean isArrayModeFunctionAhead(Ptg[] ptgs, int startIndex) {
+        for (int i = startIndex; i < ptgs.length; i++) {
+            if (ptgs[i] instanceof FuncVarPtg) {
+                try {
+                    Function func = FunctionEval.getBasicFunction(((FuncVarPtg) ptgs[i]).getFunctionIndex());
+                    return func instanceof ArrayMode;
+                } catch (NotImplementedException ne) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Node createOperationNode(OperationPtg ptg, Node[] ops, boolean arrayModeAhead, Set<Node> optimizedIfConditions) {
+        if (ptg instanceof FuncVarPtg
+                && ((FuncVarPtg) ptg).getFunctionIndex() == FunctionMetadataRegistry.FUNCTION_INDEX_IF
+                && (ops.length == 2 || ops.length == 3)
+                && optimizedIfConditions.contains(ops[0])) {
+            return new IfNode(ops);
+        }
+        if (!arrayModeAhead) {
+            // the primitive paths are only valid as long as the operators are not applied element-wise
+            if (ptg instanceof ValueOperatorPtg && ops.length == 2) {
+                TwoOperandNumericOperation op = getNumericOperation(ptg);
+                if (op != null) {
+                    return new NumericOperatorNode(ptg, op, ops[0], ops[1]);
+                }
+            }
+            if (ptg instanceof UnaryMinusPtg) {
+                return new UnaryMinusNode(ops[0]);
+            }
+        }
+        return new OperationNode(ptg, ops, arrayModeAhead);
+    }
+
+    private static TwoOperandNumericOperation getNumericOperation(OperationPtg ptg) {
+        Function func;
+        if (ptg instanceof AddPtg) {
+            func = TwoOperandNumericOperation.AddEval;
+        } else if (ptg instanceof SubtractPtg) {
+            func = TwoOperandNumericOperation.SubtractEval;
+        } else if (ptg instanceof MultiplyPtg) {
+            func = TwoOperandNumericOperation.MultiplyEval;
+        } else if (ptg instanceof DividePtg) {
+            func = TwoOperandNumericOperation.DivideEval;
+        } else if (ptg instanceof PowerPtg) {
+            func = TwoOperandNumericOperation.PowerEval;
+        } else {
+            return null;
+        }
+        return (TwoOperandNumericOperation) func;
+    }
+
+    /**
+     * @return the operand node or {@code null} if the token is not supported
+     */
+    private static Node createOperandNode(Ptg ptg, int rowIndex, int columnIndex, SharedFormula sharedFormula) {
+        if (ptg instanceof IntPtg) {
+            return new NumberNode(((IntPtg) ptg).getValue());
+        }
+        if (ptg instanceof NumberPtg) {
+            return new NumberNode(((NumberPtg) ptg).getValue());
+        }
+        if (ptg instanceof StringPtg) {
+            return new ConstantNode(new StringEval(((StringPtg) ptg).getValue()), ((StringPtg) ptg).getValue());
+        }
+        if (ptg instanceof BoolPtg) {
+            BoolEval be = BoolEval.valueOf(((BoolPtg) ptg).getValue());
+            return new ConstantNode(be, be);
+        }
+        if (ptg instanceof ErrPtg) {
+            ErrorEval ee = ErrorEval.valueOf(((ErrPtg) ptg).getErrorCode());
+            return new ConstantNode(ee, ee);
+        }
+        if (ptg instanceof MissingArgPtg) {
+            return new ConstantNode(MissingArgEval.instance, MissingArgEval.instance);
+        }
+        if (ptg instanceof AreaErrPtg || ptg instanceof RefErrorPtg
+                || ptg instanceof DeletedArea3DPtg || ptg instanceof DeletedRef3DPtg) {
+            return new ConstantNode(ErrorEval.REF_INVALID, ErrorEval.REF_INVALID);
+        }
+        if (ptg instanceof RefPtg) {
+            return new RefNode(null, (RefPtg) ptg, rowIndex, columnIndex);
+        }
+        if (ptg instanceof Ref3DPtg || ptg instanceof Ref3DPxg) {
+            return new RefNode(ExternSheet.of(ptg), (RefPtgBase) ptg, rowIndex, columnIndex);
+        }
+        if (ptg instanceof AreaPtg) {
+            return new AreaNode(null, (AreaPtg) ptg, rowIndex, columnIndex);
+        }
+        if (ptg instanceof Area3DPtg || ptg instanceof Area3DPxg) {
+            return new AreaNode(ExternSheet.of(ptg), (AreaPtgBase) ptg, rowIndex, columnIndex);
+        }
+        if (sharedFormula != null && ptg instanceof RefNPtg) {
+            // relocated to the formula cell, so the node equals the one of the converted token
+            RefNPtg ref = (RefNPtg) ptg;
+            return new RefNode(null,
+                sharedFormula.fixupRelativeRow(rowIndex, ref.getRow(), ref.isRowRelative()),
+                sharedFormula.fixupRelativeColumn(columnIndex, ref.getColumn(), ref.isColRelative()),
+                ref.isRowRelative(), ref.isColRelative(), rowIndex, columnIndex);
+        }
+        if (sharedFormula != null && ptg instanceof AreaNPtg) {
+            AreaNPtg area = (AreaNPtg) ptg;
+            return new AreaNode(null,
+                sharedFormula.fixupRelativeRow(rowIndex, area.getFirstRow(), area.isFirstRowRelative()),
+                sharedFormula.fixupRelativeColumn(columnIndex, area.getFirstColumn(), area.isFirstColRelative()),
+                sharedFormula.fixupRelativeRow(rowIndex, area.getLastRow(), area.isLastRowRelative()),
+                sharedFormula.fixupRelativeColumn(columnIndex, area.getLastColumn(), area.isLastColRelative()),
+                area.isFirstRowRelative(), area.isFirstColRelative(), area.isLastRowRelative(), area.isLastColRelative(),
+                rowIndex, columnIndex);
+        }
+        if (ptg instanceof NamePtg || ptg instanceof NameXPtg || ptg instanceof NameXPxg || ptg instanceof ArrayPtg) {
+            return new PtgNode(ptg);
+        }
+        // ExpPtg, UnknownPtg, ... are left to the interpreter
+        return null;
+    }
+
+    /**
+     * Executes this formula for the cell of the evaluation context.
+     * The caller must not use compiled formulas for cells which are part of an array formula group.
+     */
+    ValueEval evaluate(WorkbookEvaluator evaluator, OperationEvaluationContext ec) {
+        ValueEval value = _root.evaluate(new Frame(evaluator, ec));
+        return ec.isSingleValue() ? WorkbookEvaluator.dereferenceResult(value, ec) : value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompiledFormula)) {
+            return false;
+        }
+        return Objects.equals(_root, ((CompiledFormula) obj)._root);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(_root);
+    }
+
+    /**
+     * Per-evaluation state, which is shared by the nodes of one execution
+     */
+    private static final class Frame {
+        final WorkbookEvaluator evaluator;
+        final OperationEvaluationContext ec;
+        private SheetRangeEvaluator currentSheet;
+
+        Frame(WorkbookEvaluator evaluator, OperationEvaluationContext ec) {
+            this.evaluator = evaluator;
+            this.ec = ec;
+        }
+
+        SheetRangeEvaluator getCurrentSheet() {
+            if (currentSheet == null) {
+                currentSheet = ec.getRefEvaluatorForCurrentSheet();
+            }
+            return currentSheet;
+        }
+    }
+
+    private abstract static class Node {
+        abstract ValueEval evaluate(Frame f);
+
+        /**
+         * Evaluates this node to a single number, like the numeric operators do with their operands
+         */
+        double evaluateNumber(Frame f) throws EvaluationException {
+            ValueEval ve = OperandResolver.getSingleValue(evaluate(f), f.ec.getRowIndex(), f.ec.getColumnIndex());
+            return OperandResolver.coerceValueToDouble(ve);
+        }
+    }
+
+    private static final class NumberNode extends Node {
+        private final NumberEval _value;
+
+        NumberNode(double value) {
+            _value = new NumberEval(value);
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            return _value;
+        }
+
+        @Override
+        double evaluateNumber(Frame f) {
+            return _value.getNumberValue();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof NumberNode
+                && Double.compare(_value.getNumberValue(), ((NumberNode) obj)._value.getNumberValue()) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(_value.getNumberValue());
+        }
+    }
+
+    private static final class ConstantNode extends Node {
+        private final ValueEval _value;
+        /** the value used for comparisons, as the evals don't implement equals */
+        private final Object _key;
+
+        ConstantNode(ValueEval value, Object key) {
+            _value = value;
+            _key = key;
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            return _value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ConstantNode && _key.equals(((ConstantNode) obj)._key);
+        }
+
+        @Override
+        public int hashCode() {
+            return _key.hashCode();
+        }
+    }
+
+    /**
+     * Delegates the evaluation of operand tokens without cell coordinates (e.g. names) to the interpreter
+     */
+    private static final class PtgNode extends Node {
+        private final Ptg _ptg;
+
+        PtgNode(Ptg ptg) {
+            _ptg = ptg;
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            return f.evaluator.getEvalForPtg(_ptg, f.ec);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PtgNode)) {
+                return false;
+            }
+            Ptg other = ((PtgNode) obj)._ptg;
+            return _ptg == other
+                || (_ptg instanceof NamePtg && other instanceof NamePtg
+                    && ((NamePtg) _ptg).getIndex() == ((NamePtg) other).getIndex());
+        }
+
+        @Override
+        public int hashCode() {
+            return _ptg instanceof NamePtg ? ((NamePtg) _ptg).getIndex() : System.identityHashCode(_ptg);
+        }
+    }
+
+    /**
+     * The sheet(s) of a 3D reference
+     */
+    private static final class ExternSheet {
+        private final int _externSheetIndex;
+        private final int _externalWorkbookNumber;
+        private final String _firstSheetName;
+        private final String _lastSheetName;
+
+        private ExternSheet(int externSheetIndex, int externalWorkbookNumber, String firstSheetName, String lastSheetName) {
+            _externSheetIndex = externSheetIndex;
+            _externalWorkbookNumber = externalWorkbookNumber;
+            _firstSheetName = firstSheetName;
+            _lastSheetName = lastSheetName;
+        }
+
+        static ExternSheet of(Ptg ptg) {
+            if (ptg instanceof ExternSheetReferenceToken) {
+                return new ExternSheet(((ExternSheetReferenceToken) ptg).getExternSheetIndex(), -1, null, null);
+            }
+            Pxg3D pxg = (Pxg3D) ptg;
+            return new ExternSheet(-1, pxg.getExternalWorkbookNumber(), pxg.getSheetName(), pxg.getLastSheetName());
+        }
+
+        SheetRangeEvaluator createEvaluator(OperationEvaluationContext ec) {
+            if (_firstSheetName == null) {
+                return ec.createExternSheetRefEvaluator(_externSheetIndex);
+            }
+            return ec.createExternSheetRefEvaluator(_firstSheetName, _lastSheetName, _externalWorkbookNumber);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ExternSheet)) {
+                return false;
+            }
+            ExternSheet other = (ExternSheet) obj;
+            return _externSheetIndex == other._externSheetIndex
+                && _externalWorkbookNumber == other._externalWorkbookNumber
+                && Objects.equals(_firstSheetName, other._firstSheetName)
+                && Objects.equals(_lastSheetName, other._lastSheetName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_externSheetIndex, _externalWorkbookNumber, _firstSheetName, _lastSheetName);
+        }
+    }
+
+    /**
+     * A row or column coordinate, which is either absolute or an offset to the formula cell
+     */
+    private static int toCoordinate(int value, boolean relative, int origin) {
+        return relative ? value - origin : value;
+    }
+
+    private static int fromCoordinate(int value, boolean relative, int origin) {
+        return relative ? value + origin : value;
+    }
+
+    private static final class RefNode extends Node {
+        private final ExternSheet _sheet;
+        private final int _row;
+        private final int _column;
+        private final boolean _rowRelative;
+        private final boolean _colRelative;
+
+        RefNode(ExternSheet sheet, RefPtgBase ptg, int rowIndex, int columnIndex) {
+            this(sheet, ptg.getRow(), ptg.getColumn(), ptg.isRowRelative(), ptg.isColRelative(), rowIndex, columnIndex);
+        }
+
+        RefNode(ExternSheet sheet, int row, int column, boolean rowRelative, boolean colRelative,
+                int rowIndex, int columnIndex) {
+            _sheet = sheet;
+            _rowRelative = rowRelative;
+            _colRelative = colRelative;
+            _row = toCoordinate(row, rowRelative, rowIndex);
+            _column = toCoordinate(column, colRelative, columnIndex);
+        }
+
+        private SheetRangeEvaluator getSheetEvaluator(Frame f) {
+            return _sheet == null ? f.getCurrentSheet() : _sheet.createEvaluator(f.ec);
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            int row = fromCoordinate(_row, _rowRelative, f.ec.getRowIndex());
+            int column = fromCoordinate(_column, _colRelative, f.ec.getColumnIndex());
+            return new LazyRefEval(row, column, getSheetEvaluator(f));
+        }
+
+        @Override
+        double evaluateNumber(Frame f) throws EvaluationException {
+            SheetRangeEvaluator sre = getSheetEvaluator(f);
+            int row = fromCoordinate(_row, _rowRelative, f.ec.getRowIndex());
+            int column = fromCoordinate(_column, _colRelative, f.ec.getColumnIndex());
+            // same as resolving a single value from a RefEval, but without creating it
+            ValueEval ve = sre.getEvalForCell(sre.getFirstSheetIndex(), row, column);
+            if (ve instanceof ErrorEval) {
+                throw new EvaluationException((ErrorEval) ve);
+            }
+            return OperandResolver.coerceValueToDouble(ve);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof RefNode)) {
+                return false;
+            }
+            RefNode other = (RefNode) obj;
+            return _row == other._row && _column == other._column
+                && _rowRelative == other._rowRelative && _colRelative == other._colRelative
+                && Objects.equals(_sheet, other._sheet);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_sheet, _row, _column, _rowRelative, _colRelative);
+        }
+    }
+
+    private static final class AreaNode extends Node {
+        private final ExternSheet _sheet;
+        private final int _firstRow;
+        private final int _firstColumn;
+        private final int _lastRow;
+        private final int _lastColumn;
+        private final boolean _firstRowRelative;
+        private final boolean _firstColRelative;
+        private final boolean _lastRowRelative;
+        private final boolean _lastColRelative;
+
+        AreaNode(ExternSheet sheet, AreaPtgBase ptg, int rowIndex, int columnIndex) {
+            this(sheet, ptg.getFirstRow(), ptg.getFirstColumn(), ptg.getLastRow(), ptg.getLastColumn(),
+                ptg.isFirstRowRelative(), ptg.isFirstColRelative(), ptg.isLastRowRelative(), ptg.isLastColRelative(),
+                rowIndex, columnIndex);
+        }
+
+        AreaNode(ExternSheet sheet, int firstRow, int firstColumn, int lastRow, int lastColumn,
+                 boolean firstRowRelative, boolean firstColRelative, boolean lastRowRelative, boolean lastColRelative,
+                 int rowIndex, int columnIndex) {
+            _sheet = sheet;
+            _firstRowRelative = firstRowRelative;
+            _firstColRelative = firstColRelative;
+            _lastRowRelative = lastRowRelative;
+            _lastColRelative = lastColRelative;
+            _firstRow = toCoordinate(firstRow, firstRowRelative, rowIndex);
+            _firstColumn = toCoordinate(firstColumn, firstColRelative, columnIndex);
+            _lastRow = toCoordinate(lastRow, lastRowRelative, rowIndex);
+            _lastColumn = toCoordinate(lastColumn, lastColRelative, columnIndex);
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            int row = f.ec.getRowIndex();
+            int column = f.ec.getColumnIndex();
+            SheetRangeEvaluator sre = _sheet == null ? f.getCurrentSheet() : _sheet.createEvaluator(f.ec);
+            return f.ec.createAreaEval(
+                fromCoordinate(_firstRow, _firstRowRelative, row),
+                fromCoordinate(_firstColumn, _firstColRelative, column),
+                fromCoordinate(_lastRow, _lastRowRelative, row),
+                fromCoordinate(_lastColumn, _lastColRelative, column),
+                sre);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof AreaNode)) {
+                return false;
+            }
+            AreaNode other = (AreaNode) obj;
+            return _firstRow == other._firstRow && _firstColumn == other._firstColumn
+                && _lastRow == other._lastRow && _lastColumn == other._lastColumn
+                && _firstRowRelative == other._firstRowRelative && _firstColRelative == other._firstColRelative
+                && _lastRowRelative == other._lastRowRelative && _lastColRelative == other._lastColRelative
+                && Objects.equals(_sheet, other._sheet);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_sheet, _firstRow, _firstColumn, _lastRow, _lastColumn);
+        }
+    }
+
+    private static final class UnionNode extends Node {
+        private final Node _v1;
+        private final Node _v2;
+
+        UnionNode(Node v1, Node v2) {
+            _v1 = v1;
+            _v2 = v2;
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            return new RefListEval(_v1.evaluate(f), _v2.evaluate(f));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof UnionNode && _v1.equals(((UnionNode) obj)._v1) && _v2.equals(((UnionNode) obj)._v2);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * _v1.hashCode() + _v2.hashCode();
+        }
+    }
+
+    /**
+     * '+', '-', '*', '/' and '^' - the operands are evaluated as primitive doubles
+     */
+    private static final class NumericOperatorNode extends Node {
+        private final OperationPtg _ptg;
+        private final TwoOperandNumericOperation _operation;
+        private final Node _left;
+        private final Node _right;
+
+        NumericOperatorNode(OperationPtg ptg, TwoOperandNumericOperation operation, Node left, Node right) {
+            _ptg = ptg;
+            _operation = operation;
+            _left = left;
+            _right = right;
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            double result;
+            try {
+                result = evaluateNumber(f);
+            } catch (EvaluationException e) {
+                return e.getErrorEval();
+            }
+            return new NumberEval(result);
+        }
+
+        @Override
+        double evaluateNumber(Frame f) throws EvaluationException {
+            double d0 = _left.evaluateNumber(f);
+            double d1 = _right.evaluateNumber(f);
+            return _operation.evaluateNumbers(d0, d1);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof NumericOperatorNode)) {
+                return false;
+            }
+            NumericOperatorNode other = (NumericOperatorNode) obj;
+            return _operation == other._operation && _left.equals(other._left) && _right.equals(other._right);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_ptg.getSid(), _left, _right);
+        }
+    }
+
+    private static final class UnaryMinusNode extends Node {
+        private final Node _operand;
+
+        UnaryMinusNode(Node operand) {
+            _operand = operand;
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            double d;
+            try {
+                d = evaluateNumber(f);
+            } catch (EvaluationException e) {
+                return e.getErrorEval();
+            }
+            return d == 0.0 ? NumberEval.ZERO : new NumberEval(d);
+        }
+
+        @Override
+        double evaluateNumber(Frame f) throws EvaluationException {
+            double d = _operand.evaluateNumber(f);
+            // this '==' matches +0.0 and -0.0
+            return d == 0.0 ? 0.0 : -d;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof UnaryMinusNode && _operand.equals(((UnaryMinusNode) obj)._operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return ~_operand.hashCode();
+        }
+    }
+
+    /**
+     * IF() which was encoded with tAttrIf - only the chosen branch is evaluated, like in the interpreter
+     */
+    private static final class IfNode extends Node {
+        private final Node[] _args;
+
+        IfNode(Node[] args) {
+            _args = args;
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            boolean predicate;
+            try {
+                predicate = IfFunc.evaluateFirstArg(_args[0].evaluate(f), f.ec.getRowIndex(), f.ec.getColumnIndex());
+            } catch (EvaluationException e) {
+                return e.getErrorEval();
+            }
+            ValueEval result;
+            if (predicate) {
+                result = _args[1].evaluate(f);
+            } else if (_args.length == 3) {
+                result = _args[2].evaluate(f);
+            } else {
+                return BoolEval.FALSE;
+            }
+            return result == MissingArgEval.instance ? BlankEval.instance : result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IfNode && Arrays.equals(_args, ((IfNode) obj)._args);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(_args);
+        }
+    }
+
+    /**
+     * Any other operator or function - evaluated like in the interpreter
+     */
+    private static final class OperationNode extends Node {
+        private final OperationPtg _ptg;
+        private final Node[] _args;
+        private final boolean _arrayModeAhead;
+
+        OperationNode(OperationPtg ptg, Node[] args, boolean arrayModeAhead) {
+            _ptg = ptg;
+            _args = args;
+            _arrayModeAhead = arrayModeAhead;
+        }
+
+        @Override
+        ValueEval evaluate(Frame f) {
+            ValueEval[] ops = new ValueEval[_args.length];
+            boolean areaArg = false; // whether one of the operands is an area
+            for (int i = 0; i < ops.length; i++) {
+                ValueEval p = _args[i].evaluate(f);
+                ops[i] = p;
+                if (p instanceof AreaEval) {
+                    areaArg = true;
+                }
+            }
+
+            OperationEvaluationContext ec = f.ec;
+            ec.setArrayMode(areaArg && _arrayModeAhead);
+            ValueEval result = OperationEvaluatorFactory.evaluate(_ptg, ops, ec);
+            ec.setArrayMode(false);
+
+            if (result == null) {
+                throw new RuntimeException("Evaluation result must not be null");
+            }
+            return result;
+        }
+
+        private int getFunctionIndex() {
+            return _ptg instanceof AbstractFunctionPtg ? ((AbstractFunctionPtg) _ptg).getFunctionIndex() : -1;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof OperationNode)) {
+                return false;
+            }
+            OperationNode other = (OperationNode) obj;
+            return _ptg.getClass() == other._ptg.getClass()
+                && _ptg.getSid() == other._ptg.getSid()
+                && getFunctionIndex() == other.getFunctionIndex()
+                && _arrayModeAhead == other._arrayModeAhead
+                && Arrays.equals(_args, other._args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * _ptg.getSid() + getFunctionIndex()) + Arrays.hashCode(_args);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.apache.poi.common.usermodel.GenericRecord;
+import org.apache.poi.ss.formula.ptg.AbstractFunctionPtg;
+import org.apache.poi.ss.formula.ptg.OperationPtg;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.GenericRecordJsonWriter;
+import org.apache.poi.util.GenericRecordUtil;
+
+/**
+ * Collects aggregated statistics about formula evaluations, to find out why a workbook
+ * takes long to evaluate.<p>
+ *
+ * A profiler is attached with {@link WorkbookEvaluator#setProfiler(EvaluationProfiler)} or
+ * {@link BaseFormulaEvaluator#setProfiler(EvaluationProfiler)} and records
+ * <ul>
+ *   <li>the number of calls and the cumulative time per function and operator</li>
+ *   <li>the number of evaluations and the cumulative time per formula cell</li>
+ *   <li>the hits and misses of the cache of formula results</li>
+ *   <li>the deepest chain of dependent formula cells</li>
+ *   <li>the most often referenced areas</li>
+ * </ul>
+ *
+ * Times are inclusive, i.e. the time of a cell or function contains the time of the cells which
+ * were evaluated on its behalf. Arithmetic operators which are executed on the primitive path of a
+ * compiled formula (see {@link WorkbookEvaluator#setCompileFormulas(boolean)}) are not recorded.<p>
+ *
+ * The statistics can be exported as JSON via {@link #toJson()} or forwarded to a metrics system
+ * (e.g. Micrometer or JMX) with a {@link MetricsCallback}.<p>
+ *
+ * Like the evaluators, this class is not thread-safe.
+ *
+ * @since POI 5.0.1
+ */
+public final class EvaluationProfiler implements GenericRecord {
+
+    /**
+     * Receives the individual measurements of the profiler, e.g. to forward them to a metrics registry
+     */
+    public interface MetricsCallback {
+        /**
+         * @param name the name of the function or operator, e.g. {@code SUM} or {@code +}
+         * @param nanos the duration of the call in nanoseconds
+         */
+        default void onFunctionEvaluated(String name, long nanos) {}
+
+        /**
+         * @param sheetName the sheet of the formula cell
+         * @param rowIndex the row of the formula cell
+         * @param columnIndex the column of the formula cell
+         * @param nanos the duration of the evaluation in nanoseconds
+         */
+        default void onCellEvaluated(String sheetName, int rowIndex, int columnIndex, long nanos) {}
+
+        /**
+         * @param hit {@code true} if the formula result was taken from the cache
+         */
+        default void onCacheLookup(boolean hit) {}
+
+        /**
+         * @param area the referenced area, e.g. {@code Sheet1!A1:B10}
+         * @param cellCount the number of cells of the area
+         */
+        default void onAreaReferenced(String area, int cellCount) {}
+    }
+
+    private static final int DEFAULT_MAX_REPORT_ENTRIES = 50;
+
+    private final Map<String, Statistic> _functions = new HashMap<>();
+    private final Map<CellKey, Statistic> _cells = new HashMap<>();
+    private final Map<AreaKey, AreaStatistic> _areas = new HashMap<>();
+    private final Deque<CellKey> _evaluationStack = new ArrayDeque<>();
+    private List<String> _deepestChain = Collections.emptyList();
+    private int _maxDepth;
+    private boolean _isDeepestChainPending;
+    private long _cacheHits;
+    private long _cacheMisses;
+    private int _maxReportEntries = DEFAULT_MAX_REPORT_ENTRIES;
+    private MetricsCallback _callback;
+
+    /**
+     * @param callback the receiver of the individual measurements, or {@code null} to only aggregate them
+     */
+    public void setMetricsCallback(MetricsCallback callback) {
+        _callback = callback;
+    }
+
+    public MetricsCallback getMetricsCallback() {
+        return _callback;
+    }
+
+    /**
+     * @param maxReportEntries the maximum number of cells and areas, which are included in the
+     *  JSON export, the default is 50
+     */
+    public void setMaxReportEntries(int maxReportEntries) {
+        if (maxReportEntries < 0) {
+            throw new IllegalArgumentException("maxReportEntries must not be negative");
+        }
+        _maxReportEntries = maxReportEntries;
+    }
+
+    public int getMaxReportEntries() {
+        return _maxReportEntries;
+    }
+
+    /**
+     * Discards all recorded statistics
+     */
+    public void reset() {
+        _functions.clear();
+        _cells.clear();
+        _areas.clear();
+        _evaluationStack.clear();
+        _deepestChain = Collections.emptyList();
+        _maxDepth = 0;
+        _isDeepestChainPending = false;
+        _cacheHits = 0;
+        _cacheMisses = 0;
+    }
+
+    /* package */ void onCacheLookup(boolean hit) {
+        if (hit) {
+            _cacheHits++;
+        } else {
+            _cacheMisses++;
+        }
+        if (_callback != null) {
+            _callback.onCacheLookup(hit);
+        }
+    }
+
+    /**
+     * @return the start time of the evaluation, which needs to be passed to
+     *  {@link #onEndEvaluateCell(long)}
+     */
+    /* package */ long onStartEvaluateCell(String sheetName, int rowIndex, int columnIndex) {
+        _evaluationStack.push(new CellKey(sheetName, rowIndex, columnIndex));
+        if (_evaluationStack.size() > _maxDepth) {
+            _maxDepth = _evaluationStack.size();
+            // the chain is copied when the stack starts to unwind, i.e. once per new maximum
+            _isDeepestChainPending = true;
+        }
+        return System.nanoTime();
+    }
+
+    /* package */ void onEndEvaluateCell(long startTime) {
+        long nanos = System.nanoTime() - startTime;
+        if (_isDeepestChainPending) {
+            List<String> chain = new ArrayList<>(_evaluationStack.size());
+            // the stack iterates from the innermost cell
+            for (Iterator<CellKey> iter = _evaluationStack.descendingIterator(); iter.hasNext(); ) {
+                chain.add(iter.next().toString());
+            }
+            _deepestChain = chain;
+            _isDeepestChainPending = false;
+        }
+        CellKey key = _evaluationStack.pop();
+        _cells.computeIfAbsent(key, k -> new Statistic(k.toString())).add(nanos);
+        if (_callback != null) {
+            _callback.onCellEvaluated(key.sheetName, key.rowIndex, key.columnIndex, nanos);
+        }
+    }
+
+    /* package */ void onFunctionEvaluated(OperationPtg ptg, long nanos) {
+        String name = getOperationName(ptg);
+        _functions.computeIfAbsent(name, Statistic::new).add(nanos);
+        if (_callback != null) {
+            _callback.onFunctionEvaluated(name, nanos);
+        }
+    }
+
+    /* package */ void onAreaReferenced(SheetRangeEvaluator sre, int firstRow, int firstColumn, int lastRow, int lastColumn) {
+        AreaKey key = new AreaKey(sre.getSheetNameRange(), firstRow, firstColumn, lastRow, lastColumn);
+        AreaStatistic stat = _areas.computeIfAbsent(key, AreaStatistic::new);
+        stat._count++;
+        if (_callback != null) {
+            _callback.onAreaReferenced(stat.getName(), stat.getCellCount());
+        }
+    }
+
+    private static String getOperationName(OperationPtg ptg) {
+        if (ptg instanceof AbstractFunctionPtg) {
+            return ((AbstractFunctionPtg) ptg).getName();
+        }
+        // operators are rendered without their operands, e.g. "+" or "%"
+        String[] operands = new String[ptg.getNumberOfOperands()];
+        Arrays.fill(operands, "");
+        return ptg.toFormulaString(operands).trim();
+    }
+
+    public long getCacheHits() {
+        return _cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return _cacheMisses;
+    }
+
+    /**
+     * @return the ratio of formula results which were taken from the cache, or {@link Double#NaN}
+     *  if no formula cell was looked up yet
+     */
+    public double getCacheHitRatio() {
+        long total = _cacheHits + _cacheMisses;
+        return total == 0 ? Double.NaN : (double) _cacheHits / total;
+    }
+
+    /**
+     * @return the length of the longest chain of formula cells which were evaluated on behalf of each other
+     */
+    public int getMaxDependencyDepth() {
+        return _maxDepth;
+    }
+
+    /**
+     * @return the longest chain of formula cells which were evaluated on behalf of each other,
+     *  starting with the outermost cell
+     */
+    public List<String> getDeepestDependencyChain() {
+        return Collections.unmodifiableList(_deepestChain);
+    }
+
+    /**
+     * @return the statistics per function and operator, sorted by descending cumulative time
+     */
+    public List<Statistic> getFunctionStatistics() {
+        return sorted(_functions.values(), Comparator.comparingLong(Statistic::getTotalNanos), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the statistics per formula cell, sorted by descending cumulative time
+     */
+    public List<Statistic> getCellStatistics() {
+        return sorted(_cells.values(), Comparator.comparingLong(Statistic::getTotalNanos), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the statistics per referenced area, sorted by descending number of references
+     */
+    public List<AreaStatistic> getAreaStatistics() {
+        return sorted(_areas.values(), Comparator.comparingLong(AreaStatistic::getCount), Integer.MAX_VALUE);
+    }
+
+    private static <T> List<T> sorted(Iterable<T> values, Comparator<T> comparator, int limit) {
+        List<T> list = new ArrayList<>();
+        values.forEach(list::add);
+        list.sort(comparator.reversed());
+        return list.size() > limit ? new ArrayList<>(list.subList(0, limit)) : list;
+    }
+
+    /**
+     * @return the recorded statistics as JSON, with the cells and areas limited to the
+     *  {@link #getMaxReportEntries() maximum number of report entries}
+     */
+    public String toJson() {
+        return GenericRecordJsonWriter.marshal(this, false);
+    }
+
+    @Override
+    public Map<String, Supplier<?>> getGenericProperties() {
+        return GenericRecordUtil.getGenericProperties(
+            "cacheHits", this::getCacheHits,
+            "cacheMisses", this::getCacheMisses,
+            "maxDependencyDepth", this::getMaxDependencyDepth,
+            "deepestDependencyChain", this::getDeepestDependencyChain,
+            "functions", this::getFunctionStatistics,
+            "slowestCells", () -> sorted(_cells.values(), Comparator.comparingLong(Statistic::getTotalNanos), _maxReportEntries),
+            "hottestAreas", () -> sorted(_areas.values(), Comparator.comparingLong(AreaStatistic::getCount), _maxReportEntries)
+        );
+    }
+
+    /**
+     * The number of calls and cumulative time of a function or formula cell
+     */
+    public static final class Statistic implements GenericRecord {
+        private final String _name;
+        private long _count;
+        private long _totalNanos;
+        private long _maxNanos;
+
+        private Statistic(String name) {
+            _name = name;
+        }
+
+        private void add(long nanos) {
+            _count++;
+            _totalNanos += nanos;
+            _maxNanos = Math.max(_maxNanos, nanos);
+        }
+
+        /**
+         * @return the function name or the cell reference, e.g. {@code Sheet1!B2}
+         */
+        public String getName() {
+            return _name;
+        }
+
+        public long getCount() {
+            return _count;
+        }
+
+        public long getTotalNanos() {
+            return _totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return _maxNanos;
+        }
+
+        @Override
+        public Map<String, Supplier<?>> getGenericProperties() {
+            return GenericRecordUtil.getGenericProperties(
+                "name", this::getName,
+                "count", this::getCount,
+                "totalNanos", this::getTotalNanos,
+                "maxNanos", this::getMaxNanos
+            );
+        }
+    }
+
+    /**
+     * The number of references to an area
+     */
+    public static final class AreaStatistic implements GenericRecord {
+        private final AreaKey _key;
+        private final String _name;
+        private long _count;
+
+        private AreaStatistic(AreaKey key) {
+            _key = key;
+            _name = key.toString();
+        }
+
+        /**
+         * @return the area reference, e.g. {@code Sheet1!A1:B10}
+         */
+        public String getName() {
+            return _name;
+        }
+
+        public long getCount() {
+            return _count;
+        }
+
+        public int getCellCount() {
+            return (_key.lastRow - _key.firstRow + 1) * (_key.lastColumn - _key.firstColumn + 1);
+        }
+
+        @Override
+        public Map<String, Supplier<?>> getGenericProperties() {
+            return GenericRecordUtil.getGenericProperties(
+                "name", this::getName,
+                "count", this::getCount,
+                "cellCount", this::getCellCount
+            );
+        }
+    }
+
+    private static final class CellKey {
+        final String sheetName;
+        final int rowIndex;
+        final int columnIndex;
+
+        CellKey(String sheetName, int rowIndex, int columnIndex) {
+            this.sheetName = sheetName;
+            this.rowIndex = rowIndex;
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CellKey)) {
+                return false;
+            }
+            CellKey other = (CellKey) obj;
+            return rowIndex == other.rowIndex && columnIndex == other.columnIndex && sheetName.equals(other.sheetName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sheetName, rowIndex, columnIndex);
+        }
+
+        @Override
+        public String toString() {
+            return new CellReference(sheetName, rowIndex, columnIndex, false, false).formatAsString();
+        }
+    }
+
+    private static final class AreaKey {
+        final String sheetName;
+        final int firstRow;
+        final int firstColumn;
+        final int lastRow;
+        final int lastColumn;
+
+        AreaKey(String sheetName, int firstRow, int firstColumn, int lastRow, int lastColumn) {
+            this.sheetName = sheetName;
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+            this.lastRow = lastRow;
+            this.lastColumn = lastColumn;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof AreaKey)) {
+                return false;
+            }
+            AreaKey other = (AreaKey) obj;
+            return firstRow == other.firstRow && firstColumn == other.firstColumn
+                && lastRow == other.lastRow && lastColumn == other.lastColumn
+                && sheetName.equals(other.sheetName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sheetName, firstRow, firstColumn, lastRow, lastColumn);
+        }
+
+        @Override
+        public String toString() {
+            String first = new CellReference(firstRow, firstColumn, false, false).formatAsString();
+            String last = new CellReference(lastRow, lastColumn, false, false).formatAsString();
+            // a range of sheets (3D reference) is reported as is
+            String sheet = sheetName.indexOf(':') < 0 ? SheetNameFormatter.format(sheetName) : sheetName;
+            return sheet + "!" + first + ":" + last;
+        }
+    }
+}
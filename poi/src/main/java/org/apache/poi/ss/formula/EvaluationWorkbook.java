@@ -70,6 +70,12 @@ public interface EvaluationWorkbook {
     EvaluationName getName(NamePtg namePtg);
     EvaluationName getName(String name, int sheetIndex);
     String resolveNameXText(NameXPtg ptg);
+    /**
+     * Returns the formula tokens of the cell. The tokens of a shared formula may be returned without
+     * converting them for the cell, i.e. with {@link org.apache.poi.ss.formula.ptg.RefNPtg RefNPtg} and
+     * {@link org.apache.poi.ss.formula.ptg.AreaNPtg AreaNPtg} references relative to the cell,
+     * which are relocated by the evaluator. The returned tokens must not be modified.
+     */
     Ptg[] getFormulaTokens(EvaluationCell cell);
     UDFFinder getUDFFinder();
     SpreadsheetVersion getSpreadsheetVersion();
@@ -126,6 +126,9 @@ public final class FormulaParser {
     private final int _sheetIndex;
     private final int _rowIndex; // 0-based
 
+    /** the shared cache of parsed formulas, {@code null} (the default) if disabled */
+    private static volatile ParsedFormulaCache _parsedFormulaCache;
+
 
     /**
      * Create the formula parser, with the string that is to be
@@ -169,9 +172,54 @@ public final class FormulaParser {
      * @throws FormulaParseException if the formula has incorrect syntax or is otherwise invalid
      */
     public static Ptg[] parse(String formula, FormulaParsingWorkbook workbook, FormulaType formulaType, int sheetIndex, int rowIndex) {
+        ParsedFormulaCache cache = _parsedFormulaCache;
+        String key = null;
+        if (cache != null) {
+            SpreadsheetVersion ssVersion = workbook == null ? SpreadsheetVersion.EXCEL97 : workbook.getSpreadsheetVersion();
+            key = ParsedFormulaCache.createKey(formula, formulaType, ssVersion, rowIndex);
+            if (key != null) {
+                Ptg[] ptgs = cache.get(key, rowIndex);
+                if (ptgs != null) {
+                    return ptgs;
+                }
+            }
+        }
+
         FormulaParser fp = new FormulaParser(formula, workbook, sheetIndex, rowIndex);
         fp.parse();
-        return fp.getRPNPtg(formulaType);
+        Ptg[] ptgs = fp.getRPNPtg(formulaType);
+        if (key != null) {
+            cache.put(key, ptgs, rowIndex);
+        }
+        return ptgs;
+    }
+
+    /**
+     * Sets the maximum number of parsed formulas which are kept for reuse.<p>
+     *
+     * Formulas which only differ in their relative row references, like a column of filled-down
+     * formulas, are parsed only once. Only formulas which don't refer to names or other sheets
+     * are cached. The cache is shared by all workbooks and disabled by default.
+     *
+     * @param maxSize the maximum number of cached formulas, {@code 0} (the default) to disable the cache
+     *
+     * @since POI 5.0.1
+     */
+    public static void setParsedFormulaCacheSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative: " + maxSize);
+        }
+        _parsedFormulaCache = maxSize == 0 ? null : new ParsedFormulaCache(maxSize);
+    }
+
+    /**
+     * @return the maximum number of cached parsed formulas, see {@link #setParsedFormulaCacheSize(int)}
+     *
+     * @since POI 5.0.1
+     */
+    public static int getParsedFormulaCacheSize() {
+        ParsedFormulaCache cache = _parsedFormulaCache;
+        return cache == null ? 0 : cache.getMaxSize();
     }
 
     /**
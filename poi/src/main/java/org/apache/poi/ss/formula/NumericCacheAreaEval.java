@@ -0,0 +1,185 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import org.apache.poi.ss.formula.eval.AreaEval;
+import org.apache.poi.ss.formula.eval.AreaEvalBase;
+import org.apache.poi.ss.formula.eval.BlankEval;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.ptg.AreaI;
+import org.apache.poi.ss.formula.ptg.AreaI.OffsetArea;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * Like {@link CacheAreaEval}, provides holding structure for temporary values in arrays during
+ * the evaluation process, but keeps numbers as primitive {@code double}s.<p>
+ *
+ * Array results of arithmetic and matrix functions are mostly numeric, so only the few other
+ * values (typically errors) are kept as {@link ValueEval}s.  Functions which know this class can
+ * process the numbers in bulk via {@link #isNumber(int)} and {@link #getNumber(int)}, while all
+ * others see the usual {@link NumberEval}s, which are created on access.
+ *
+ * @since POI 5.0.1
+ */
+public final class NumericCacheAreaEval extends AreaEvalBase {
+
+    private final double[] _numbers;
+    /** the non-numeric values, {@code null} if all values are numbers */
+    private final ValueEval[] _otherValues;
+
+    /**
+     * @param numbers the numbers in row-major order
+     * @param otherValues the values which are not numbers, at the same index as in {@code numbers},
+     *  or {@code null} if all values are numbers
+     */
+    public NumericCacheAreaEval(int firstRow, int firstColumn, int lastRow, int lastColumn,
+            double[] numbers, ValueEval[] otherValues) {
+        super(firstRow, firstColumn, lastRow, lastColumn);
+        _numbers = numbers;
+        _otherValues = otherValues;
+    }
+
+    private NumericCacheAreaEval(AreaI area, double[] numbers, ValueEval[] otherValues) {
+        super(area);
+        _numbers = numbers;
+        _otherValues = otherValues;
+    }
+
+    /**
+     * @param index the row-major index of the value, i.e. {@code relativeRowIndex * width + relativeColumnIndex}
+     * @return {@code true} if the value is a number
+     */
+    public boolean isNumber(int index) {
+        return _otherValues == null || _otherValues[index] == null;
+    }
+
+    /**
+     * @return {@code true} if all values are numbers
+     */
+    public boolean isAllNumbers() {
+        return _otherValues == null;
+    }
+
+    /**
+     * @param index the row-major index of the value
+     * @return the number, only valid if {@link #isNumber(int)} is {@code true}
+     */
+    public double getNumber(int index) {
+        return _numbers[index];
+    }
+
+    /**
+     * @param index the row-major index of the value
+     */
+    public ValueEval getValue(int index) {
+        if (_otherValues != null && _otherValues[index] != null) {
+            return _otherValues[index];
+        }
+        return new NumberEval(_numbers[index]);
+    }
+
+    @Override
+    public ValueEval getRelativeValue(int relativeRowIndex, int relativeColumnIndex) {
+        return getValue(relativeRowIndex * getWidth() + relativeColumnIndex);
+    }
+
+    @Override
+    public ValueEval getRelativeValue(int sheetIndex, int relativeRowIndex, int relativeColumnIndex) {
+        return getRelativeValue(relativeRowIndex, relativeColumnIndex);
+    }
+
+    @Override
+    public AreaEval offset(int relFirstRowIx, int relLastRowIx, int relFirstColIx, int relLastColIx) {
+        AreaI area = new OffsetArea(getFirstRow(), getFirstColumn(),
+                relFirstRowIx, relLastRowIx, relFirstColIx, relLastColIx);
+
+        int height = area.getLastRow() - area.getFirstRow() + 1;
+        int width = area.getLastColumn() - area.getFirstColumn() + 1;
+        int startRow = area.getFirstRow() - getFirstRow();
+        int startCol = area.getFirstColumn() - getFirstColumn();
+
+        double[] numbers = new double[height * width];
+        ValueEval[] otherValues = null;
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                int idx = j * width + i;
+                // like CacheAreaEval, anything beyond the selection is blank
+                if (startRow + j > getLastRow() || startCol + i > getLastColumn()) {
+                    if (otherValues == null) {
+                        otherValues = new ValueEval[numbers.length];
+                    }
+                    otherValues[idx] = BlankEval.instance;
+                    continue;
+                }
+                int srcIdx = (startRow + j) * getWidth() + (startCol + i);
+                numbers[idx] = _numbers[srcIdx];
+                if (!isNumber(srcIdx)) {
+                    if (otherValues == null) {
+                        otherValues = new ValueEval[numbers.length];
+                    }
+                    otherValues[idx] = _otherValues[srcIdx];
+                }
+            }
+        }
+        return new NumericCacheAreaEval(area, numbers, otherValues);
+    }
+
+    @Override
+    public TwoDEval getRow(int rowIndex) {
+        if (rowIndex >= getHeight()) {
+            throw new IllegalArgumentException("Invalid rowIndex " + rowIndex
+                    + ".  Allowable range is (0.." + getHeight() + ").");
+        }
+        int absRowIndex = getFirstRow() + rowIndex;
+        return slice(absRowIndex, getFirstColumn(), absRowIndex, getLastColumn(), rowIndex * getWidth(), 1);
+    }
+
+    @Override
+    public TwoDEval getColumn(int columnIndex) {
+        if (columnIndex >= getWidth()) {
+            throw new IllegalArgumentException("Invalid columnIndex " + columnIndex
+                    + ".  Allowable range is (0.." + getWidth() + ").");
+        }
+        int absColIndex = getFirstColumn() + columnIndex;
+        return slice(getFirstRow(), absColIndex, getLastRow(), absColIndex, columnIndex, getWidth());
+    }
+
+    private NumericCacheAreaEval slice(int firstRow, int firstColumn, int lastRow, int lastColumn, int start, int step) {
+        int length = (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1);
+        double[] numbers = new double[length];
+        ValueEval[] otherValues = _otherValues == null ? null : new ValueEval[length];
+        for (int i = 0, srcIdx = start; i < length; i++, srcIdx += step) {
+            numbers[i] = _numbers[srcIdx];
+            if (otherValues != null) {
+                otherValues[i] = _otherValues[srcIdx];
+            }
+        }
+        return new NumericCacheAreaEval(firstRow, firstColumn, lastRow, lastColumn, numbers, otherValues);
+    }
+
+    public String toString() {
+        CellReference crA = new CellReference(getFirstRow(), getFirstColumn());
+        CellReference crB = new CellReference(getLastRow(), getLastColumn());
+        return getClass().getName() + "[" +
+                crA.formatAsString() +
+                ':' +
+                crB.formatAsString() +
+                "]";
+    }
+}
@@ -331,19 +331,34 @@ public final class OperationEvaluationContext {
     public ValueEval getAreaEval(int firstRowIndex, int firstColumnIndex,
             int lastRowIndex, int lastColumnIndex) {
         SheetRangeEvaluator sre = getRefEvaluatorForCurrentSheet();
-        return new LazyAreaEval(firstRowIndex, firstColumnIndex, lastRowIndex, lastColumnIndex, sre);
+        return createAreaEval(firstRowIndex, firstColumnIndex, lastRowIndex, lastColumnIndex, sre);
     }
     public ValueEval getArea3DEval(Area3DPtg aptg) {
         SheetRangeEvaluator sre = createExternSheetRefEvaluator(aptg.getExternSheetIndex());
-        return new LazyAreaEval(aptg.getFirstRow(), aptg.getFirstColumn(),
+        return createAreaEval(aptg.getFirstRow(), aptg.getFirstColumn(),
                 aptg.getLastRow(), aptg.getLastColumn(), sre);
     }
     public ValueEval getArea3DEval(Area3DPxg aptg) {
         SheetRangeEvaluator sre = createExternSheetRefEvaluator(
                 aptg.getSheetName(), aptg.getLastSheetName(), aptg.getExternalWorkbookNumber());
-        return new LazyAreaEval(aptg.getFirstRow(), aptg.getFirstColumn(),
+        return createAreaEval(aptg.getFirstRow(), aptg.getFirstColumn(),
                 aptg.getLastRow(), aptg.getLastColumn(), sre);
     }
+    /* package */ ValueEval createAreaEval(int firstRowIndex, int firstColumnIndex,
+            int lastRowIndex, int lastColumnIndex, SheetRangeEvaluator sre) {
+        EvaluationProfiler profiler = getProfiler();
+        if (profiler != null) {
+            profiler.onAreaReferenced(sre, firstRowIndex, firstColumnIndex, lastRowIndex, lastColumnIndex);
+        }
+        return new LazyAreaEval(firstRowIndex, firstColumnIndex, lastRowIndex, lastColumnIndex, sre);
+    }
+
+    /**
+     * @return the profiler of the evaluator or {@code null} if the evaluation is not profiled
+     */
+    /* package */ EvaluationProfiler getProfiler() {
+        return _bookEvaluator == null ? null : _bookEvaluator.getProfiler();
+    }
 
     public ValueEval getAreaValueEval(int firstRowIndex, int firstColumnIndex,
             int lastRowIndex, int lastColumnIndex, Object[][] tokens) {
@@ -98,6 +98,20 @@ final class OperationEvaluatorFactory {
 	 */
 	public static ValueEval evaluate(OperationPtg ptg, ValueEval[] args,
 			OperationEvaluationContext ec) {
+		EvaluationProfiler profiler = ec.getProfiler();
+		if (profiler == null) {
+			return evaluateOperation(ptg, args, ec);
+		}
+		long startTime = System.nanoTime();
+		try {
+			return evaluateOperation(ptg, args, ec);
+		} finally {
+			profiler.onFunctionEvaluated(ptg, System.nanoTime() - startTime);
+		}
+	}
+
+	private static ValueEval evaluateOperation(OperationPtg ptg, ValueEval[] args,
+			OperationEvaluationContext ec) {
 		if(ptg == null) {
 			throw new IllegalArgumentException("ptg must not be null");
 		}
@@ -0,0 +1,324 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.ptg.AreaPtg;
+import org.apache.poi.ss.formula.ptg.ArrayPtg;
+import org.apache.poi.ss.formula.ptg.ControlPtg;
+import org.apache.poi.ss.formula.ptg.MemAreaPtg;
+import org.apache.poi.ss.formula.ptg.MemFuncPtg;
+import org.apache.poi.ss.formula.ptg.OperationPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.RefPtg;
+import org.apache.poi.ss.formula.ptg.ScalarConstantPtg;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.CellReference.NameType;
+import org.apache.poi.util.Internal;
+
+/**
+ * Bounded LRU cache of parsed formulas, shared by all workbooks.<p>
+ *
+ * Formulas are keyed by their text with relative row references rewritten as offsets to the row
+ * of the formula cell (e.g. {@code A5*$B$1} in row 4 and {@code A6*$B$1} in row 5 both become
+ * {@code A[0]*$B$1}), so a column of filled-down formulas is parsed only once.  The cached tokens
+ * are a template which is copied and moved to the requested row on every hit.<p>
+ *
+ * Only formulas which don't depend on the workbook are cached, i.e. their tokens are limited to
+ * constants, operators, functions and plain 2D references.  Formulas with names, sheet references
+ * or structured references are always parsed.<p>
+ *
+ * For POI internal use only
+ */
+@Internal
+final class ParsedFormulaCache {
+
+    private static final class Template {
+        private final Ptg[] _ptgs;
+        private final int _rowIndex;
+
+        Template(Ptg[] ptgs, int rowIndex) {
+            _ptgs = ptgs;
+            _rowIndex = rowIndex;
+        }
+    }
+
+    private final int _maxSize;
+    private final Map<String, Template> _templates;
+
+    ParsedFormulaCache(final int maxSize) {
+        _maxSize = maxSize;
+        _templates = new LinkedHashMap<String, Template>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    int getMaxSize() {
+        return _maxSize;
+    }
+
+    /**
+     * @return the normalized key of the formula, or {@code null} if the formula text contains
+     * constructs which can't be normalized safely
+     */
+    static String createKey(String formula, FormulaType formulaType, SpreadsheetVersion ssVersion, int rowIndex) {
+        StringBuilder sb = new StringBuilder(formula.length() + 16);
+        sb.append(ssVersion.ordinal()).append('|').append(formulaType.ordinal()).append('|');
+
+        final int len = formula.length();
+        // true after a cell reference, to check that both sides of a range are cell references
+        boolean lastWasCell = false;
+        boolean needsCell = false;
+        int i = 0;
+        while (i < len) {
+            char ch = formula.charAt(i);
+            if (ch == '"' || ch == '\'') {
+                int end = skipQuoted(formula, i, ch);
+                if (end < 0 || needsCell) {
+                    return null;
+                }
+                sb.append(formula, i, end);
+                i = end;
+                lastWasCell = false;
+            } else if (ch == '[' || ch == ']') {
+                // structured or external references
+                return null;
+            } else if (ch == ':') {
+                if (!lastWasCell) {
+                    // row, column or sheet ranges
+                    return null;
+                }
+                sb.append(ch);
+                i++;
+                needsCell = true;
+                lastWasCell = false;
+            } else if (isDigit(ch) || (ch == '.' && i + 1 < len && isDigit(formula.charAt(i + 1)))) {
+                int end = skipNumber(formula, i);
+                if (needsCell || (end < len && formula.charAt(end) == ':')) {
+                    return null;
+                }
+                sb.append(formula, i, end);
+                i = end;
+                lastWasCell = false;
+            } else if (Character.isLetter(ch) || ch == '_' || ch == '\\' || ch == '$') {
+                int end = i + 1;
+                while (end < len && isIdentifierPart(formula.charAt(end))) {
+                    end++;
+                }
+                char next = end < len ? formula.charAt(end) : 0;
+                String ident = formula.substring(i, end);
+                if (next == '(' || next == '!') {
+                    // function or sheet name
+                    if (needsCell) {
+                        return null;
+                    }
+                    sb.append(ident);
+                    lastWasCell = false;
+                } else if (!appendCellReference(sb, ident, ssVersion, rowIndex)) {
+                    if (needsCell || looksLikeCellReference(ident)) {
+                        // e.g. a name which looks like a cell beyond the sheet bounds
+                        return null;
+                    }
+                    sb.append(ident);
+                    lastWasCell = false;
+                } else {
+                    lastWasCell = true;
+                }
+                needsCell = false;
+                i = end;
+            } else {
+                if (needsCell) {
+                    return null;
+                }
+                sb.append(ch);
+                i++;
+                lastWasCell = false;
+            }
+        }
+        return needsCell ? null : sb.toString();
+    }
+
+    private static int skipQuoted(String formula, int start, char quote) {
+        int i = start + 1;
+        while (i < formula.length()) {
+            if (formula.charAt(i) == quote) {
+                // doubled quotes are escaped quotes
+                if (i + 1 < formula.length() && formula.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipNumber(String formula, int start) {
+        int len = formula.length();
+        int i = start;
+        while (i < len && (isDigit(formula.charAt(i)) || formula.charAt(i) == '.')) {
+            i++;
+        }
+        if (i < len && (formula.charAt(i) == 'E' || formula.charAt(i) == 'e')) {
+            int j = i + 1;
+            if (j < len && (formula.charAt(j) == '+' || formula.charAt(j) == '-')) {
+                j++;
+            }
+            if (j < len && isDigit(formula.charAt(j))) {
+                i = j;
+                while (i < len && isDigit(formula.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isIdentifierPart(char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '_' || ch == '.' || ch == '\\' || ch == '?' || ch == '$';
+    }
+
+    private static boolean looksLikeCellReference(String ident) {
+        int i = 0;
+        int len = ident.length();
+        if (i < len && ident.charAt(i) == '$') {
+            i++;
+        }
+        int letters = i;
+        while (i < len && Character.isLetter(ident.charAt(i))) {
+            i++;
+        }
+        if (i == letters) {
+            return false;
+        }
+        if (i < len && ident.charAt(i) == '$') {
+            i++;
+        }
+        int digits = i;
+        while (i < len && isDigit(ident.charAt(i))) {
+            i++;
+        }
+        return i == len && i > digits;
+    }
+
+    /**
+     * Appends the identifier as cell reference with the relative row replaced by its offset
+     *
+     * @return {@code false} if the identifier is not a cell reference
+     */
+    private static boolean appendCellReference(StringBuilder sb, String ident, SpreadsheetVersion ssVersion, int rowIndex) {
+        if (!looksLikeCellReference(ident)) {
+            return false;
+        }
+        String plain = ident.replace("$", "");
+        if (CellReference.classifyCellReference(plain, ssVersion) != NameType.CELL) {
+            return false;
+        }
+        int rowStart = ident.length();
+        while (isDigit(ident.charAt(rowStart - 1))) {
+            rowStart--;
+        }
+        if (ident.charAt(rowStart - 1) == '$') {
+            sb.append(ident.toUpperCase(Locale.ROOT));
+        } else {
+            int row = Integer.parseInt(ident.substring(rowStart)) - 1;
+            sb.append(ident.substring(0, rowStart).toUpperCase(Locale.ROOT))
+                .append('[').append(row - rowIndex).append(']');
+        }
+        return true;
+    }
+
+    /**
+     * @return a copy of the cached tokens, moved to {@code rowIndex}, or {@code null} if the formula is not cached
+     */
+    Ptg[] get(String key, int rowIndex) {
+        Template template;
+        synchronized (_templates) {
+            template = _templates.get(key);
+        }
+        if (template == null) {
+            return null;
+        }
+        return relocate(template._ptgs, rowIndex - template._rowIndex);
+    }
+
+    /**
+     * Caches the parsed formula, if its tokens don't depend on the workbook
+     */
+    void put(String key, Ptg[] ptgs, int rowIndex) {
+        for (Ptg ptg : ptgs) {
+            if (!isCacheable(ptg)) {
+                return;
+            }
+        }
+        Template template = new Template(relocate(ptgs, 0), rowIndex);
+        synchronized (_templates) {
+            _templates.put(key, template);
+        }
+    }
+
+    void clear() {
+        synchronized (_templates) {
+            _templates.clear();
+        }
+    }
+
+    private static boolean isCacheable(Ptg ptg) {
+        return ptg instanceof ScalarConstantPtg || ptg instanceof OperationPtg || ptg instanceof ControlPtg
+            || ptg instanceof RefPtg || ptg instanceof AreaPtg || ptg instanceof ArrayPtg
+            || ptg instanceof MemFuncPtg || ptg instanceof MemAreaPtg;
+    }
+
+    private static Ptg[] relocate(Ptg[] ptgs, int rowOffset) {
+        Ptg[] result = new Ptg[ptgs.length];
+        for (int i = 0; i < ptgs.length; i++) {
+            Ptg ptg = ptgs[i].copy();
+            if (rowOffset != 0) {
+                if (ptg instanceof RefPtg) {
+                    RefPtg ref = (RefPtg) ptg;
+                    if (ref.isRowRelative()) {
+                        ref.setRow(ref.getRow() + rowOffset);
+                    }
+                } else if (ptg instanceof AreaPtg) {
+                    AreaPtg area = (AreaPtg) ptg;
+                    if (area.isFirstRowRelative()) {
+                        area.setFirstRow(area.getFirstRow() + rowOffset);
+                    }
+                    if (area.isLastRowRelative()) {
+                        area.setLastRow(area.getLastRow() + rowOffset);
+                    }
+                    area.sortTopLeftToBottomRight();
+                }
+            }
+            result[i] = ptg;
+        }
+        return result;
+    }
+}
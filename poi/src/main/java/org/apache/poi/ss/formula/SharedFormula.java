@@ -80,7 +80,17 @@ public class SharedFormula {
         return newPtgStack;
     }
 
-    private int fixupRelativeColumn(int currentcolumn, int column, boolean relative) {
+    /**
+     * Relocates a column of a shared formula reference to the formula cell.
+     * This allows to evaluate the references of a shared formula without converting its tokens.
+     *
+     * @param currentcolumn the column of the formula cell
+     * @param column the column of the reference, which is an offset if it's relative
+     * @param relative if the column is relative
+     * @return the absolute column
+     * @since POI 5.0.1
+     */
+    public int fixupRelativeColumn(int currentcolumn, int column, boolean relative) {
         if(relative) {
             // mask out upper bits to produce 'wrapping' at the maximum column ("IV" for .xls and  "XFD" for .xlsx)
             return (column + currentcolumn) & _columnWrappingMask;
@@ -88,7 +98,16 @@ public class SharedFormula {
         return column;
     }
 
-    private int fixupRelativeRow(int currentrow, int row, boolean relative) {
+    /**
+     * Relocates a row of a shared formula reference to the formula cell.
+     *
+     * @param currentrow the row of the formula cell
+     * @param row the row of the reference, which is an offset if it's relative
+     * @param relative if the row is relative
+     * @return the absolute row
+     * @since POI 5.0.1
+     */
+    public int fixupRelativeRow(int currentrow, int row, boolean relative) {
         if(relative) {
             return (row+currentrow) & _rowWrappingMask;
         }
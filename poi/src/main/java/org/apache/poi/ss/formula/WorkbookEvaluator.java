@@ -20,6 +20,7 @@ package org.apache.poi.ss.formula;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Stack;
@@ -70,6 +71,24 @@ public final class WorkbookEvaluator {
 
     private boolean _ignoreMissingWorkbooks;
 
+    /**
+     * compiled formulas, interned by their structure - {@code null} if formulas are interpreted
+     */
+    private Map<CompiledFormula, CompiledFormula> _compiledFormulas;
+
+    /**
+     * the compiled formulas by the identity key of their cell - kept apart from the result cache,
+     * so a recalculation after changed input cells reuses them
+     */
+    private Map<Object, CompiledFormula> _compiledFormulasByCell;
+
+    /**
+     * relocates the references of shared formulas, which are only used by HSSF - created on demand
+     */
+    private SharedFormula _sharedFormula;
+
+    private EvaluationProfiler _profiler;
+
     /**
      * whether print detailed messages about the next formula evaluation
      */
@@ -162,6 +181,11 @@ public final class WorkbookEvaluator {
         _cache.clear();
         _sheetIndexesBySheet.clear();
         _workbook.clearAllCachedResultValues();
+        if (_compiledFormulasByCell != null) {
+            // the formulas might have been changed without notification
+            _compiledFormulasByCell.clear();
+            _compiledFormulas.clear();
+        }
     }
 
     /**
@@ -171,6 +195,7 @@ public final class WorkbookEvaluator {
     public void notifyUpdateCell(EvaluationCell cell) {
         int sheetIndex = getSheetIndex(cell.getSheet());
         _cache.notifyUpdateCell(_workbookIx, sheetIndex, cell);
+        forgetCompiledFormula(cell);
     }
     /**
      * Should be called to tell the cell value cache that the specified cell has just been
@@ -179,6 +204,20 @@ public final class WorkbookEvaluator {
     public void notifyDeleteCell(EvaluationCell cell) {
         int sheetIndex = getSheetIndex(cell.getSheet());
         _cache.notifyDeleteCell(_workbookIx, sheetIndex, cell);
+        forgetCompiledFormula(cell);
+    }
+
+    /**
+     * @return the compiled formula of the cell, or {@code null} if it hasn't been compiled (yet)
+     */
+    /* package */ CompiledFormula getCompiledFormula(EvaluationCell cell) {
+        return _compiledFormulasByCell == null ? null : _compiledFormulasByCell.get(cell.getIdentityKey());
+    }
+
+    private void forgetCompiledFormula(EvaluationCell cell) {
+        if (_compiledFormulasByCell != null) {
+            _compiledFormulasByCell.remove(cell.getIdentityKey());
+        }
     }
 
     private int getSheetIndex(EvaluationSheet sheet) {
@@ -243,23 +282,33 @@ public final class WorkbookEvaluator {
             tracker.acceptFormulaDependency(cce);
         }
         IEvaluationListener evalListener = _evaluationListener;
+        EvaluationProfiler profiler = _profiler;
         ValueEval result;
         if (cce.getValue() == null) {
+            if (profiler != null) {
+                profiler.onCacheLookup(false);
+            }
             if (!tracker.startEvaluate(cce)) {
                 return ErrorEval.CIRCULAR_REF_ERROR;
             }
 
             try {
 
-                Ptg[] ptgs = _workbook.getFormulaTokens(srcCell);
                 OperationEvaluationContext ec = new OperationEvaluationContext
                         (this, _workbook, sheetIndex, rowIndex, columnIndex, tracker);
-                if (evalListener == null) {
-                    result = evaluateFormula(ec, ptgs);
-                } else {
-                    evalListener.onStartEvaluate(srcCell, cce);
-                    result = evaluateFormula(ec, ptgs);
-                    evalListener.onEndEvaluate(cce, result);
+                long startTime = profiler == null ? 0 : profiler.onStartEvaluateCell(getSheetName(sheetIndex), rowIndex, columnIndex);
+                try {
+                    if (evalListener == null) {
+                        result = evaluateFormulaCell(srcCell, ec);
+                    } else {
+                        evalListener.onStartEvaluate(srcCell, cce);
+                        result = evaluateFormulaCell(srcCell, ec);
+                        evalListener.onEndEvaluate(cce, result);
+                    }
+                } finally {
+                    if (profiler != null) {
+                        profiler.onEndEvaluateCell(startTime);
+                    }
                 }
 
                 tracker.updateCacheResult(result);
@@ -299,6 +348,9 @@ public final class WorkbookEvaluator {
             if(evalListener != null) {
                 evalListener.onCacheHit(sheetIndex, rowIndex, columnIndex, cce.getValue());
             }
+            if (profiler != null) {
+                profiler.onCacheLookup(true);
+            }
             return cce.getValue();
         }
         final ValueEval resultForLogging = result;
@@ -314,6 +366,49 @@ public final class WorkbookEvaluator {
         return result;
     }
 
+    /**
+     * Evaluates the formula of a cell, either by executing its compiled form or by interpreting its tokens
+     */
+    private ValueEval evaluateFormulaCell(EvaluationCell srcCell, OperationEvaluationContext ec) {
+        // array formulas and debug output are only supported by the interpreter
+        if (_compiledFormulas != null && !srcCell.isPartOfArrayFormulaGroup()
+                && !dbgEvaluationOutputForNextEval && dbgEvaluationOutputIndent <= 0) {
+            final Object key = srcCell.getIdentityKey();
+            CompiledFormula compiled = _compiledFormulasByCell.get(key);
+            if (compiled == null) {
+                compiled = compileFormula(_workbook.getFormulaTokens(srcCell), ec.getRowIndex(), ec.getColumnIndex());
+                _compiledFormulasByCell.put(key, compiled);
+            }
+            if (compiled != CompiledFormula.NOT_COMPILABLE) {
+                try {
+                    return compiled.evaluate(this, ec);
+                } catch (RuntimeException e) {
+                    // like the interpreter, re-read the formula on the next attempt
+                    _compiledFormulasByCell.remove(key);
+                    throw e;
+                }
+            }
+        }
+        return evaluateFormula(ec, _workbook.getFormulaTokens(srcCell));
+    }
+
+    private CompiledFormula compileFormula(Ptg[] ptgs, int rowIndex, int columnIndex) {
+        CompiledFormula compiled = CompiledFormula.compile(ptgs, rowIndex, columnIndex, getSharedFormula());
+        if (compiled == CompiledFormula.NOT_COMPILABLE) {
+            return compiled;
+        }
+        // share the tree between all cells with the same relative formula, e.g. of a shared formula group
+        CompiledFormula interned = _compiledFormulas.putIfAbsent(compiled, compiled);
+        return interned == null ? compiled : interned;
+    }
+
+    private SharedFormula getSharedFormula() {
+        if (_sharedFormula == null) {
+            _sharedFormula = new SharedFormula(_workbook.getSpreadsheetVersion());
+        }
+        return _sharedFormula;
+    }
+
     /**
      * Adds the current cell reference to the exception for easier debugging.
      * Would be nice to get the formula text as well, but that seems to require
@@ -600,7 +695,7 @@ public final class WorkbookEvaluator {
      *         {@link ErrorEval}. Never {@code null}. {@link BlankEval} is
      *         converted to {@link NumberEval#ZERO}
      */
-    private static ValueEval dereferenceResult(ValueEval evaluationResult, OperationEvaluationContext ec) {
+    /* package */ static ValueEval dereferenceResult(ValueEval evaluationResult, OperationEvaluationContext ec) {
         ValueEval value;
 
         if (ec == null) {
@@ -662,7 +757,7 @@ public final class WorkbookEvaluator {
      *
      * special Note: OperationPtg subtypes cannot be passed here!
      */
-    private ValueEval getEvalForPtg(Ptg ptg, OperationEvaluationContext ec) {
+    /* package */ ValueEval getEvalForPtg(Ptg ptg, OperationEvaluationContext ec) {
         //  consider converting all these (ptg instanceof XxxPtg) expressions to (ptg.getClass() == XxxPtg.class)
 
         if (ptg instanceof NamePtg) {
@@ -714,6 +809,25 @@ public final class WorkbookEvaluator {
         if (ptg instanceof Area3DPxg) {
            return ec.getArea3DEval((Area3DPxg)ptg);
         }
+        if (ptg instanceof RefNPtg) {
+           // the tokens of a shared formula are relocated to the evaluated cell
+           RefNPtg rptg = (RefNPtg) ptg;
+           SharedFormula sf = getSharedFormula();
+           return ec.getRefEval(
+               sf.fixupRelativeRow(ec.getRowIndex(), rptg.getRow(), rptg.isRowRelative()),
+               sf.fixupRelativeColumn(ec.getColumnIndex(), rptg.getColumn(), rptg.isColRelative()));
+        }
+        if (ptg instanceof AreaNPtg) {
+           AreaNPtg aptg = (AreaNPtg) ptg;
+           SharedFormula sf = getSharedFormula();
+           int row = ec.getRowIndex();
+           int column = ec.getColumnIndex();
+           return ec.getAreaEval(
+               sf.fixupRelativeRow(row, aptg.getFirstRow(), aptg.isFirstRowRelative()),
+               sf.fixupRelativeColumn(column, aptg.getFirstColumn(), aptg.isFirstColRelative()),
+               sf.fixupRelativeRow(row, aptg.getLastRow(), aptg.isLastRowRelative()),
+               sf.fixupRelativeColumn(column, aptg.getLastColumn(), aptg.isLastColRelative()));
+        }
         if (ptg instanceof RefPtg) {
            RefPtg rptg = (RefPtg) ptg;
            return ec.getRefEval(rptg.getRow(), rptg.getColumn());
@@ -938,6 +1052,52 @@ public final class WorkbookEvaluator {
         return _ignoreMissingWorkbooks;
     }
 
+    /**
+     * Whether to compile formulas into reusable executable trees instead of interpreting
+     * their tokens on each evaluation.<p>
+     *
+     * Compiling pays off if the same formulas are evaluated many times, e.g. when input cells
+     * are repeatedly changed (and announced with {@link #notifyUpdateCell(EvaluationCell)}) to
+     * recalculate a model. Formulas with the same relative structure, e.g. all cells of a shared
+     * formula group, share one compiled tree. Array formulas and formulas with unsupported tokens
+     * are still interpreted.<p>
+     *
+     * The compiled formula of a cell is kept until the cell itself is announced as changed or deleted -
+     * changes of its input cells only clear the cached results. So changes of formulas need to be
+     * announced via {@link #notifyUpdateCell(EvaluationCell)} or {@link #clearAllCachedResultValues()}.
+     *
+     * @param compile {@code true} to compile formulas, {@code false} (the default) to interpret them
+     *
+     * @since POI 5.0.1
+     */
+    public void setCompileFormulas(boolean compile){
+        if (!compile) {
+            _compiledFormulas = null;
+            _compiledFormulasByCell = null;
+        } else if (_compiledFormulas == null) {
+            _compiledFormulas = new HashMap<>();
+            _compiledFormulasByCell = new HashMap<>();
+        }
+    }
+    public boolean isCompileFormulas(){
+        return _compiledFormulas != null;
+    }
+
+    /**
+     * Attaches a profiler, which collects statistics about the following evaluations.
+     * The profiler slightly slows down the evaluation.
+     *
+     * @param profiler the profiler or {@code null} (the default) to stop profiling
+     *
+     * @since POI 5.0.1
+     */
+    public void setProfiler(EvaluationProfiler profiler){
+        _profiler = profiler;
+    }
+    public EvaluationProfiler getProfiler(){
+        return _profiler;
+    }
+
     /**
      * Return a collection of functions that POI can evaluate
      *
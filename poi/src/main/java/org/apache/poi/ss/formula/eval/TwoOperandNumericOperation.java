@@ -17,6 +17,7 @@
 
 package org.apache.poi.ss.formula.eval;
 
+import org.apache.poi.ss.formula.NumericCacheAreaEval;
 import org.apache.poi.ss.formula.functions.ArrayFunction;
 import org.apache.poi.ss.formula.functions.Fixed2ArgFunction;
 import org.apache.poi.ss.formula.functions.Function;
@@ -36,6 +37,10 @@ public abstract class TwoOperandNumericOperation extends Fixed2ArgFunction imple
 	    }
 	    //return new ArrayEval().evaluate(srcRowIndex, srcColumnIndex, args[0], args[1]);
 
+		ValueEval bulkResult = evaluateNumericArrays(args[0], args[1], srcRowIndex, srcColumnIndex);
+		if (bulkResult != null) {
+			return bulkResult;
+		}
 		return evaluateTwoArrayArgs(args[0], args[1], srcRowIndex, srcColumnIndex,
 				(vA, vB) -> {
 					try {
@@ -50,27 +55,191 @@ public abstract class TwoOperandNumericOperation extends Fixed2ArgFunction imple
 
 	}
 
+	/**
+	 * Evaluates the operator element by element on primitive arrays, if the operands are
+	 * equally sized areas or one area and a scalar.  The result is the same as of
+	 * {@link #evaluateTwoArrayArgs}, but without creating a {@link ValueEval} per element.
+	 *
+	 * @return the result area or {@code null} if the operands can't be evaluated in bulk
+	 */
+	private ValueEval evaluateNumericArrays(ValueEval arg0, ValueEval arg1, int srcRowIndex, int srcColumnIndex) {
+		boolean isScalar0 = isScalar(arg0);
+		boolean isScalar1 = isScalar(arg1);
+		if (isScalar0 && isScalar1) {
+			return null;
+		}
+		int height, width;
+		if (isScalar0) {
+			height = ((AreaEval)arg1).getHeight();
+			width = ((AreaEval)arg1).getWidth();
+		} else {
+			height = ((AreaEval)arg0).getHeight();
+			width = ((AreaEval)arg0).getWidth();
+			if (!isScalar1 && (((AreaEval)arg1).getHeight() != height || ((AreaEval)arg1).getWidth() != width)) {
+				return null;
+			}
+		}
+		int size = height * width;
+
+		double[] numbers0 = new double[isScalar0 ? 1 : size];
+		ValueEval[] others0 = getNumbers(arg0, isScalar0, numbers0, srcRowIndex, srcColumnIndex);
+		if (others0 == INVALID_OPERAND) {
+			return null;
+		}
+		double[] numbers1 = new double[isScalar1 ? 1 : size];
+		ValueEval[] others1 = getNumbers(arg1, isScalar1, numbers1, srcRowIndex, srcColumnIndex);
+		if (others1 == INVALID_OPERAND) {
+			return null;
+		}
+		int step0 = isScalar0 ? 0 : 1;
+		int step1 = isScalar1 ? 0 : 1;
+
+		double[] result = new double[size];
+		ValueEval[] otherResults = null;
+		for (int i = 0, i0 = 0, i1 = 0; i < size; i++, i0 += step0, i1 += step1) {
+			ValueEval other0 = others0 == null ? null : others0[i0];
+			ValueEval other1 = others1 == null ? null : others1[i1];
+			ValueEval error = null;
+			if (other0 == null && other1 == null) {
+				try {
+					result[i] = evaluate(numbers0[i0], numbers1[i1]);
+					continue;
+				} catch (EvaluationException e) {
+					error = e.getErrorEval();
+				}
+			} else if (other0 instanceof ErrorEval) {
+				error = other0;
+			} else if (other1 instanceof ErrorEval) {
+				error = other1;
+			} else {
+				// a string which is not a number
+				error = ErrorEval.VALUE_INVALID;
+			}
+			if (otherResults == null) {
+				otherResults = new ValueEval[size];
+			}
+			otherResults[i] = error;
+		}
+		return new NumericCacheAreaEval(srcRowIndex, srcColumnIndex, srcRowIndex + height - 1,
+				srcColumnIndex + width - 1, result, otherResults);
+	}
+
+	private static final ValueEval[] INVALID_OPERAND = {};
+	private static final ValueEval UNSUPPORTED_VALUE = new StringEval("");
+
+	/**
+	 * A reference or a single cell area is used as scalar by {@link ArrayFunction#evaluateTwoArrayArgs}
+	 */
+	private static boolean isScalar(ValueEval arg) {
+		return !(arg instanceof AreaEval) || (((AreaEval)arg).isRow() && ((AreaEval)arg).isColumn());
+	}
+
+	/**
+	 * Coerces the values of the operand to numbers
+	 *
+	 * @return the values which can't be coerced, i.e. errors and non-numeric strings, at their index,
+	 * or {@code null} if all values are numbers, or {@link #INVALID_OPERAND} if the values can't be
+	 * evaluated in bulk
+	 */
+	private static ValueEval[] getNumbers(ValueEval arg, boolean isScalar, double[] numbers,
+			int srcRowIndex, int srcColumnIndex) {
+		if (isScalar) {
+			ValueEval ve;
+			try {
+				ve = OperandResolver.getSingleValue(arg, srcRowIndex, srcColumnIndex);
+			} catch (EvaluationException e) {
+				ve = e.getErrorEval();
+			} catch (RuntimeException e) {
+				return INVALID_OPERAND;
+			}
+			ValueEval other = coerceToNumber(ve, numbers, 0);
+			return other == UNSUPPORTED_VALUE ? INVALID_OPERAND : other == null ? null : new ValueEval[]{ other };
+		}
+
+		AreaEval ae = (AreaEval)arg;
+		NumericCacheAreaEval nae = arg instanceof NumericCacheAreaEval ? (NumericCacheAreaEval)arg : null;
+		int width = ae.getWidth();
+		ValueEval[] others = null;
+		for (int i = 0; i < numbers.length; i++) {
+			ValueEval other;
+			if (nae == null) {
+				other = coerceToNumber(ae.getRelativeValue(i / width, i % width), numbers, i);
+			} else if (nae.isNumber(i)) {
+				numbers[i] = nae.getNumber(i);
+				continue;
+			} else {
+				other = coerceToNumber(nae.getValue(i), numbers, i);
+			}
+			if (other == null) {
+				continue;
+			}
+			if (other == UNSUPPORTED_VALUE) {
+				return INVALID_OPERAND;
+			}
+			if (others == null) {
+				others = new ValueEval[numbers.length];
+			}
+			others[i] = other;
+		}
+		return others;
+	}
+
+	/**
+	 * @return {@code null} if the value was coerced to a number, the value itself if it's an error or
+	 * a non-numeric string, {@link #UNSUPPORTED_VALUE} for any other value
+	 */
+	private static ValueEval coerceToNumber(ValueEval ve, double[] numbers, int index) {
+		if (ve instanceof ErrorEval) {
+			return ve;
+		}
+		if (ve != BlankEval.instance && !(ve instanceof NumericValueEval) && !(ve instanceof StringEval)) {
+			return UNSUPPORTED_VALUE;
+		}
+		try {
+			numbers[index] = OperandResolver.coerceValueToDouble(ve);
+			return null;
+		} catch (EvaluationException e) {
+			return ve;
+		}
+	}
+
 	public ValueEval evaluate(int srcRowIndex, int srcColumnIndex, ValueEval arg0, ValueEval arg1) {
 		double result;
 		try {
 			double d0 = singleOperandEvaluate(arg0, srcRowIndex, srcColumnIndex);
 			double d1 = singleOperandEvaluate(arg1, srcRowIndex, srcColumnIndex);
-			result = evaluate(d0, d1);
-			if (result == 0.0) { // this '==' matches +0.0 and -0.0
-				// Excel converts -0.0 to +0.0 for '*', '/', '%', '+' and '^'
-				if (!(this instanceof SubtractEvalClass)) {
-					return NumberEval.ZERO;
-				}
-			}
-			if (Double.isNaN(result) || Double.isInfinite(result)) {
-				return ErrorEval.NUM_ERROR;
-			}
+			result = evaluateNumbers(d0, d1);
 		} catch (EvaluationException e) {
 			return e.getErrorEval();
 		}
+		if (result == 0.0 && !(this instanceof SubtractEvalClass)) {
+			return NumberEval.ZERO;
+		}
 		return new NumberEval(result);
 	}
 
+	/**
+	 * Applies this operator to two operands which have already been coerced to numbers,
+	 * e.g. by the primitive evaluation paths of a compiled formula.
+	 *
+	 * @return the result, with -0.0 normalized to +0.0 like Excel does for all operators but '-'
+	 * @throws EvaluationException with {@code #NUM!} if the result is not a finite number,
+	 *  or with the operator specific error (e.g. {@code #DIV/0!})
+	 */
+	public final double evaluateNumbers(double d0, double d1) throws EvaluationException {
+		double result = evaluate(d0, d1);
+		if (result == 0.0) { // this '==' matches +0.0 and -0.0
+			// Excel converts -0.0 to +0.0 for '*', '/', '%', '+' and '^'
+			if (!(this instanceof SubtractEvalClass)) {
+				return 0.0;
+			}
+		}
+		if (Double.isNaN(result) || Double.isInfinite(result)) {
+			throw new EvaluationException(ErrorEval.NUM_ERROR);
+		}
+		return result;
+	}
+
 	protected abstract double evaluate(double d0, double d1) throws EvaluationException;
 
 	private final class ArrayEval extends TwoArrayArg {
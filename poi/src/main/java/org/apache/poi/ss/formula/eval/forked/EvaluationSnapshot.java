@@ -0,0 +1,60 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval.forked;
+
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * An immutable copy of everything the formula evaluator needs from a workbook: the sheet index,
+ * the cell constants, the parsed formulas and the defined names.<br>
+ *
+ * Unlike a {@link Workbook}, a snapshot can be read by many threads at the same time, so a single
+ * snapshot can back any number of {@link ForkedEvaluator}s created with
+ * {@link ForkedEvaluator#create(EvaluationSnapshot, org.apache.poi.ss.formula.IStabilityClassifier, org.apache.poi.ss.formula.udf.UDFFinder)}.
+ * Each of these evaluators only keeps the cells it has updated and its own calculation cache.<br>
+ *
+ * Changes made to the workbook after the snapshot has been taken are not visible to the snapshot.
+ * This includes the references to external sheets and names, which are resolved when the snapshot
+ * is created, so the source workbook may be modified while the snapshot is in use.
+ *
+ * @since POI 5.0.1
+ */
+public final class EvaluationSnapshot {
+
+    private final SnapshotEvaluationWorkbook _workbook;
+
+    private EvaluationSnapshot(SnapshotEvaluationWorkbook workbook) {
+        _workbook = workbook;
+    }
+
+    /**
+     * Takes a snapshot of the supplied workbook.  All formulas are parsed immediately, so
+     * this is roughly as expensive as a single full recalculation.
+     *
+     * @param wb the workbook to copy
+     * @return the snapshot of {@code wb}
+     */
+    public static EvaluationSnapshot create(Workbook wb) {
+        return new EvaluationSnapshot(new SnapshotEvaluationWorkbook(wb));
+    }
+
+    /* package */ EvaluationWorkbook getEvaluationWorkbook() {
+        return _workbook;
+    }
+}
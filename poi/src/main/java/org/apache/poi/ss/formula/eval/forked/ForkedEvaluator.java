@@ -58,6 +58,28 @@ public final class ForkedEvaluator {
 		return new ForkedEvaluator(wb.createEvaluationWorkbook(), stabilityClassifier, udfFinder);
 	}
 
+	/**
+	 * Creates an evaluator on top of an immutable {@link EvaluationSnapshot}.  As opposed to
+	 * {@link #create(Workbook, IStabilityClassifier, UDFFinder)}, any number of these evaluators
+	 * can share the snapshot while running on separate threads.
+	 *
+	 * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
+	 * @since POI 5.0.1
+	 */
+	public static ForkedEvaluator create(EvaluationSnapshot snapshot, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
+		return new ForkedEvaluator(snapshot.getEvaluationWorkbook(), stabilityClassifier, udfFinder);
+	}
+
+	/**
+	 * Whether formulas should be compiled for faster repeated evaluation, see
+	 * {@link WorkbookEvaluator#setCompileFormulas(boolean)}
+	 *
+	 * @since POI 5.0.1
+	 */
+	public void setCompileFormulas(boolean compile) {
+		_evaluator.setCompileFormulas(compile);
+	}
+
 	/**
 	 * Sets the specified cell to the supplied {@code value}
 	 * @param sheetName the name of the sheet containing the cell
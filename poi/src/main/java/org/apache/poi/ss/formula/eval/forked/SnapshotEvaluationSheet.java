@@ -0,0 +1,121 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval.forked;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.Internal;
+
+/**
+ * Immutable copy of a sheet of an {@link EvaluationSnapshot}.  The cells are kept in one array
+ * per row, so lookups don't allocate and can safely be done from several threads.<br>
+ *
+ * For POI internal use only
+ */
+@Internal
+final class SnapshotEvaluationSheet implements EvaluationSheet {
+
+    private final int _sheetIndex;
+    private final int _lastRowNum;
+    private final SnapshotEvaluationCell[][] _rows;
+    private final BitSet _hiddenRows;
+
+    public SnapshotEvaluationSheet(EvaluationWorkbook masterBook, Sheet sheet, int sheetIndex) {
+        _sheetIndex = sheetIndex;
+        _lastRowNum = sheet.getLastRowNum();
+        _rows = new SnapshotEvaluationCell[Math.max(_lastRowNum + 1, 0)][];
+        _hiddenRows = new BitSet();
+
+        EvaluationSheet masterSheet = masterBook.getSheet(sheetIndex);
+        for (Row row : sheet) {
+            int rowIndex = row.getRowNum();
+            if (masterSheet.isRowHidden(rowIndex)) {
+                _hiddenRows.set(rowIndex);
+            }
+            SnapshotEvaluationCell[] cells = new SnapshotEvaluationCell[Math.max(row.getLastCellNum(), 0)];
+            for (Cell cell : row) {
+                EvaluationCell masterCell = masterSheet.getCell(rowIndex, cell.getColumnIndex());
+                if (masterCell == null) {
+                    continue;
+                }
+                cells[cell.getColumnIndex()] = new SnapshotEvaluationCell(this, masterCell,
+                        masterCell.getCellType() == CellType.FORMULA ? masterBook.getFormulaTokens(masterCell) : null);
+            }
+            _rows[rowIndex] = cells;
+        }
+    }
+
+    @Override
+    public EvaluationCell getCell(int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= _rows.length) {
+            return null;
+        }
+        SnapshotEvaluationCell[] cells = _rows[rowIndex];
+        if (cells == null || columnIndex < 0 || columnIndex >= cells.length) {
+            return null;
+        }
+        return cells[columnIndex];
+    }
+
+    @Override
+    public int getLastRowNum() {
+        return _lastRowNum;
+    }
+
+    @Override
+    public boolean isRowHidden(int rowIndex) {
+        return rowIndex >= 0 && _hiddenRows.get(rowIndex);
+    }
+
+    public int getSheetIndex() {
+        return _sheetIndex;
+    }
+
+    /**
+     * Calls the action for the tokens of every formula cell of the sheet
+     */
+    void forEachFormula(Consumer<Ptg[]> action) {
+        for (SnapshotEvaluationCell[] cells : _rows) {
+            if (cells == null) {
+                continue;
+            }
+            for (SnapshotEvaluationCell cell : cells) {
+                if (cell != null && cell.getFormulaTokens() != null) {
+                    action.accept(cell.getFormulaTokens());
+                }
+            }
+        }
+    }
+
+    /**
+     * A snapshot has no cached results to clear.
+     */
+    @Override
+    public void clearAllCachedResultValues() {
+        // nothing to do
+    }
+}
@@ -0,0 +1,314 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval.forked;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationName;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.ExternSheetReferenceToken;
+import org.apache.poi.ss.formula.ptg.NamePtg;
+import org.apache.poi.ss.formula.ptg.NameXPtg;
+import org.apache.poi.ss.formula.ptg.NameXPxg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.Pxg3D;
+import org.apache.poi.ss.formula.udf.UDFFinder;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.Internal;
+
+/**
+ * Immutable copy of the evaluation view of a workbook, backing an {@link EvaluationSnapshot}.
+ * Sheets, cells, parsed formulas and names are copied when the snapshot is created.  The external
+ * sheets and names, which are referenced by the copied formulas, are resolved at the same time,
+ * so the evaluation never accesses the master workbook.<br>
+ *
+ * For POI internal use only
+ */
+@Internal
+final class SnapshotEvaluationWorkbook implements EvaluationWorkbook {
+
+    private final EvaluationWorkbook _masterBook;
+    private final String[] _sheetNames;
+    private final Map<String, Integer> _sheetIndexesByName;
+    private final SnapshotEvaluationSheet[] _sheets;
+    private final SnapshotEvaluationName[] _names;
+    private final UDFFinder _udfFinder;
+    private final SpreadsheetVersion _spreadsheetVersion;
+    private final Map<String, SnapshotEvaluationName> _namesByText;
+    // the external references are resolved when the snapshot is created and not modified afterwards
+    private final Map<Object, Object> _externalSheets = new HashMap<>();
+    private final Map<Object, Object> _sheetIndexesByExternIndex = new HashMap<>();
+    private final Map<Object, Object> _externalNames = new HashMap<>();
+    private final Map<Object, Object> _nameXTexts = new HashMap<>();
+
+    public SnapshotEvaluationWorkbook(Workbook wb) {
+        _masterBook = wb.createEvaluationWorkbook();
+        int nSheets = wb.getNumberOfSheets();
+        _sheetNames = new String[nSheets];
+        _sheetIndexesByName = new HashMap<>(nSheets * 3 / 2);
+        _sheets = new SnapshotEvaluationSheet[nSheets];
+        for (int i = 0; i < nSheets; i++) {
+            _sheetNames[i] = wb.getSheetName(i);
+            _sheetIndexesByName.put(caseInsensitive(_sheetNames[i]), i);
+            _sheets[i] = new SnapshotEvaluationSheet(_masterBook, wb.getSheetAt(i), i);
+        }
+
+        List<? extends Name> names = wb.getAllNames();
+        _names = new SnapshotEvaluationName[names.size()];
+        _namesByText = new HashMap<>(_names.length * 3 / 2);
+        for (int i = 0; i < _names.length; i++) {
+            EvaluationName masterName = _masterBook.getName(new NamePtg(i));
+            _names[i] = new SnapshotEvaluationName(masterName, names.get(i).getSheetIndex());
+            // like the master workbook, the first of duplicate names wins
+            _namesByText.putIfAbsent(nameKey(_names[i].getNameText(), _names[i].getSheetIndex()), _names[i]);
+            if (_names[i].hasFormula()) {
+                resolveExternalReferences(_names[i].getNameDefinition());
+            }
+        }
+        for (SnapshotEvaluationSheet sheet : _sheets) {
+            sheet.forEachFormula(this::resolveExternalReferences);
+        }
+
+        _udfFinder = _masterBook.getUDFFinder();
+        _spreadsheetVersion = _masterBook.getSpreadsheetVersion();
+    }
+
+    private static String caseInsensitive(String s) {
+        return s.toUpperCase(Locale.ROOT);
+    }
+
+    private static String nameKey(String name, int sheetIndex) {
+        return sheetIndex + "!" + caseInsensitive(name);
+    }
+
+    @Override
+    public String getSheetName(int sheetIndex) {
+        return _sheetNames[sheetIndex];
+    }
+
+    @Override
+    public int getSheetIndex(EvaluationSheet sheet) {
+        return ((SnapshotEvaluationSheet) sheet).getSheetIndex();
+    }
+
+    @Override
+    public int getSheetIndex(String sheetName) {
+        Integer index = _sheetIndexesByName.get(caseInsensitive(sheetName));
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public EvaluationSheet getSheet(int sheetIndex) {
+        return _sheets[sheetIndex];
+    }
+
+    @Override
+    public ExternalSheet getExternalSheet(int externSheetIndex) {
+        return lookup(_externalSheets, externSheetIndex);
+    }
+
+    @Override
+    public ExternalSheet getExternalSheet(String firstSheetName, String lastSheetName, int externalWorkbookNumber) {
+        return lookup(_externalSheets, Arrays.asList(firstSheetName, lastSheetName, externalWorkbookNumber));
+    }
+
+    @Override
+    public int convertFromExternSheetIndex(int externSheetIndex) {
+        return lookup(_sheetIndexesByExternIndex, externSheetIndex);
+    }
+
+    @Override
+    public ExternalName getExternalName(int externSheetIndex, int externNameIndex) {
+        return lookup(_externalNames, Arrays.asList(externSheetIndex, externNameIndex));
+    }
+
+    @Override
+    public ExternalName getExternalName(String nameName, String sheetName, int externalWorkbookNumber) {
+        return lookup(_externalNames, Arrays.asList(nameName, sheetName, externalWorkbookNumber));
+    }
+
+    @Override
+    public EvaluationName getName(NamePtg namePtg) {
+        return _names[namePtg.getIndex()];
+    }
+
+    @Override
+    public EvaluationName getName(String name, int sheetIndex) {
+        EvaluationName nm = _namesByText.get(nameKey(name, sheetIndex));
+        return (nm != null || sheetIndex == -1) ? nm : getName(name, -1);
+    }
+
+    @Override
+    public String resolveNameXText(NameXPtg ptg) {
+        return lookup(_nameXTexts, Arrays.asList(ptg.getSheetRefIndex(), ptg.getNameIndex()));
+    }
+
+    /**
+     * Resolves the external sheets and names, which are referenced by the formulas and names
+     * of the snapshot, so the evaluation doesn't need to access the master workbook.
+     */
+    private void resolveExternalReferences(Ptg[] ptgs) {
+        for (Ptg ptg : ptgs) {
+            if (ptg instanceof ExternSheetReferenceToken) {
+                int ix = ((ExternSheetReferenceToken) ptg).getExternSheetIndex();
+                resolve(_externalSheets, ix, () -> _masterBook.getExternalSheet(ix));
+                resolve(_sheetIndexesByExternIndex, ix, () -> _masterBook.convertFromExternSheetIndex(ix));
+            } else if (ptg instanceof NameXPtg) {
+                NameXPtg nameX = (NameXPtg) ptg;
+                int ix = nameX.getSheetRefIndex();
+                ExternalSheet externalSheet = resolve(_externalSheets, ix, () -> _masterBook.getExternalSheet(ix));
+                resolve(_nameXTexts, Arrays.asList(ix, nameX.getNameIndex()), () -> _masterBook.resolveNameXText(nameX));
+                if (externalSheet != null && externalSheet.getWorkbookName() != null) {
+                    resolve(_externalNames, Arrays.asList(ix, nameX.getNameIndex()),
+                            () -> _masterBook.getExternalName(ix, nameX.getNameIndex()));
+                }
+            } else if (ptg instanceof Pxg3D) {
+                Pxg3D pxg = (Pxg3D) ptg;
+                resolve(_externalSheets, Arrays.asList(pxg.getSheetName(), pxg.getLastSheetName(), pxg.getExternalWorkbookNumber()),
+                        () -> _masterBook.getExternalSheet(pxg.getSheetName(), pxg.getLastSheetName(), pxg.getExternalWorkbookNumber()));
+            } else if (ptg instanceof NameXPxg) {
+                NameXPxg nameX = (NameXPxg) ptg;
+                ExternalSheet externalSheet = resolve(_externalSheets,
+                        Arrays.asList(nameX.getSheetName(), null, nameX.getExternalWorkbookNumber()),
+                        () -> _masterBook.getExternalSheet(nameX.getSheetName(), null, nameX.getExternalWorkbookNumber()));
+                if (externalSheet != null && externalSheet.getWorkbookName() != null) {
+                    resolve(_externalNames, Arrays.asList(nameX.getNameName(), nameX.getSheetName(), nameX.getExternalWorkbookNumber()),
+                            () -> _masterBook.getExternalName(nameX.getNameName(), nameX.getSheetName(), nameX.getExternalWorkbookNumber()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the entry once - a failed lookup is remembered and rethrown on access,
+     * like the master workbook would fail on each evaluation
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T resolve(Map<Object, Object> resolved, Object key, Supplier<T> lookup) {
+        if (resolved.containsKey(key)) {
+            Object value = resolved.get(key);
+            return (value instanceof RuntimeException) ? null : (T) value;
+        }
+        try {
+            T value = lookup.get();
+            resolved.put(key, value);
+            return value;
+        } catch (RuntimeException e) {
+            resolved.put(key, e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T lookup(Map<Object, Object> resolved, Object key) {
+        Object value = resolved.get(key);
+        if (value instanceof RuntimeException) {
+            throw (RuntimeException) value;
+        }
+        if (value == null && !resolved.containsKey(key)) {
+            throw new IllegalStateException("The reference " + key + " is not part of the snapshot");
+        }
+        return (T) value;
+    }
+
+    @Override
+    public Ptg[] getFormulaTokens(EvaluationCell cell) {
+        return ((SnapshotEvaluationCell) cell).getFormulaTokens();
+    }
+
+    @Override
+    public UDFFinder getUDFFinder() {
+        return _udfFinder;
+    }
+
+    @Override
+    public SpreadsheetVersion getSpreadsheetVersion() {
+        return _spreadsheetVersion;
+    }
+
+    /**
+     * A snapshot has no cached results to clear.
+     */
+    @Override
+    public void clearAllCachedResultValues() {
+        // nothing to do
+    }
+
+    private static final class SnapshotEvaluationName implements EvaluationName {
+        private final String _nameText;
+        private final int _sheetIndex;
+        private final boolean _isFunctionName;
+        private final boolean _hasFormula;
+        private final boolean _isRange;
+        private final Ptg[] _nameDefinition;
+        private final NamePtg _ptg;
+
+        SnapshotEvaluationName(EvaluationName masterName, int sheetIndex) {
+            _nameText = masterName.getNameText();
+            _sheetIndex = sheetIndex;
+            _isFunctionName = masterName.isFunctionName();
+            _hasFormula = masterName.hasFormula();
+            _isRange = masterName.isRange();
+            _nameDefinition = _hasFormula ? masterName.getNameDefinition() : null;
+            _ptg = masterName.createPtg();
+        }
+
+        int getSheetIndex() {
+            return _sheetIndex;
+        }
+
+        @Override
+        public String getNameText() {
+            return _nameText;
+        }
+
+        @Override
+        public boolean isFunctionName() {
+            return _isFunctionName;
+        }
+
+        @Override
+        public boolean hasFormula() {
+            return _hasFormula;
+        }
+
+        @Override
+        public Ptg[] getNameDefinition() {
+            return _nameDefinition;
+        }
+
+        @Override
+        public boolean isRange() {
+            return _isRange;
+        }
+
+        @Override
+        public NamePtg createPtg() {
+            return _ptg;
+        }
+    }
+}
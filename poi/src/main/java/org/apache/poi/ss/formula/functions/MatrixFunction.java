@@ -17,14 +17,13 @@
 
 package org.apache.poi.ss.formula.functions;
 
-import org.apache.poi.ss.formula.CacheAreaEval;
+import org.apache.poi.ss.formula.NumericCacheAreaEval;
 import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.ErrorEval;
 import org.apache.poi.ss.formula.eval.EvaluationException;
 import org.apache.poi.ss.formula.eval.NumberEval;
 import org.apache.poi.ss.formula.eval.OperandResolver;
 import org.apache.poi.ss.formula.eval.ValueEval;
-import org.apache.commons.math3.exception.DimensionMismatchException;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.MatrixUtils;
@@ -111,20 +110,14 @@ public abstract class MatrixFunction implements Function{
                     return e.getErrorEval();
                 }
 
-                ValueEval[] vals = new ValueEval[result.length];
-
-                for (int idx = 0; idx < result.length; idx++) {
-                    vals[idx] = new NumberEval(result[idx]);
-                }
-
                 if (result.length == 1) {
-                    return vals[0];
+                    return new NumberEval(result[0]);
                 }
                 else {
                     /* find a better solution */
-                    return new CacheAreaEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
+                    return new NumericCacheAreaEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
                                             ((AreaEval) arg0).getFirstRow() + height - 1,
-                                            ((AreaEval) arg0).getFirstColumn() + width - 1, vals);
+                                            ((AreaEval) arg0).getFirstColumn() + width - 1, result, null);
                 }
             }
             else {
@@ -214,18 +207,12 @@ public abstract class MatrixFunction implements Function{
             }
 
 
-            ValueEval[] vals = new ValueEval[result.length];
-
-            for (int idx = 0; idx < result.length; idx++) {
-                vals[idx] = new NumberEval(result[idx]);
-            }
-
             if (result.length == 1)
-                return vals[0];
+                return new NumberEval(result[0]);
             else {
-                return new CacheAreaEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
+                return new NumericCacheAreaEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
                         ((AreaEval) arg0).getFirstRow() + height - 1,
-                        ((AreaEval) arg0).getFirstColumn() + width - 1, vals);
+                        ((AreaEval) arg0).getFirstColumn() + width - 1, result, null);
             }
 
         }
@@ -278,9 +265,16 @@ public abstract class MatrixFunction implements Function{
         }
 
         protected double[][] evaluate(double[][] d1) throws EvaluationException {
-
-            Array2DRowRealMatrix temp = new Array2DRowRealMatrix(d1);
-            return temp.transpose().getData();
+            int rows = d1.length;
+            int cols = d1[0].length;
+            double[][] result = new double[cols][rows];
+            for (int i = 0; i < rows; i++) {
+                double[] row = d1[i];
+                for (int j = 0; j < cols; j++) {
+                    result[j][i] = row[j];
+                }
+            }
+            return result;
         }
     };
 
@@ -330,17 +324,26 @@ public abstract class MatrixFunction implements Function{
         }
 
         protected double[][] evaluate(double[][] d1, double[][] d2) throws EvaluationException{
-            Array2DRowRealMatrix first = new Array2DRowRealMatrix(d1);
-            Array2DRowRealMatrix second = new Array2DRowRealMatrix(d2);
-
-            try {
-                MatrixUtils.checkMultiplicationCompatible(first, second);
-            }
-            catch (DimensionMismatchException e) {
+            int n = d2.length;
+            if (d1[0].length != n) {
                 throw new EvaluationException(ErrorEval.VALUE_INVALID);
             }
 
-            return first.multiply(second).getData();
+            // i-k-j order walks both matrices row by row, without copying them
+            int cols = d2[0].length;
+            double[][] result = new double[d1.length][cols];
+            for (int i = 0; i < d1.length; i++) {
+                double[] row1 = d1[i];
+                double[] resultRow = result[i];
+                for (int k = 0; k < n; k++) {
+                    double a = row1[k];
+                    double[] row2 = d2[k];
+                    for (int j = 0; j < cols; j++) {
+                        resultRow[j] += a * row2[j];
+                    }
+                }
+            }
+            return result;
         }
     };
 }
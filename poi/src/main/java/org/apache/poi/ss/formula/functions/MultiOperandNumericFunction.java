@@ -20,6 +20,7 @@ package org.apache.poi.ss.formula.functions;
 import java.util.Arrays;
 
 import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.NumericCacheAreaEval;
 import org.apache.poi.ss.formula.ThreeDEval;
 import org.apache.poi.ss.formula.TwoDEval;
 import org.apache.poi.ss.formula.eval.BlankEval;
@@ -84,6 +85,13 @@ public abstract class MultiOperandNumericFunction implements Function {
             _array[_count] = value;
             _count++;
         }
+
+        public void addAll(NumericCacheAreaEval values, int length) {
+            ensureCapacity(_count + length);
+            for (int i = 0; i < length; i++) {
+                _array[_count++] = values.getNumber(i);
+            }
+        }
     }
 
     private static final int DEFAULT_MAX_NUM_OPERANDS = SpreadsheetVersion.EXCEL2007.getMaxFunctionArgs();
@@ -159,6 +167,22 @@ public abstract class MultiOperandNumericFunction implements Function {
      * Collects values from a single argument
      */
     private void collectValues(ValueEval operand, DoubleList temp) throws EvaluationException {
+        if (operand instanceof NumericCacheAreaEval) {
+            NumericCacheAreaEval ae = (NumericCacheAreaEval) operand;
+            int length = ae.getWidth() * ae.getHeight();
+            if (ae.isAllNumbers()) {
+                temp.addAll(ae, length);
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                if (ae.isNumber(i)) {
+                    temp.add(ae.getNumber(i));
+                } else {
+                    collectValue(ae.getValue(i), true, temp);
+                }
+            }
+            return;
+        }
         if (operand instanceof ThreeDEval) {
             ThreeDEval ae = (ThreeDEval) operand;
             for (int sIx = ae.getFirstSheetIndex(); sIx <= ae.getLastSheetIndex(); sIx++) {
@@ -19,6 +19,7 @@ package org.apache.poi.ss.formula.functions;
 
 import java.util.Arrays;
 
+import org.apache.poi.ss.formula.NumericCacheAreaEval;
 import org.apache.poi.ss.formula.TwoDEval;
 import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.BlankEval;
@@ -148,14 +149,31 @@ public final class Sumproduct implements Function {
 			return ErrorEval.VALUE_INVALID;
 		}
 
+		// the terms are collected per row and argument, so primitive arrays can be read in bulk
+		double[][] terms = new double[maxN][width];
 		double acc = 0;
 
 		for (int rrIx=0; rrIx<height; rrIx++) {
+			int firstError = Integer.MAX_VALUE;
+			ErrorEval error = null;
+			for(int n=0; n<maxN; n++) {
+				int errorIx = collectProductTerms(args[n], rrIx, terms[n]);
+				if (errorIx >= 0) {
+					// the first error in the order of the cells, then of the arguments, takes precedence
+					int pos = errorIx * maxN + n;
+					if (pos < firstError) {
+						firstError = pos;
+						error = (ErrorEval) args[n].getValue(rrIx, errorIx);
+					}
+				}
+			}
+			if (error != null) {
+				throw new EvaluationException(error);
+			}
 			for (int rcIx=0; rcIx<width; rcIx++) {
 				double term = 1D;
 				for(int n=0; n<maxN; n++) {
-					double val = getProductTerm(args[n].getValue(rrIx, rcIx), false);
-					term *= val;
+					term *= terms[n][rcIx];
 				}
 				acc += term;
 			}
@@ -164,6 +182,39 @@ public final class Sumproduct implements Function {
 		return new NumberEval(acc);
 	}
 
+	/**
+	 * Collects the product terms of one row of an area
+	 *
+	 * @return the column index of the first error, or -1 if there is no error in the row
+	 */
+	private static int collectProductTerms(TwoDEval area, int rowIndex, double[] terms) throws EvaluationException {
+		int width = terms.length;
+		if (area instanceof NumericCacheAreaEval) {
+			NumericCacheAreaEval nae = (NumericCacheAreaEval) area;
+			int offset = rowIndex * width;
+			for (int rcIx=0; rcIx<width; rcIx++) {
+				if (nae.isNumber(offset + rcIx)) {
+					terms[rcIx] = nae.getNumber(offset + rcIx);
+				} else {
+					ValueEval ve = nae.getValue(offset + rcIx);
+					if (ve instanceof ErrorEval) {
+						return rcIx;
+					}
+					terms[rcIx] = getProductTerm(ve, false);
+				}
+			}
+			return -1;
+		}
+		for (int rcIx=0; rcIx<width; rcIx++) {
+			ValueEval ve = area.getValue(rowIndex, rcIx);
+			if (ve instanceof ErrorEval) {
+				return rcIx;
+			}
+			terms[rcIx] = getProductTerm(ve, false);
+		}
+		return -1;
+	}
+
 	private static void throwFirstError(TwoDEval areaEval) throws EvaluationException {
 		int height = areaEval.getHeight();
 		int width = areaEval.getWidth();
@@ -65,6 +65,7 @@ public final class ArrayPtg extends Ptg {
 	}
 
 	public ArrayPtg(ArrayPtg other) {
+		super(other);
 		_reserved0Int = other._reserved0Int;
 		_reserved1Short = other._reserved1Short;
 		_reserved2Byte = other._reserved2Byte;
@@ -24,6 +24,10 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
@@ -34,6 +38,7 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
 
 /**
  * Factory for creating the appropriate kind of Workbook
@@ -287,6 +292,116 @@ public final class WorkbookFactory {
         return null;
     }
 
+    /**
+     * Creates the appropriate HSSFWorkbook / XSSFWorkbook from
+     *  the given Path, which must exist and be readable.
+     * <p>Note that in order to properly release resources the
+     *  Workbook should be closed after use.
+     *
+     *  @param path The file to read data from.
+     *
+     *  @return The created Workbook
+     *
+     *  @throws IOException if an error occurs while reading the data
+     *  @throws EncryptedDocumentException If the Workbook given is password protected
+     *
+     *  @since POI 5.0.1
+     */
+    public static Workbook create(Path path) throws IOException, EncryptedDocumentException {
+        return create(path, null);
+    }
+
+    /**
+     * Creates the appropriate HSSFWorkbook / XSSFWorkbook from
+     *  the given Path, which must exist and be readable, and
+     *  may be password protected
+     * <p>Note that in order to properly release resources the
+     *  Workbook should be closed after use.
+     *
+     *  @param path The file to read data from.
+     *  @param password The password that should be used or null if no password is necessary.
+     *
+     *  @return The created Workbook
+     *
+     *  @throws IOException if an error occurs while reading the data
+     *  @throws EncryptedDocumentException If the wrong password is given for a protected file
+     *
+     *  @since POI 5.0.1
+     */
+    public static Workbook create(Path path, String password) throws IOException, EncryptedDocumentException {
+        return create(path, password, false);
+    }
+
+    /**
+     * Creates the appropriate HSSFWorkbook / XSSFWorkbook from
+     *  the given Path, which must exist and be readable, and
+     *  may be password protected
+     * <p>In read-only mode, the file is opened only once: the file magic
+     *  is sniffed from the same {@link FileChannel}, which is then handed
+     *  over to the workbook. Otherwise this is the same as {@link #create(File, String, boolean)}.
+     * <p>Note that in order to properly release resources the
+     *  Workbook should be closed after use.
+     *
+     *  @param path The file to read data from.
+     *  @param password The password that should be used or null if no password is necessary.
+     *  @param readOnly If the Workbook should be opened in read-only mode to avoid writing back
+     *      changes when the document is closed.
+     *
+     *  @return The created Workbook
+     *
+     *  @throws IOException if an error occurs while reading the data
+     *  @throws EncryptedDocumentException If the wrong password is given for a protected file
+     *
+     *  @since POI 5.0.1
+     */
+    @SuppressWarnings({"java:S2095"})
+    public static Workbook create(Path path, String password, boolean readOnly) throws IOException, EncryptedDocumentException {
+        if (!readOnly) {
+            return create(path.toFile(), password, false);
+        }
+
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(path.toString());
+        }
+
+        try {
+            if (channel.size() == 0) {
+                throw new EmptyFileException(path.toFile());
+            }
+
+            final FileMagic fm = FileMagic.valueOf(channel);
+            if (fm == FileMagic.OOXML) {
+                return wp(fm, w -> w.create(channel, password));
+            } else if (fm != FileMagic.OLE2) {
+                channel.close();
+                return null;
+            }
+
+            final POIFSFileSystem fs = new POIFSFileSystem(channel, true);
+            try {
+                final DirectoryNode root = fs.getRoot();
+                if (root.hasEntry(DEFAULT_POIFS_ENTRY) || root.hasEntry(OOXML_PACKAGE)) {
+                    // the decrypted package is held in memory, so the container can be closed
+                    try {
+                        return wp(FileMagic.OOXML, w -> w.create(root, password));
+                    } finally {
+                        fs.close();
+                    }
+                }
+                return wp(fm, w -> w.create(root, password));
+            } catch (IOException | RuntimeException e) {
+                IOUtils.closeQuietly(fs);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            IOUtils.closeQuietly(channel);
+            throw e;
+        }
+    }
+
 
     private static Workbook wp(FileMagic fm, ProviderMethod fun) throws IOException {
 
@@ -20,6 +20,8 @@ package org.apache.poi.ss.usermodel;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.FileMagic;
@@ -36,4 +38,24 @@ public interface WorkbookProvider {
     Workbook create(DirectoryNode root, String password) throws IOException;
 
     Workbook create(File file, String password, boolean readOnly) throws IOException;
+
+    /**
+     * Create a read-only Workbook from an open file channel, whose file magic was already checked
+     * by the caller. The workbook takes over the channel and closes it, when the workbook is closed.
+     * In case of an exception, the caller is responsible to close the channel.<p>
+     *
+     * The default implementation reads the channel as stream.
+     *
+     * @param channel the channel positioned at the start of the file
+     * @param password the password or {@code null} if not encrypted
+     * @return the workbook
+     * @throws IOException if the channel can't be read or parsed
+     *
+     * @since POI 5.0.1
+     */
+    default Workbook create(FileChannel channel, String password) throws IOException {
+        try (InputStream is = Channels.newInputStream(channel)) {
+            return create(is, password);
+        }
+    }
 }
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 
 import org.apache.poi.hssf.HSSFTestDataSamples;
+import org.apache.poi.hssf.record.common.FormatRun;
 import org.apache.poi.hssf.record.common.UnicodeString;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
@@ -413,4 +414,67 @@ final class TestSSTRecord {
         assertEquals(0, src.getNumUniqueStrings());
 
     }
+
+    /**
+     * The serialized form is continued for added strings, which needs to give the same result
+     * as a serialization from scratch, also when the strings cross CONTINUE records
+     */
+    @Test
+    void testIncrementalSerialization() {
+        SSTRecord incremental = new SSTRecord();
+        SSTRecord expected = new SSTRecord();
+        byte[] prevSerialized = incremental.serialize();
+        for (int i = 0; i < 300; i++) {
+            UnicodeString us = createTestString(i);
+            assertEquals(expected.addString(us), incremental.addString(us.copy()));
+            // duplicates only change the count in the header
+            if (i % 7 == 0) {
+                assertEquals(expected.addString(createTestString(i / 2)), incremental.addString(createTestString(i / 2)));
+            }
+            if (i % 13 == 0) {
+                byte[] serialized = incremental.serialize();
+                assertArrayEquals(expected.copy().serialize(), serialized, "after string " + i);
+                // the bytes of the previous strings are unchanged, apart from the size of the last record
+                int len = Math.min(prevSerialized.length, 400);
+                assertArrayEquals(Arrays.copyOfRange(prevSerialized, 12, len), Arrays.copyOfRange(serialized, 12, len));
+                prevSerialized = serialized;
+                confirmExtSST(expected, incremental);
+            }
+        }
+        assertArrayEquals(expected.serialize(), incremental.serialize());
+        assertEquals(expected.getRecordSize(), incremental.getRecordSize());
+        confirmExtSST(expected, incremental);
+
+        // modifying a string in place requires to discard the cached form
+        incremental.getString(3).addFormatRun(new FormatRun((short)1, (short)5));
+        expected.getString(3).addFormatRun(new FormatRun((short)1, (short)5));
+        byte[] stale = incremental.serialize();
+        incremental.invalidateSerializedForm();
+        byte[] serialized = incremental.serialize();
+        assertFalse(Arrays.equals(stale, serialized));
+        assertArrayEquals(expected.copy().serialize(), serialized);
+
+        SSTRecord read = createSSTFromRawData(serialized);
+        assertRecordEquals(expected, read);
+    }
+
+    private static UnicodeString createTestString(int i) {
+        StringBuilder sb = new StringBuilder();
+        // some strings are longer than a record
+        int len = (i % 50 == 0) ? 9000 : (i % 11) * 37 + 1;
+        for (int j = 0; j < len; j++) {
+            sb.append((i % 3 == 0) ? (char)(0x3b1 + (j + i) % 20) : (char)('a' + (j + i) % 26));
+        }
+        UnicodeString us = new UnicodeString(sb.toString());
+        if (i % 5 == 0) {
+            us.addFormatRun(new FormatRun((short)0, (short)(i % 4 + 1)));
+        }
+        return us;
+    }
+
+    private static void confirmExtSST(SSTRecord expected, SSTRecord actual) {
+        SSTRecord fresh = expected.copy();
+        fresh.serialize();
+        assertArrayEquals(fresh.createExtSSTRecord(100).serialize(), actual.createExtSSTRecord(100).serialize());
+    }
 }
@@ -20,7 +20,13 @@ package org.apache.poi.hssf.record;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.apache.poi.hssf.HSSFTestDataSamples;
@@ -35,9 +41,12 @@ import org.apache.poi.ss.formula.FormulaRenderer;
 import org.apache.poi.ss.formula.FormulaType;
 import org.apache.poi.ss.formula.SharedFormula;
 import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.RefNPtg;
 import org.apache.poi.ss.formula.ptg.RefPtg;
+import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.util.LittleEndianInput;
 import org.junit.jupiter.api.Test;
 
@@ -227,6 +236,51 @@ final class TestSharedFormulaRecord {
         assertEquals("A$1*2", sheet.getRow(ROW_IX+1).getCell(1).getCellFormula());
     }
 
+    @Test
+    void testSharedTokensForEvaluation() throws IOException {
+        try (HSSFWorkbook wb = HSSFTestDataSamples.openSampleWorkbook(SHARED_FORMULA_TEST_XLS);
+             HSSFWorkbook unshared = HSSFTestDataSamples.openSampleWorkbook(SHARED_FORMULA_TEST_XLS)) {
+            HSSFSheet sheet = wb.getSheetAt(0);
+
+            // the cells of a group are evaluated with the tokens of the shared formula
+            HSSFEvaluationWorkbook ewb = HSSFEvaluationWorkbook.create(wb);
+            Ptg[] ptgsB = ewb.getFormulaTokens(ewb.getSheet(0).getCell(32768, 1));
+            Ptg[] ptgsC = ewb.getFormulaTokens(ewb.getSheet(0).getCell(32768, 2));
+            assertSame(ptgsB, ptgsC);
+            assertTrue(Arrays.stream(ptgsB).anyMatch(p -> p instanceof RefNPtg));
+            // ... while the usermodel still sees the converted tokens
+            assertEquals("B32770*2", sheet.getRow(32768).getCell(1).getCellFormula());
+
+            List<HSSFCell> cells = getFormulaCells(sheet);
+            List<HSSFCell> unsharedCells = getFormulaCells(unshared.getSheetAt(0));
+            unsharedCells.forEach(c -> c.setCellFormula(c.getCellFormula()));
+            assertEquals(0, countSharedFormulas(unshared.getSheetAt(0)));
+
+            for (boolean compile : new boolean[]{false, true}) {
+                HSSFFormulaEvaluator fe = new HSSFFormulaEvaluator(wb);
+                fe.setCompileFormulas(compile);
+                HSSFFormulaEvaluator unsharedFe = new HSSFFormulaEvaluator(unshared);
+                unsharedFe.setCompileFormulas(compile);
+                for (int i = 0; i < cells.size(); i++) {
+                    assertEquals(unsharedFe.evaluate(unsharedCells.get(i)).formatAsString(),
+                        fe.evaluate(cells.get(i)).formatAsString(), cells.get(i).getAddress().formatAsString());
+                }
+            }
+        }
+    }
+
+    private static List<HSSFCell> getFormulaCells(HSSFSheet sheet) {
+        List<HSSFCell> cells = new ArrayList<>();
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                if (cell.getCellType() == CellType.FORMULA) {
+                    cells.add((HSSFCell)cell);
+                }
+            }
+        }
+        return cells;
+    }
+
     private static void confirmCellEvaluation(HSSFWorkbook wb, HSSFCell cell, double expectedValue) {
         HSSFFormulaEvaluator fe = new HSSFFormulaEvaluator(wb);
         CellValue cv = fe.evaluate(cell);
@@ -20,13 +20,19 @@ package org.apache.poi.hssf.record.aggregates;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Collections;
 import java.util.List;
 import java.util.zip.CRC32;
@@ -35,18 +41,28 @@ import org.apache.poi.hssf.HSSFTestDataSamples;
 import org.apache.poi.hssf.model.RecordStream;
 import org.apache.poi.hssf.model.RowBlocksReader;
 import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
 import org.apache.poi.hssf.record.CellValueRecordInterface;
 import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
 import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.SharedFormulaRecord;
 import org.apache.poi.hssf.record.WindowTwoRecord;
 import org.apache.poi.hssf.record.aggregates.RecordAggregate.RecordVisitor;
+import org.apache.poi.hssf.usermodel.HSSFCell;
 import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.util.HexRead;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * Tests for {@link ValueRecordsAggregate}
@@ -408,4 +424,245 @@ final class TestValueRecordsAggregate {
 		assertEquals(expectedNumberOfMulBlankRecords, bs.countMulBlankRecords);
 		assertEquals(expectedNumberOfSingleBlankRecords, bs.countSingleBlankRecords);
 	}
+
+    @Test
+	void testCompact() {
+		final int row = 1;
+		valueRecord.insertCell(newNumberRecord(0, row, 1));
+		valueRecord.insertCell(newNumberRecord(1, row, 2.5));
+		valueRecord.insertCell(newNumberRecord(2, row, Math.PI));
+		valueRecord.insertCell(newNumberRecord(3, row, 4));
+		LabelSSTRecord lr = new LabelSSTRecord();
+		lr.setRow(row);
+		lr.setColumn((short)4);
+		lr.setSSTIndex(7);
+		valueRecord.insertCell(lr);
+		valueRecord.insertCell(newBlankRecord(5, row));
+		valueRecord.insertCell(newBlankRecord(6, row));
+		BoolErrRecord br = new BoolErrRecord();
+		br.setRow(row);
+		br.setColumn((short)7);
+		br.setValue(true);
+		valueRecord.insertCell(br);
+
+		// the usual mode doesn't write MULRK records
+		assertEquals("[NumberRecord, NumberRecord, NumberRecord, NumberRecord, LabelSSTRecord, MulBlankRecord, BoolErrRecord]",
+			getRowRecordNames(row));
+
+		valueRecord.compact();
+		assertTrue(valueRecord.isCompact());
+		assertEquals(8, valueRecord.getPhysicalNumberOfCells());
+		assertEquals(0, valueRecord.getFirstCellNum(row));
+		assertEquals(7, valueRecord.getLastCellNum(row));
+		assertEquals("[MulRKRecord, NumberRecord, NumberRecord, LabelSSTRecord, MulBlankRecord, BoolErrRecord]",
+			getRowRecordNames(row));
+
+		List<org.apache.poi.hssf.record.Record> records = new ArrayList<>();
+		valueRecord.visitCellsForRow(row, records::add);
+		int size = 0;
+		for (org.apache.poi.hssf.record.Record r : records) {
+			size += r.getRecordSize();
+		}
+		assertEquals(size, valueRecord.getRowCellBlockSize(row, row));
+		MulRKRecord mrk = (MulRKRecord)records.get(0);
+		assertEquals(2, mrk.getNumColumns());
+		assertEquals(1, mrk.getRKNumberAt(0), 0);
+		assertEquals(2.5, mrk.getRKNumberAt(1), 0);
+
+		// the iterator materializes the records again
+		Iterator<CellValueRecordInterface> iter = valueRecord.iterator(row);
+		assertEquals(1, ((NumberRecord)getCell(iter, 0)).getValue(), 0);
+		assertEquals(2.5, ((NumberRecord)getCell(iter, 1)).getValue(), 0);
+		assertEquals(Math.PI, ((NumberRecord)getCell(iter, 2)).getValue(), 0);
+		assertEquals(4, ((NumberRecord)getCell(iter, 3)).getValue(), 0);
+		assertEquals(7, ((LabelSSTRecord)getCell(iter, 4)).getSSTIndex());
+		assertTrue(getCell(iter, 5) instanceof BlankRecord);
+		assertTrue(getCell(iter, 6) instanceof BlankRecord);
+		assertTrue(((BoolErrRecord)getCell(iter, 7)).getBooleanValue());
+		assertFalse(iter.hasNext());
+		assertFalse(valueRecord.iterator(row + 1).hasNext());
+		assertEquals(8, valueRecord.getPhysicalNumberOfCells());
+
+		valueRecord.removeCell(newBlankRecord(1, row));
+		assertEquals(7, valueRecord.getPhysicalNumberOfCells());
+		assertEquals("[NumberRecord, NumberRecord, NumberRecord, LabelSSTRecord, MulBlankRecord, BoolErrRecord]",
+			getRowRecordNames(row));
+	}
+
+	@Test
+	void testCompactTransientRecords() {
+		final int row = 2;
+		valueRecord.insertCell(newNumberRecord(0, row, 1));
+		valueRecord.insertCell(newNumberRecord(1, row, 2));
+		valueRecord.compact();
+		assertTrue(valueRecord.hasCompactRow(row));
+
+		// reading materializes new records each time, without moving them out of compact storage
+		NumberRecord first = (NumberRecord)valueRecord.iterator(row).next();
+		NumberRecord second = (NumberRecord)valueRecord.iterator(row).next();
+		assertNotSame(first, second);
+		assertEquals("[MulRKRecord]", getRowRecordNames(row));
+
+		// the record is part of the aggregate, once it's promoted
+		valueRecord.promoteCell(first);
+		first.setValue(Math.PI);
+		assertSame(first, valueRecord.iterator(row).next());
+		assertEquals("[NumberRecord, NumberRecord]", getRowRecordNames(row));
+		assertEquals(2, valueRecord.getPhysicalNumberOfCells());
+		assertTrue(valueRecord.hasCompactRow(row));
+
+		// the compact row is released, once it has no cells anymore
+		valueRecord.promoteCell(valueRecord.iterator(row).next());
+		valueRecord.removeCell(newNumberRecord(1, row, 0));
+		assertFalse(valueRecord.hasCompactRow(row));
+		assertEquals(1, valueRecord.getPhysicalNumberOfCells());
+		assertTrue(valueRecord.rowHasCells(row));
+	}
+
+	@Test
+	void testInsertCompactCell() {
+		final int row = 1;
+		ValueRecordsAggregate readCells = new ValueRecordsAggregate();
+		for (int col = 2; col < 40; col++) {
+			assertTrue(readCells.insertCompactCell(newNumberRecord(col, row, col)));
+		}
+		assertTrue(readCells.insertCompactCell(newBlankRecord(0, row)));
+		assertFalse(readCells.insertCompactCell(new FormulaRecord()));
+
+		// the records of the sheet take precedence over the compact cells
+		valueRecord.insertCell(newBlankRecord(3, row));
+		valueRecord.addCompactCells(readCells);
+		assertTrue(valueRecord.hasCompactRow(row));
+		assertEquals(39, valueRecord.getPhysicalNumberOfCells());
+		assertEquals(0, valueRecord.getFirstCellNum(row));
+		assertEquals(39, valueRecord.getLastCellNum(row));
+		assertEquals(0, valueRecord.getFirstCellNum());
+		assertEquals(39, valueRecord.getLastCellNum());
+
+		Iterator<CellValueRecordInterface> iter = valueRecord.iterator(row);
+		assertTrue(getCell(iter, 0) instanceof BlankRecord);
+		assertEquals(2, ((NumberRecord)getCell(iter, 2)).getValue(), 0);
+		assertTrue(getCell(iter, 3) instanceof BlankRecord);
+		assertEquals(4, ((NumberRecord)getCell(iter, 4)).getValue(), 0);
+		assertEquals("[BlankRecord, NumberRecord, BlankRecord, MulRKRecord]", getRowRecordNames(row));
+	}
+
+	@Test
+	void testCompactCellsModified() throws IOException {
+		final byte[] data;
+		try (HSSFWorkbook wb = new HSSFWorkbook()) {
+			HSSFRow row = wb.createSheet().createRow(0);
+			row.createCell(0).setCellValue(1);
+			row.createCell(1).setCellValue("text");
+			row.createCell(2).setCellValue(true);
+			row.createCell(3).setCellValue(2);
+			data = toBytes(wb);
+		}
+		try (HSSFWorkbook wb = openCompact(data)) {
+			HSSFRow row = wb.getSheetAt(0).getRow(0);
+			assertEquals(1, row.getCell(0).getNumericCellValue(), 0);
+			assertEquals("text", row.getCell(1).getStringCellValue());
+			row.getCell(0).setCellValue(3);
+			row.getCell(1).getRichStringCellValue().applyFont(0, 2, wb.createFont());
+			row.getCell(2).setCellValue(false);
+			row.getCell(3).setCellStyle(wb.createCellStyle());
+			short styleIndex = row.getCell(3).getCellStyle().getIndex();
+
+			try (HSSFWorkbook wb2 = openCompact(toBytes(wb))) {
+				HSSFRow row2 = wb2.getSheetAt(0).getRow(0);
+				assertEquals(3, row2.getCell(0).getNumericCellValue(), 0);
+				assertEquals(2, row2.getCell(1).getRichStringCellValue().numFormattingRuns());
+				assertFalse(row2.getCell(2).getBooleanCellValue());
+				assertEquals(styleIndex, row2.getCell(3).getCellStyle().getIndex());
+			}
+		}
+	}
+
+	private static CellValueRecordInterface getCell(Iterator<CellValueRecordInterface> iter, int expectedColumn) {
+		CellValueRecordInterface cvr = iter.next();
+		assertEquals(expectedColumn, cvr.getColumn());
+		assertEquals(1, cvr.getRow());
+		return cvr;
+	}
+
+	private String getRowRecordNames(int row) {
+		List<String> names = new ArrayList<>();
+		valueRecord.visitCellsForRow(row, r -> names.add(r.getClass().getSimpleName()));
+		return names.toString();
+	}
+
+	private static NumberRecord newNumberRecord(int col, int row, double value) {
+		NumberRecord nr = new NumberRecord();
+		nr.setRow(row);
+		nr.setColumn((short)col);
+		nr.setValue(value);
+		return nr;
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"SampleSS.xls", "SimpleMultiCell.xls", "Formatting.xls", "shared_formulas.xls",
+		"WithChart.xls", "WithTwoCharts.xls", "44010-SingleChart.xls"})
+	void testCompactCellsWorkbook(String sampleFile) throws IOException {
+		try (HSSFWorkbook expected = HSSFTestDataSamples.openSampleWorkbook(sampleFile);
+			HSSFWorkbook wb = openCompact(HSSFTestDataSamples.getTestDataFileContent(sampleFile))) {
+			assertTrue(wb.isCompactCells());
+			assertFalse(expected.isCompactCells());
+			confirmSameCells(expected, wb);
+
+			HSSFCell cell = wb.getSheetAt(0).getRow(0).getCell(0, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
+			cell.setCellValue(42);
+			expected.getSheetAt(0).getRow(0).getCell(0, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK).setCellValue(42);
+			expected.getSheetAt(0).createRow(200).createCell(3).setCellValue("new");
+			wb.getSheetAt(0).createRow(200).createCell(3).setCellValue("new");
+
+			try (HSSFWorkbook wb2 = openCompact(toBytes(wb));
+				HSSFWorkbook wb3 = HSSFTestDataSamples.writeOutAndReadBack(wb)) {
+				confirmSameCells(expected, wb2);
+				confirmSameCells(expected, wb3);
+
+				// the clone is read from the serialized records, which contain MULRK records now
+				expected.cloneSheet(0);
+				wb2.cloneSheet(0);
+				expected.getSheetAt(0).shiftRows(1, 10, 3);
+				wb2.getSheetAt(0).shiftRows(1, 10, 3);
+				confirmSameCells(expected, wb2);
+			}
+		}
+	}
+
+	private static HSSFWorkbook openCompact(byte[] data) throws IOException {
+		try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(data))) {
+			return new HSSFWorkbook(fs.getRoot(), false, true);
+		}
+	}
+
+	private static byte[] toBytes(HSSFWorkbook wb) throws IOException {
+		try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+			wb.write(bos);
+			return bos.toByteArray();
+		}
+	}
+
+	private static void confirmSameCells(HSSFWorkbook expected, HSSFWorkbook actual) {
+		assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+		for (int i = 0; i < expected.getNumberOfSheets(); i++) {
+			HSSFSheet expSheet = expected.getSheetAt(i);
+			HSSFSheet actSheet = actual.getSheetAt(i);
+			assertEquals(expSheet.getPhysicalNumberOfRows(), actSheet.getPhysicalNumberOfRows());
+			for (Row expRow : expSheet) {
+				HSSFRow actRow = actSheet.getRow(expRow.getRowNum());
+				assertNotNull(actRow);
+				assertEquals(expRow.getFirstCellNum(), actRow.getFirstCellNum());
+				assertEquals(expRow.getLastCellNum(), actRow.getLastCellNum());
+				assertEquals(expRow.getPhysicalNumberOfCells(), actRow.getPhysicalNumberOfCells());
+				for (Cell expCell : expRow) {
+					HSSFCell actCell = actRow.getCell(expCell.getColumnIndex());
+					assertNotNull(actCell);
+					assertEquals(expCell.getCellType(), actCell.getCellType());
+					assertEquals(expCell.getCellStyle().getIndex(), actCell.getCellStyle().getIndex());
+					assertEquals(expCell.toString(), actCell.toString());
+				}
+			}
+		}
+	}
 }
@@ -19,6 +19,7 @@ package org.apache.poi.hssf.usermodel;
 
 import static org.apache.poi.POITestCase.assertContains;
 import static org.apache.poi.hssf.HSSFTestDataSamples.openSampleWorkbook;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -36,6 +37,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -50,8 +52,12 @@ import org.apache.poi.hssf.OldExcelFormatException;
 import org.apache.poi.hssf.model.HSSFFormulaParser;
 import org.apache.poi.hssf.model.InternalSheet;
 import org.apache.poi.hssf.model.InternalWorkbook;
+import org.apache.poi.hssf.record.BoundSheetRecord;
 import org.apache.poi.hssf.record.CFRuleRecord;
+import org.apache.poi.hssf.record.DBCellRecord;
+import org.apache.poi.hssf.record.EOFRecord;
 import org.apache.poi.hssf.record.HSSFRecordTypes;
+import org.apache.poi.hssf.record.IndexRecord;
 import org.apache.poi.hssf.record.NameRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordBase;
@@ -71,6 +77,7 @@ import org.apache.poi.ss.usermodel.SheetConditionalFormatting;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.LittleEndian;
 import org.apache.poi.util.TempFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -1166,6 +1173,166 @@ public final class TestHSSFWorkbook extends BaseTestWorkbook {
         wb.close();
     }
 
+    @Test
+    void incrementalInPlaceWrite() throws Exception {
+        final File file = TempFile.createTempFile("TestHSSFWorkbook", ".xls");
+        try (InputStream inputStream = samples.openResourceAsStream("SampleSS.xls");
+             FileOutputStream outputStream = new FileOutputStream(file)) {
+            IOUtils.copy(inputStream, outputStream);
+        }
+
+        final List<String> expected = new ArrayList<>();
+        final byte[] original;
+        try (POIFSFileSystem fs = new POIFSFileSystem(file);
+             HSSFWorkbook wb = new HSSFWorkbook(fs)) {
+            original = getWorkbookStream(fs);
+            for (Sheet sheet : wb) {
+                expected.add(getCellValues(sheet));
+            }
+        }
+
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, false);
+             HSSFWorkbook wb = new HSSFWorkbook(fs)) {
+            wb.setIncrementalWrite(true);
+            assertTrue(wb.isIncrementalWrite());
+
+            // new strings enlarge the SST and move the untouched sheets
+            HSSFRow row = wb.getSheetAt(0).createRow(20);
+            for (int i = 0; i < 50; i++) {
+                row.createCell(i).setCellValue("new string " + i);
+            }
+            row.createCell(50).setCellValue(1);
+            expected.set(0, getCellValues(wb.getSheetAt(0)));
+            wb.write();
+        }
+        byte[] written = confirmIncrementalWrite(file, expected);
+        assertTrue(written.length > original.length);
+
+        // the untouched sheets are copied apart from the stream offsets in their INDEX records
+        for (int k = 1; k < expected.size(); k++) {
+            int bofOrig = getSheetBof(original, k), bofNew = getSheetBof(written, k);
+            assertTrue(bofNew > bofOrig);
+            int pos = 0;
+            while (LittleEndian.getUShort(original, bofOrig + pos) != EOFRecord.sid) {
+                int len = 4 + LittleEndian.getUShort(original, bofOrig + pos + 2);
+                if (LittleEndian.getUShort(original, bofOrig + pos) != IndexRecord.sid) {
+                    assertArrayEquals(Arrays.copyOfRange(original, bofOrig + pos, bofOrig + pos + len),
+                        Arrays.copyOfRange(written, bofNew + pos, bofNew + pos + len));
+                }
+                pos += len;
+            }
+        }
+
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, false);
+             HSSFWorkbook wb = new HSSFWorkbook(fs)) {
+            wb.setIncrementalWrite(true);
+
+            // a changed number keeps the size of the stream
+            wb.getSheetAt(0).getRow(20).getCell(50).setCellValue(42);
+            expected.set(0, getCellValues(wb.getSheetAt(0)));
+            wb.write();
+        }
+        assertEquals(written.length, confirmIncrementalWrite(file, expected).length);
+    }
+
+    @Test
+    void incrementalWriteTracksModifiedSheets() throws IOException {
+        final byte[] data;
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            for (int i = 0; i < 4; i++) {
+                HSSFRow row = wb.createSheet("s" + i).createRow(0);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("text " + i);
+                row.createCell(2).setCellFormula("s0!A1+" + i);
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            data = bos.toByteArray();
+        }
+
+        try (HSSFWorkbook wb = new HSSFWorkbook(new ByteArrayInputStream(data))) {
+            // reading and evaluating the cells doesn't modify the sheets
+            HSSFFormulaEvaluator evaluator = wb.getCreationHelper().createFormulaEvaluator();
+            for (Sheet sheet : wb) {
+                for (Row row : sheet) {
+                    for (Cell cell : row) {
+                        assertNotNull(cell.toString());
+                    }
+                }
+                assertEquals(3, evaluator.evaluate(wb.getSheetAt(3).getRow(0).getCell(2)).getNumberValue(), 0);
+                assertEquals("text 1", wb.getSheet("s1").getRow(0).getCell(1).getStringCellValue());
+            }
+            assertEquals("[false, false, false, false]", getModifiedSheets(wb));
+
+            wb.getSheetAt(0).getRow(0).getCell(0).setCellValue(42);
+            wb.getSheetAt(1).getRow(0).getCell(1).getRichStringCellValue().applyFont(0, 2, wb.createFont());
+            wb.getSheetAt(2).getRow(0).setHeightInPoints(30);
+            assertEquals("[true, true, true, false]", getModifiedSheets(wb));
+
+            try (HSSFWorkbook wb2 = HSSFTestDataSamples.writeOutAndReadBack(wb)) {
+                assertEquals(42, wb2.getSheetAt(0).getRow(0).getCell(0).getNumericCellValue(), 0);
+                assertEquals(2, wb2.getSheetAt(1).getRow(0).getCell(1).getRichStringCellValue().numFormattingRuns());
+                assertEquals(30, wb2.getSheetAt(2).getRow(0).getHeightInPoints(), 0);
+            }
+        }
+    }
+
+    private static String getModifiedSheets(HSSFWorkbook wb) {
+        List<Boolean> modified = new ArrayList<>();
+        for (int i = 0; i < wb.getNumberOfSheets(); i++) {
+            modified.add(wb.getSheetAt(i).getUnmodifiedBof() == -1);
+        }
+        return modified.toString();
+    }
+
+    private static String getCellValues(Sheet sheet) {
+        StringBuilder sb = new StringBuilder();
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                sb.append(cell.getAddress()).append('=').append(cell).append(';');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int getSheetBof(byte[] data, int sheetIndex) {
+        for (int pos = 0, k = 0; ; pos += 4 + LittleEndian.getUShort(data, pos + 2)) {
+            if (LittleEndian.getUShort(data, pos) == BoundSheetRecord.sid && k++ == sheetIndex) {
+                return LittleEndian.getInt(data, pos + 4);
+            }
+        }
+    }
+
+    private static byte[] getWorkbookStream(POIFSFileSystem fs) throws IOException {
+        try (InputStream is = fs.createDocumentInputStream("Workbook")) {
+            return IOUtils.toByteArray(is);
+        }
+    }
+
+    private static byte[] confirmIncrementalWrite(File file, List<String> expected) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file);
+             HSSFWorkbook wb = new HSSFWorkbook(fs)) {
+            assertEquals(expected.size(), wb.getNumberOfSheets());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), getCellValues(wb.getSheetAt(i)));
+            }
+
+            // the DBCELL offsets of the INDEX records must match the (moved) substreams
+            byte[] data = getWorkbookStream(fs);
+            int dbCells = 0;
+            for (int pos = 0; pos < data.length; pos += 4 + LittleEndian.getUShort(data, pos + 2)) {
+                if (LittleEndian.getUShort(data, pos) == IndexRecord.sid) {
+                    for (int i = pos + 20; i < pos + 4 + LittleEndian.getUShort(data, pos + 2); i += 4) {
+                        assertEquals(DBCellRecord.sid, LittleEndian.getUShort(data, LittleEndian.getInt(data, i)));
+                        dbCells++;
+                    }
+                }
+            }
+            assertTrue(dbCells > 0);
+            return data;
+        }
+    }
+
     @Test
     void testWriteToNewFile() throws Exception {
         // Save to a new temp file
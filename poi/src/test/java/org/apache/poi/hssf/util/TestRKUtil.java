@@ -18,6 +18,7 @@
 package org.apache.poi.hssf.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import org.junit.jupiter.api.Test;
 
@@ -47,4 +48,21 @@ final class TestRKUtil {
 			assertEquals(expectedValue, actualValue, 0);
 		}
 	}
+
+	@Test
+	void testEncode() {
+		double[] values = { 0, 3.0, 3.3, 3.33, 1, 1.23, 12345678, 123456.78, -13149594, -0.0, 0.5, 536870911, -536870912 };
+		for (double value : values) {
+			long rk = RKUtil.encodeNumber(value);
+			assertNotEquals(-1, rk, "value " + value);
+			assertEquals(Double.doubleToLongBits(value), Double.doubleToLongBits(RKUtil.decodeNumber((int)rk)));
+		}
+
+		assertEquals(0x02F1853A, RKUtil.encodeNumber(12345678));
+
+		// loss of precision
+		assertEquals(-1, RKUtil.encodeNumber(Math.PI));
+		assertEquals(-1, RKUtil.encodeNumber(0.1 + 0.2));
+		assertEquals(-1, RKUtil.encodeNumber(1234567890123.0));
+	}
 }
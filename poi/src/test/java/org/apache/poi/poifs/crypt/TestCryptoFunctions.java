@@ -0,0 +1,67 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.poifs.crypt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class TestCryptoFunctions {
+    private static final byte[] SALT = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 };
+
+    @Test
+    void passwordHashCache() {
+        byte[] expected = CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 1000);
+        byte[] expectedWrite = CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 1000, false);
+        assertFalse(Arrays.equals(expected, expectedWrite));
+
+        int cacheSize = CryptoFunctions.getPasswordHashCacheSize();
+        try {
+            CryptoFunctions.setPasswordHashCacheSize(2);
+            byte[] hash1 = CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 1000);
+            byte[] hash2 = CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 1000);
+            assertArrayEquals(expected, hash1);
+            assertArrayEquals(expected, hash2);
+            // callers may modify the returned hash
+            assertNotSame(hash1, hash2);
+            hash2[0]++;
+            assertArrayEquals(expected, CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 1000));
+
+            // the iteration order, spin count, salt and password are part of the key
+            assertArrayEquals(expectedWrite, CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 1000, false));
+            assertFalse(Arrays.equals(expected, CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 999)));
+            assertFalse(Arrays.equals(expected, CryptoFunctions.hashPassword("Secret", HashAlgorithm.sha512, SALT, 1000)));
+            byte[] otherSalt = SALT.clone();
+            otherSalt[15] = 0;
+            assertFalse(Arrays.equals(expected, CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, otherSalt, 1000)));
+
+            CryptoFunctions.setPasswordHashCacheSize(1);
+            assertEquals(1, CryptoFunctions.getPasswordHashCacheSize());
+            assertArrayEquals(expected, CryptoFunctions.hashPassword("secret", HashAlgorithm.sha512, SALT, 1000));
+        } finally {
+            CryptoFunctions.setPasswordHashCacheSize(cacheSize);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> CryptoFunctions.setPasswordHashCacheSize(-1));
+    }
+}
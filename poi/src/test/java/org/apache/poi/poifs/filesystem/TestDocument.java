@@ -20,6 +20,7 @@ package org.apache.poi.poifs.filesystem;
 import static org.apache.poi.poifs.common.POIFSConstants.LARGER_BIG_BLOCK_SIZE;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -77,6 +78,26 @@ class TestDocument {
         }
     }
 
+    @Test
+    void testUpdateContents() throws IOException {
+        try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+            for (int size : new int[]{ 199, LARGER_BIG_BLOCK_SIZE + 1 }) {
+                POIFSDocument document = checkDocument(poifs, size);
+
+                final byte[] input = new byte[size];
+                IntStream.range(0, size).forEach(i -> input[i] = (byte)(i*3));
+                assertTrue(document.updateContents(input));
+
+                final int blockSize = (size >= 4096) ? 512 : 64;
+                checkValues((size + (blockSize-1)) / blockSize, document, input);
+
+                // a different size needs the contents to be replaced
+                assertFalse(document.updateContents(new byte[size + 1]));
+                checkValues((size + (blockSize-1)) / blockSize, document, input);
+            }
+        }
+    }
+
     private static POIFSDocument checkDocument(final POIFSFileSystem poifs, final int size) throws IOException {
         final byte[] input = new byte[size];
         IntStream.range(0, size).forEach(i -> input[i] = (byte)i);
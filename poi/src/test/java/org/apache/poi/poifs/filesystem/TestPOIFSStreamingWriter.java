@@ -0,0 +1,135 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.poifs.filesystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.hpsf.ClassID;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.util.IOUtils;
+import org.junit.jupiter.api.Test;
+
+class TestPOIFSStreamingWriter {
+    private static final POIDataSamples _samples = POIDataSamples.getSpreadSheetInstance();
+
+    private static byte[] data(int size, int seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] read(DirectoryEntry dir, String name) throws IOException {
+        try (InputStream is = new DocumentInputStream((DocumentEntry)dir.getEntry(name))) {
+            return IOUtils.toByteArray(is);
+        }
+    }
+
+    @Test
+    void mixedDocuments() throws IOException {
+        int[] sizes = { 0, 1, 100, 4095, 4096, 100_000, 64, 513 };
+        ClassID clsid = new ClassID("{00020820-0000-0000-C000-000000000046}");
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (POIFSStreamingWriter writer = new POIFSStreamingWriter(bos)) {
+            POIFSStreamingWriter.StreamingDirectory root = writer.getRoot();
+            root.setStorageClsid(clsid);
+            POIFSStreamingWriter.StreamingDirectory sub = root.createDirectory("Sub");
+            for (int i = 0; i < sizes.length; i++) {
+                root.createDocument("Doc" + i, new ByteArrayInputStream(data(sizes[i], i)));
+                try (OutputStream os = sub.createDocument("Doc" + i)) {
+                    // written in pieces, to cross the mini stream threshold within a write
+                    byte[] d = data(sizes[i], i + 100);
+                    int half = d.length / 2;
+                    os.write(d, 0, half);
+                    os.write(d, half, d.length - half);
+                }
+            }
+            sub.createDirectory("Empty");
+        }
+
+        try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+            DirectoryNode root = fs.getRoot();
+            assertEquals(clsid, root.getStorageClsid());
+            assertEquals(sizes.length + 1, root.getEntryCount());
+            DirectoryEntry sub = (DirectoryEntry)root.getEntry("Sub");
+            assertEquals(sizes.length + 1, sub.getEntryCount());
+            assertTrue(((DirectoryEntry)sub.getEntry("Empty")).isEmpty());
+            for (int i = 0; i < sizes.length; i++) {
+                assertArrayEquals(data(sizes[i], i), read(root, "Doc" + i), "Doc" + i);
+                assertArrayEquals(data(sizes[i], i + 100), read(sub, "Doc" + i), "Sub/Doc" + i);
+            }
+        }
+    }
+
+    @Test
+    void largeFile() throws IOException {
+        // more FAT blocks than fit into the header, i.e. DIFAT blocks are needed
+        byte[] large = data(8 * 1024 * 1024, 1);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (POIFSStreamingWriter writer = new POIFSStreamingWriter(bos)) {
+            writer.getRoot().createDocument("Small", new ByteArrayInputStream(data(10, 2)));
+            writer.getRoot().createDocument("Large", new ByteArrayInputStream(large));
+        }
+
+        try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertTrue(fs.getHeaderBlock().getXBATCount() > 0);
+            assertArrayEquals(large, read(fs.getRoot(), "Large"));
+            assertArrayEquals(data(10, 2), read(fs.getRoot(), "Small"));
+        }
+    }
+
+    @Test
+    void copyWorkbook() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (InputStream is = _samples.openResourceAsStream("SampleSS.xls");
+             POIFSFileSystem src = new POIFSFileSystem(is)) {
+            try (POIFSStreamingWriter writer = new POIFSStreamingWriter(bos)) {
+                writer.getRoot().copyFrom(src.getRoot());
+            }
+
+            try (POIFSFileSystem copy = new POIFSFileSystem(new ByteArrayInputStream(bos.toByteArray()))) {
+                assertTrue(EntryUtils.areDirectoriesIdentical(src.getRoot(), copy.getRoot()));
+            }
+        }
+
+        try (HSSFWorkbook wb = new HSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertEquals(3, wb.getNumberOfSheets());
+        }
+    }
+
+    @Test
+    void oneDocumentAtATime() throws IOException {
+        try (POIFSStreamingWriter writer = new POIFSStreamingWriter(new ByteArrayOutputStream())) {
+            OutputStream os = writer.getRoot().createDocument("First");
+            assertThrows(IllegalStateException.class, () -> writer.getRoot().createDocument("Second"));
+            os.close();
+            writer.getRoot().createDocument("Second").close();
+            assertThrows(IOException.class, () -> writer.getRoot().createDocument("Second").close());
+        }
+    }
+}
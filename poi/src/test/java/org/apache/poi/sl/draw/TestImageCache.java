@@ -0,0 +1,92 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TestImageCache {
+    private static final String PNG = "image/png";
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // 10x10 ARGB = 400 bytes
+    private BufferedImage load(byte[] data) {
+        loads.incrementAndGet();
+        return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    void hitsAndMisses() throws IOException {
+        ImageCache cache = new ImageCache();
+        BufferedImage img1 = cache.getImage(new byte[]{1, 2, 3}, PNG, this::load);
+        BufferedImage img2 = cache.getImage(new byte[]{1, 2, 3}, PNG, this::load);
+        assertSame(img1, img2);
+        assertEquals(1, loads.get());
+
+        // different data or content type
+        assertNotSame(img1, cache.getImage(new byte[]{1, 2, 4}, PNG, this::load));
+        assertNotSame(img1, cache.getImage(new byte[]{1, 2, 3}, "image/jpeg", this::load));
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.size());
+        assertEquals(1200, cache.getUsedBytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() throws IOException {
+        ImageCache cache = new ImageCache(1000);
+        cache.getImage(new byte[]{1}, PNG, this::load);
+        cache.getImage(new byte[]{2}, PNG, this::load);
+        // access the first image, so the second one is evicted
+        cache.getImage(new byte[]{1}, PNG, this::load);
+        cache.getImage(new byte[]{3}, PNG, this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(800, cache.getUsedBytes());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.getImage(new byte[]{1}, PNG, this::load);
+        assertEquals(2, cache.getHitCount());
+        cache.getImage(new byte[]{2}, PNG, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void skipOversizedImages() throws IOException {
+        ImageCache cache = new ImageCache(100);
+        cache.getImage(new byte[]{1}, PNG, this::load);
+        cache.getImage(new byte[]{1}, PNG, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,200 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+
+import org.apache.poi.hssf.usermodel.HSSFEvaluationWorkbook;
+import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.formula.ptg.ExpPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link CompiledFormula}, by comparing the results of compiled formulas with the interpreter
+ */
+class TestCompiledFormula {
+
+    private static final String[] FORMULAS = {
+        "A{r}*B{r}+1",
+        "(A{r}-B{r})/C{r}",
+        "-A{r}^0.5",
+        "(-8)^(1/3)",
+        "A{r}/0",
+        "A{r}&\"x\"&B{r}",
+        "IF(A{r}>B{r},A{r}-B{r},\"less\")",
+        "IF(A{r}>2,A{r})",
+        "IF(C{r},1/C{r},)",
+        "IF(A{r}>1,IF(B{r}>1,\"both\",\"a\"),\"none\")",
+        "SUM(A$1:B$5)*A{r}",
+        "SUM(A{r}:C{r})",
+        "AVERAGE(A1:A5,B{r})",
+        "Other!A{r}+A{r}",
+        "SUM(Other!A1:A{r})",
+        "rate*A{r}",
+        "CHOOSE(A{r},\"one\",\"two\",\"three\",\"four\",\"five\")",
+        "A{r}%",
+        "-\"text\"",
+        "#DIV/0!+A{r}",
+        "ISERROR(A{r}/C{r})",
+        "D{r}+1",
+        "A{r}=B{r}",
+    };
+
+    private static HSSFWorkbook createWorkbook() {
+        HSSFWorkbook wb = new HSSFWorkbook();
+        Sheet sheet = wb.createSheet("Data");
+        Sheet other = wb.createSheet("Other");
+        for (int r = 0; r < 5; r++) {
+            Row row = sheet.createRow(r);
+            row.createCell(0).setCellValue(r + 1);
+            row.createCell(1).setCellValue(5 - r);
+            row.createCell(2).setCellValue(r % 2);
+            other.createRow(r).createCell(0).setCellValue(10 * r);
+        }
+        Name name = wb.createName();
+        name.setNameName("rate");
+        name.setRefersToFormula("0.25");
+
+        int col = 4;
+        for (String formula : FORMULAS) {
+            for (int r = 0; r < 5; r++) {
+                sheet.getRow(r).createCell(col).setCellFormula(formula.replace("{r}", Integer.toString(r + 1)));
+            }
+            col++;
+        }
+        return wb;
+    }
+
+    @Test
+    void testSameResultsAsInterpreter() throws IOException {
+        try (HSSFWorkbook wb = createWorkbook()) {
+            HSSFFormulaEvaluator interpreter = new HSSFFormulaEvaluator(wb);
+            HSSFFormulaEvaluator compiler = new HSSFFormulaEvaluator(wb);
+            compiler.setCompileFormulas(true);
+
+            for (Row row : wb.getSheet("Data")) {
+                for (Cell cell : row) {
+                    if (cell.getColumnIndex() < 4) {
+                        continue;
+                    }
+                    CellValue expected = interpreter.evaluate(cell);
+                    CellValue actual = compiler.evaluate(cell);
+                    assertEquals(expected.toString(), actual.toString(), cell.getCellFormula());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRecalculation() throws IOException {
+        try (HSSFWorkbook wb = createWorkbook()) {
+            Sheet sheet = wb.getSheet("Data");
+            HSSFFormulaEvaluator fe = new HSSFFormulaEvaluator(wb);
+            fe.setCompileFormulas(true);
+            Cell input = sheet.getRow(0).getCell(0);
+            Cell result = sheet.getRow(0).getCell(4);
+
+            assertEquals(6.0, fe.evaluate(result).getNumberValue(), 0.0);
+            for (int i = 0; i < 10; i++) {
+                input.setCellValue(i);
+                fe.notifyUpdateCell(input);
+                assertEquals(i * 5 + 1, fe.evaluate(result).getNumberValue(), 0.0);
+            }
+
+            // changed formulas are recompiled
+            result.setCellFormula("A1*B1-1");
+            fe.notifyUpdateCell(result);
+            assertEquals(9 * 5 - 1, fe.evaluate(result).getNumberValue(), 0.0);
+        }
+    }
+
+    @Test
+    void testCompiledFormulaSurvivesInputChanges() throws IOException {
+        try (HSSFWorkbook wb = createWorkbook()) {
+            Sheet sheet = wb.getSheet("Data");
+            HSSFFormulaEvaluator fe = new HSSFFormulaEvaluator(wb);
+            fe.setCompileFormulas(true);
+            WorkbookEvaluator evaluator = fe._getWorkbookEvaluator();
+            Cell input = sheet.getRow(0).getCell(0);
+            Cell result = sheet.getRow(0).getCell(4);
+            EvaluationCell evalCell = HSSFEvaluationWorkbook.create(wb).getSheet(0).getCell(0, 4);
+
+            fe.evaluate(result);
+            CompiledFormula compiled = evaluator.getCompiledFormula(evalCell);
+            assertNotNull(compiled);
+
+            for (int i = 0; i < 3; i++) {
+                input.setCellValue(i);
+                fe.notifyUpdateCell(input);
+                assertSame(compiled, evaluator.getCompiledFormula(evalCell));
+                assertEquals(i * 5 + 1, fe.evaluate(result).getNumberValue(), 0.0);
+                assertSame(compiled, evaluator.getCompiledFormula(evalCell));
+            }
+
+            // only a change of the formula cell itself drops the tree
+            result.setCellFormula("A1*B1-1");
+            fe.notifyUpdateCell(result);
+            assertNull(evaluator.getCompiledFormula(evalCell));
+            fe.evaluate(result);
+            assertNotNull(evaluator.getCompiledFormula(evalCell));
+
+            fe.notifyDeleteCell(result);
+            assertNull(evaluator.getCompiledFormula(evalCell));
+        }
+    }
+
+    @Test
+    void testRelativeFormulasAreShared() throws IOException {
+        try (HSSFWorkbook wb = createWorkbook()) {
+            HSSFEvaluationWorkbook ewb = HSSFEvaluationWorkbook.create(wb);
+            EvaluationSheet sheet = ewb.getSheet(0);
+
+            CompiledFormula[] compiled = new CompiledFormula[5];
+            for (int r = 0; r < 5; r++) {
+                EvaluationCell cell = sheet.getCell(r, 4);
+                Ptg[] ptgs = ewb.getFormulaTokens(cell);
+                compiled[r] = CompiledFormula.compile(ptgs, r, 4);
+            }
+            for (int r = 1; r < 5; r++) {
+                assertEquals(compiled[0], compiled[r]);
+                assertEquals(compiled[0].hashCode(), compiled[r].hashCode());
+            }
+
+            // different relative structure
+            EvaluationCell cell = sheet.getCell(0, 5);
+            assertNotEquals(compiled[0], CompiledFormula.compile(ewb.getFormulaTokens(cell), 0, 5));
+
+            // unsupported tokens are left to the interpreter
+            Ptg[] ptgs = { new ExpPtg(0, 0) };
+            assertSame(CompiledFormula.NOT_COMPILABLE, CompiledFormula.compile(ptgs, 0, 0));
+        }
+    }
+}
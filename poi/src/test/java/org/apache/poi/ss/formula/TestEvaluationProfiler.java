@@ -0,0 +1,104 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.formula.EvaluationProfiler.AreaStatistic;
+import org.apache.poi.ss.formula.EvaluationProfiler.Statistic;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests {@link EvaluationProfiler}
+ */
+class TestEvaluationProfiler {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testStatistics(boolean compile) throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("Data");
+            sheet.createRow(0).createCell(0).setCellValue(1);
+            for (int r = 1; r < 10; r++) {
+                sheet.createRow(r).createCell(0).setCellFormula("A" + r + "+1");
+            }
+            sheet.getRow(0).createCell(1).setCellFormula("SUM(A1:A10)");
+            sheet.getRow(1).createCell(1).setCellFormula("SUM(A1:A10)*2");
+
+            HSSFFormulaEvaluator fe = new HSSFFormulaEvaluator(wb);
+            fe.setCompileFormulas(compile);
+            EvaluationProfiler profiler = new EvaluationProfiler();
+            List<String> callbackFunctions = new ArrayList<>();
+            profiler.setMetricsCallback(new EvaluationProfiler.MetricsCallback() {
+                @Override
+                public void onFunctionEvaluated(String name, long nanos) {
+                    callbackFunctions.add(name);
+                }
+            });
+            fe.setProfiler(profiler);
+
+            assertEquals(10.0, fe.evaluate(sheet.getRow(9).getCell(0)).getNumberValue(), 0.0);
+            assertEquals(9, profiler.getMaxDependencyDepth());
+            List<String> chain = profiler.getDeepestDependencyChain();
+            assertEquals(9, chain.size());
+            assertEquals("Data!A10", chain.get(0));
+            assertEquals("Data!A2", chain.get(8));
+            assertEquals(9, profiler.getCacheMisses());
+            assertEquals(0, profiler.getCacheHits());
+
+            assertEquals(55.0, fe.evaluate(sheet.getRow(0).getCell(1)).getNumberValue(), 0.0);
+            assertEquals(110.0, fe.evaluate(sheet.getRow(1).getCell(1)).getNumberValue(), 0.0);
+            assertEquals(11, profiler.getCacheMisses());
+            assertEquals(18, profiler.getCacheHits());
+            assertEquals(18 / 29.0, profiler.getCacheHitRatio(), 1e-9);
+
+            Statistic sum = profiler.getFunctionStatistics().stream()
+                .filter(s -> "SUM".equals(s.getName())).findFirst().orElse(null);
+            assertEquals(2, sum == null ? 0 : sum.getCount());
+            assertTrue(callbackFunctions.contains("SUM"));
+            // the primitive operators of compiled formulas are not recorded
+            assertEquals(compile, !callbackFunctions.contains("+"));
+
+            List<AreaStatistic> areas = profiler.getAreaStatistics();
+            assertEquals(1, areas.size());
+            assertEquals("Data!A1:A10", areas.get(0).getName());
+            assertEquals(2, areas.get(0).getCount());
+            assertEquals(10, areas.get(0).getCellCount());
+
+            assertEquals(11, profiler.getCellStatistics().size());
+
+            String json = profiler.toJson();
+            assertTrue(json.contains("\"hottestAreas\""));
+            assertTrue(json.contains("\"Data!A1:A10\""));
+
+            profiler.reset();
+            assertEquals(0, profiler.getMaxDependencyDepth());
+            assertTrue(profiler.getFunctionStatistics().isEmpty());
+            assertTrue(Double.isNaN(profiler.getCacheHitRatio()));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.poi.ss.formula.eval.AreaEval;
+import org.apache.poi.ss.formula.eval.BlankEval;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.StringEval;
+import org.apache.poi.ss.formula.eval.TwoOperandNumericOperation;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.functions.AggregateFunction;
+import org.apache.poi.ss.formula.functions.ArrayFunction;
+import org.apache.poi.ss.formula.functions.EvalFactory;
+import org.apache.poi.ss.formula.functions.MatrixFunction;
+import org.apache.poi.ss.formula.functions.Sumproduct;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link NumericCacheAreaEval} and the functions which evaluate it in bulk
+ */
+class TestNumericCacheAreaEval {
+
+    private static ValueEval[] numbers(double... values) {
+        ValueEval[] result = new ValueEval[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = new NumberEval(values[i]);
+        }
+        return result;
+    }
+
+    private static void assertValues(ValueEval[] expected, AreaEval actual) {
+        assertEquals(expected.length, actual.getWidth() * actual.getHeight());
+        for (int i = 0; i < expected.length; i++) {
+            ValueEval ve = actual.getRelativeValue(i / actual.getWidth(), i % actual.getWidth());
+            assertEquals(expected[i].toString(), ve.toString(), "index " + i);
+        }
+    }
+
+    @Test
+    void testArithmetic() {
+        AreaEval a = EvalFactory.createAreaEval("A1:B2", new ValueEval[]{
+            new NumberEval(1), new NumberEval(2), ErrorEval.NA, new StringEval("x"),
+        });
+        AreaEval b = EvalFactory.createAreaEval("C1:D2", new ValueEval[]{
+            new NumberEval(0), new StringEval("4"), new NumberEval(1), ErrorEval.REF_INVALID,
+        });
+        ArrayFunction divide = (ArrayFunction) TwoOperandNumericOperation.DivideEval;
+        ValueEval result = divide.evaluateArray(new ValueEval[]{a, b}, 5, 6);
+        assertTrue(result instanceof NumericCacheAreaEval);
+        NumericCacheAreaEval nae = (NumericCacheAreaEval) result;
+        assertEquals(5, nae.getFirstRow());
+        assertEquals(6, nae.getFirstColumn());
+        assertValues(new ValueEval[]{
+            ErrorEval.DIV_ZERO, new NumberEval(0.5), ErrorEval.NA, ErrorEval.REF_INVALID,
+        }, nae);
+        assertFalse(nae.isAllNumbers());
+        assertTrue(nae.isNumber(1));
+
+        // bulk results can be chained, scalars are broadcast
+        ArrayFunction multiply = (ArrayFunction) TwoOperandNumericOperation.MultiplyEval;
+        ValueEval product = multiply.evaluateArray(new ValueEval[]{nae, new NumberEval(4)}, 5, 6);
+        assertValues(new ValueEval[]{
+            ErrorEval.DIV_ZERO, new NumberEval(2), ErrorEval.NA, ErrorEval.REF_INVALID,
+        }, (AreaEval) product);
+
+        // differently shaped areas are still evaluated element by element
+        AreaEval column = EvalFactory.createAreaEval("A1:A2", numbers(1, 2));
+        ValueEval mixed = multiply.evaluateArray(new ValueEval[]{column, a}, 0, 0);
+        assertFalse(mixed instanceof NumericCacheAreaEval);
+    }
+
+    @Test
+    void testMatrixFunctions() {
+        AreaEval a = EvalFactory.createAreaEval("A1:B3", numbers(1, 2, 3, 4, 5, 6));
+        AreaEval b = EvalFactory.createAreaEval("D1:E2", numbers(7, 8, 9, 10));
+
+        ValueEval product = MatrixFunction.MMULT.evaluate(new ValueEval[]{a, b}, 0, 0);
+        assertTrue(product instanceof NumericCacheAreaEval);
+        assertTrue(((NumericCacheAreaEval) product).isAllNumbers());
+        assertValues(numbers(25, 28, 57, 64, 89, 100), (AreaEval) product);
+
+        assertSame(ErrorEval.VALUE_INVALID, MatrixFunction.MMULT.evaluate(new ValueEval[]{a, a}, 0, 0));
+
+        ValueEval transposed = MatrixFunction.TRANSPOSE.evaluate(new ValueEval[]{product}, 0, 0);
+        AreaEval ae = (AreaEval) transposed;
+        assertEquals(2, ae.getHeight());
+        assertEquals(3, ae.getWidth());
+        assertValues(numbers(25, 57, 89, 28, 64, 100), ae);
+    }
+
+    @Test
+    void testAggregates() {
+        NumericCacheAreaEval area = new NumericCacheAreaEval(0, 0, 1, 1,
+            new double[]{1, 2, 0, 4}, new ValueEval[]{null, null, BlankEval.instance, null});
+        assertEquals(7.0, ((NumberEval) AggregateFunction.SUM.evaluate(new ValueEval[]{area}, 0, 0)).getNumberValue(), 0.0);
+        assertEquals(7.0 / 3, ((NumberEval) AggregateFunction.AVERAGE.evaluate(new ValueEval[]{area}, 0, 0)).getNumberValue(), 1e-12);
+
+        NumericCacheAreaEval withError = new NumericCacheAreaEval(0, 0, 1, 1,
+            new double[]{1, 0, 3, 4}, new ValueEval[]{null, ErrorEval.NA, null, null});
+        assertSame(ErrorEval.NA, AggregateFunction.MAX.evaluate(new ValueEval[]{withError}, 0, 0));
+
+        // rows and columns of the cached values
+        assertValues(numbers(2, 4), (AreaEval) area.getColumn(1));
+        assertValues(new ValueEval[]{new NumberEval(1), ErrorEval.NA}, (AreaEval) withError.getRow(0));
+        assertValues(new ValueEval[]{ErrorEval.NA, BlankEval.instance, new NumberEval(4), BlankEval.instance},
+            withError.offset(0, 1, 1, 2));
+    }
+
+    @Test
+    void testSumproduct() {
+        Sumproduct sumproduct = new Sumproduct();
+        NumericCacheAreaEval a = new NumericCacheAreaEval(0, 0, 1, 1, new double[]{1, 2, 3, 4}, null);
+        AreaEval b = EvalFactory.createAreaEval("C1:D2", new ValueEval[]{
+            new NumberEval(2), new StringEval("x"), BlankEval.instance, new NumberEval(3),
+        });
+        assertEquals(14.0, ((NumberEval) sumproduct.evaluate(new ValueEval[]{a, b}, 0, 0)).getNumberValue(), 0.0);
+
+        // the first error in cell order wins, regardless of the argument order
+        NumericCacheAreaEval errors1 = new NumericCacheAreaEval(0, 0, 1, 1,
+            new double[4], new ValueEval[]{null, null, null, ErrorEval.DIV_ZERO});
+        NumericCacheAreaEval errors2 = new NumericCacheAreaEval(0, 0, 1, 1,
+            new double[4], new ValueEval[]{null, null, ErrorEval.NA, null});
+        assertSame(ErrorEval.NA, sumproduct.evaluate(new ValueEval[]{errors1, errors2}, 0, 0));
+        assertSame(ErrorEval.NA, sumproduct.evaluate(new ValueEval[]{errors2, errors1}, 0, 0));
+    }
+}
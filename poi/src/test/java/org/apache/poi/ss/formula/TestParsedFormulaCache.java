@@ -0,0 +1,157 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+
+import org.apache.poi.hssf.usermodel.HSSFEvaluationWorkbook;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Name;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ParsedFormulaCache}
+ */
+class TestParsedFormulaCache {
+
+    private static String key(String formula, int rowIndex) {
+        return ParsedFormulaCache.createKey(formula, FormulaType.CELL, SpreadsheetVersion.EXCEL97, rowIndex);
+    }
+
+    @Test
+    void testKeys() {
+        assertEquals(key("A5*$B$1", 4), key("a6*$B$1", 5));
+        assertEquals(key("SUM(A$1:A5)+LOG10(2)", 4), key("SUM(A$1:A6)+LOG10(2)", 5));
+        assertEquals(key("\"A1\"&A1", 0), key("\"A1\"&A2", 1));
+        // constants must match exactly
+        assertNotEquals(key("A5*2", 4), key("A6*3", 5));
+        assertNotEquals(key("1E5+A1", 0), key("1E6+A2", 1));
+        // absolute rows and columns are not relocated
+        assertNotEquals(key("A$5", 4), key("A$6", 5));
+        assertNotEquals(key("A5", 4), key("B6", 5));
+
+        // row and column ranges, structured references, names looking like cells
+        assertNull(key("SUM(5:5)", 4));
+        assertNull(key("SUM(A:A)", 4));
+        assertNull(key("SUM(Sheet1:Sheet2!A1)", 4));
+        assertNull(key("SUM(Table1[Col])", 4));
+        assertNull(key("ABC1+1", 0));
+        assertNull(key("\"unterminated", 0));
+    }
+
+    @Test
+    void testSameTokensAsParser() throws IOException {
+        String[] formulas = {
+            "A{r}*$B$1+1", "SUM(A$1:A{r})", "SUM(A{r}:A$1)", "IF(A{r}>0,\"pos\",B{r})", "{1,2;3,4}", "-A{r}%",
+            "rate*A{r}", "Other!A{r}", "#N/A", "(A{r} B{r})",
+        };
+        // compare with the uncached parser
+        int cacheSize = FormulaParser.getParsedFormulaCacheSize();
+        FormulaParser.setParsedFormulaCacheSize(0);
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            wb.createSheet("Data");
+            wb.createSheet("Other");
+            Name name = wb.createName();
+            name.setNameName("rate");
+            name.setRefersToFormula("0.25");
+            HSSFEvaluationWorkbook fpb = HSSFEvaluationWorkbook.create(wb);
+
+            ParsedFormulaCache cache = new ParsedFormulaCache(100);
+            for (String formula : formulas) {
+                for (int r = 0; r < 5; r++) {
+                    String text = formula.replace("{r}", Integer.toString(r + 1));
+                    Ptg[] expected = FormulaParser.parse(text, fpb, FormulaType.CELL, 0, r);
+                    String key = key(text, r);
+                    if (key == null) {
+                        continue;
+                    }
+                    Ptg[] cached = cache.get(key, r);
+                    if (cached == null) {
+                        cache.put(key, expected, r);
+                        continue;
+                    }
+                    assertEquals(FormulaRenderer.toFormulaString(fpb, expected), FormulaRenderer.toFormulaString(fpb, cached));
+                    assertArrayEquals(toBytes(expected), toBytes(cached), text);
+                }
+            }
+
+            // names and sheet references depend on the workbook and are not cached
+            assertNull(cache.get(key("rate*A5", 4), 4));
+            assertNull(cache.get(key("Other!A5", 4), 4));
+
+            // every hit returns new tokens
+            String key = key("A1+1", 0);
+            cache.put(key, FormulaParser.parse("A1+1", fpb, FormulaType.CELL, 0, 0), 0);
+            Ptg[] hit1 = cache.get(key, 0);
+            Ptg[] hit2 = cache.get(key, 0);
+            assertNotNull(hit1);
+            assertNotSame(hit1[0], hit2[0]);
+        } finally {
+            FormulaParser.setParsedFormulaCacheSize(cacheSize);
+        }
+    }
+
+    @Test
+    void testOptIn() throws IOException {
+        assertEquals(0, FormulaParser.getParsedFormulaCacheSize());
+        FormulaParser.setParsedFormulaCacheSize(10);
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            wb.createSheet("Data");
+            HSSFEvaluationWorkbook fpb = HSSFEvaluationWorkbook.create(wb);
+            assertEquals(10, FormulaParser.getParsedFormulaCacheSize());
+            for (int r = 0; r < 3; r++) {
+                Ptg[] ptgs = FormulaParser.parse("A" + (r + 1) + "*2", fpb, FormulaType.CELL, 0, r);
+                assertEquals("A" + (r + 1) + "*2", FormulaRenderer.toFormulaString(fpb, ptgs));
+            }
+        } finally {
+            FormulaParser.setParsedFormulaCacheSize(0);
+        }
+        assertEquals(0, FormulaParser.getParsedFormulaCacheSize());
+    }
+
+    @Test
+    void testBounded() throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            wb.createSheet("Data");
+            HSSFEvaluationWorkbook fpb = HSSFEvaluationWorkbook.create(wb);
+            ParsedFormulaCache cache = new ParsedFormulaCache(2);
+            for (int i = 1; i <= 3; i++) {
+                String formula = "A1+" + i;
+                cache.put(key(formula, 0), FormulaParser.parse(formula, fpb, FormulaType.CELL, 0, 0), 0);
+            }
+            assertNull(cache.get(key("A1+1", 0), 0));
+            assertNotNull(cache.get(key("A1+2", 0), 0));
+            assertNotNull(cache.get(key("A1+3", 0), 0));
+        }
+    }
+
+    private static byte[] toBytes(Ptg[] ptgs) {
+        byte[] data = new byte[Ptg.getEncodedSize(ptgs)];
+        Ptg.serializePtgs(ptgs, data, 0);
+        return data;
+    }
+}
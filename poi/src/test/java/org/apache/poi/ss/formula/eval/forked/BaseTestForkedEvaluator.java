@@ -22,10 +22,16 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.formula.IStabilityClassifier;
 import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -114,4 +120,46 @@ public class BaseTestForkedEvaluator {
 			assertEquals("Underlying cell 'A2' is missing in master sheet.", ex.getMessage());
 		}
 	}
+
+	/**
+	 * Several evaluators share one {@link EvaluationSnapshot} and run their scenarios concurrently
+	 */
+	@Test
+	void testSnapshot() throws Exception {
+		EvaluationSnapshot snapshot;
+		try (Workbook wb = createWorkbook()) {
+			Name name = wb.createName();
+			name.setNameName("factor");
+			name.setRefersToFormula("Inputs!$A$1*10");
+			wb.getSheet("Calculations").getRow(0).createCell(2).setCellFormula("SUM(A1,factor)");
+			snapshot = EvaluationSnapshot.create(wb);
+
+			// changes after the snapshot has been taken don't affect it
+			wb.getSheet("Inputs").getRow(0).getCell(0).setCellValue(100.0);
+			wb.setSheetName(0, "Renamed");
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<double[]>> results = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				final double input = i;
+				results.add(executor.submit(() -> {
+					ForkedEvaluator fe = ForkedEvaluator.create(snapshot, null, null);
+					fe.setCompileFormulas(input % 2 == 0);
+					double unchanged = ((NumberEval) fe.evaluate("Calculations", 0, 2)).getNumberValue();
+					fe.updateCell("Inputs", 0, 0, new NumberEval(input));
+					double changed = ((NumberEval) fe.evaluate("Calculations", 0, 2)).getNumberValue();
+					return new double[]{unchanged, changed};
+				}));
+			}
+			for (int i = 0; i < results.size(); i++) {
+				double[] result = results.get(i).get();
+				assertEquals(27.0, result[0], 0.0);
+				assertEquals(5.0 * i - 3.0 + 10.0 * i, result[1], 0.0);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
 }